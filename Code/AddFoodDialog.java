@@ -3,6 +3,7 @@ import javax.swing.border.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Add Food Dialog - Fixed Version
@@ -18,6 +19,7 @@ public class AddFoodDialog extends JDialog {
     private JButton cancelButton;
     private JTextArea nutritionPreview;
     private int userId;
+    private FoodSearchController foodSearch;
     private JFrame parent;
 
     public AddFoodDialog(JFrame parent, int userId) {
@@ -55,6 +57,7 @@ public class AddFoodDialog extends JDialog {
         foodComboBox = new JComboBox<String>();
         foodComboBox.setEditable(true);
         foodComboBox.setFont(new Font("Arial", Font.PLAIN, 14));
+        foodSearch = new FoodSearchController(foodComboBox);
         foodPanel.add(foodComboBox, BorderLayout.CENTER);
 
         searchButton = new JButton("🔍");
@@ -62,7 +65,7 @@ public class AddFoodDialog extends JDialog {
         searchButton.setPreferredSize(new Dimension(40, 30));
         searchButton.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
-                searchFoods();
+                foodSearch.searchNow();
             }
         });
         foodPanel.add(searchButton, BorderLayout.EAST);
@@ -151,7 +154,7 @@ public class AddFoodDialog extends JDialog {
         add(mainPanel);
 
         // NOW load initial data and add listeners AFTER all components are created
-        updateFoodComboBox("");
+        foodSearch.searchNow();
 
         // Add listeners
         foodComboBox.addActionListener(new ActionListener() {
@@ -177,28 +180,6 @@ public class AddFoodDialog extends JDialog {
         return label;
     }
 
-    private void searchFoods() {
-        String query = "";
-        Object editorItem = foodComboBox.getEditor().getItem();
-        if (editorItem != null) {
-            query = editorItem.toString();
-        }
-        updateFoodComboBox(query);
-    }
-
-    private void updateFoodComboBox(String query) {
-        foodComboBox.removeAllItems();
-        List<DatabaseHelper.FoodItem> foods = DatabaseHelper.searchFoods(query);
-
-        if (foods.isEmpty()) {
-            foodComboBox.addItem("No foods found");
-        } else {
-            for (DatabaseHelper.FoodItem food : foods) {
-                foodComboBox.addItem(food.name);
-            }
-        }
-    }
-
     private void updateNutritionPreview() {
         Object editorItem = foodComboBox.getEditor().getItem();
         if (editorItem == null) {
@@ -302,33 +283,7 @@ public class AddFoodDialog extends JDialog {
             String mealType = (String) mealTypeComboBox.getSelectedItem();
             String unit = (String) unitComboBox.getSelectedItem();
 
-            // First, log the food consumption
-            boolean logged = DatabaseHelper.logFoodConsumption(userId, foodItem.id, quantity, unit, mealType);
-
-            if (logged) {
-                // Then update the daily nutrition totals
-                DatabaseHelper.NutritionData nutrition = foodItem.calculateNutrition(quantity);
-                boolean nutritionAdded = DatabaseHelper.addNutritionData(userId, nutrition);
-
-                if (nutritionAdded) {
-                    JOptionPane.showMessageDialog(this,
-                            String.format("Added %d%s of %s to your %s meal!",
-                                    quantity, unit, foodItem.name, mealType),
-                            "Food Added",
-                            JOptionPane.INFORMATION_MESSAGE);
-                    dispose();
-                } else {
-                    JOptionPane.showMessageDialog(this,
-                            "Failed to add nutrition data.",
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE);
-                }
-            } else {
-                JOptionPane.showMessageDialog(this,
-                        "Failed to log food. Please try again.",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            saveMeal(foodItem, quantity, unit, mealType);
 
         } catch (NumberFormatException e) {
             JOptionPane.showMessageDialog(this,
@@ -337,4 +292,32 @@ public class AddFoodDialog extends JDialog {
                     JOptionPane.ERROR_MESSAGE);
         }
     }
+
+    private void saveMeal(DatabaseHelper.FoodItem foodItem, int quantity, String unit, String mealType) {
+        addButton.setEnabled(false);
+        DatabaseHelper.MealLogEntry entry = new DatabaseHelper.MealLogEntry(
+                userId, foodItem, quantity, unit, mealType, java.time.LocalDateTime.now());
+        // Food log and daily totals are written together in one transaction; with write-behind
+        // enabled the entry joins the next batch
+        CompletableFuture<Boolean> saved = MealLogWriter.isEnabled()
+                ? MealLogWriter.submit(entry)
+                : AsyncDatabaseHelper.logMeal(userId, List.of(entry));
+        saved.whenCompleteAsync((success, error) -> {
+            addButton.setEnabled(true);
+            if (error == null && Boolean.TRUE.equals(success)) {
+                ChangeBus.publish(new ChangeBus.MealLogged(userId, entry.consumedAt.toLocalDate(), foodItem.name));
+                JOptionPane.showMessageDialog(this,
+                        String.format("Added %d%s of %s to your %s meal!",
+                                quantity, unit, foodItem.name, mealType),
+                        "Food Added",
+                        JOptionPane.INFORMATION_MESSAGE);
+                dispose();
+            } else {
+                JOptionPane.showMessageDialog(this,
+                        "Failed to log food. Please try again.",
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }, AsyncDatabaseHelper.EDT);
+    }
 }
\ No newline at end of file
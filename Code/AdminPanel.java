@@ -4,7 +4,6 @@ import javax.swing.table.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Admin Panel - Complete CRUD Operations
@@ -16,6 +15,7 @@ public class AdminPanel extends JFrame {
     private JPanel mainContentPanel;
     private CardLayout cardLayout;
     private JLabel statsUsersLabel, statsFoodsLabel, statsLogsLabel, statsActionsLabel;
+    private long statsGeneration;
 
     public AdminPanel(DatabaseHelper.UserData admin) {
         this.currentAdmin = admin;
@@ -46,6 +46,7 @@ public class AdminPanel extends JFrame {
         mainContentPanel.add(createDashboardPanel(), "dashboard");
         mainContentPanel.add(createUserManagementPanel(), "users");
         mainContentPanel.add(createFoodManagementPanel(), "foods");
+        mainContentPanel.add(createAuditLogPanel(), "audit");
 
         mainPanel.add(mainContentPanel, BorderLayout.CENTER);
 
@@ -53,19 +54,6 @@ public class AdminPanel extends JFrame {
         setVisible(true);
     }
 
-    // ==================== ICON LOADING METHOD ====================
-    private ImageIcon loadIcon(String iconName, int width, int height) {
-        try {
-            ImageIcon icon = new ImageIcon(iconName);
-            Image img = icon.getImage();
-            Image scaledImg = img.getScaledInstance(width, height, Image.SCALE_SMOOTH);
-            return new ImageIcon(scaledImg);
-        } catch (Exception e) {
-            System.err.println("Error loading icon: " + iconName);
-            return null;
-        }
-    }
-
     // ==================== TOP BAR ====================
     private JPanel createTopBar() {
         JPanel topBar = new JPanel(new BorderLayout());
@@ -76,7 +64,7 @@ public class AdminPanel extends JFrame {
         JPanel leftSection = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 10));
         leftSection.setOpaque(false);
 
-        JLabel logoLabel = new JLabel(loadIcon("src/IMG/admin.png", 32, 32));
+        JLabel logoLabel = new JLabel(IconCache.get("src/IMG/admin.png", 32, 32));
         leftSection.add(logoLabel);
 
         JLabel titleLabel = new JLabel("ADMIN PANEL");
@@ -111,9 +99,9 @@ public class AdminPanel extends JFrame {
         sidebar.setPreferredSize(new Dimension(250, 0));
         sidebar.setBorder(new EmptyBorder(20, 0, 20, 0));
 
-        String[] menuItems = { " Dashboard", " User Management", " Food Management" };
-        String[] menuIcons = { "src/IMG/dashboard.png", "src/IMG/users.png", "src/IMG/food.png" };
-        String[] menuKeys = { "dashboard", "users", "foods" };
+        String[] menuItems = { " Dashboard", " User Management", " Food Management", " Audit Log" };
+        String[] menuIcons = { "src/IMG/dashboard.png", "src/IMG/users.png", "src/IMG/food.png", "src/IMG/audit.png" };
+        String[] menuKeys = { "dashboard", "users", "foods", "audit" };
 
         for (int i = 0; i < menuItems.length; i++) {
             JButton menuButton = createMenuButton(menuItems[i], menuIcons[i], menuKeys[i]);
@@ -128,7 +116,7 @@ public class AdminPanel extends JFrame {
 
     private JButton createMenuButton(String text, String iconPath, String panelKey) {
         JButton button = new JButton(text);
-        button.setIcon(loadIcon(iconPath, 24, 24));
+        button.setIcon(IconCache.get(iconPath, 24, 24));
         button.setAlignmentX(Component.LEFT_ALIGNMENT);
         button.setMaximumSize(new Dimension(250, 50));
         button.setPreferredSize(new Dimension(250, 50));
@@ -151,7 +139,8 @@ public class AdminPanel extends JFrame {
         });
 
         button.addActionListener(e -> {
-            if ("users".equals(panelKey) || "foods".equals(panelKey) || "dashboard".equals(panelKey)) {
+            if ("users".equals(panelKey) || "foods".equals(panelKey) || "dashboard".equals(panelKey)
+                    || "audit".equals(panelKey)) {
                 refreshCurrentPanel(panelKey);
             }
             cardLayout.show(mainContentPanel, panelKey);
@@ -174,9 +163,17 @@ public class AdminPanel extends JFrame {
         titlePanel.setOpaque(false);
         titlePanel.add(titleLabel, BorderLayout.WEST);
 
+        JPanel titleButtons = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        titleButtons.setOpaque(false);
+
+        JButton exportButton = createStyledButton("Export All History", new Color(76, 175, 80), "src/IMG/export.png");
+        exportButton.addActionListener(e -> exportAllHistory(exportButton));
+        titleButtons.add(exportButton);
+
         JButton refreshButton = createStyledButton("Refresh", new Color(33, 150, 243), "src/IMG/refresh.png");
         refreshButton.addActionListener(e -> refreshDashboardStats());
-        titlePanel.add(refreshButton, BorderLayout.EAST);
+        titleButtons.add(refreshButton);
+        titlePanel.add(titleButtons, BorderLayout.EAST);
 
         panel.add(titlePanel, BorderLayout.NORTH);
 
@@ -209,7 +206,7 @@ public class AdminPanel extends JFrame {
                 BorderFactory.createLineBorder(new Color(220, 220, 220), 1),
                 new EmptyBorder(30, 30, 30, 30)));
 
-        JLabel iconLabel = new JLabel(loadIcon(iconPath, 48, 48));
+        JLabel iconLabel = new JLabel(IconCache.get(iconPath, 48, 48));
         iconLabel.setHorizontalAlignment(SwingConstants.CENTER);
         card.add(iconLabel, BorderLayout.NORTH);
 
@@ -227,17 +224,55 @@ public class AdminPanel extends JFrame {
         return card;
     }
 
+    private void exportAllHistory(JButton exportButton) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export All Users' Meal History");
+        chooser.setSelectedFile(new java.io.File("ecoeats-food-logs-" + java.time.LocalDate.now() + ".ndjson.gz"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        java.nio.file.Path file = chooser.getSelectedFile().toPath();
+        exportButton.setEnabled(false);
+        AsyncDatabaseHelper.supply(AsyncDatabaseHelper.ADMIN,
+                () -> HistoryExporter.export(file, HistoryExporter.Dataset.FOOD_LOGS, null, null, null)
+        ).whenCompleteAsync((rows, error) -> {
+            exportButton.setEnabled(true);
+            if (error != null || rows < 0) {
+                JOptionPane.showMessageDialog(this,
+                        "Failed to export history",
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this,
+                        "Exported " + rows + " food log entries to " + file.getFileName(),
+                        "Export Complete",
+                        JOptionPane.INFORMATION_MESSAGE);
+            }
+        }, AsyncDatabaseHelper.EDT);
+    }
+
     private void refreshDashboardStats() {
-        Map<String, Integer> stats = DatabaseHelper.getSystemStats();
-        statsUsersLabel.setText(String.valueOf(stats.getOrDefault("totalUsers", 0)));
-        statsFoodsLabel.setText(String.valueOf(stats.getOrDefault("totalFoods", 0)));
-        statsLogsLabel.setText(String.valueOf(stats.getOrDefault("todayLogs", 0)));
-        statsActionsLabel.setText(String.valueOf(stats.getOrDefault("todayActions", 0)));
+        // Several edits can refresh in a row; only the latest result is shown
+        long generation = ++statsGeneration;
+        AsyncDatabaseHelper.getSystemStats().whenCompleteAsync((stats, error) -> {
+            if (generation != statsGeneration) {
+                return;
+            }
+            if (error != null) {
+                System.err.println("Load stats error: " + error.getMessage());
+                return;
+            }
+            statsUsersLabel.setText(String.valueOf(stats.getOrDefault("totalUsers", 0)));
+            statsFoodsLabel.setText(String.valueOf(stats.getOrDefault("totalFoods", 0)));
+            statsLogsLabel.setText(String.valueOf(stats.getOrDefault("todayLogs", 0)));
+            statsActionsLabel.setText(String.valueOf(stats.getOrDefault("todayActions", 0)));
+        }, AsyncDatabaseHelper.EDT);
     }
 
     // ==================== USER MANAGEMENT PANEL ====================
     private JTable userTable;
-    private DefaultTableModel userTableModel;
+    private LazyTableModel<DatabaseHelper.UserData> userTableModel;
 
     private JPanel createUserManagementPanel() {
         JPanel panel = new JPanel(new BorderLayout());
@@ -257,6 +292,8 @@ public class AdminPanel extends JFrame {
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
         buttonPanel.setOpaque(false);
 
+        buttonPanel.add(createFilterField("Filter by name or email", text -> userTableModel.setFilter(text)));
+
         JButton refreshButton = createStyledButton("Refresh", new Color(33, 150, 243), "src/IMG/refresh.png");
         refreshButton.addActionListener(e -> loadUsers());
         buttonPanel.add(refreshButton);
@@ -274,12 +311,35 @@ public class AdminPanel extends JFrame {
 
         // Table
         String[] columnNames = { "ID", "Full Name", "Email", "Age", "Gender", "Activity Level", "Role", "Created At" };
-        userTableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        String[] sortColumns = { "id", "full_name", "email", "age", null, null, null, "created_at" };
+        userTableModel = new LazyTableModel<>(columnNames, sortColumns, "created_at", true,
+                user -> new Object[] {
+                        user.id,
+                        user.fullName,
+                        user.email,
+                        user.age,
+                        user.gender,
+                        user.activityLevel,
+                        user.role,
+                        user.createdAt.toString().substring(0, 19)
+                },
+                new LazyTableModel.PageSource<>() {
+                    public List<DatabaseHelper.UserData> fetch(DatabaseHelper.PageRequest request) {
+                        return DatabaseHelper.getUsersPage(request);
+                    }
+
+                    public int count(String filter) {
+                        return DatabaseHelper.countUsers(filter);
+                    }
+
+                    public Object sortValue(DatabaseHelper.UserData user, String sortColumn) {
+                        return DatabaseHelper.userSortValue(user, sortColumn);
+                    }
+
+                    public int id(DatabaseHelper.UserData user) {
+                        return user.id;
+                    }
+                });
 
         userTable = new JTable(userTableModel);
         userTable.setFont(new Font("Arial", Font.PLAIN, 13));
@@ -288,6 +348,7 @@ public class AdminPanel extends JFrame {
         userTable.getTableHeader().setFont(new Font("Arial", Font.BOLD, 13));
         userTable.getTableHeader().setBackground(new Color(52, 58, 64));
         userTable.getTableHeader().setForeground(Color.WHITE);
+        enableHeaderSort(userTable, userTableModel);
 
         JScrollPane scrollPane = new JScrollPane(userTable);
         scrollPane.setBorder(BorderFactory.createLineBorder(new Color(220, 220, 220)));
@@ -298,25 +359,13 @@ public class AdminPanel extends JFrame {
     }
 
     private void loadUsers() {
-        userTableModel.setRowCount(0);
-        List<DatabaseHelper.UserData> users = DatabaseHelper.getAllUsers();
-        for (DatabaseHelper.UserData user : users) {
-            userTableModel.addRow(new Object[] {
-                    user.id,
-                    user.fullName,
-                    user.email,
-                    user.age,
-                    user.gender,
-                    user.activityLevel,
-                    user.role,
-                    user.createdAt.toString().substring(0, 19)
-            });
-        }
+        userTableModel.reload();
     }
 
     private void editSelectedUser() {
         int selectedRow = userTable.getSelectedRow();
-        if (selectedRow == -1) {
+        DatabaseHelper.UserData user = selectedRow == -1 ? null : userTableModel.getRow(selectedRow);
+        if (user == null) {
             JOptionPane.showMessageDialog(this,
                     "Please select a user to edit",
                     "No Selection",
@@ -324,8 +373,8 @@ public class AdminPanel extends JFrame {
             return;
         }
 
-        int userId = (int) userTableModel.getValueAt(selectedRow, 0);
-        String role = (String) userTableModel.getValueAt(selectedRow, 6);
+        int userId = user.id;
+        String role = user.role;
 
         if ("admin".equals(role)) {
             JOptionPane.showMessageDialog(this,
@@ -335,10 +384,10 @@ public class AdminPanel extends JFrame {
             return;
         }
 
-        String fullName = (String) userTableModel.getValueAt(selectedRow, 1);
-        int age = (int) userTableModel.getValueAt(selectedRow, 3);
-        String gender = (String) userTableModel.getValueAt(selectedRow, 4);
-        String activity = (String) userTableModel.getValueAt(selectedRow, 5);
+        String fullName = user.fullName;
+        int age = user.age;
+        String gender = user.gender;
+        String activity = user.activityLevel;
 
         JPanel panel = new JPanel(new GridLayout(4, 2, 10, 10));
         JTextField nameField = new JTextField(fullName);
@@ -369,18 +418,24 @@ public class AdminPanel extends JFrame {
                 String newGender = (String) genderCombo.getSelectedItem();
                 String newActivity = (String) activityCombo.getSelectedItem();
 
-                if (DatabaseHelper.updateUser(userId, newName, newAge, newGender, newActivity, currentAdmin.id)) {
-                    JOptionPane.showMessageDialog(this,
-                            "User updated successfully!",
-                            "Success",
-                            JOptionPane.INFORMATION_MESSAGE);
-                    loadUsers();
-                } else {
-                    JOptionPane.showMessageDialog(this,
-                            "Failed to update user",
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE);
-                }
+                AsyncDatabaseHelper.updateUser(userId, newName, newAge, newGender, newActivity, currentAdmin.id)
+                        .whenCompleteAsync((updated, error) -> {
+                            if (error == null && Boolean.TRUE.equals(updated)) {
+                                JOptionPane.showMessageDialog(this,
+                                        "User updated successfully!",
+                                        "Success",
+                                        JOptionPane.INFORMATION_MESSAGE);
+                                loadUsers();
+                            } else {
+                                if (error != null) {
+                                    System.err.println("Update user error: " + error.getMessage());
+                                }
+                                JOptionPane.showMessageDialog(this,
+                                        "Failed to update user",
+                                        "Error",
+                                        JOptionPane.ERROR_MESSAGE);
+                            }
+                        }, AsyncDatabaseHelper.EDT);
             } catch (NumberFormatException e) {
                 JOptionPane.showMessageDialog(this,
                         "Please enter a valid age",
@@ -392,7 +447,8 @@ public class AdminPanel extends JFrame {
 
     private void deleteSelectedUser() {
         int selectedRow = userTable.getSelectedRow();
-        if (selectedRow == -1) {
+        DatabaseHelper.UserData user = selectedRow == -1 ? null : userTableModel.getRow(selectedRow);
+        if (user == null) {
             JOptionPane.showMessageDialog(this,
                     "Please select a user to delete",
                     "No Selection",
@@ -400,9 +456,9 @@ public class AdminPanel extends JFrame {
             return;
         }
 
-        int userId = (int) userTableModel.getValueAt(selectedRow, 0);
-        String role = (String) userTableModel.getValueAt(selectedRow, 6);
-        String fullName = (String) userTableModel.getValueAt(selectedRow, 1);
+        int userId = user.id;
+        String role = user.role;
+        String fullName = user.fullName;
 
         if ("admin".equals(role)) {
             JOptionPane.showMessageDialog(this,
@@ -419,25 +475,30 @@ public class AdminPanel extends JFrame {
                 JOptionPane.WARNING_MESSAGE);
 
         if (choice == JOptionPane.YES_OPTION) {
-            if (DatabaseHelper.deleteUser(userId, currentAdmin.id)) {
-                JOptionPane.showMessageDialog(this,
-                        "User deleted successfully!",
-                        "Success",
-                        JOptionPane.INFORMATION_MESSAGE);
-                loadUsers();
-                refreshDashboardStats();
-            } else {
-                JOptionPane.showMessageDialog(this,
-                        "Failed to delete user",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            AsyncDatabaseHelper.deleteUser(userId, currentAdmin.id).whenCompleteAsync((deleted, error) -> {
+                if (error == null && Boolean.TRUE.equals(deleted)) {
+                    JOptionPane.showMessageDialog(this,
+                            "User deleted successfully!",
+                            "Success",
+                            JOptionPane.INFORMATION_MESSAGE);
+                    loadUsers();
+                    refreshDashboardStats();
+                } else {
+                    if (error != null) {
+                        System.err.println("Delete user error: " + error.getMessage());
+                    }
+                    JOptionPane.showMessageDialog(this,
+                            "Failed to delete user",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }, AsyncDatabaseHelper.EDT);
         }
     }
 
     // ==================== FOOD MANAGEMENT PANEL ====================
     private JTable foodTable;
-    private DefaultTableModel foodTableModel;
+    private LazyTableModel<DatabaseHelper.FoodItem> foodTableModel;
 
     private JPanel createFoodManagementPanel() {
         JPanel panel = new JPanel(new BorderLayout());
@@ -457,10 +518,16 @@ public class AdminPanel extends JFrame {
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
         buttonPanel.setOpaque(false);
 
+        buttonPanel.add(createFilterField("Filter by name", text -> foodTableModel.setFilter(text)));
+
         JButton addButton = createStyledButton("Add Food", new Color(76, 175, 80), "src/IMG/addfood.png");
         addButton.addActionListener(e -> addNewFood());
         buttonPanel.add(addButton);
 
+        JButton importButton = createStyledButton("Import...", new Color(156, 39, 176), null);
+        importButton.addActionListener(e -> importFoods(importButton));
+        buttonPanel.add(importButton);
+
         JButton refreshButton = createStyledButton("Refresh", new Color(33, 150, 243), "src/IMG/refresh.png");
         refreshButton.addActionListener(e -> loadFoods());
         buttonPanel.add(refreshButton);
@@ -479,12 +546,37 @@ public class AdminPanel extends JFrame {
         // Table
         String[] columnNames = { "ID", "Name", "Group", "Base(g)", "Cal", "Protein", "Carbs", "Fats", "Calcium",
                 "Iron" };
-        foodTableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        String[] sortColumns = { "id", "name", "food_group", null, "calories", null, null, null, null, null };
+        foodTableModel = new LazyTableModel<>(columnNames, sortColumns, "name", false,
+                food -> new Object[] {
+                        food.id,
+                        food.name,
+                        food.foodGroup,
+                        food.baseQuantity,
+                        food.calories,
+                        String.format("%.1fg", food.protein_g),
+                        String.format("%.1fg", food.carbs_g),
+                        String.format("%.1fg", food.fats_g),
+                        food.calcium_mg + "mg",
+                        String.format("%.1fmg", food.iron_mg)
+                },
+                new LazyTableModel.PageSource<>() {
+                    public List<DatabaseHelper.FoodItem> fetch(DatabaseHelper.PageRequest request) {
+                        return DatabaseHelper.getFoodsPage(request);
+                    }
+
+                    public int count(String filter) {
+                        return DatabaseHelper.countFoods(filter);
+                    }
+
+                    public Object sortValue(DatabaseHelper.FoodItem food, String sortColumn) {
+                        return DatabaseHelper.foodSortValue(food, sortColumn);
+                    }
+
+                    public int id(DatabaseHelper.FoodItem food) {
+                        return food.id;
+                    }
+                });
 
         foodTable = new JTable(foodTableModel);
         foodTable.setFont(new Font("Arial", Font.PLAIN, 12));
@@ -493,6 +585,7 @@ public class AdminPanel extends JFrame {
         foodTable.getTableHeader().setFont(new Font("Arial", Font.BOLD, 12));
         foodTable.getTableHeader().setBackground(new Color(52, 58, 64));
         foodTable.getTableHeader().setForeground(Color.WHITE);
+        enableHeaderSort(foodTable, foodTableModel);
 
         JScrollPane scrollPane = new JScrollPane(foodTable);
         scrollPane.setBorder(BorderFactory.createLineBorder(new Color(220, 220, 220)));
@@ -503,22 +596,7 @@ public class AdminPanel extends JFrame {
     }
 
     private void loadFoods() {
-        foodTableModel.setRowCount(0);
-        List<DatabaseHelper.FoodItem> foods = DatabaseHelper.getAllFoods();
-        for (DatabaseHelper.FoodItem food : foods) {
-            foodTableModel.addRow(new Object[] {
-                    food.id,
-                    food.name,
-                    food.foodGroup,
-                    food.baseQuantity,
-                    food.calories,
-                    String.format("%.1fg", food.protein_g),
-                    String.format("%.1fg", food.carbs_g),
-                    String.format("%.1fg", food.fats_g),
-                    food.calcium_mg + "mg",
-                    String.format("%.1fmg", food.iron_mg)
-            });
-        }
+        foodTableModel.reload();
     }
 
     private void addNewFood() {
@@ -532,7 +610,8 @@ public class AdminPanel extends JFrame {
 
     private void editSelectedFood() {
         int selectedRow = foodTable.getSelectedRow();
-        if (selectedRow == -1) {
+        DatabaseHelper.FoodItem selected = selectedRow == -1 ? null : foodTableModel.getRow(selectedRow);
+        if (selected == null) {
             JOptionPane.showMessageDialog(this,
                     "Please select a food item to edit",
                     "No Selection",
@@ -540,21 +619,63 @@ public class AdminPanel extends JFrame {
             return;
         }
 
-        int foodId = (int) foodTableModel.getValueAt(selectedRow, 0);
-        DatabaseHelper.FoodItem food = DatabaseHelper.getFoodItemById(foodId);
-
-        if (food != null) {
-            FoodEditorDialog dialog = new FoodEditorDialog(this, food, currentAdmin.id);
-            dialog.setVisible(true);
-            if (dialog.isSaved()) {
-                loadFoods();
+        AsyncDatabaseHelper.getFoodItemById(selected.id).whenCompleteAsync((food, error) -> {
+            if (error != null) {
+                System.err.println("Load food error: " + error.getMessage());
+                return;
+            }
+            if (food != null) {
+                FoodEditorDialog dialog = new FoodEditorDialog(this, food, currentAdmin.id);
+                dialog.setVisible(true);
+                if (dialog.isSaved()) {
+                    loadFoods();
+                }
             }
+        }, AsyncDatabaseHelper.EDT);
+    }
+
+    private void importFoods(JButton importButton) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import Food Catalog");
+        chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter(
+                "Food catalogs (CSV, JSON lines)", "csv", "jsonl", "ndjson", "json"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
+
+        java.nio.file.Path file = chooser.getSelectedFile().toPath();
+        importButton.setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        AsyncDatabaseHelper.supply(AsyncDatabaseHelper.ADMIN,
+                () -> DatabaseHelper.importFoodCatalog(file, currentAdmin.id)
+        ).whenCompleteAsync((result, error) -> {
+            importButton.setEnabled(true);
+            setCursor(Cursor.getDefaultCursor());
+            if (error != null) {
+                JOptionPane.showMessageDialog(this,
+                        "Import failed: " + error.getMessage(),
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+
+            StringBuilder message = new StringBuilder("Import finished: " + result);
+            for (String problem : result.errors) {
+                message.append("\n").append(problem);
+            }
+            JOptionPane.showMessageDialog(this,
+                    message.toString(),
+                    "Import Food Catalog",
+                    result.isSuccessful() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+            loadFoods();
+            refreshDashboardStats();
+        }, AsyncDatabaseHelper.EDT);
     }
 
     private void deleteSelectedFood() {
         int selectedRow = foodTable.getSelectedRow();
-        if (selectedRow == -1) {
+        DatabaseHelper.FoodItem selected = selectedRow == -1 ? null : foodTableModel.getRow(selectedRow);
+        if (selected == null) {
             JOptionPane.showMessageDialog(this,
                     "Please select a food item to delete",
                     "No Selection",
@@ -562,8 +683,8 @@ public class AdminPanel extends JFrame {
             return;
         }
 
-        int foodId = (int) foodTableModel.getValueAt(selectedRow, 0);
-        String foodName = (String) foodTableModel.getValueAt(selectedRow, 1);
+        int foodId = selected.id;
+        String foodName = selected.name;
 
         int choice = JOptionPane.showConfirmDialog(this,
                 "Delete food: " + foodName + "?",
@@ -572,20 +693,163 @@ public class AdminPanel extends JFrame {
                 JOptionPane.WARNING_MESSAGE);
 
         if (choice == JOptionPane.YES_OPTION) {
-            if (DatabaseHelper.deleteFoodItem(foodId, currentAdmin.id)) {
-                JOptionPane.showMessageDialog(this,
-                        "Food item deleted successfully!",
-                        "Success",
-                        JOptionPane.INFORMATION_MESSAGE);
-                loadFoods();
-                refreshDashboardStats();
-            } else {
-                JOptionPane.showMessageDialog(this,
-                        "Failed to delete food item",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
+            AsyncDatabaseHelper.deleteFoodItem(foodId, currentAdmin.id).whenCompleteAsync((deleted, error) -> {
+                if (error == null && Boolean.TRUE.equals(deleted)) {
+                    JOptionPane.showMessageDialog(this,
+                            "Food item deleted successfully!",
+                            "Success",
+                            JOptionPane.INFORMATION_MESSAGE);
+                    loadFoods();
+                    refreshDashboardStats();
+                } else {
+                    if (error != null) {
+                        System.err.println("Delete food error: " + error.getMessage());
+                    }
+                    JOptionPane.showMessageDialog(this,
+                            "Failed to delete food item",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }, AsyncDatabaseHelper.EDT);
+        }
+    }
+
+    // ==================== AUDIT LOG PANEL ====================
+    private static final int AUDIT_PAGE_SIZE = 100;
+    private DefaultTableModel auditTableModel;
+    private JComboBox<String> auditRangeCombo;
+    private JCheckBox auditMineOnly;
+    private JButton auditNewerButton, auditOlderButton;
+    private JLabel auditPageLabel;
+    private List<DatabaseHelper.AdminLogEntry> auditPage = List.of();
+    // The "before" key of every page behind the current one, for paging back to newer entries
+    private final List<DatabaseHelper.AdminLogEntry> auditNewerPages = new java.util.ArrayList<>();
+    private DatabaseHelper.AdminLogEntry auditBefore;
+    private long auditGeneration;
+
+    private JPanel createAuditLogPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBackground(new Color(245, 245, 245));
+        panel.setBorder(new EmptyBorder(20, 20, 20, 20));
+
+        // Header
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setOpaque(false);
+        headerPanel.setBorder(new EmptyBorder(0, 0, 20, 0));
+
+        JLabel titleLabel = new JLabel("Audit Log");
+        titleLabel.setFont(new Font("Arial", Font.BOLD, 28));
+        titleLabel.setForeground(new Color(52, 58, 64));
+        headerPanel.add(titleLabel, BorderLayout.WEST);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        buttonPanel.setOpaque(false);
+
+        auditRangeCombo = new JComboBox<>(new String[] { "Last 24 hours", "Last 7 days", "Last 30 days", "All time" });
+        auditRangeCombo.setSelectedIndex(1);
+        auditRangeCombo.setFont(new Font("Arial", Font.PLAIN, 13));
+        auditRangeCombo.addActionListener(e -> loadAuditLog());
+        buttonPanel.add(auditRangeCombo);
+
+        auditMineOnly = new JCheckBox("My actions only");
+        auditMineOnly.setOpaque(false);
+        auditMineOnly.setFont(new Font("Arial", Font.PLAIN, 13));
+        auditMineOnly.addActionListener(e -> loadAuditLog());
+        buttonPanel.add(auditMineOnly);
+
+        auditNewerButton = createStyledButton("< Newer", new Color(108, 117, 125), null);
+        auditNewerButton.addActionListener(e -> showAuditPage(auditNewerPages.remove(auditNewerPages.size() - 1)));
+        buttonPanel.add(auditNewerButton);
+
+        auditPageLabel = new JLabel();
+        auditPageLabel.setFont(new Font("Arial", Font.BOLD, 13));
+        buttonPanel.add(auditPageLabel);
+
+        auditOlderButton = createStyledButton("Older >", new Color(108, 117, 125), null);
+        auditOlderButton.addActionListener(e -> {
+            auditNewerPages.add(auditBefore);
+            showAuditPage(auditPage.get(auditPage.size() - 1));
+        });
+        buttonPanel.add(auditOlderButton);
+
+        JButton refreshButton = createStyledButton("Refresh", new Color(33, 150, 243), "src/IMG/refresh.png");
+        refreshButton.addActionListener(e -> loadAuditLog());
+        buttonPanel.add(refreshButton);
+
+        headerPanel.add(buttonPanel, BorderLayout.EAST);
+        panel.add(headerPanel, BorderLayout.NORTH);
+
+        // Table
+        String[] columnNames = { "Time", "Admin", "Action", "Table", "Target ID", "Details" };
+        auditTableModel = new DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
             }
+        };
+
+        JTable auditTable = new JTable(auditTableModel);
+        auditTable.setFont(new Font("Arial", Font.PLAIN, 13));
+        auditTable.setRowHeight(28);
+        auditTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        auditTable.getTableHeader().setFont(new Font("Arial", Font.BOLD, 13));
+        auditTable.getTableHeader().setBackground(new Color(52, 58, 64));
+        auditTable.getTableHeader().setForeground(Color.WHITE);
+        auditTable.getColumnModel().getColumn(5).setPreferredWidth(500);
+
+        JScrollPane scrollPane = new JScrollPane(auditTable);
+        scrollPane.setBorder(BorderFactory.createLineBorder(new Color(220, 220, 220)));
+        panel.add(scrollPane, BorderLayout.CENTER);
+
+        return panel;
+    }
+
+    private void loadAuditLog() {
+        auditNewerPages.clear();
+        showAuditPage(null);
+    }
+
+    // Shows the entries just older than before (keyset on performed_at, id); null is the newest page
+    private void showAuditPage(DatabaseHelper.AdminLogEntry before) {
+        Integer adminId = auditMineOnly.isSelected() ? currentAdmin.id : null;
+        java.time.LocalDateTime now = java.time.LocalDateTime.now();
+        java.time.LocalDateTime from;
+        switch (auditRangeCombo.getSelectedIndex()) {
+            case 0: from = now.minusDays(1); break;
+            case 1: from = now.minusDays(7); break;
+            case 2: from = now.minusDays(30); break;
+            default: from = null;
         }
+
+        long generation = ++auditGeneration;
+        auditNewerButton.setEnabled(false);
+        auditOlderButton.setEnabled(false);
+        AsyncDatabaseHelper.getAdminLogs(adminId, from, null, before, AUDIT_PAGE_SIZE)
+                .whenCompleteAsync((entries, error) -> {
+                    if (generation != auditGeneration) {
+                        return;
+                    }
+                    if (error != null) {
+                        System.err.println("Load audit log error: " + error.getMessage());
+                        entries = List.of();
+                    }
+                    auditBefore = before;
+                    auditPage = entries;
+                    auditTableModel.setRowCount(0);
+                    for (DatabaseHelper.AdminLogEntry entry : entries) {
+                        auditTableModel.addRow(new Object[] {
+                                entry.performedAt.toString().replace('T', ' '),
+                                entry.adminName != null ? entry.adminName : "#" + entry.adminId,
+                                entry.actionType,
+                                entry.targetTable,
+                                entry.targetId,
+                                entry.details
+                        });
+                    }
+                    auditPageLabel.setText("Page " + (auditNewerPages.size() + 1));
+                    auditNewerButton.setEnabled(!auditNewerPages.isEmpty());
+                    auditOlderButton.setEnabled(entries.size() == AUDIT_PAGE_SIZE);
+                }, AsyncDatabaseHelper.EDT);
     }
 
     // ==================== UTILITY METHODS ====================
@@ -601,13 +865,48 @@ public class AdminPanel extends JFrame {
             case "foods":
                 loadFoods();
                 break;
+            case "audit":
+                loadAuditLog();
+                break;
         }
     }
 
+    // Server-side filter, applied once typing pauses
+    private JTextField createFilterField(String tooltip, java.util.function.Consumer<String> onFilter) {
+        JTextField field = new JTextField(16);
+        field.setFont(new Font("Arial", Font.PLAIN, 13));
+        field.setToolTipText(tooltip);
+        Timer debounce = new Timer(300, e -> onFilter.accept(field.getText()));
+        debounce.setRepeats(false);
+        field.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            public void insertUpdate(javax.swing.event.DocumentEvent e) { debounce.restart(); }
+            public void removeUpdate(javax.swing.event.DocumentEvent e) { debounce.restart(); }
+            public void changedUpdate(javax.swing.event.DocumentEvent e) { }
+        });
+        field.addActionListener(e -> {
+            debounce.stop();
+            onFilter.accept(field.getText());
+        });
+        return field;
+    }
+
+    // Clicking a sortable column header re-sorts on the server
+    private void enableHeaderSort(JTable table, LazyTableModel<?> model) {
+        table.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = table.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    model.toggleSort(table.convertColumnIndexToModel(column));
+                }
+            }
+        });
+    }
+
     private JButton createStyledButton(String text, Color bgColor, String iconPath) {
         JButton button = new JButton(text);
         if (iconPath != null) {
-            button.setIcon(loadIcon(iconPath, 16, 16));
+            button.setIcon(IconCache.get(iconPath, 16, 16));
         }
         button.setFont(new Font("Arial", Font.BOLD, 13));
         button.setForeground(Color.WHITE);
@@ -0,0 +1,274 @@
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.swing.SwingUtilities;
+
+/**
+ * Async Database Helper - Non-blocking variant of every DatabaseHelper operation
+ * Version: 1.0
+ * Features: CompletableFuture results, Virtual-thread executor, Per-subsystem bulkheads,
+ *           EDT executor for handing results back to Swing
+ *
+ * Usage:
+ *   AsyncDatabaseHelper.searchFoods(query)
+ *       .thenAcceptAsync(foods -> showFoods(foods), AsyncDatabaseHelper.EDT);
+ *
+ * Each subsystem (auth, logs, foods, admin) has its own bulkhead so a burst in one area,
+ * e.g. an admin table refresh, cannot take every pooled connection from meal logging.
+ * Permits are set with ecoeats.async.<subsystem>.permits; a task that waits longer than
+ * ecoeats.async.queueTimeoutMs for a permit fails with RejectedExecutionException.
+ */
+public class AsyncDatabaseHelper {
+    public static final Executor EDT = SwingUtilities::invokeLater;
+
+    private static final long QUEUE_TIMEOUT_MS = Long.getLong("ecoeats.async.queueTimeoutMs", 10000);
+
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    public static final Bulkhead AUTH = new Bulkhead("auth", 4);
+    public static final Bulkhead LOGS = new Bulkhead("logs", 6);
+    public static final Bulkhead FOODS = new Bulkhead("foods", 4);
+    public static final Bulkhead ADMIN = new Bulkhead("admin", 2);
+
+    private static ExecutorService createExecutor() {
+        // Virtual threads when the runtime has them (Java 21+), otherwise a daemon cached pool;
+        // the bulkheads bound database concurrency either way
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "ecoeats-db-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    public static <T> CompletableFuture<T> supply(Bulkhead bulkhead, Supplier<T> operation) {
+        return CompletableFuture.supplyAsync(() -> bulkhead.call(operation), EXECUTOR);
+    }
+
+    // ==================== USERS ====================
+
+    public static CompletableFuture<Boolean> registerUser(String fullName, String email, int age,
+                                                          String gender, String activityLevel, String password, String role) {
+        return supply(AUTH, () -> DatabaseHelper.registerUser(fullName, email, age, gender, activityLevel, password, role));
+    }
+
+    public static CompletableFuture<Boolean> emailExists(String email) {
+        return supply(AUTH, () -> DatabaseHelper.emailExists(email));
+    }
+
+    public static CompletableFuture<Boolean> validateLogin(String email, String password) {
+        return supply(AUTH, () -> DatabaseHelper.validateLogin(email, password));
+    }
+
+    public static CompletableFuture<UserSession> authenticate(String email, String password) {
+        return supply(AUTH, () -> DatabaseHelper.authenticate(email, password));
+    }
+
+    public static CompletableFuture<DatabaseHelper.UserData> getUserByEmail(String email) {
+        return supply(AUTH, () -> DatabaseHelper.getUserByEmail(email));
+    }
+
+    public static CompletableFuture<Boolean> updatePassword(String email, String newPassword) {
+        return supply(AUTH, () -> DatabaseHelper.updatePassword(email, newPassword));
+    }
+
+    public static CompletableFuture<Boolean> updateUserProfile(int userId, String fullName, int age,
+                                                               String gender, String activityLevel) {
+        return supply(AUTH, () -> DatabaseHelper.updateUserProfile(userId, fullName, age, gender, activityLevel));
+    }
+
+    // ==================== GOALS & DAILY LOGS ====================
+
+    public static CompletableFuture<DatabaseHelper.NutritionGoals> getUserGoals(int userId) {
+        return supply(LOGS, () -> DatabaseHelper.getUserGoals(userId));
+    }
+
+    public static CompletableFuture<Boolean> updateUserGoals(DatabaseHelper.NutritionGoals goals) {
+        return supply(LOGS, () -> DatabaseHelper.updateUserGoals(goals));
+    }
+
+    public static CompletableFuture<DatabaseHelper.DailyLog> getTodayLog(int userId) {
+        return supply(LOGS, () -> DatabaseHelper.getTodayLog(userId));
+    }
+
+    public static CompletableFuture<DatabaseHelper.DailyLog> getLogForDate(int userId, LocalDate date) {
+        return supply(LOGS, () -> DatabaseHelper.getLogForDate(userId, date));
+    }
+
+    public static CompletableFuture<List<DatabaseHelper.DailyLog>> getDailyLogs(int userId, LocalDate from, LocalDate to) {
+        return supply(LOGS, () -> DatabaseHelper.getDailyLogs(userId, from, to));
+    }
+
+    public static CompletableFuture<List<DatabaseHelper.DailyLog>> getRolledUpLogs(int userId, LocalDate from, LocalDate to,
+                                                                                 DatabaseHelper.Rollup rollup) {
+        return supply(LOGS, () -> DatabaseHelper.getRolledUpLogs(userId, from, to, rollup));
+    }
+
+    public static CompletableFuture<Boolean> addNutritionData(int userId, DatabaseHelper.NutritionData data) {
+        return supply(LOGS, () -> DatabaseHelper.addNutritionData(userId, data));
+    }
+
+    public static CompletableFuture<Boolean> addNutritionData(int userId, LocalDate date, DatabaseHelper.NutritionData data) {
+        return supply(LOGS, () -> DatabaseHelper.addNutritionData(userId, date, data));
+    }
+
+    public static CompletableFuture<Boolean> resetDailyLog(int userId) {
+        return supply(LOGS, () -> DatabaseHelper.resetDailyLog(userId));
+    }
+
+    public static CompletableFuture<Boolean> resetDailyLog(int userId, LocalDate date) {
+        return supply(LOGS, () -> DatabaseHelper.resetDailyLog(userId, date));
+    }
+
+    public static CompletableFuture<Map<String, Double>> getAverageNutrition(int userId, int days) {
+        return supply(LOGS, () -> DatabaseHelper.getAverageNutrition(userId, days));
+    }
+
+    // ==================== FOODS ====================
+
+    public static CompletableFuture<List<DatabaseHelper.FoodItem>> searchFoods(String query) {
+        return supply(FOODS, () -> DatabaseHelper.searchFoods(query));
+    }
+
+    public static CompletableFuture<DatabaseHelper.FoodItem> getFoodItem(String name) {
+        return supply(FOODS, () -> DatabaseHelper.getFoodItem(name));
+    }
+
+    public static CompletableFuture<DatabaseHelper.FoodItem> getFoodItemById(int id) {
+        return supply(FOODS, () -> DatabaseHelper.getFoodItemById(id));
+    }
+
+    // ==================== FOOD LOGS ====================
+
+    public static CompletableFuture<Boolean> logFoodConsumption(int userId, int foodItemId, int quantity,
+                                                                String unit, String mealType) {
+        return supply(LOGS, () -> DatabaseHelper.logFoodConsumption(userId, foodItemId, quantity, unit, mealType));
+    }
+
+    public static CompletableFuture<Boolean> logFoodConsumption(int userId, int foodItemId, int quantity, String unit,
+                                                                String mealType, LocalDateTime consumedAt) {
+        return supply(LOGS, () -> DatabaseHelper.logFoodConsumption(userId, foodItemId, quantity, unit, mealType, consumedAt));
+    }
+
+    public static CompletableFuture<Boolean> logMeal(int userId, List<DatabaseHelper.MealLogEntry> items) {
+        return supply(LOGS, () -> DatabaseHelper.logMeal(userId, items));
+    }
+
+    public static CompletableFuture<List<DatabaseHelper.MealEntry>> getMealsForDate(int userId, LocalDate date) {
+        return supply(LOGS, () -> DatabaseHelper.getMealsForDate(userId, date));
+    }
+
+    public static CompletableFuture<Boolean> deleteMeal(int logId) {
+        return supply(LOGS, () -> DatabaseHelper.deleteMeal(logId));
+    }
+
+    public static CompletableFuture<Boolean> updateMealQuantity(int logId, int newQuantity) {
+        return supply(LOGS, () -> DatabaseHelper.updateMealQuantity(logId, newQuantity));
+    }
+
+    // ==================== ADMIN ====================
+
+    public static CompletableFuture<List<DatabaseHelper.UserData>> getAllUsers() {
+        return supply(ADMIN, DatabaseHelper::getAllUsers);
+    }
+
+    public static CompletableFuture<List<DatabaseHelper.UserData>> getUsersPage(DatabaseHelper.PageRequest request) {
+        return supply(ADMIN, () -> DatabaseHelper.getUsersPage(request));
+    }
+
+    public static CompletableFuture<Integer> countUsers(String filter) {
+        return supply(ADMIN, () -> DatabaseHelper.countUsers(filter));
+    }
+
+    public static CompletableFuture<Boolean> deleteUser(int userId, int adminId) {
+        return supply(ADMIN, () -> DatabaseHelper.deleteUser(userId, adminId));
+    }
+
+    public static CompletableFuture<Boolean> updateUser(int userId, String fullName, int age, String gender,
+                                                        String activityLevel, int adminId) {
+        return supply(ADMIN, () -> DatabaseHelper.updateUser(userId, fullName, age, gender, activityLevel, adminId));
+    }
+
+    public static CompletableFuture<List<DatabaseHelper.FoodItem>> getAllFoods() {
+        return supply(ADMIN, DatabaseHelper::getAllFoods);
+    }
+
+    public static CompletableFuture<List<DatabaseHelper.FoodItem>> getFoodsPage(DatabaseHelper.PageRequest request) {
+        return supply(ADMIN, () -> DatabaseHelper.getFoodsPage(request));
+    }
+
+    public static CompletableFuture<Integer> countFoods(String filter) {
+        return supply(ADMIN, () -> DatabaseHelper.countFoods(filter));
+    }
+
+    public static CompletableFuture<Boolean> addFoodItem(DatabaseHelper.FoodItem food, int adminId) {
+        return supply(ADMIN, () -> DatabaseHelper.addFoodItem(food, adminId));
+    }
+
+    public static CompletableFuture<Boolean> updateFoodItem(DatabaseHelper.FoodItem food, int adminId) {
+        return supply(ADMIN, () -> DatabaseHelper.updateFoodItem(food, adminId));
+    }
+
+    public static CompletableFuture<Boolean> deleteFoodItem(int foodId, int adminId) {
+        return supply(ADMIN, () -> DatabaseHelper.deleteFoodItem(foodId, adminId));
+    }
+
+    public static CompletableFuture<Map<String, Integer>> getSystemStats() {
+        return supply(ADMIN, DatabaseHelper::getSystemStats);
+    }
+
+    public static CompletableFuture<List<DatabaseHelper.AdminLogEntry>> getAdminLogs(
+            Integer adminId, LocalDateTime from, LocalDateTime to, DatabaseHelper.AdminLogEntry before, int limit) {
+        return supply(ADMIN, () -> DatabaseHelper.getAdminLogs(adminId, from, to, before, limit));
+    }
+
+    // Inner classes
+    public static class Bulkhead {
+        private final String name;
+        private final int permits;
+        private final Semaphore semaphore;
+
+        Bulkhead(String name, int defaultPermits) {
+            this.name = name;
+            this.permits = Integer.getInteger("ecoeats.async." + name + ".permits", defaultPermits);
+            this.semaphore = new Semaphore(permits, true);
+        }
+
+        <T> T call(Supplier<T> operation) {
+            try {
+                if (!semaphore.tryAcquire(QUEUE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    throw new RejectedExecutionException("Bulkhead '" + name + "' saturated (" + permits + " in flight)");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted waiting for bulkhead '" + name + "'");
+            }
+            try {
+                return operation.get();
+            } finally {
+                semaphore.release();
+            }
+        }
+
+        public int inFlight() {
+            return permits - semaphore.availablePermits();
+        }
+
+        public int queued() {
+            return semaphore.getQueueLength();
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + inFlight() + "/" + permits + " (queued " + queued() + ")";
+        }
+    }
+}
@@ -0,0 +1,197 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Audit Log Writer - Asynchronous, batched writes of admin_logs entries
+ * Version: 1.0
+ * Features: Bounded queue, Multi-row batches, Per-entry retries with backoff,
+ *           Flush on demand and on shutdown, No entry dropped when the queue is full
+ *
+ * Admin operations record their audit entry here instead of inserting it on their own
+ * connection. The performed_at time is taken when the entry is recorded, so batching does not
+ * change the audit trail. A writer thread lingers up to ecoeats.audit.lingerMs for more entries
+ * and appends up to ecoeats.audit.batchSize of them with one DatabaseHelper store call. When the
+ * queue is full the entry is written on the calling thread, and shutdown() (run from
+ * DatabaseHelper's shutdown hook before the store closes) writes everything still queued.
+ */
+public class AuditLogWriter {
+    private static final int QUEUE_CAPACITY = Integer.getInteger("ecoeats.audit.queueCapacity", 10000);
+    private static final int BATCH_SIZE = Integer.getInteger("ecoeats.audit.batchSize", 200);
+    private static final long LINGER_MS = Long.getLong("ecoeats.audit.lingerMs", 50);
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long SHUTDOWN_TIMEOUT_MS = 10000;
+
+    private static final BlockingQueue<DatabaseHelper.AdminLogEntry> QUEUE = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private static final Object START_LOCK = new Object();
+    private static final Object DONE_LOCK = new Object();
+    private static Thread worker;
+    private static volatile boolean stopping;
+
+    private static final AtomicLong recorded = new AtomicLong();
+    private static final AtomicLong written = new AtomicLong();
+    private static final AtomicLong failed = new AtomicLong();
+    private static final AtomicLong batches = new AtomicLong();
+
+    /** Queues one audit entry. Never blocks on the database unless the queue is full. */
+    public static void record(int adminId, String actionType, String targetTable, Integer targetId, String details) {
+        DatabaseHelper.AdminLogEntry entry = new DatabaseHelper.AdminLogEntry();
+        entry.adminId = adminId;
+        entry.actionType = actionType;
+        entry.targetTable = targetTable;
+        entry.targetId = targetId;
+        entry.details = details;
+        entry.performedAt = LocalDateTime.now();
+        recorded.incrementAndGet();
+
+        if (stopping || !QUEUE.offer(entry)) {
+            write(List.of(entry));
+            return;
+        }
+        ensureStarted();
+    }
+
+    /**
+     * Returns once every entry recorded before the call has been written (or given up on),
+     * e.g. before reading admin_logs back. Queued entries are written on the calling thread.
+     */
+    public static void flush() {
+        long target = recorded.get();
+        List<DatabaseHelper.AdminLogEntry> rest = new ArrayList<>();
+        while (QUEUE.drainTo(rest, BATCH_SIZE) > 0) {
+            write(rest);
+            rest.clear();
+        }
+
+        // The writer thread may still hold a batch it took from the queue
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT_MS;
+        synchronized (DONE_LOCK) {
+            while (written.get() + failed.get() < target) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return;
+                }
+                try {
+                    DONE_LOCK.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void ensureStarted() {
+        synchronized (START_LOCK) {
+            if (worker == null) {
+                worker = new Thread(AuditLogWriter::run, "ecoeats-audit-log-writer");
+                worker.setDaemon(true);
+                worker.start();
+            }
+        }
+    }
+
+    private static void run() {
+        List<DatabaseHelper.AdminLogEntry> batch = new ArrayList<>(BATCH_SIZE);
+        while (!stopping || !QUEUE.isEmpty()) {
+            try {
+                DatabaseHelper.AdminLogEntry first = QUEUE.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LINGER_MS);
+                while (batch.size() < BATCH_SIZE) {
+                    if (QUEUE.drainTo(batch, BATCH_SIZE - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0 || stopping) {
+                        break;
+                    }
+                    DatabaseHelper.AdminLogEntry next = QUEUE.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private static void write(List<DatabaseHelper.AdminLogEntry> batch) {
+        if (DatabaseHelper.getStore().appendAdminLogs(batch)) {
+            batches.incrementAndGet();
+            done(written, batch.size());
+            return;
+        }
+        if (batch.size() > 1) {
+            // One bad entry must not take the rest of the batch with it
+            for (DatabaseHelper.AdminLogEntry entry : batch) {
+                write(List.of(entry));
+            }
+            return;
+        }
+
+        DatabaseHelper.AdminLogEntry entry = batch.get(0);
+        for (int attempt = 2; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                Thread.sleep(100L << attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (DatabaseHelper.getStore().appendAdminLogs(batch)) {
+                batches.incrementAndGet();
+                done(written, 1);
+                return;
+            }
+        }
+
+        // Keep the entry in the application log rather than losing it silently
+        System.err.println("Audit log write failed: admin " + entry.adminId + " " + entry.actionType + " "
+                + entry.targetTable + " " + entry.targetId + " at " + entry.performedAt + ": " + entry.details);
+        done(failed, 1);
+    }
+
+    private static void done(AtomicLong counter, int entries) {
+        synchronized (DONE_LOCK) {
+            counter.addAndGet(entries);
+            DONE_LOCK.notifyAll();
+        }
+    }
+
+    /** Stops the writer and writes every entry still queued. */
+    public static void shutdown() {
+        Thread current;
+        synchronized (START_LOCK) {
+            stopping = true;
+            current = worker;
+        }
+        if (current != null) {
+            try {
+                current.join(SHUTDOWN_TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Entries that raced past the stopping flag, or were left behind by a stuck writer
+        flush();
+        if (recorded.get() > 0) {
+            System.out.println("Audit log writer: " + getStats());
+        }
+    }
+
+    public static String getStats() {
+        return String.format("queue=%d, recorded=%d, written=%d, failed=%d, batches=%d",
+                QUEUE.size(), recorded.get(), written.get(), failed.get(), batches.get());
+    }
+}
@@ -0,0 +1,144 @@
+import javax.swing.SwingUtilities;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Change Bus - Typed events for data the user just changed
+ * Version: 1.0
+ * Features: One event class per kind of change, Subscribe by event type (or a supertype),
+ *           Delivery on the EDT, Unsubscribe handle for windows that close
+ *
+ * Whoever saves a change publishes what changed (a meal logged for a date, water added,
+ * new goals...) and each open view updates only the labels, rows or points it shows for that
+ * change, instead of every panel being rebuilt and re-queried. Events are published after the
+ * write has succeeded. Listeners always run on the EDT, in subscription order.
+ */
+public class ChangeBus {
+    private static final Map<Class<?>, List<Consumer<Object>>> LISTENERS = new ConcurrentHashMap<>();
+
+    /** Calls listener for every published event of the given type or a subclass of it. */
+    @SuppressWarnings("unchecked")
+    public static <E extends Event> Subscription subscribe(Class<E> type, Consumer<? super E> listener) {
+        Consumer<Object> wrapped = event -> listener.accept((E) event);
+        LISTENERS.computeIfAbsent(type, t -> new CopyOnWriteArrayList<>()).add(wrapped);
+        return () -> LISTENERS.get(type).remove(wrapped);
+    }
+
+    public static void publish(Event event) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> publish(event));
+            return;
+        }
+        for (Class<?> type = event.getClass(); type != Object.class; type = type.getSuperclass()) {
+            List<Consumer<Object>> listeners = LISTENERS.get(type);
+            if (listeners == null) {
+                continue;
+            }
+            for (Consumer<Object> listener : listeners) {
+                try {
+                    listener.accept(event);
+                } catch (RuntimeException e) {
+                    // One broken view must not stop the others from updating
+                    System.err.println("Change listener error (" + event + "): " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Inner classes
+    public interface Subscription {
+        void unsubscribe();
+    }
+
+    public abstract static class Event {
+        public final int userId;
+
+        Event(int userId) {
+            this.userId = userId;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + " user " + userId;
+        }
+    }
+
+    /** Something changed the totals of one day's log. */
+    public abstract static class DayChanged extends Event {
+        public final LocalDate date;
+
+        DayChanged(int userId, LocalDate date) {
+            super(userId);
+            this.date = date;
+        }
+
+        @Override
+        public String toString() {
+            return super.toString() + " " + date;
+        }
+    }
+
+    public static class MealLogged extends DayChanged {
+        public final String foodName;
+
+        public MealLogged(int userId, LocalDate date, String foodName) {
+            super(userId, date);
+            this.foodName = foodName;
+        }
+    }
+
+    public static class MealDeleted extends DayChanged {
+        public final int logId;
+
+        public MealDeleted(int userId, LocalDate date, int logId) {
+            super(userId, date);
+            this.logId = logId;
+        }
+    }
+
+    public static class MealUpdated extends DayChanged {
+        public final int logId;
+
+        public MealUpdated(int userId, LocalDate date, int logId) {
+            super(userId, date);
+            this.logId = logId;
+        }
+    }
+
+    public static class WaterAdded extends DayChanged {
+        public final int amountMl;
+
+        public WaterAdded(int userId, LocalDate date, int amountMl) {
+            super(userId, date);
+            this.amountMl = amountMl;
+        }
+    }
+
+    public static class DayReset extends DayChanged {
+        public DayReset(int userId, LocalDate date) {
+            super(userId, date);
+        }
+    }
+
+    public static class GoalsChanged extends Event {
+        public final DatabaseHelper.NutritionGoals goals;
+
+        public GoalsChanged(DatabaseHelper.NutritionGoals goals) {
+            super(goals.userId);
+            this.goals = goals;
+        }
+    }
+
+    public static class ProfileChanged extends Event {
+        public final DatabaseHelper.UserData user;
+
+        public ProfileChanged(DatabaseHelper.UserData user) {
+            super(user.id);
+            this.user = user;
+        }
+    }
+}
@@ -0,0 +1,583 @@
+import java.lang.ref.Cleaner;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connection Pool - Bounded JDBC connection pool used by DatabaseHelper
+ * Version: 1.0
+ * Features: Configurable size, Validation on borrow, Idle eviction, Leak detection, Wait/usage metrics
+ *
+ * Settings (system properties):
+ *   ecoeats.db.pool.size             maximum open connections (default 10)
+ *   ecoeats.db.pool.minIdle          idle connections kept when evicting (default 2)
+ *   ecoeats.db.pool.maxWaitMs        how long getConnection() waits for a free slot (default 5000)
+ *   ecoeats.db.pool.idleTimeoutMs    idle time after which a connection is closed (default 300000)
+ *   ecoeats.db.pool.leakThresholdMs  borrow time after which a connection is reported as leaked (default 30000, 0 = off;
+ *                                    connections from getLongRunningConnection() are never reported)
+ *   ecoeats.db.stmtCacheSize         prepared statements kept per connection (default 64, 0 = off)
+ */
+public class ConnectionPool {
+    private static final String DRIVER_CLASS = "com.mysql.cj.jdbc.Driver";
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    // Connections returned this recently are handed out again without a validation round-trip
+    private static final long VALIDATION_SKIP_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final int minIdle;
+    private final long maxWaitMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+    private volatile SQLException driverError;
+
+    // Metrics
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong totalBorrowNanos = new AtomicLong();
+    private final StatementCache.Counters statementCounters = new StatementCache.Counters();
+    private volatile int peakActive = 0;
+
+    public ConnectionPool(String url, String user, String password) {
+        this(url, user, password,
+                Integer.getInteger("ecoeats.db.pool.size", 10),
+                Integer.getInteger("ecoeats.db.pool.minIdle", 2),
+                Long.getLong("ecoeats.db.pool.maxWaitMs", 5000L),
+                Long.getLong("ecoeats.db.pool.idleTimeoutMs", 300000L),
+                Long.getLong("ecoeats.db.pool.leakThresholdMs", 30000L));
+    }
+
+    public ConnectionPool(String url, String user, String password, int maxSize, int minIdle,
+                          long maxWaitMillis, long idleTimeoutMillis, long leakThresholdMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.minIdle = Math.max(0, Math.min(minIdle, maxSize));
+        this.maxWaitMillis = maxWaitMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.statementCacheSize = Integer.getInteger("ecoeats.db.stmtCacheSize", 64);
+        this.permits = new Semaphore(maxSize, true);
+
+        // Load the driver once instead of on every getConnection() call
+        if (url.startsWith("jdbc:mysql:")) {
+            try {
+                Class.forName(DRIVER_CLASS);
+            } catch (ClassNotFoundException e) {
+                driverError = new SQLException("MySQL JDBC Driver not found", e);
+            }
+        }
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ecoeats-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000L, Math.min(idleTimeoutMillis, leakThresholdMillis > 0 ? leakThresholdMillis : Long.MAX_VALUE) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection getConnection() throws SQLException {
+        return borrow(false);
+    }
+
+    /**
+     * A pooled connection exempt from leak detection, for work such as a streamed export that
+     * may legitimately hold it longer than leakThresholdMs. It must still be closed.
+     */
+    public Connection getLongRunningConnection() throws SQLException {
+        return borrow(true);
+    }
+
+    private Connection borrow(boolean longRunning) throws SQLException {
+        if (driverError != null) {
+            throw driverError;
+        }
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLTransientConnectionException("Timed out after " + maxWaitMillis
+                        + "ms waiting for a database connection (pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - waitStart);
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = createConnection();
+            }
+            return lease(pooled, longRunning);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeValidIdle() {
+        while (true) {
+            PooledConnection pooled;
+            synchronized (idle) {
+                pooled = idle.pollFirst();
+            }
+            if (pooled == null) {
+                return null;
+            }
+            if (System.nanoTime() - pooled.lastReturnedNanos < VALIDATION_SKIP_NANOS || isValid(pooled)) {
+                return pooled;
+            }
+            validationFailures.incrementAndGet();
+            destroy(pooled);
+        }
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection createConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        createdCount.incrementAndGet();
+        return new PooledConnection(physical, new StatementCache(statementCacheSize, statementCounters));
+    }
+
+    private Connection lease(PooledConnection pooled, boolean longRunning) {
+        Lease lease = new Lease(this, pooled, leakThresholdMillis > 0 ? new Exception("Connection borrowed here") : null,
+                longRunning);
+        leases.add(lease);
+        int active = leases.size();
+        if (active > peakActive) {
+            peakActive = active;
+        }
+        Connection proxy = (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(lease));
+        // If the caller drops the connection without closing it, reclaim the slot once it is collected
+        lease.cleanable = CLEANER.register(proxy, lease);
+        return proxy;
+    }
+
+    private void release(Lease lease) {
+        if (!leases.remove(lease)) {
+            return;
+        }
+        totalBorrowNanos.addAndGet(System.nanoTime() - lease.borrowedNanos);
+        PooledConnection pooled = lease.pooled;
+        try {
+            if (!lease.closedByCaller.get()) {
+                if (!lease.leakReported) {
+                    leakCount.incrementAndGet();
+                }
+                System.err.println("Connection pool: reclaimed a connection that was never closed");
+                if (lease.borrowSite != null) {
+                    lease.borrowSite.printStackTrace();
+                }
+                destroy(pooled);
+                return;
+            }
+            if (closed || pooled.physical.isClosed() || !resetState(pooled)) {
+                destroy(pooled);
+                return;
+            }
+            pooled.lastReturnedNanos = System.nanoTime();
+            synchronized (idle) {
+                idle.addFirst(pooled);
+            }
+        } catch (SQLException e) {
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean resetState(PooledConnection pooled) {
+        try {
+            Connection physical = pooled.physical;
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            physical.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        destroyedCount.incrementAndGet();
+        pooled.statements.clear();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            // Already broken, nothing else to release
+        }
+    }
+
+    private void recordWait(long nanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void housekeep() {
+        evictIdle();
+        detectLeaks();
+    }
+
+    private void evictIdle() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        List<PooledConnection> expired = new ArrayList<>();
+        synchronized (idle) {
+            // Idle connections are kept most-recently-used first, so the stale ones sit at the tail
+            while (idle.size() > minIdle) {
+                PooledConnection last = idle.peekLast();
+                if (last == null || last.lastReturnedNanos > cutoff) {
+                    break;
+                }
+                expired.add(idle.pollLast());
+            }
+        }
+        for (PooledConnection pooled : expired) {
+            destroy(pooled);
+        }
+    }
+
+    private void detectLeaks() {
+        if (leakThresholdMillis <= 0) {
+            return;
+        }
+        long threshold = TimeUnit.MILLISECONDS.toNanos(leakThresholdMillis);
+        long now = System.nanoTime();
+        for (Lease lease : leases) {
+            if (!lease.longRunning && !lease.leakReported && now - lease.borrowedNanos > threshold) {
+                lease.leakReported = true;
+                leakCount.incrementAndGet();
+                System.err.println("Connection pool: possible connection leak, borrowed "
+                        + TimeUnit.NANOSECONDS.toMillis(now - lease.borrowedNanos) + "ms ago and not closed");
+                if (lease.borrowSite != null) {
+                    lease.borrowSite.printStackTrace();
+                }
+            }
+        }
+    }
+
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        List<PooledConnection> toClose;
+        synchronized (idle) {
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+        }
+        for (PooledConnection pooled : toClose) {
+            destroy(pooled);
+        }
+    }
+
+    public Stats getStats() {
+        Stats stats = new Stats();
+        stats.maxSize = maxSize;
+        stats.active = leases.size();
+        synchronized (idle) {
+            stats.idle = idle.size();
+        }
+        stats.peakActive = peakActive;
+        stats.borrows = borrowCount.get();
+        stats.avgWaitMillis = stats.borrows == 0 ? 0 : totalWaitNanos.get() / 1e6 / stats.borrows;
+        stats.maxWaitMillis = maxWaitNanos.get() / 1e6;
+        long returned = stats.borrows - stats.active;
+        stats.avgBorrowMillis = returned <= 0 ? 0 : totalBorrowNanos.get() / 1e6 / returned;
+        stats.timeouts = timeoutCount.get();
+        stats.created = createdCount.get();
+        stats.destroyed = destroyedCount.get();
+        stats.validationFailures = validationFailures.get();
+        stats.leaks = leakCount.get();
+        stats.statementHits = statementCounters.hits.get();
+        stats.statementMisses = statementCounters.misses.get();
+        stats.statementEvictions = statementCounters.evictions.get();
+        return stats;
+    }
+
+    // Inner classes
+    private static class PooledConnection {
+        final Connection physical;
+        final StatementCache statements;
+        volatile long lastReturnedNanos;
+
+        PooledConnection(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+            this.lastReturnedNanos = System.nanoTime();
+        }
+    }
+
+    private static class Lease implements Runnable {
+        final ConnectionPool pool;
+        final PooledConnection pooled;
+        final Exception borrowSite;
+        final boolean longRunning;
+        final long borrowedNanos = System.nanoTime();
+        final AtomicBoolean closedByCaller = new AtomicBoolean(false);
+        volatile boolean leakReported = false;
+        Cleaner.Cleanable cleanable;
+
+        Lease(ConnectionPool pool, PooledConnection pooled, Exception borrowSite, boolean longRunning) {
+            this.pool = pool;
+            this.pooled = pooled;
+            this.borrowSite = borrowSite;
+            this.longRunning = longRunning;
+        }
+
+        // Runs exactly once: either from close() or when the proxy is garbage collected
+        @Override
+        public void run() {
+            pool.release(this);
+        }
+    }
+
+    private static class ConnectionHandler implements InvocationHandler {
+        private final Lease lease;
+        private final Set<StatementHandler> openStatements = new HashSet<>();
+        private volatile boolean logicallyClosed = false;
+
+        ConnectionHandler(Lease lease) {
+            this.lease = lease;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!logicallyClosed) {
+                        logicallyClosed = true;
+                        // Statements the caller forgot to close still go back to the cache
+                        List<StatementHandler> leftOpen;
+                        synchronized (openStatements) {
+                            leftOpen = new ArrayList<>(openStatements);
+                        }
+                        for (StatementHandler statement : leftOpen) {
+                            statement.checkIn();
+                        }
+                        lease.closedByCaller.set(true);
+                        lease.cleanable.clean();
+                    }
+                    return null;
+                case "isClosed":
+                    return logicallyClosed || lease.pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + lease.pooled.physical + "]";
+                default:
+                    break;
+            }
+            if (logicallyClosed) {
+                throw new SQLException("Connection is closed");
+            }
+            if (method.getName().equals("prepareStatement") && isCacheable(args)) {
+                return prepareCached((Connection) proxy, args);
+            }
+            try {
+                return method.invoke(lease.pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        // Only prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys) go through the cache
+        private boolean isCacheable(Object[] args) {
+            return args.length == 1 || (args.length == 2 && args[1] instanceof Integer);
+        }
+
+        private PreparedStatement prepareCached(Connection proxy, Object[] args) throws SQLException {
+            String sql = (String) args[0];
+            int generatedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+            String key = StatementCache.key(sql, generatedKeys);
+
+            PreparedStatement physical = lease.pooled.statements.take(key);
+            if (physical == null) {
+                physical = args.length == 2
+                        ? lease.pooled.physical.prepareStatement(sql, generatedKeys)
+                        : lease.pooled.physical.prepareStatement(sql);
+            }
+            StatementHandler handler = new StatementHandler(this, proxy, key, physical);
+            synchronized (openStatements) {
+                openStatements.add(handler);
+            }
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    handler);
+        }
+
+        void statementClosed(StatementHandler handler) {
+            synchronized (openStatements) {
+                openStatements.remove(handler);
+            }
+            lease.pooled.statements.put(handler.key, handler.physical);
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+        private final ConnectionHandler owner;
+        private final Connection connectionProxy;
+        private final String key;
+        private final PreparedStatement physical;
+        private ResultSet lastResultSet;
+        private boolean logicallyClosed = false;
+
+        StatementHandler(ConnectionHandler owner, Connection connectionProxy, String key, PreparedStatement physical) {
+            this.owner = owner;
+            this.connectionProxy = connectionProxy;
+            this.key = key;
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    checkIn();
+                    return null;
+                case "isClosed":
+                    return logicallyClosed || physical.isClosed();
+                case "getConnection":
+                    return connectionProxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + physical + "]";
+                default:
+                    break;
+            }
+            if (logicallyClosed) {
+                throw new SQLException("Statement is closed");
+            }
+            try {
+                Object result = method.invoke(physical, args);
+                if (result instanceof ResultSet && method.getName().equals("executeQuery")) {
+                    lastResultSet = (ResultSet) result;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        // Resets the statement and hands it back to the connection's cache instead of closing it
+        synchronized void checkIn() {
+            if (logicallyClosed) {
+                return;
+            }
+            logicallyClosed = true;
+            try {
+                if (lastResultSet != null) {
+                    lastResultSet.close();
+                    lastResultSet = null;
+                }
+                if (physical.isClosed()) {
+                    return;
+                }
+                physical.clearParameters();
+                physical.clearBatch();
+                physical.clearWarnings();
+                // Limits set by one borrower (e.g. an export's fetch size) must not carry over to the next
+                if (physical.getFetchSize() != 0) {
+                    physical.setFetchSize(0);
+                }
+                if (physical.getMaxRows() != 0) {
+                    physical.setMaxRows(0);
+                }
+                if (physical.getQueryTimeout() != 0) {
+                    physical.setQueryTimeout(0);
+                }
+            } catch (SQLException e) {
+                try {
+                    physical.close();
+                } catch (SQLException ignored) {
+                    // Broken statement, dropped from the cache
+                }
+                return;
+            }
+            owner.statementClosed(this);
+        }
+    }
+
+    public static class Stats {
+        public int maxSize;
+        public int active;
+        public int idle;
+        public int peakActive;
+        public long borrows;
+        public double avgWaitMillis;
+        public double maxWaitMillis;
+        public double avgBorrowMillis;
+        public long timeouts;
+        public long created;
+        public long destroyed;
+        public long validationFailures;
+        public long leaks;
+        public long statementHits;
+        public long statementMisses;
+        public long statementEvictions;
+
+        public double statementHitRatio() {
+            long lookups = statementHits + statementMisses;
+            return lookups == 0 ? 0 : (double) statementHits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("size=%d active=%d idle=%d peak=%d borrows=%d avgWait=%.2fms maxWait=%.2fms "
+                            + "avgHeld=%.2fms timeouts=%d created=%d destroyed=%d invalid=%d leaks=%d "
+                            + "stmtHits=%d stmtMisses=%d stmtEvictions=%d stmtHitRatio=%.2f",
+                    maxSize, active, idle, peakActive, borrows, avgWaitMillis, maxWaitMillis,
+                    avgBorrowMillis, timeouts, created, destroyed, validationFailures, leaks,
+                    statementHits, statementMisses, statementEvictions, statementHitRatio());
+        }
+    }
+}
@@ -4,12 +4,25 @@ import java.awt.*;
 import java.awt.event.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
 
 /**
  * Eco-Eats Dashboard - Complete Fixed Version
  * Version: 2.2 - PNG Icons
  */
 public class Dashboard extends JFrame {
+    private static final boolean PREWARM = Boolean.parseBoolean(System.getProperty("ecoeats.dashboard.prewarm", "true"));
+    private static final int PREWARM_DELAY_MS = Integer.getInteger("ecoeats.dashboard.prewarmDelayMs", 500);
+    private static final int PREWARM_INTERVAL_MS = 50;
+
+    private final UserSession session;
     private DatabaseHelper.UserData currentUser;
     private DatabaseHelper.NutritionGoals userGoals;
     private DatabaseHelper.DailyLog todayLog;
@@ -17,10 +30,21 @@ public class Dashboard extends JFrame {
     private CardLayout cardLayout;
     private MealLogPanel mealLogPanel;
     private ProgressPanel progressPanel;
-
-    public Dashboard(DatabaseHelper.UserData user) {
-        this.currentUser = user;
-        loadUserData();
+    private JLabel welcomeLabel;
+    // Each updater refreshes one card's labels and bars from todayLog / userGoals in place
+    private final List<Runnable> nutritionViews = new ArrayList<>();
+    private final List<ChangeBus.Subscription> subscriptions = new ArrayList<>();
+    private long todayLogGeneration;
+    // Cards are built the first time they are shown, or by the pre-warm timer once the window is up
+    private final Map<String, Supplier<JComponent>> cardFactories = new LinkedHashMap<>();
+    private final Set<String> builtCards = new HashSet<>();
+    private Timer prewarmTimer;
+
+    // The session already holds goals and today's log (see DatabaseHelper.authenticate)
+    public Dashboard(UserSession session) {
+        this.session = session;
+        this.currentUser = session.getUser();
+        applySession();
 
         setTitle("Eco-Eats - Dashboard");
         setSize(1400, 900);
@@ -44,46 +68,57 @@ public class Dashboard extends JFrame {
         mainContentPanel = new JPanel(cardLayout);
         mainContentPanel.setBackground(new Color(245, 245, 245));
 
-        // Add different panels
-        mainContentPanel.add(createDashboardPanel(), "dashboard");
-        mainContentPanel.add(createNutritionPanel(), "nutrition");
-
-        // Use new panels
-        mealLogPanel = new MealLogPanel(currentUser.id);
-        mainContentPanel.add(mealLogPanel, "meals");
-
-        progressPanel = new ProgressPanel(currentUser.id);
-        mainContentPanel.add(progressPanel, "progress");
-
-        mainContentPanel.add(createGoalsPanel(), "goals");
-        mainContentPanel.add(new EditableProfilePanel(currentUser), "profile");
+        // Only the overview is built before the window opens
+        cardFactories.put("dashboard", this::createDashboardPanel);
+        cardFactories.put("nutrition", this::createNutritionPanel);
+        cardFactories.put("meals", () -> mealLogPanel = new MealLogPanel(currentUser.id));
+        cardFactories.put("progress", () -> progressPanel = new ProgressPanel(currentUser.id));
+        cardFactories.put("goals", this::createGoalsPanel);
+        cardFactories.put("profile", () -> new EditableProfilePanel(currentUser));
+        buildCard("dashboard");
 
         mainPanel.add(mainContentPanel, BorderLayout.CENTER);
 
         add(mainPanel);
+
+        subscriptions.add(ChangeBus.subscribe(ChangeBus.DayChanged.class, this::dayChanged));
+        subscriptions.add(ChangeBus.subscribe(ChangeBus.GoalsChanged.class, this::goalsChanged));
+        subscriptions.add(ChangeBus.subscribe(ChangeBus.ProfileChanged.class, this::profileChanged));
         setVisible(true);
+
+        if (PREWARM) {
+            // Build the other cards after the first paint, one per timer tick so input stays responsive
+            prewarmTimer = new Timer(PREWARM_INTERVAL_MS, e -> prewarmNextCard());
+            prewarmTimer.setInitialDelay(PREWARM_DELAY_MS);
+            prewarmTimer.start();
+        }
+    }
+
+    private void showCard(String key) {
+        buildCard(key);
+        cardLayout.show(mainContentPanel, key);
     }
 
-    private void loadUserData() {
-        userGoals = DatabaseHelper.getUserGoals(currentUser.id);
-        if (userGoals == null) {
-            userGoals = new DatabaseHelper.NutritionGoals();
-            userGoals.userId = currentUser.id;
+    private void buildCard(String key) {
+        if (builtCards.add(key)) {
+            mainContentPanel.add(cardFactories.get(key).get(), key);
+            mainContentPanel.revalidate();
         }
-        todayLog = DatabaseHelper.getTodayLog(currentUser.id);
-    }
-
-    // ==================== ICON LOADING METHOD ====================
-    private ImageIcon loadIcon(String iconName, int width, int height) {
-        try {
-            ImageIcon icon = new ImageIcon(iconName);
-            Image img = icon.getImage();
-            Image scaledImg = img.getScaledInstance(width, height, Image.SCALE_SMOOTH);
-            return new ImageIcon(scaledImg);
-        } catch (Exception e) {
-            System.err.println("Error loading icon: " + iconName);
-            return null;
+    }
+
+    private void prewarmNextCard() {
+        for (String key : cardFactories.keySet()) {
+            if (!builtCards.contains(key)) {
+                buildCard(key);
+                return;
+            }
         }
+        prewarmTimer.stop();
+    }
+
+    private void applySession() {
+        userGoals = session.getGoals();
+        todayLog = session.getTodayLog();
     }
 
     // ==================== TOP BAR ====================
@@ -98,7 +133,7 @@ public class Dashboard extends JFrame {
         JPanel leftSection = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 10));
         leftSection.setOpaque(false);
 
-        JLabel logoLabel = new JLabel(loadIcon("leaf.png", 32, 32));
+        JLabel logoLabel = new JLabel(IconCache.get("leaf.png", 32, 32));
         leftSection.add(logoLabel);
 
         JLabel titleLabel = new JLabel("ECO-EATS");
@@ -118,7 +153,7 @@ public class Dashboard extends JFrame {
         JPanel rightSection = new JPanel(new FlowLayout(FlowLayout.RIGHT, 15, 10));
         rightSection.setOpaque(false);
 
-        JLabel welcomeLabel = new JLabel("Welcome, " + currentUser.fullName + "!");
+        welcomeLabel = new JLabel("Welcome, " + currentUser.fullName + "!");
         welcomeLabel.setFont(new Font("Arial", Font.BOLD, 16));
         welcomeLabel.setForeground(Color.WHITE);
         rightSection.add(welcomeLabel);
@@ -162,7 +197,7 @@ public class Dashboard extends JFrame {
 
     private JButton createMenuButton(String text, String iconPath, String panelKey) {
         JButton button = new JButton(text);
-        button.setIcon(loadIcon(iconPath, 24, 24));
+        button.setIcon(IconCache.get(iconPath, 24, 24));
         button.setAlignmentX(Component.LEFT_ALIGNMENT);
         button.setMaximumSize(new Dimension(250, 50));
         button.setPreferredSize(new Dimension(250, 50));
@@ -183,16 +218,8 @@ public class Dashboard extends JFrame {
             }
         });
 
-        button.addActionListener(e -> {
-            if ("nutrition".equals(panelKey)) {
-                refreshNutritionData();
-            } else if ("meals".equals(panelKey)) {
-                if (mealLogPanel != null) {
-                    mealLogPanel.refresh();
-                }
-            }
-            cardLayout.show(mainContentPanel, panelKey);
-        });
+        // Cards are kept current by change events, so switching needs no reload
+        button.addActionListener(e -> showCard(panelKey));
 
         return button;
     }
@@ -239,11 +266,7 @@ public class Dashboard extends JFrame {
         JPanel card = createCard("Calories", "src/IMG/calories.png");
         card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
 
-        int consumed = todayLog.calories;
-        int goal = userGoals.calories;
-        int percentage = goal > 0 ? (consumed * 100) / goal : 0;
-
-        JLabel consumedLabel = new JLabel(consumed + " / " + goal + " kcal");
+        JLabel consumedLabel = new JLabel();
         consumedLabel.setFont(new Font("Arial", Font.BOLD, 28));
         consumedLabel.setForeground(new Color(123, 141, 74));
         consumedLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
@@ -252,10 +275,8 @@ public class Dashboard extends JFrame {
         card.add(Box.createRigidArea(new Dimension(0, 15)));
 
         // Progress bar
-        JProgressBar progressBar = new JProgressBar(0, goal);
-        progressBar.setValue(consumed);
+        JProgressBar progressBar = new JProgressBar();
         progressBar.setStringPainted(true);
-        progressBar.setString(percentage + "%");
         progressBar.setPreferredSize(new Dimension(0, 30));
         progressBar.setMaximumSize(new Dimension(Integer.MAX_VALUE, 30));
         progressBar.setForeground(new Color(123, 141, 74));
@@ -265,12 +286,22 @@ public class Dashboard extends JFrame {
 
         card.add(Box.createRigidArea(new Dimension(0, 10)));
 
-        JLabel remainingLabel = new JLabel((goal - consumed) + " kcal remaining");
+        JLabel remainingLabel = new JLabel();
         remainingLabel.setFont(new Font("Arial", Font.PLAIN, 14));
         remainingLabel.setForeground(Color.GRAY);
         remainingLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
         card.add(remainingLabel);
 
+        addNutritionView(() -> {
+            int consumed = todayLog.calories;
+            int goal = userGoals.calories;
+            consumedLabel.setText(consumed + " / " + goal + " kcal");
+            progressBar.setMaximum(goal);
+            progressBar.setValue(consumed);
+            progressBar.setString((goal > 0 ? (consumed * 100) / goal : 0) + "%");
+            remainingLabel.setText((goal - consumed) + " kcal remaining");
+        });
+
         return card;
     }
 
@@ -278,9 +309,9 @@ public class Dashboard extends JFrame {
         JPanel card = createCard("Macronutrients", "src/IMG/nutrition.png");
         card.setLayout(new GridLayout(3, 1, 10, 10));
 
-        card.add(createMacroRow("Protein", todayLog.protein_g, userGoals.protein_g, "g", new Color(76, 175, 80)));
-        card.add(createMacroRow("Carbs", todayLog.carbs_g, userGoals.carbs_g, "g", new Color(255, 193, 7)));
-        card.add(createMacroRow("Fats", todayLog.fats_g, userGoals.fats_g, "g", new Color(244, 67, 54)));
+        card.add(createMacroRow("Protein", () -> todayLog.protein_g, () -> userGoals.protein_g, "g", new Color(76, 175, 80)));
+        card.add(createMacroRow("Carbs", () -> todayLog.carbs_g, () -> userGoals.carbs_g, "g", new Color(255, 193, 7)));
+        card.add(createMacroRow("Fats", () -> todayLog.fats_g, () -> userGoals.fats_g, "g", new Color(244, 67, 54)));
 
         return card;
     }
@@ -289,10 +320,10 @@ public class Dashboard extends JFrame {
         JPanel card = createCard("Water & Minerals", "src/IMG/water.png");
         card.setLayout(new GridLayout(4, 1, 8, 8));
 
-        card.add(createMineralRow("Water", todayLog.water_ml, userGoals.water_ml, "ml", new Color(33, 150, 243)));
-        card.add(createMineralRow("Calcium", todayLog.calcium_mg, userGoals.calcium_mg, "mg", new Color(156, 39, 176)));
-        card.add(createMineralRow("Potassium", todayLog.potassium_mg, userGoals.potassium_mg, "mg", new Color(255, 152, 0)));
-        card.add(createMineralRow("Sodium", todayLog.sodium_mg, userGoals.sodium_mg, "mg", new Color(121, 85, 72)));
+        card.add(createMineralRow("Water", () -> todayLog.water_ml, () -> userGoals.water_ml, "ml", new Color(33, 150, 243)));
+        card.add(createMineralRow("Calcium", () -> todayLog.calcium_mg, () -> userGoals.calcium_mg, "mg", new Color(156, 39, 176)));
+        card.add(createMineralRow("Potassium", () -> todayLog.potassium_mg, () -> userGoals.potassium_mg, "mg", new Color(255, 152, 0)));
+        card.add(createMineralRow("Sodium", () -> todayLog.sodium_mg, () -> userGoals.sodium_mg, "mg", new Color(121, 85, 72)));
 
         return card;
     }
@@ -301,10 +332,10 @@ public class Dashboard extends JFrame {
         JPanel card = createCard("Vitamins", "src/IMG/vitamins.png");
         card.setLayout(new GridLayout(4, 1, 8, 8));
 
-        card.add(createMineralRow("Vitamin A", todayLog.vitamin_a_iu, userGoals.vitamin_a_iu, "IU", new Color(233, 30, 99)));
-        card.add(createMineralRow("Vitamin D", todayLog.vitamin_d_iu, userGoals.vitamin_d_iu, "IU", new Color(103, 58, 183)));
-        card.add(createMineralRow("Vitamin E", todayLog.vitamin_e_iu, userGoals.vitamin_e_iu, "IU", new Color(0, 188, 212)));
-        card.add(createMineralRow("Vitamin K", todayLog.vitamin_k_mcg, userGoals.vitamin_k_mcg, "mcg", new Color(205, 220, 57)));
+        card.add(createMineralRow("Vitamin A", () -> todayLog.vitamin_a_iu, () -> userGoals.vitamin_a_iu, "IU", new Color(233, 30, 99)));
+        card.add(createMineralRow("Vitamin D", () -> todayLog.vitamin_d_iu, () -> userGoals.vitamin_d_iu, "IU", new Color(103, 58, 183)));
+        card.add(createMineralRow("Vitamin E", () -> todayLog.vitamin_e_iu, () -> userGoals.vitamin_e_iu, "IU", new Color(0, 188, 212)));
+        card.add(createMineralRow("Vitamin K", () -> todayLog.vitamin_k_mcg, () -> userGoals.vitamin_k_mcg, "mcg", new Color(205, 220, 57)));
 
         return card;
     }
@@ -376,21 +407,11 @@ public class Dashboard extends JFrame {
         JPanel card = createCard("Macronutrients", "src/IMG/nutrition.png");
         card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
 
-        String[][] macros = {
-                {"Protein", todayLog.protein_g + "g", userGoals.protein_g + "g", String.valueOf(todayLog.protein_g), String.valueOf(userGoals.protein_g)},
-                {"Carbohydrates", todayLog.carbs_g + "g", userGoals.carbs_g + "g", String.valueOf(todayLog.carbs_g), String.valueOf(userGoals.carbs_g)},
-                {"Fats", todayLog.fats_g + "g", userGoals.fats_g + "g", String.valueOf(todayLog.fats_g), String.valueOf(userGoals.fats_g)}
-        };
-
-        Color[] colors = {new Color(76, 175, 80), new Color(255, 193, 7), new Color(244, 67, 54)};
-
-        for (int i = 0; i < macros.length; i++) {
-            card.add(createDetailedNutrientRow(macros[i][0], macros[i][1], macros[i][2],
-                    Integer.parseInt(macros[i][3]), Integer.parseInt(macros[i][4]), colors[i]));
-            if (i < macros.length - 1) {
-                card.add(Box.createRigidArea(new Dimension(0, 10)));
-            }
-        }
+        card.add(createDetailedNutrientRow("Protein", () -> todayLog.protein_g, () -> userGoals.protein_g, "g", new Color(76, 175, 80)));
+        card.add(Box.createRigidArea(new Dimension(0, 10)));
+        card.add(createDetailedNutrientRow("Carbohydrates", () -> todayLog.carbs_g, () -> userGoals.carbs_g, "g", new Color(255, 193, 7)));
+        card.add(Box.createRigidArea(new Dimension(0, 10)));
+        card.add(createDetailedNutrientRow("Fats", () -> todayLog.fats_g, () -> userGoals.fats_g, "g", new Color(244, 67, 54)));
 
         return card;
     }
@@ -399,27 +420,17 @@ public class Dashboard extends JFrame {
         JPanel card = createCard("Minerals", "src/IMG/minerals.png");
         card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
 
-        String[][] minerals = {
-                {"Calcium", todayLog.calcium_mg + "mg", userGoals.calcium_mg + "mg", String.valueOf(todayLog.calcium_mg), String.valueOf(userGoals.calcium_mg)},
-                {"Potassium", todayLog.potassium_mg + "mg", userGoals.potassium_mg + "mg", String.valueOf(todayLog.potassium_mg), String.valueOf(userGoals.potassium_mg)},
-                {"Sodium", todayLog.sodium_mg + "mg", userGoals.sodium_mg + "mg", String.valueOf(todayLog.sodium_mg), String.valueOf(userGoals.sodium_mg)},
-                {"Magnesium", todayLog.magnesium_mg + "mg", userGoals.magnesium_mg + "mg", String.valueOf(todayLog.magnesium_mg), String.valueOf(userGoals.magnesium_mg)},
-                {"Iron", todayLog.iron_mg + "mg", userGoals.iron_mg + "mg", String.valueOf(todayLog.iron_mg), String.valueOf(userGoals.iron_mg)},
-                {"Zinc", todayLog.zinc_mg + "mg", userGoals.zinc_mg + "mg", String.valueOf(todayLog.zinc_mg), String.valueOf(userGoals.zinc_mg)}
-        };
-
-        Color[] colors = {
-                new Color(156, 39, 176), new Color(255, 152, 0), new Color(121, 85, 72),
-                new Color(0, 150, 136), new Color(183, 28, 28), new Color(57, 73, 171)
-        };
-
-        for (int i = 0; i < minerals.length; i++) {
-            card.add(createDetailedNutrientRow(minerals[i][0], minerals[i][1], minerals[i][2],
-                    Integer.parseInt(minerals[i][3]), Integer.parseInt(minerals[i][4]), colors[i]));
-            if (i < minerals.length - 1) {
-                card.add(Box.createRigidArea(new Dimension(0, 8)));
-            }
-        }
+        card.add(createDetailedNutrientRow("Calcium", () -> todayLog.calcium_mg, () -> userGoals.calcium_mg, "mg", new Color(156, 39, 176)));
+        card.add(Box.createRigidArea(new Dimension(0, 8)));
+        card.add(createDetailedNutrientRow("Potassium", () -> todayLog.potassium_mg, () -> userGoals.potassium_mg, "mg", new Color(255, 152, 0)));
+        card.add(Box.createRigidArea(new Dimension(0, 8)));
+        card.add(createDetailedNutrientRow("Sodium", () -> todayLog.sodium_mg, () -> userGoals.sodium_mg, "mg", new Color(121, 85, 72)));
+        card.add(Box.createRigidArea(new Dimension(0, 8)));
+        card.add(createDetailedNutrientRow("Magnesium", () -> todayLog.magnesium_mg, () -> userGoals.magnesium_mg, "mg", new Color(0, 150, 136)));
+        card.add(Box.createRigidArea(new Dimension(0, 8)));
+        card.add(createDetailedNutrientRow("Iron", () -> todayLog.iron_mg, () -> userGoals.iron_mg, "mg", new Color(183, 28, 28)));
+        card.add(Box.createRigidArea(new Dimension(0, 8)));
+        card.add(createDetailedNutrientRow("Zinc", () -> todayLog.zinc_mg, () -> userGoals.zinc_mg, "mg", new Color(57, 73, 171)));
 
         return card;
     }
@@ -428,25 +439,13 @@ public class Dashboard extends JFrame {
         JPanel card = createCard("Vitamins", "src/IMG/vitamins.png");
         card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
 
-        String[][] vitamins = {
-                {"Vitamin A", todayLog.vitamin_a_iu + "IU", userGoals.vitamin_a_iu + "IU", String.valueOf(todayLog.vitamin_a_iu), String.valueOf(userGoals.vitamin_a_iu)},
-                {"Vitamin D", todayLog.vitamin_d_iu + "IU", userGoals.vitamin_d_iu + "IU", String.valueOf(todayLog.vitamin_d_iu), String.valueOf(userGoals.vitamin_d_iu)},
-                {"Vitamin E", todayLog.vitamin_e_iu + "IU", userGoals.vitamin_e_iu + "IU", String.valueOf(todayLog.vitamin_e_iu), String.valueOf(userGoals.vitamin_e_iu)},
-                {"Vitamin K", todayLog.vitamin_k_mcg + "mcg", userGoals.vitamin_k_mcg + "mcg", String.valueOf(todayLog.vitamin_k_mcg), String.valueOf(userGoals.vitamin_k_mcg)}
-        };
-
-        Color[] colors = {
-                new Color(233, 30, 99), new Color(103, 58, 183),
-                new Color(0, 188, 212), new Color(205, 220, 57)
-        };
-
-        for (int i = 0; i < vitamins.length; i++) {
-            card.add(createDetailedNutrientRow(vitamins[i][0], vitamins[i][1], vitamins[i][2],
-                    Integer.parseInt(vitamins[i][3]), Integer.parseInt(vitamins[i][4]), colors[i]));
-            if (i < vitamins.length - 1) {
-                card.add(Box.createRigidArea(new Dimension(0, 8)));
-            }
-        }
+        card.add(createDetailedNutrientRow("Vitamin A", () -> todayLog.vitamin_a_iu, () -> userGoals.vitamin_a_iu, "IU", new Color(233, 30, 99)));
+        card.add(Box.createRigidArea(new Dimension(0, 8)));
+        card.add(createDetailedNutrientRow("Vitamin D", () -> todayLog.vitamin_d_iu, () -> userGoals.vitamin_d_iu, "IU", new Color(103, 58, 183)));
+        card.add(Box.createRigidArea(new Dimension(0, 8)));
+        card.add(createDetailedNutrientRow("Vitamin E", () -> todayLog.vitamin_e_iu, () -> userGoals.vitamin_e_iu, "IU", new Color(0, 188, 212)));
+        card.add(Box.createRigidArea(new Dimension(0, 8)));
+        card.add(createDetailedNutrientRow("Vitamin K", () -> todayLog.vitamin_k_mcg, () -> userGoals.vitamin_k_mcg, "mcg", new Color(205, 220, 57)));
 
         return card;
     }
@@ -455,11 +454,7 @@ public class Dashboard extends JFrame {
         JPanel card = createCard("Water Intake", "src/IMG/water.png");
         card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
 
-        int consumed = todayLog.water_ml;
-        int goal = userGoals.water_ml;
-        int percentage = goal > 0 ? (consumed * 100) / goal : 0;
-
-        JLabel amountLabel = new JLabel(consumed + "ml / " + goal + "ml");
+        JLabel amountLabel = new JLabel();
         amountLabel.setFont(new Font("Arial", Font.BOLD, 24));
         amountLabel.setForeground(new Color(33, 150, 243));
         amountLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
@@ -467,16 +462,23 @@ public class Dashboard extends JFrame {
 
         card.add(Box.createRigidArea(new Dimension(0, 20)));
 
-        JProgressBar bar = new JProgressBar(0, goal);
-        bar.setValue(consumed);
+        JProgressBar bar = new JProgressBar();
         bar.setStringPainted(true);
-        bar.setString(percentage + "%");
         bar.setPreferredSize(new Dimension(0, 35));
         bar.setMaximumSize(new Dimension(Integer.MAX_VALUE, 35));
         bar.setForeground(new Color(33, 150, 243));
         bar.setAlignmentX(Component.CENTER_ALIGNMENT);
         card.add(bar);
 
+        addNutritionView(() -> {
+            int consumed = todayLog.water_ml;
+            int goal = userGoals.water_ml;
+            amountLabel.setText(consumed + "ml / " + goal + "ml");
+            bar.setMaximum(goal);
+            bar.setValue(consumed);
+            bar.setString((goal > 0 ? (consumed * 100) / goal : 0) + "%");
+        });
+
         return card;
     }
 
@@ -495,10 +497,8 @@ public class Dashboard extends JFrame {
         titlePanel.add(titleLabel, BorderLayout.WEST);
 
         JButton editButton = createStyledButton("Edit Goals", new Color(123, 141, 74), "src/IMG/edit.png");
-        editButton.addActionListener(e -> {
-            new SetGoalsDialog(this, currentUser.id, userGoals);
-            refreshNutritionData();
-        });
+        // The dialog publishes GoalsChanged when it saves
+        editButton.addActionListener(e -> new SetGoalsDialog(this, currentUser.id, userGoals));
         titlePanel.add(editButton, BorderLayout.EAST);
 
         panel.add(titlePanel, BorderLayout.NORTH);
@@ -510,24 +510,22 @@ public class Dashboard extends JFrame {
         goalsContent.setBorder(new EmptyBorder(20, 20, 20, 20));
 
         String[][] goalsData = {
-                {"Calories", userGoals.calories + " kcal"},
-                {"Protein", userGoals.protein_g + " g"},
-                {"Carbohydrates", userGoals.carbs_g + " g"},
-                {"Fats", userGoals.fats_g + " g"},
-                {"Water", userGoals.water_ml + " ml"},
-                {"Calcium", userGoals.calcium_mg + " mg"},
-                {"Potassium", userGoals.potassium_mg + " mg"},
-                {"Sodium", userGoals.sodium_mg + " mg"},
-                {"Magnesium", userGoals.magnesium_mg + " mg"},
-                {"Iron", userGoals.iron_mg + " mg"},
-                {"Zinc", userGoals.zinc_mg + " mg"},
-                {"Vitamin A", userGoals.vitamin_a_iu + " IU"},
-                {"Vitamin D", userGoals.vitamin_d_iu + " IU"},
-                {"Vitamin E", userGoals.vitamin_e_iu + " IU"},
-                {"Vitamin K", userGoals.vitamin_k_mcg + " mcg"}
+                {"Calories", " kcal"}, {"Protein", " g"}, {"Carbohydrates", " g"}, {"Fats", " g"},
+                {"Water", " ml"}, {"Calcium", " mg"}, {"Potassium", " mg"}, {"Sodium", " mg"},
+                {"Magnesium", " mg"}, {"Iron", " mg"}, {"Zinc", " mg"}, {"Vitamin A", " IU"},
+                {"Vitamin D", " IU"}, {"Vitamin E", " IU"}, {"Vitamin K", " mcg"}
+        };
+        IntSupplier[] goalValues = {
+                () -> userGoals.calories, () -> userGoals.protein_g, () -> userGoals.carbs_g, () -> userGoals.fats_g,
+                () -> userGoals.water_ml, () -> userGoals.calcium_mg, () -> userGoals.potassium_mg,
+                () -> userGoals.sodium_mg, () -> userGoals.magnesium_mg, () -> userGoals.iron_mg,
+                () -> userGoals.zinc_mg, () -> userGoals.vitamin_a_iu, () -> userGoals.vitamin_d_iu,
+                () -> userGoals.vitamin_e_iu, () -> userGoals.vitamin_k_mcg
         };
 
-        for (String[] goal : goalsData) {
+        for (int i = 0; i < goalsData.length; i++) {
+            String[] goal = goalsData[i];
+            IntSupplier value = goalValues[i];
             JPanel row = new JPanel(new BorderLayout());
             row.setBackground(Color.WHITE);
             row.setMaximumSize(new Dimension(Integer.MAX_VALUE, 40));
@@ -537,10 +535,11 @@ public class Dashboard extends JFrame {
             nameLabel.setFont(new Font("Arial", Font.BOLD, 16));
             row.add(nameLabel, BorderLayout.WEST);
 
-            JLabel valueLabel = new JLabel(goal[1]);
+            JLabel valueLabel = new JLabel();
             valueLabel.setFont(new Font("Arial", Font.PLAIN, 16));
             valueLabel.setForeground(new Color(123, 141, 74));
             row.add(valueLabel, BorderLayout.EAST);
+            addNutritionView(() -> valueLabel.setText(value.getAsInt() + goal[1]));
 
             goalsContent.add(row);
         }
@@ -563,7 +562,7 @@ public class Dashboard extends JFrame {
         ));
 
         JLabel titleLabel = new JLabel(title);
-        titleLabel.setIcon(loadIcon(iconPath, 20, 20));
+        titleLabel.setIcon(IconCache.get(iconPath, 20, 20));
         titleLabel.setFont(new Font("Arial", Font.BOLD, 18));
         titleLabel.setForeground(new Color(45, 60, 35));
 
@@ -573,7 +572,7 @@ public class Dashboard extends JFrame {
     private JButton createStyledButton(String text, Color bgColor, String iconPath) {
         JButton button = new JButton(text);
         if (iconPath != null) {
-            button.setIcon(loadIcon(iconPath, 16, 16));
+            button.setIcon(IconCache.get(iconPath, 16, 16));
         }
         button.setFont(new Font("Arial", Font.BOLD, 14));
         button.setForeground(Color.WHITE);
@@ -584,7 +583,7 @@ public class Dashboard extends JFrame {
         return button;
     }
 
-    private JPanel createMacroRow(String name, int consumed, int goal, String unit, Color color) {
+    private JPanel createMacroRow(String name, IntSupplier consumed, IntSupplier goal, String unit, Color color) {
         JPanel panel = new JPanel(new BorderLayout(10, 0));
         panel.setOpaque(false);
 
@@ -596,10 +595,9 @@ public class Dashboard extends JFrame {
         JPanel progressPanel = new JPanel(new BorderLayout());
         progressPanel.setOpaque(false);
 
-        JProgressBar bar = new JProgressBar(0, goal);
-        bar.setValue(Math.min(consumed, goal));
+        JProgressBar bar = new JProgressBar();
         bar.setStringPainted(true);
-        bar.setString(consumed + unit + " / " + goal + unit);
+        bindNutrientBar(bar, consumed, goal, unit);
         bar.setPreferredSize(new Dimension(0, 25));
         bar.setForeground(color);
         bar.setBackground(new Color(220, 220, 220));
@@ -610,7 +608,7 @@ public class Dashboard extends JFrame {
         return panel;
     }
 
-    private JPanel createMineralRow(String name, int consumed, int goal, String unit, Color color) {
+    private JPanel createMineralRow(String name, IntSupplier consumed, IntSupplier goal, String unit, Color color) {
         JPanel panel = new JPanel(new BorderLayout(10, 0));
         panel.setOpaque(false);
 
@@ -622,10 +620,9 @@ public class Dashboard extends JFrame {
         JPanel progressPanel = new JPanel(new BorderLayout());
         progressPanel.setOpaque(false);
 
-        JProgressBar bar = new JProgressBar(0, goal);
-        bar.setValue(Math.min(consumed, goal));
+        JProgressBar bar = new JProgressBar();
         bar.setStringPainted(true);
-        bar.setString(consumed + unit + " / " + goal + unit);
+        bindNutrientBar(bar, consumed, goal, unit);
         bar.setPreferredSize(new Dimension(0, 20));
         bar.setForeground(color);
         bar.setBackground(new Color(220, 220, 220));
@@ -636,8 +633,7 @@ public class Dashboard extends JFrame {
         return panel;
     }
 
-    private JPanel createDetailedNutrientRow(String name, String consumed, String goal,
-                                             int consumedInt, int goalInt, Color color) {
+    private JPanel createDetailedNutrientRow(String name, IntSupplier consumed, IntSupplier goal, String unit, Color color) {
         JPanel panel = new JPanel(new BorderLayout(10, 0));
         panel.setOpaque(false);
         panel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 35));
@@ -650,10 +646,9 @@ public class Dashboard extends JFrame {
         JPanel progressPanel = new JPanel(new BorderLayout());
         progressPanel.setOpaque(false);
 
-        JProgressBar bar = new JProgressBar(0, goalInt);
-        bar.setValue(Math.min(consumedInt, goalInt));
+        JProgressBar bar = new JProgressBar();
         bar.setStringPainted(true);
-        bar.setString(consumed + " / " + goal);
+        bindNutrientBar(bar, consumed, goal, unit);
         bar.setPreferredSize(new Dimension(0, 25));
         bar.setForeground(color);
         bar.setBackground(new Color(220, 220, 220));
@@ -664,6 +659,21 @@ public class Dashboard extends JFrame {
         return panel;
     }
 
+    private void bindNutrientBar(JProgressBar bar, IntSupplier consumed, IntSupplier goal, String unit) {
+        addNutritionView(() -> {
+            int consumedValue = consumed.getAsInt();
+            int goalValue = goal.getAsInt();
+            bar.setMaximum(goalValue);
+            bar.setValue(Math.min(consumedValue, goalValue));
+            bar.setString(consumedValue + unit + " / " + goalValue + unit);
+        });
+    }
+
+    private void addNutritionView(Runnable view) {
+        nutritionViews.add(view);
+        view.run();
+    }
+
     // ==================== ACTION METHODS ====================
 
     private void showAddWaterDialog() {
@@ -702,24 +712,26 @@ public class Dashboard extends JFrame {
 
                 DatabaseHelper.NutritionData nutrition = new DatabaseHelper.NutritionData();
                 nutrition.water_ml = waterAmount;
-
-                boolean success = DatabaseHelper.addNutritionData(currentUser.id, nutrition);
-
-                if (success) {
-                    JOptionPane.showMessageDialog(this,
-                            waterAmount + "ml of water added successfully!",
-                            "Success",
-                            JOptionPane.INFORMATION_MESSAGE);
-                    refreshNutritionData();
-                    if (mealLogPanel != null) {
-                        mealLogPanel.refresh();
-                    }
-                } else {
-                    JOptionPane.showMessageDialog(this,
-                            "Failed to add water. Please try again.",
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE);
-                }
+                LocalDate today = LocalDate.now();
+
+                AsyncDatabaseHelper.addNutritionData(currentUser.id, today, nutrition)
+                        .whenCompleteAsync((success, error) -> {
+                            if (error == null && Boolean.TRUE.equals(success)) {
+                                ChangeBus.publish(new ChangeBus.WaterAdded(currentUser.id, today, waterAmount));
+                                JOptionPane.showMessageDialog(this,
+                                        waterAmount + "ml of water added successfully!",
+                                        "Success",
+                                        JOptionPane.INFORMATION_MESSAGE);
+                            } else {
+                                if (error != null) {
+                                    System.err.println("Add water error: " + error.getMessage());
+                                }
+                                JOptionPane.showMessageDialog(this,
+                                        "Failed to add water. Please try again.",
+                                        "Error",
+                                        JOptionPane.ERROR_MESSAGE);
+                            }
+                        }, AsyncDatabaseHelper.EDT);
             } catch (NumberFormatException e) {
                 JOptionPane.showMessageDialog(this,
                         "Please enter a valid number",
@@ -730,12 +742,8 @@ public class Dashboard extends JFrame {
     }
 
     private void showAddFoodDialog() {
-        AddFoodDialog dialog = new AddFoodDialog(this, currentUser.id);
-        // Refresh data after dialog closes
-        refreshNutritionData();
-        if (mealLogPanel != null) {
-            mealLogPanel.refresh();
-        }
+        // The dialog publishes MealLogged once the meal is saved
+        new AddFoodDialog(this, currentUser.id);
     }
 
     private void resetDailyLog() {
@@ -746,46 +754,79 @@ public class Dashboard extends JFrame {
                 JOptionPane.WARNING_MESSAGE);
 
         if (choice == JOptionPane.YES_OPTION) {
-            boolean success = DatabaseHelper.resetDailyLog(currentUser.id);
-            if (success) {
-                JOptionPane.showMessageDialog(this,
-                        "Today's log has been reset successfully!",
-                        "Reset Complete",
-                        JOptionPane.INFORMATION_MESSAGE);
-                refreshNutritionData();
-                if (mealLogPanel != null) {
-                    mealLogPanel.refresh();
+            LocalDate today = LocalDate.now();
+            AsyncDatabaseHelper.resetDailyLog(currentUser.id, today).whenCompleteAsync((success, error) -> {
+                if (error == null && Boolean.TRUE.equals(success)) {
+                    ChangeBus.publish(new ChangeBus.DayReset(currentUser.id, today));
+                    JOptionPane.showMessageDialog(this,
+                            "Today's log has been reset successfully!",
+                            "Reset Complete",
+                            JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    if (error != null) {
+                        System.err.println("Reset log error: " + error.getMessage());
+                    }
+                    JOptionPane.showMessageDialog(this,
+                            "Failed to reset log. Please try again.",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
                 }
-            } else {
-                JOptionPane.showMessageDialog(this,
-                        "Failed to reset log. Please try again.",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            }, AsyncDatabaseHelper.EDT);
         }
     }
 
-    private void refreshNutritionData() {
-        loadUserData();
+    // ==================== CHANGE EVENTS ====================
 
-        // Recreate panels
-        mainContentPanel.removeAll();
-        mainContentPanel.add(createDashboardPanel(), "dashboard");
-        mainContentPanel.add(createNutritionPanel(), "nutrition");
+    private void dayChanged(ChangeBus.DayChanged event) {
+        if (event.userId != currentUser.id || !event.date.equals(LocalDate.now())) {
+            return;
+        }
+        // Re-read just today's totals; a newer change supersedes a reload still in flight
+        long generation = ++todayLogGeneration;
+        AsyncDatabaseHelper.getTodayLog(currentUser.id).whenCompleteAsync((log, error) -> {
+            if (generation != todayLogGeneration) {
+                return;
+            }
+            if (error != null) {
+                System.err.println("Error refreshing nutrition data: " + error.getMessage());
+                return;
+            }
+            session.setTodayLog(log);
+            applySession();
+            updateNutritionViews();
+        }, AsyncDatabaseHelper.EDT);
+    }
 
-        mealLogPanel = new MealLogPanel(currentUser.id);
-        mainContentPanel.add(mealLogPanel, "meals");
+    private void goalsChanged(ChangeBus.GoalsChanged event) {
+        if (event.userId == currentUser.id) {
+            session.setGoals(event.goals);
+            applySession();
+            updateNutritionViews();
+        }
+    }
 
-        if (progressPanel != null) {
-            progressPanel = new ProgressPanel(currentUser.id);
+    private void profileChanged(ChangeBus.ProfileChanged event) {
+        if (event.userId == currentUser.id) {
+            welcomeLabel.setText("Welcome, " + event.user.fullName + "!");
         }
-        mainContentPanel.add(progressPanel, "progress");
+    }
 
-        mainContentPanel.add(createGoalsPanel(), "goals");
-        mainContentPanel.add(new EditableProfilePanel(currentUser), "profile");
+    private void updateNutritionViews() {
+        for (Runnable view : nutritionViews) {
+            view.run();
+        }
+    }
 
-        mainContentPanel.revalidate();
-        mainContentPanel.repaint();
+    @Override
+    public void dispose() {
+        if (prewarmTimer != null) {
+            prewarmTimer.stop();
+        }
+        for (ChangeBus.Subscription subscription : subscriptions) {
+            subscription.unsubscribe();
+        }
+        subscriptions.clear();
+        super.dispose();
     }
 
     private void logout() {
@@ -801,7 +842,7 @@ public class Dashboard extends JFrame {
     }
 
     private void showExportDialog() {
-        String[] options = {"7 Days", "30 Days", "90 Days"};
+        String[] options = {"7 Days", "30 Days", "90 Days", "Full History (CSV / JSON)"};
         String selection = (String) JOptionPane.showInputDialog(this,
                 "Select report period:",
                 "Export Nutrition Report",
@@ -810,7 +851,9 @@ public class Dashboard extends JFrame {
                 options,
                 options[0]);
 
-        if (selection != null) {
+        if (selection != null && selection.startsWith("Full History")) {
+            exportHistory();
+        } else if (selection != null) {
             int days = 7;
             if (selection.equals("30 Days")) {
                 days = 30;
@@ -833,4 +876,40 @@ public class Dashboard extends JFrame {
             }
         }
     }
+
+    private void exportHistory() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export Meal History");
+        chooser.setSelectedFile(new java.io.File("ecoeats-meals-" + LocalDate.now() + ".csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        // food_logs go to the chosen file, daily totals to a sibling "-daily" file in the same format
+        java.nio.file.Path meals = chooser.getSelectedFile().toPath();
+        String name = meals.getFileName().toString();
+        int dot = name.indexOf('.');
+        java.nio.file.Path daily = meals.resolveSibling(dot < 0 ? name + "-daily"
+                : name.substring(0, dot) + "-daily" + name.substring(dot));
+
+        AsyncDatabaseHelper.supply(AsyncDatabaseHelper.LOGS, () -> {
+            long mealRows = HistoryExporter.export(meals, HistoryExporter.Dataset.FOOD_LOGS, currentUser.id, null, null);
+            long dailyRows = mealRows < 0 ? -1
+                    : HistoryExporter.export(daily, HistoryExporter.Dataset.DAILY_LOGS, currentUser.id, null, null);
+            return new long[]{mealRows, dailyRows};
+        }).whenCompleteAsync((rows, error) -> {
+            if (error != null || rows[0] < 0 || rows[1] < 0) {
+                JOptionPane.showMessageDialog(this,
+                        "Failed to export history. Please try again.",
+                        "Export Error",
+                        JOptionPane.ERROR_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this,
+                        "Exported " + rows[0] + " meals to " + meals.getFileName()
+                                + "\nand " + rows[1] + " daily totals to " + daily.getFileName(),
+                        "Export Complete",
+                        JOptionPane.INFORMATION_MESSAGE);
+            }
+        }, AsyncDatabaseHelper.EDT);
+    }
 }
\ No newline at end of file
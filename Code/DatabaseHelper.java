@@ -1,875 +1,468 @@
 import java.sql.*;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.io.Serializable;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class DatabaseHelper {
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/ecoeats_db";
-    private static final String DB_USER = "root";
-    private static final String DB_PASSWORD = "";
+    private static final NutritionStore STORE = createStore();
+
+    private static final FoodCatalogCache FOOD_CACHE =
+            new FoodCatalogCache(Integer.getInteger("ecoeats.foodCache.maxEntries", 5000));
+
+    private static final Object FOOD_INDEX_LOCK = new Object();
+    private static final long FOOD_INDEX_REFRESH_NANOS =
+            Long.getLong("ecoeats.foodSearch.refreshSeconds", 300) * 1_000_000_000L;
+    // null until first built (an empty catalog still builds an index) and after a catalog import
+    private static volatile FoodSearchIndex foodIndex;
+    private static volatile long foodIndexBuiltNanos;
+    private static final AtomicBoolean FOOD_INDEX_REFRESHING = new AtomicBoolean();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            // Queued meal logs and audit entries must reach the store before it closes
+            MealLogWriter.shutdown();
+            AuditLogWriter.shutdown();
+            STORE.close();
+        }, "ecoeats-store-shutdown"));
+    }
+
+    private static NutritionStore createStore() {
+        String backend = System.getProperty("ecoeats.storage", "mysql");
+        if (backend.equalsIgnoreCase("embedded")) {
+            return new EmbeddedNutritionStore(System.getProperty("ecoeats.embedded.file"));
+        }
+        return new MySqlNutritionStore();
+    }
+
+    public static NutritionStore getStore() {
+        return STORE;
+    }
 
     public static Connection getConnection() throws SQLException {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL JDBC Driver not found", e);
+        if (STORE instanceof MySqlNutritionStore) {
+            return ((MySqlNutritionStore) STORE).getConnection();
         }
+        throw new SQLException("No JDBC connection available: storage backend is embedded");
     }
 
-    public static void initializeDatabase() {
-        String createUsersTable = """
-            CREATE TABLE IF NOT EXISTS users (
-                id INT PRIMARY KEY AUTO_INCREMENT,
-                full_name VARCHAR(100) NOT NULL,
-                email VARCHAR(100) UNIQUE NOT NULL,
-                age INT NOT NULL,
-                gender VARCHAR(20) NOT NULL,
-                activity_level VARCHAR(50) NOT NULL,
-                password VARCHAR(255) NOT NULL,
-                role ENUM('user', 'admin') DEFAULT 'user',
-                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-            )
-        """;
-
-        String createUserGoalsTable = """
-            CREATE TABLE IF NOT EXISTS user_goals (
-                id INT PRIMARY KEY AUTO_INCREMENT,
-                user_id INT UNIQUE,
-                calories INT DEFAULT 2000,
-                protein_g INT DEFAULT 150,
-                carbs_g INT DEFAULT 250,
-                fats_g INT DEFAULT 65,
-                water_ml INT DEFAULT 2000,
-                calcium_mg INT DEFAULT 1000,
-                potassium_mg INT DEFAULT 3500,
-                sodium_mg INT DEFAULT 2300,
-                magnesium_mg INT DEFAULT 400,
-                iron_mg INT DEFAULT 18,
-                zinc_mg INT DEFAULT 11,
-                vitamin_a_iu INT DEFAULT 5000,
-                vitamin_d_iu INT DEFAULT 600,
-                vitamin_e_iu INT DEFAULT 22,
-                vitamin_k_mcg INT DEFAULT 120,
-                FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-            )
-        """;
-
-        String createDailyLogsTable = """
-            CREATE TABLE IF NOT EXISTS daily_logs (
-                id INT PRIMARY KEY AUTO_INCREMENT,
-                user_id INT,
-                log_date DATE DEFAULT (CURRENT_DATE),
-                calories INT DEFAULT 0,
-                protein_g INT DEFAULT 0,
-                carbs_g INT DEFAULT 0,
-                fats_g INT DEFAULT 0,
-                water_ml INT DEFAULT 0,
-                calcium_mg INT DEFAULT 0,
-                potassium_mg INT DEFAULT 0,
-                sodium_mg INT DEFAULT 0,
-                magnesium_mg INT DEFAULT 0,
-                iron_mg INT DEFAULT 0,
-                zinc_mg INT DEFAULT 0,
-                vitamin_a_iu INT DEFAULT 0,
-                vitamin_d_iu INT DEFAULT 0,
-                vitamin_e_iu INT DEFAULT 0,
-                vitamin_k_mcg INT DEFAULT 0,
-                FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
-                UNIQUE KEY unique_user_date (user_id, log_date),
-                INDEX idx_user_date (user_id, log_date)
-            )
-        """;
-
-        String createFoodItemsTable = """
-            CREATE TABLE IF NOT EXISTS food_items (
-                id INT PRIMARY KEY AUTO_INCREMENT,
-                name VARCHAR(100) UNIQUE NOT NULL,
-                food_group VARCHAR(50),
-                base_quantity INT DEFAULT 100,
-                calories INT DEFAULT 0,
-                protein_g DECIMAL(8,2) DEFAULT 0,
-                carbs_g DECIMAL(8,2) DEFAULT 0,
-                fats_g DECIMAL(8,2) DEFAULT 0,
-                water_ml INT DEFAULT 0,
-                calcium_mg INT DEFAULT 0,
-                potassium_mg INT DEFAULT 0,
-                sodium_mg INT DEFAULT 0,
-                magnesium_mg INT DEFAULT 0,
-                iron_mg DECIMAL(8,2) DEFAULT 0,
-                zinc_mg DECIMAL(8,2) DEFAULT 0,
-                vitamin_a_iu INT DEFAULT 0,
-                vitamin_d_iu INT DEFAULT 0,
-                vitamin_e_iu DECIMAL(8,2) DEFAULT 0,
-                vitamin_k_mcg DECIMAL(8,2) DEFAULT 0,
-                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                INDEX idx_name (name)
-            )
-        """;
-
-        String createFoodLogsTable = """
-            CREATE TABLE IF NOT EXISTS food_logs (
-                id INT PRIMARY KEY AUTO_INCREMENT,
-                user_id INT,
-                food_item_id INT,
-                quantity INT NOT NULL,
-                unit VARCHAR(20) DEFAULT 'grams',
-                consumed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                meal_type ENUM('Breakfast', 'Lunch', 'Dinner', 'Snack') DEFAULT 'Snack',
-                FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
-                FOREIGN KEY (food_item_id) REFERENCES food_items(id) ON DELETE CASCADE,
-                INDEX idx_user_consumed (user_id, consumed_at),
-                INDEX idx_user_date (user_id, consumed_at)
-            )
-        """;
-
-        String createAdminLogsTable = """
-            CREATE TABLE IF NOT EXISTS admin_logs (
-                id INT PRIMARY KEY AUTO_INCREMENT,
-                admin_id INT NOT NULL,
-                action_type ENUM('CREATE', 'UPDATE', 'DELETE') NOT NULL,
-                target_table VARCHAR(50) NOT NULL,
-                target_id INT,
-                action_details TEXT,
-                performed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                FOREIGN KEY (admin_id) REFERENCES users(id) ON DELETE CASCADE,
-                INDEX idx_admin_date (admin_id, performed_at)
-            )
-        """;
-
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(createUsersTable);
-            stmt.execute(createUserGoalsTable);
-            stmt.execute(createDailyLogsTable);
-            stmt.execute(createFoodItemsTable);
-            stmt.execute(createFoodLogsTable);
-            stmt.execute(createAdminLogsTable);
-
-            // Create default admin if not exists
-            createDefaultAdmin();
-
-            System.out.println("Database initialized successfully!");
-        } catch (SQLException e) {
-            System.err.println("Database initialization error: " + e.getMessage());
+    public static ConnectionPool.Stats getPoolStats() {
+        if (STORE instanceof MySqlNutritionStore) {
+            return ((MySqlNutritionStore) STORE).getPoolStats();
         }
+        return null;
     }
 
-    private static void createDefaultAdmin() {
-        String checkSql = "SELECT COUNT(*) FROM users WHERE role = 'admin'";
-        String insertSql = "INSERT INTO users (full_name, email, age, gender, activity_level, password, role) VALUES (?, ?, ?, ?, ?, ?, ?)";
-
-        try (Connection conn = getConnection();
-             Statement checkStmt = conn.createStatement();
-             ResultSet rs = checkStmt.executeQuery(checkSql)) {
-
-            if (rs.next() && rs.getInt(1) == 0) {
-                // No admin exists, create default one
-                PreparedStatement pstmt = conn.prepareStatement(insertSql);
-                pstmt.setString(1, "System Administrator");
-                pstmt.setString(2, "admin@ecoeats.com");
-                pstmt.setInt(3, 30);
-                pstmt.setString(4, "Other");
-                pstmt.setString(5, "Moderately Active");
-                pstmt.setString(6, hashPassword("Admin@123"));
-                pstmt.setString(7, "admin");
-                pstmt.executeUpdate();
-                System.out.println("Default admin created: admin@ecoeats.com / Admin@123");
-                pstmt.close();
-            }
-        } catch (SQLException e) {
-            System.err.println("Error creating default admin: " + e.getMessage());
-        }
+    public static void initializeDatabase() {
+        STORE.initialize();
     }
 
     public static void initializeFoodDatabase() {
+        // Optional seed catalog, e.g. -Decoeats.foodCatalog.file=foods.csv
+        String seed = System.getProperty("ecoeats.foodCatalog.file");
+        if (seed != null) {
+            System.out.println("Food catalog import: " + importFoodCatalog(java.nio.file.Paths.get(seed), 0));
+        }
         System.out.println("Food database ready for insertion");
     }
 
-    private static String hashPassword(String password) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hash = md.digest(password.getBytes());
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            e.printStackTrace();
-            return null;
-        }
-    }
+    // ==================== USERS ====================
 
     public static boolean registerUser(String fullName, String email, int age,
                                        String gender, String activityLevel, String password, String role) {
-        String sql = "INSERT INTO users (full_name, email, age, gender, activity_level, password, role) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, fullName);
-            pstmt.setString(2, email);
-            pstmt.setInt(3, age);
-            pstmt.setString(4, gender);
-            pstmt.setString(5, activityLevel);
-            pstmt.setString(6, hashPassword(password));
-            pstmt.setString(7, role);
-            int rowsAffected = pstmt.executeUpdate();
-            if (rowsAffected > 0) {
-                ResultSet rs = pstmt.getGeneratedKeys();
-                if (rs.next()) {
-                    int userId = rs.getInt(1);
-                    if (role.equals("user")) {
-                        createDefaultGoals(userId);
-                    }
-                }
-                return true;
-            }
-        } catch (SQLException e) {
-            System.err.println("Registration error: " + e.getMessage());
-        }
-        return false;
+        String passwordHash = PasswordHasher.hash(password);
+        return passwordHash != null
+                && STORE.registerUser(fullName, email, age, gender, activityLevel, passwordHash, role);
     }
 
-    private static void createDefaultGoals(int userId) {
-        String sql = "INSERT INTO user_goals (user_id) VALUES (?)";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, userId);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Goals creation error: " + e.getMessage());
-        }
+    public static boolean emailExists(String email) {
+        return STORE.emailExists(email);
     }
 
-    public static boolean emailExists(String email) {
-        String sql = "SELECT COUNT(*) FROM users WHERE email = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, email);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
-        } catch (SQLException e) {
-            System.err.println("Email check error: " + e.getMessage());
+    public static boolean validateLogin(String email, String password) {
+        return checkPassword(email, password, STORE.getPasswordHash(email));
+    }
+
+    /**
+     * Checks the password and loads the user, goals and today's log in one store read.
+     * Returns null when the email is unknown or the password is wrong.
+     */
+    public static UserSession authenticate(String email, String password) {
+        LoginRecord record = STORE.getLoginRecord(email, LocalDate.now());
+        if (record == null || !checkPassword(email, password, record.passwordHash)) {
+            return null;
         }
-        return false;
+        return new UserSession(record.user, record.goals, record.todayLog);
     }
 
-    public static boolean validateLogin(String email, String password) {
-        String sql = "SELECT password FROM users WHERE email = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, email);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                String storedHash = rs.getString("password");
-                String inputHash = hashPassword(password);
-                return storedHash.equals(inputHash);
+    private static boolean checkPassword(String email, String password, String storedHash) {
+        if (storedHash == null || !PasswordHasher.verify(password, storedHash)) {
+            return false;
+        }
+        if (PasswordHasher.needsRehash(storedHash)) {
+            // Legacy or weaker hash: upgrade it now that we have the plain password, unless
+            // the password was changed in the meantime
+            String upgraded = PasswordHasher.hash(password);
+            if (upgraded != null) {
+                STORE.replacePasswordHash(email, storedHash, upgraded);
             }
-        } catch (SQLException e) {
-            System.err.println("Login validation error: " + e.getMessage());
         }
-        return false;
+        return true;
     }
 
     public static UserData getUserByEmail(String email) {
-        String sql = "SELECT * FROM users WHERE email = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, email);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                UserData user = new UserData();
-                user.id = rs.getInt("id");
-                user.fullName = rs.getString("full_name");
-                user.email = rs.getString("email");
-                user.age = rs.getInt("age");
-                user.gender = rs.getString("gender");
-                user.activityLevel = rs.getString("activity_level");
-                user.role = rs.getString("role");
-                user.createdAt = rs.getTimestamp("created_at");
-                return user;
-            }
-        } catch (SQLException e) {
-            System.err.println("Get user error: " + e.getMessage());
-        }
-        return null;
+        return STORE.getUserByEmail(email);
     }
 
     public static boolean updatePassword(String email, String newPassword) {
-        String sql = "UPDATE users SET password = ? WHERE email = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, hashPassword(newPassword));
-            pstmt.setString(2, email);
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
-        } catch (SQLException e) {
-            System.err.println("Update password error: " + e.getMessage());
-            return false;
-        }
+        String passwordHash = PasswordHasher.hash(newPassword);
+        return passwordHash != null && STORE.updatePassword(email, passwordHash);
+    }
+
+    public static boolean updateUserProfile(int userId, String fullName, int age, String gender, String activityLevel) {
+        return STORE.updateUserProfile(userId, fullName, age, gender, activityLevel);
     }
 
+    // ==================== GOALS & DAILY LOGS ====================
+
     public static NutritionGoals getUserGoals(int userId) {
-        String sql = "SELECT * FROM user_goals WHERE user_id = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, userId);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                NutritionGoals goals = new NutritionGoals();
-                goals.userId = userId;
-                goals.calories = rs.getInt("calories");
-                goals.protein_g = rs.getInt("protein_g");
-                goals.carbs_g = rs.getInt("carbs_g");
-                goals.fats_g = rs.getInt("fats_g");
-                goals.water_ml = rs.getInt("water_ml");
-                goals.calcium_mg = rs.getInt("calcium_mg");
-                goals.potassium_mg = rs.getInt("potassium_mg");
-                goals.sodium_mg = rs.getInt("sodium_mg");
-                goals.magnesium_mg = rs.getInt("magnesium_mg");
-                goals.iron_mg = rs.getInt("iron_mg");
-                goals.zinc_mg = rs.getInt("zinc_mg");
-                goals.vitamin_a_iu = rs.getInt("vitamin_a_iu");
-                goals.vitamin_d_iu = rs.getInt("vitamin_d_iu");
-                goals.vitamin_e_iu = rs.getInt("vitamin_e_iu");
-                goals.vitamin_k_mcg = rs.getInt("vitamin_k_mcg");
-                return goals;
-            }
-        } catch (SQLException e) {
-            System.err.println("Get goals error: " + e.getMessage());
-        }
-        return null;
+        return STORE.getUserGoals(userId);
+    }
+
+    public static boolean updateUserGoals(NutritionGoals goals) {
+        return STORE.updateUserGoals(goals);
     }
 
     public static DailyLog getTodayLog(int userId) {
-        String sql = "SELECT * FROM daily_logs WHERE user_id = ? AND log_date = CURRENT_DATE";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, userId);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return extractDailyLogFromResultSet(rs);
-            }
-        } catch (SQLException e) {
-            System.err.println("Get today log error: " + e.getMessage());
-        }
-        DailyLog log = new DailyLog();
-        log.userId = userId;
-        return log;
+        return STORE.getLogForDate(userId, LocalDate.now());
     }
 
     public static DailyLog getLogForDate(int userId, LocalDate date) {
-        String sql = "SELECT * FROM daily_logs WHERE user_id = ? AND log_date = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, userId);
-            pstmt.setDate(2, java.sql.Date.valueOf(date));
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return extractDailyLogFromResultSet(rs);
-            }
-        } catch (SQLException e) {
-            System.err.println("Get log for date error: " + e.getMessage());
-        }
-        DailyLog log = new DailyLog();
-        log.userId = userId;
-        return log;
-    }
-
-    private static DailyLog extractDailyLogFromResultSet(ResultSet rs) throws SQLException {
-        DailyLog log = new DailyLog();
-        log.userId = rs.getInt("user_id");
-        log.calories = rs.getInt("calories");
-        log.protein_g = rs.getInt("protein_g");
-        log.carbs_g = rs.getInt("carbs_g");
-        log.fats_g = rs.getInt("fats_g");
-        log.water_ml = rs.getInt("water_ml");
-        log.calcium_mg = rs.getInt("calcium_mg");
-        log.potassium_mg = rs.getInt("potassium_mg");
-        log.sodium_mg = rs.getInt("sodium_mg");
-        log.magnesium_mg = rs.getInt("magnesium_mg");
-        log.iron_mg = rs.getInt("iron_mg");
-        log.zinc_mg = rs.getInt("zinc_mg");
-        log.vitamin_a_iu = rs.getInt("vitamin_a_iu");
-        log.vitamin_d_iu = rs.getInt("vitamin_d_iu");
-        log.vitamin_e_iu = rs.getInt("vitamin_e_iu");
-        log.vitamin_k_mcg = rs.getInt("vitamin_k_mcg");
-        return log;
+        return STORE.getLogForDate(userId, date);
     }
 
-    public static boolean updateUserGoals(NutritionGoals goals) {
-        String sql = """
-            INSERT INTO user_goals (user_id, calories, protein_g, carbs_g, fats_g, water_ml, 
-            calcium_mg, potassium_mg, sodium_mg, magnesium_mg, iron_mg, zinc_mg,
-            vitamin_a_iu, vitamin_d_iu, vitamin_e_iu, vitamin_k_mcg)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-            ON DUPLICATE KEY UPDATE
-            calories=VALUES(calories), protein_g=VALUES(protein_g), carbs_g=VALUES(carbs_g),
-            fats_g=VALUES(fats_g), water_ml=VALUES(water_ml), calcium_mg=VALUES(calcium_mg),
-            potassium_mg=VALUES(potassium_mg), sodium_mg=VALUES(sodium_mg),
-            magnesium_mg=VALUES(magnesium_mg), iron_mg=VALUES(iron_mg), zinc_mg=VALUES(zinc_mg),
-            vitamin_a_iu=VALUES(vitamin_a_iu), vitamin_d_iu=VALUES(vitamin_d_iu),
-            vitamin_e_iu=VALUES(vitamin_e_iu), vitamin_k_mcg=VALUES(vitamin_k_mcg)
-        """;
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, goals.userId);
-            pstmt.setInt(2, goals.calories);
-            pstmt.setInt(3, goals.protein_g);
-            pstmt.setInt(4, goals.carbs_g);
-            pstmt.setInt(5, goals.fats_g);
-            pstmt.setInt(6, goals.water_ml);
-            pstmt.setInt(7, goals.calcium_mg);
-            pstmt.setInt(8, goals.potassium_mg);
-            pstmt.setInt(9, goals.sodium_mg);
-            pstmt.setInt(10, goals.magnesium_mg);
-            pstmt.setInt(11, goals.iron_mg);
-            pstmt.setInt(12, goals.zinc_mg);
-            pstmt.setInt(13, goals.vitamin_a_iu);
-            pstmt.setInt(14, goals.vitamin_d_iu);
-            pstmt.setInt(15, goals.vitamin_e_iu);
-            pstmt.setInt(16, goals.vitamin_k_mcg);
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
-        } catch (SQLException e) {
-            System.err.println("Update goals error: " + e.getMessage());
-            return false;
+    public static List<DailyLog> getDailyLogs(int userId, LocalDate from, LocalDate to) {
+        return STORE.getDailyLogs(userId, from, to);
+    }
+
+    /**
+     * History for long-range charts, aggregated by the store: one row per week or month holding
+     * the per-day average over the days logged in it. DAY returns the daily rows unchanged.
+     */
+    public static List<DailyLog> getRolledUpLogs(int userId, LocalDate from, LocalDate to, Rollup rollup) {
+        if (rollup == Rollup.DAY) {
+            return STORE.getDailyLogs(userId, from, to);
         }
+        return STORE.getRolledUpLogs(userId, from, to, rollup);
+    }
+
+    /**
+     * Rebuilds rollups from the daily logs: those flagged stale, and with a range, every week and
+     * month overlapping from..to. The rollups are kept current as logs change; this is the repair.
+     */
+    public static boolean repairRollups(LocalDate from, LocalDate to) {
+        return STORE.repairRollups(from, to);
     }
 
     public static boolean addNutritionData(int userId, NutritionData data) {
-        String sql = """
-            INSERT INTO daily_logs (user_id, calories, protein_g, carbs_g, fats_g, water_ml,
-            calcium_mg, potassium_mg, sodium_mg, magnesium_mg, iron_mg, zinc_mg,
-            vitamin_a_iu, vitamin_d_iu, vitamin_e_iu, vitamin_k_mcg)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-            ON DUPLICATE KEY UPDATE
-            calories=calories+VALUES(calories), protein_g=protein_g+VALUES(protein_g),
-            carbs_g=carbs_g+VALUES(carbs_g), fats_g=fats_g+VALUES(fats_g),
-            water_ml=water_ml+VALUES(water_ml), calcium_mg=calcium_mg+VALUES(calcium_mg),
-            potassium_mg=potassium_mg+VALUES(potassium_mg), sodium_mg=sodium_mg+VALUES(sodium_mg),
-            magnesium_mg=magnesium_mg+VALUES(magnesium_mg), iron_mg=iron_mg+VALUES(iron_mg),
-            zinc_mg=zinc_mg+VALUES(zinc_mg), vitamin_a_iu=vitamin_a_iu+VALUES(vitamin_a_iu),
-            vitamin_d_iu=vitamin_d_iu+VALUES(vitamin_d_iu), vitamin_e_iu=vitamin_e_iu+VALUES(vitamin_e_iu),
-            vitamin_k_mcg=vitamin_k_mcg+VALUES(vitamin_k_mcg)
-        """;
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, userId);
-            pstmt.setInt(2, data.calories);
-            pstmt.setInt(3, data.protein_g);
-            pstmt.setInt(4, data.carbs_g);
-            pstmt.setInt(5, data.fats_g);
-            pstmt.setInt(6, data.water_ml);
-            pstmt.setInt(7, data.calcium_mg);
-            pstmt.setInt(8, data.potassium_mg);
-            pstmt.setInt(9, data.sodium_mg);
-            pstmt.setInt(10, data.magnesium_mg);
-            pstmt.setInt(11, data.iron_mg);
-            pstmt.setInt(12, data.zinc_mg);
-            pstmt.setInt(13, data.vitamin_a_iu);
-            pstmt.setInt(14, data.vitamin_d_iu);
-            pstmt.setInt(15, data.vitamin_e_iu);
-            pstmt.setInt(16, data.vitamin_k_mcg);
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
-        } catch (SQLException e) {
-            System.err.println("Add nutrition data error: " + e.getMessage());
-            return false;
-        }
+        return STORE.addNutritionData(userId, LocalDate.now(), data);
+    }
+
+    public static boolean addNutritionData(int userId, LocalDate date, NutritionData data) {
+        return STORE.addNutritionData(userId, date, data);
     }
 
     public static boolean resetDailyLog(int userId) {
-        String sql = "DELETE FROM daily_logs WHERE user_id = ? AND log_date = CURRENT_DATE";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, userId);
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
-        } catch (SQLException e) {
-            System.err.println("Reset daily log error: " + e.getMessage());
-            return false;
-        }
+        return STORE.resetDailyLog(userId, LocalDate.now());
+    }
+
+    public static boolean resetDailyLog(int userId, LocalDate date) {
+        return STORE.resetDailyLog(userId, date);
+    }
+
+    public static Map<String, Double> getAverageNutrition(int userId, int days) {
+        return STORE.getAverageNutrition(userId, days);
     }
 
+    // ==================== FOODS ====================
+
     public static List<FoodItem> searchFoods(String query) {
-        List<FoodItem> foods = new ArrayList<>();
-        String sql = query.isEmpty() ?
-                "SELECT * FROM food_items LIMIT 50" :
-                "SELECT * FROM food_items WHERE name LIKE ? LIMIT 50";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            if (!query.isEmpty()) {
-                pstmt.setString(1, "%" + query + "%");
-            }
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                foods.add(extractFoodItemFromResultSet(rs));
+        return foodSearchIndex().search(query, 50);
+    }
+
+    // Built from the catalog on first search and kept current by the admin food operations below;
+    // rebuilt in the background every ecoeats.foodSearch.refreshSeconds to pick up other clients' edits.
+    // The admin operations write under FOOD_INDEX_LOCK, so none can land between a rebuild's read
+    // and its swap and then be lost with the old index.
+    private static FoodSearchIndex foodSearchIndex() {
+        FoodSearchIndex index = foodIndex;
+        if (index == null) {
+            synchronized (FOOD_INDEX_LOCK) {
+                if (foodIndex == null) {
+                    rebuildFoodSearchIndex();
+                }
+                return foodIndex;
             }
-        } catch (SQLException e) {
-            System.err.println("Search foods error: " + e.getMessage());
         }
-        return foods;
+        if (System.nanoTime() - foodIndexBuiltNanos > FOOD_INDEX_REFRESH_NANOS
+                && FOOD_INDEX_REFRESHING.compareAndSet(false, true)) {
+            AsyncDatabaseHelper.supply(AsyncDatabaseHelper.FOODS, () -> {
+                synchronized (FOOD_INDEX_LOCK) {
+                    rebuildFoodSearchIndex();
+                }
+                return null;
+            }).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    System.err.println("Food index refresh error: " + error.getMessage());
+                }
+                FOOD_INDEX_REFRESHING.set(false);
+            });
+        }
+        return index;
+    }
+
+    private static void rebuildFoodSearchIndex() {
+        foodIndex = new FoodSearchIndex(STORE.getAllFoods());
+        foodIndexBuiltNanos = System.nanoTime();
     }
 
     public static FoodItem getFoodItem(String name) {
-        String sql = "SELECT * FROM food_items WHERE name = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, name);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return extractFoodItemFromResultSet(rs);
-            }
-        } catch (SQLException e) {
-            System.err.println("Get food item error: " + e.getMessage());
-        }
-        return null;
+        return FOOD_CACHE.getByName(name, STORE::getFoodItem);
     }
 
     public static FoodItem getFoodItemById(int id) {
-        String sql = "SELECT * FROM food_items WHERE id = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return extractFoodItemFromResultSet(rs);
-            }
-        } catch (SQLException e) {
-            System.err.println("Get food item by ID error: " + e.getMessage());
-        }
-        return null;
+        return FOOD_CACHE.getById(id, STORE::getFoodItemById);
     }
 
-    private static FoodItem extractFoodItemFromResultSet(ResultSet rs) throws SQLException {
-        FoodItem food = new FoodItem();
-        food.id = rs.getInt("id");
-        food.name = rs.getString("name");
-        food.foodGroup = rs.getString("food_group");
-        food.baseQuantity = rs.getInt("base_quantity");
-        food.calories = rs.getInt("calories");
-        food.protein_g = rs.getDouble("protein_g");
-        food.carbs_g = rs.getDouble("carbs_g");
-        food.fats_g = rs.getDouble("fats_g");
-        food.water_ml = rs.getInt("water_ml");
-        food.calcium_mg = rs.getInt("calcium_mg");
-        food.potassium_mg = rs.getInt("potassium_mg");
-        food.sodium_mg = rs.getInt("sodium_mg");
-        food.magnesium_mg = rs.getInt("magnesium_mg");
-        food.iron_mg = rs.getDouble("iron_mg");
-        food.zinc_mg = rs.getDouble("zinc_mg");
-        food.vitamin_a_iu = rs.getInt("vitamin_a_iu");
-        food.vitamin_d_iu = rs.getInt("vitamin_d_iu");
-        food.vitamin_e_iu = rs.getDouble("vitamin_e_iu");
-        food.vitamin_k_mcg = rs.getDouble("vitamin_k_mcg");
-        return food;
+    public static String getFoodCacheStats() {
+        return FOOD_CACHE.getStats();
     }
 
+    // ==================== FOOD LOGS ====================
+
     public static boolean logFoodConsumption(int userId, int foodItemId, int quantity, String unit, String mealType) {
-        String sql = "INSERT INTO food_logs (user_id, food_item_id, quantity, unit, meal_type) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, userId);
-            pstmt.setInt(2, foodItemId);
-            pstmt.setInt(3, quantity);
-            pstmt.setString(4, unit);
-            pstmt.setString(5, mealType);
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
-        } catch (SQLException e) {
-            System.err.println("Log food consumption error: " + e.getMessage());
-            return false;
-        }
+        return STORE.logFoodConsumption(userId, foodItemId, quantity, unit, mealType, LocalDateTime.now());
     }
 
-    public static Map<String, Double> getAverageNutrition(int userId, int days) {
-        Map<String, Double> averages = new HashMap<>();
-
-        String sql = """
-            SELECT 
-                AVG(calories) as avg_calories, 
-                AVG(protein_g) as avg_protein, 
-                AVG(carbs_g) as avg_carbs,
-                AVG(fats_g) as avg_fats, 
-                AVG(water_ml) as avg_water, 
-                AVG(calcium_mg) as avg_calcium,
-                AVG(potassium_mg) as avg_potassium, 
-                AVG(sodium_mg) as avg_sodium, 
-                AVG(magnesium_mg) as avg_magnesium,
-                AVG(iron_mg) as avg_iron, 
-                AVG(zinc_mg) as avg_zinc, 
-                AVG(vitamin_a_iu) as avg_vit_a,
-                AVG(vitamin_d_iu) as avg_vit_d, 
-                AVG(vitamin_e_iu) as avg_vit_e, 
-                AVG(vitamin_k_mcg) as avg_vit_k
-            FROM daily_logs 
-            WHERE user_id = ? 
-            AND log_date >= DATE_SUB(CURRENT_DATE, INTERVAL ? DAY)
-            AND log_date <= CURRENT_DATE
-        """;
-
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, userId);
-            pstmt.setInt(2, days - 1);
-
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                averages.put("calories", rs.getDouble("avg_calories"));
-                averages.put("protein_g", rs.getDouble("avg_protein"));
-                averages.put("carbs_g", rs.getDouble("avg_carbs"));
-                averages.put("fats_g", rs.getDouble("avg_fats"));
-                averages.put("water_ml", rs.getDouble("avg_water"));
-                averages.put("calcium_mg", rs.getDouble("avg_calcium"));
-                averages.put("potassium_mg", rs.getDouble("avg_potassium"));
-                averages.put("sodium_mg", rs.getDouble("avg_sodium"));
-                averages.put("magnesium_mg", rs.getDouble("avg_magnesium"));
-                averages.put("iron_mg", rs.getDouble("avg_iron"));
-                averages.put("zinc_mg", rs.getDouble("avg_zinc"));
-                averages.put("vitamin_a_iu", rs.getDouble("avg_vit_a"));
-                averages.put("vitamin_d_iu", rs.getDouble("avg_vit_d"));
-                averages.put("vitamin_e_iu", rs.getDouble("avg_vit_e"));
-                averages.put("vitamin_k_mcg", rs.getDouble("avg_vit_k"));
+    public static boolean logFoodConsumption(int userId, int foodItemId, int quantity, String unit,
+                                             String mealType, LocalDateTime consumedAt) {
+        return STORE.logFoodConsumption(userId, foodItemId, quantity, unit, mealType, consumedAt);
+    }
+
+    public static boolean logMeals(List<MealLogEntry> entries) {
+        return STORE.logMeals(entries);
+    }
+
+    /**
+     * Logs one or more foods for a user - a single item, a whole meal or a whole day - writing
+     * food_logs and the daily totals atomically in one call.
+     */
+    public static boolean logMeal(int userId, List<MealLogEntry> items) {
+        for (MealLogEntry item : items) {
+            if (item.userId != userId) {
+                System.err.println("Log meal error: item belongs to user " + item.userId + ", not " + userId);
+                return false;
             }
-        } catch (SQLException e) {
-            System.err.println("Get average nutrition error: " + e.getMessage());
         }
-        return averages;
+        return STORE.logMeals(items);
+    }
+
+    public static boolean logMeal(int userId, FoodItem food, int quantity, String unit,
+                                  String mealType, LocalDateTime consumedAt) {
+        return logMeal(userId, List.of(new MealLogEntry(userId, food, quantity, unit, mealType, consumedAt)));
     }
 
-    // ==================== ADMIN METHODS ====================
+    public static List<MealEntry> getMealsForDate(int userId, LocalDate date) {
+        return STORE.getMealsForDate(userId, date);
+    }
+
+    public static boolean deleteMeal(int logId) {
+        return STORE.deleteMeal(logId);
+    }
+
+    public static boolean updateMealQuantity(int logId, int newQuantity) {
+        return STORE.updateMealQuantity(logId, newQuantity);
+    }
+
+    // ==================== ADMIN ====================
 
     public static List<UserData> getAllUsers() {
-        List<UserData> users = new ArrayList<>();
-        String sql = "SELECT * FROM users ORDER BY created_at DESC";
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                UserData user = new UserData();
-                user.id = rs.getInt("id");
-                user.fullName = rs.getString("full_name");
-                user.email = rs.getString("email");
-                user.age = rs.getInt("age");
-                user.gender = rs.getString("gender");
-                user.activityLevel = rs.getString("activity_level");
-                user.role = rs.getString("role");
-                user.createdAt = rs.getTimestamp("created_at");
-                users.add(user);
-            }
-        } catch (SQLException e) {
-            System.err.println("Get all users error: " + e.getMessage());
+        return STORE.getAllUsers();
+    }
+
+    // Columns the admin listings can be sorted by; the first is the default
+    public static final List<String> USER_SORT_COLUMNS = List.of("created_at", "full_name", "email", "age", "id");
+    public static final List<String> FOOD_SORT_COLUMNS = List.of("name", "food_group", "calories", "id");
+
+    public static List<UserData> getUsersPage(PageRequest request) {
+        return STORE.getUsersPage(request);
+    }
+
+    public static int countUsers(String filter) {
+        return STORE.countUsers(filter);
+    }
+
+    /** The value a user is ordered by, used as the keyset for the page after it. */
+    public static Object userSortValue(UserData user, String sortColumn) {
+        switch (sortColumn) {
+            case "full_name": return user.fullName;
+            case "email": return user.email;
+            case "age": return user.age;
+            case "id": return user.id;
+            default: return user.createdAt;
         }
-        return users;
     }
 
     public static boolean deleteUser(int userId, int adminId) {
-        String sql = "DELETE FROM users WHERE id = ? AND role != 'admin'";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, userId);
-            int rowsAffected = pstmt.executeUpdate();
-            if (rowsAffected > 0) {
-                logAdminAction(adminId, "DELETE", "users", userId, "Deleted user ID: " + userId);
-                return true;
-            }
-        } catch (SQLException e) {
-            System.err.println("Delete user error: " + e.getMessage());
-        }
-        return false;
+        return STORE.deleteUser(userId, adminId);
     }
 
     public static boolean updateUser(int userId, String fullName, int age, String gender,
                                      String activityLevel, int adminId) {
-        String sql = "UPDATE users SET full_name = ?, age = ?, gender = ?, activity_level = ? WHERE id = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, fullName);
-            pstmt.setInt(2, age);
-            pstmt.setString(3, gender);
-            pstmt.setString(4, activityLevel);
-            pstmt.setInt(5, userId);
-            int rowsAffected = pstmt.executeUpdate();
-            if (rowsAffected > 0) {
-                logAdminAction(adminId, "UPDATE", "users", userId,
-                        "Updated user: " + fullName);
-                return true;
-            }
-        } catch (SQLException e) {
-            System.err.println("Update user error: " + e.getMessage());
-        }
-        return false;
+        return STORE.updateUser(userId, fullName, age, gender, activityLevel, adminId);
     }
 
     public static List<FoodItem> getAllFoods() {
-        List<FoodItem> foods = new ArrayList<>();
-        String sql = "SELECT * FROM food_items ORDER BY name ASC";
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                foods.add(extractFoodItemFromResultSet(rs));
-            }
-        } catch (SQLException e) {
-            System.err.println("Get all foods error: " + e.getMessage());
+        return STORE.getAllFoods();
+    }
+
+    public static List<FoodItem> getFoodsPage(PageRequest request) {
+        return STORE.getFoodsPage(request);
+    }
+
+    public static int countFoods(String filter) {
+        return STORE.countFoods(filter);
+    }
+
+    /** The value a food is ordered by; foods without a group sort as an empty group. */
+    public static Object foodSortValue(FoodItem food, String sortColumn) {
+        switch (sortColumn) {
+            case "food_group": return food.foodGroup == null ? "" : food.foodGroup;
+            case "calories": return food.calories;
+            case "id": return food.id;
+            default: return food.name;
         }
-        return foods;
     }
 
     public static boolean addFoodItem(FoodItem food, int adminId) {
-        String sql = """
-            INSERT INTO food_items (name, food_group, base_quantity, calories, protein_g, 
-            carbs_g, fats_g, water_ml, calcium_mg, potassium_mg, sodium_mg, magnesium_mg,
-            iron_mg, zinc_mg, vitamin_a_iu, vitamin_d_iu, vitamin_e_iu, vitamin_k_mcg)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-        """;
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, food.name);
-            pstmt.setString(2, food.foodGroup);
-            pstmt.setInt(3, food.baseQuantity);
-            pstmt.setInt(4, food.calories);
-            pstmt.setDouble(5, food.protein_g);
-            pstmt.setDouble(6, food.carbs_g);
-            pstmt.setDouble(7, food.fats_g);
-            pstmt.setInt(8, food.water_ml);
-            pstmt.setInt(9, food.calcium_mg);
-            pstmt.setInt(10, food.potassium_mg);
-            pstmt.setInt(11, food.sodium_mg);
-            pstmt.setInt(12, food.magnesium_mg);
-            pstmt.setDouble(13, food.iron_mg);
-            pstmt.setDouble(14, food.zinc_mg);
-            pstmt.setInt(15, food.vitamin_a_iu);
-            pstmt.setInt(16, food.vitamin_d_iu);
-            pstmt.setDouble(17, food.vitamin_e_iu);
-            pstmt.setDouble(18, food.vitamin_k_mcg);
-
-            int rowsAffected = pstmt.executeUpdate();
-            if (rowsAffected > 0) {
-                ResultSet rs = pstmt.getGeneratedKeys();
-                if (rs.next()) {
-                    int foodId = rs.getInt(1);
-                    logAdminAction(adminId, "CREATE", "food_items", foodId,
-                            "Added food: " + food.name);
-                }
-                return true;
+        boolean added;
+        synchronized (FOOD_INDEX_LOCK) {
+            added = STORE.addFoodItem(food, adminId);
+            FoodSearchIndex index = foodIndex;
+            if (added && index != null) {
+                index.put(food);
             }
-        } catch (SQLException e) {
-            System.err.println("Add food item error: " + e.getMessage());
         }
-        return false;
+        if (added) {
+            FOOD_CACHE.put(food);
+        }
+        return added;
     }
 
     public static boolean updateFoodItem(FoodItem food, int adminId) {
-        String sql = """
-            UPDATE food_items SET name = ?, food_group = ?, base_quantity = ?, calories = ?,
-            protein_g = ?, carbs_g = ?, fats_g = ?, water_ml = ?, calcium_mg = ?,
-            potassium_mg = ?, sodium_mg = ?, magnesium_mg = ?, iron_mg = ?, zinc_mg = ?,
-            vitamin_a_iu = ?, vitamin_d_iu = ?, vitamin_e_iu = ?, vitamin_k_mcg = ?
-            WHERE id = ?
-        """;
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, food.name);
-            pstmt.setString(2, food.foodGroup);
-            pstmt.setInt(3, food.baseQuantity);
-            pstmt.setInt(4, food.calories);
-            pstmt.setDouble(5, food.protein_g);
-            pstmt.setDouble(6, food.carbs_g);
-            pstmt.setDouble(7, food.fats_g);
-            pstmt.setInt(8, food.water_ml);
-            pstmt.setInt(9, food.calcium_mg);
-            pstmt.setInt(10, food.potassium_mg);
-            pstmt.setInt(11, food.sodium_mg);
-            pstmt.setInt(12, food.magnesium_mg);
-            pstmt.setDouble(13, food.iron_mg);
-            pstmt.setDouble(14, food.zinc_mg);
-            pstmt.setInt(15, food.vitamin_a_iu);
-            pstmt.setInt(16, food.vitamin_d_iu);
-            pstmt.setDouble(17, food.vitamin_e_iu);
-            pstmt.setDouble(18, food.vitamin_k_mcg);
-            pstmt.setInt(19, food.id);
-
-            int rowsAffected = pstmt.executeUpdate();
-            if (rowsAffected > 0) {
-                logAdminAction(adminId, "UPDATE", "food_items", food.id,
-                        "Updated food: " + food.name);
-                return true;
+        boolean updated;
+        synchronized (FOOD_INDEX_LOCK) {
+            updated = STORE.updateFoodItem(food, adminId);
+            FoodSearchIndex index = foodIndex;
+            if (updated && index != null) {
+                index.put(food);
             }
-        } catch (SQLException e) {
-            System.err.println("Update food item error: " + e.getMessage());
         }
-        return false;
+        if (updated) {
+            FOOD_CACHE.put(food);
+        }
+        return updated;
     }
 
     public static boolean deleteFoodItem(int foodId, int adminId) {
-        String sql = "DELETE FROM food_items WHERE id = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, foodId);
-            int rowsAffected = pstmt.executeUpdate();
-            if (rowsAffected > 0) {
-                logAdminAction(adminId, "DELETE", "food_items", foodId,
-                        "Deleted food ID: " + foodId);
-                return true;
+        boolean deleted;
+        synchronized (FOOD_INDEX_LOCK) {
+            deleted = STORE.deleteFoodItem(foodId, adminId);
+            FoodSearchIndex index = foodIndex;
+            if (deleted && index != null) {
+                index.remove(foodId);
             }
-        } catch (SQLException e) {
-            System.err.println("Delete food item error: " + e.getMessage());
         }
-        return false;
-    }
-
-    private static void logAdminAction(int adminId, String actionType, String targetTable,
-                                       Integer targetId, String details) {
-        String sql = "INSERT INTO admin_logs (admin_id, action_type, target_table, target_id, action_details) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, adminId);
-            pstmt.setString(2, actionType);
-            pstmt.setString(3, targetTable);
-            if (targetId != null) {
-                pstmt.setInt(4, targetId);
-            } else {
-                pstmt.setNull(4, Types.INTEGER);
+        if (deleted) {
+            FOOD_CACHE.invalidate(foodId);
+        }
+        return deleted;
+    }
+
+    /** Bulk-loads a CSV or JSON lines catalog; adminId 0 skips the audit entry. */
+    public static FoodCatalogImporter.Result importFoodCatalog(java.nio.file.Path file, int adminId) {
+        FoodCatalogImporter.Result result = FoodCatalogImporter.importFile(file, STORE::upsertFoodItems);
+        if (result.imported > 0) {
+            FOOD_CACHE.clear();
+            synchronized (FOOD_INDEX_LOCK) {
+                foodIndex = null;
             }
-            pstmt.setString(5, details);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Log admin action error: " + e.getMessage());
         }
+        if (adminId > 0) {
+            AuditLogWriter.record(adminId, "CREATE", "food_items", null,
+                    "Imported food catalog " + file.getFileName() + ": " + result);
+        }
+        return result;
     }
 
     public static Map<String, Integer> getSystemStats() {
-        Map<String, Integer> stats = new HashMap<>();
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
-
-            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users WHERE role='user'");
-            if (rs.next()) stats.put("totalUsers", rs.getInt(1));
-
-            rs = stmt.executeQuery("SELECT COUNT(*) FROM food_items");
-            if (rs.next()) stats.put("totalFoods", rs.getInt(1));
+        // Count the admin's own latest actions, which may still be queued
+        flushAuditLog();
+        return STORE.getSystemStats();
+    }
 
-            rs = stmt.executeQuery("SELECT COUNT(*) FROM food_logs WHERE DATE(consumed_at) = CURRENT_DATE");
-            if (rs.next()) stats.put("todayLogs", rs.getInt(1));
+    public static boolean reconcileStats(LocalDate from, LocalDate to) {
+        return STORE.reconcileStats(from, to);
+    }
 
-            rs = stmt.executeQuery("SELECT COUNT(*) FROM admin_logs WHERE DATE(performed_at) = CURRENT_DATE");
-            if (rs.next()) stats.put("todayActions", rs.getInt(1));
+    /** One page of the audit trail, newest first; includes entries still queued in AuditLogWriter. */
+    public static List<AdminLogEntry> getAdminLogs(Integer adminId, LocalDateTime from, LocalDateTime to,
+                                                   AdminLogEntry before, int limit) {
+        flushAuditLog();
+        return STORE.getAdminLogs(adminId, from, to, before, limit);
+    }
 
-        } catch (SQLException e) {
-            System.err.println("Get system stats error: " + e.getMessage());
+    // A flush can wait seconds for the audit writer thread, which the EDT must not; read there,
+    // the most recent queued actions may be missing until the next refresh
+    private static void flushAuditLog() {
+        if (!javax.swing.SwingUtilities.isEventDispatchThread()) {
+            AuditLogWriter.flush();
         }
-        return stats;
     }
 
     // Inner classes
-    public static class UserData {
+    /**
+     * One page of an admin listing. With afterId set, the page starts after the row with that
+     * sort value and id (keyset); otherwise it skips offset rows.
+     */
+    public static class PageRequest {
+        public String filter;
+        public String sortColumn;
+        public boolean descending;
+        public Object afterValue;
+        public Integer afterId;
+        public int offset;
+        public int limit = 100;
+    }
+
+    public static class AdminLogEntry implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public int id;
+        public int adminId;
+        public String adminName;
+        public String actionType;
+        public String targetTable;
+        public Integer targetId;
+        public String details;
+        public LocalDateTime performedAt;
+    }
+
+    public static class UserData implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         public int id;
         public String fullName;
         public String email;
@@ -880,7 +473,17 @@ public class DatabaseHelper {
         public Timestamp createdAt;
     }
 
-    public static class NutritionGoals {
+    // Everything login needs about one user, read together
+    public static class LoginRecord {
+        public UserData user;
+        public String passwordHash;
+        public NutritionGoals goals;
+        public DailyLog todayLog;
+    }
+
+    public static class NutritionGoals implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         public int userId;
         public int calories;
         public int protein_g;
@@ -899,8 +502,62 @@ public class DatabaseHelper {
         public int vitamin_k_mcg;
     }
 
-    public static class DailyLog {
+    public enum Rollup {
+        DAY, WEEK, MONTH;
+
+        /** First day of the day, week (from Monday) or month that date falls in. */
+        public LocalDate start(LocalDate date) {
+            switch (this) {
+                case WEEK:
+                    return date.with(DayOfWeek.MONDAY);
+                case MONTH:
+                    return date.withDayOfMonth(1);
+                default:
+                    return date;
+            }
+        }
+
+        /** First day of the following period. */
+        public LocalDate next(LocalDate start) {
+            switch (this) {
+                case WEEK:
+                    return start.plusWeeks(1);
+                case MONTH:
+                    return start.plusMonths(1);
+                default:
+                    return start.plusDays(1);
+            }
+        }
+    }
+
+    // One week or month of a user's daily logs; arrays are indexed like NUTRIENTS
+    public static class NutritionRollup implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public static final String[] NUTRIENTS = {"calories", "protein_g", "carbs_g", "fats_g", "water_ml",
+                "calcium_mg", "potassium_mg", "sodium_mg", "magnesium_mg", "iron_mg", "zinc_mg",
+                "vitamin_a_iu", "vitamin_d_iu", "vitamin_e_iu", "vitamin_k_mcg"};
+
+        public int userId;
+        public Rollup period;
+        public LocalDate periodStart;
+        public int days;
+        public long[] sum = new long[NUTRIENTS.length];
+        public int[] min = new int[NUTRIENTS.length];
+        public int[] max = new int[NUTRIENTS.length];
+        // Days at or above the user's goal for the nutrient
+        public int[] met = new int[NUTRIENTS.length];
+
+        public double average(int nutrient) {
+            return days == 0 ? 0 : (double) sum[nutrient] / days;
+        }
+    }
+
+    public static class DailyLog implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         public int userId;
+        public LocalDate logDate;
         public int calories;
         public int protein_g;
         public int carbs_g;
@@ -918,7 +575,9 @@ public class DatabaseHelper {
         public int vitamin_k_mcg;
     }
 
-    public static class NutritionData {
+    public static class NutritionData implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         public int calories;
         public int protein_g;
         public int carbs_g;
@@ -934,9 +593,47 @@ public class DatabaseHelper {
         public int vitamin_d_iu;
         public int vitamin_e_iu;
         public int vitamin_k_mcg;
+
+        public void add(NutritionData other) {
+            calories += other.calories;
+            protein_g += other.protein_g;
+            carbs_g += other.carbs_g;
+            fats_g += other.fats_g;
+            water_ml += other.water_ml;
+            calcium_mg += other.calcium_mg;
+            potassium_mg += other.potassium_mg;
+            sodium_mg += other.sodium_mg;
+            magnesium_mg += other.magnesium_mg;
+            iron_mg += other.iron_mg;
+            zinc_mg += other.zinc_mg;
+            vitamin_a_iu += other.vitamin_a_iu;
+            vitamin_d_iu += other.vitamin_d_iu;
+            vitamin_e_iu += other.vitamin_e_iu;
+            vitamin_k_mcg += other.vitamin_k_mcg;
+        }
+
+        public void subtract(NutritionData other) {
+            calories -= other.calories;
+            protein_g -= other.protein_g;
+            carbs_g -= other.carbs_g;
+            fats_g -= other.fats_g;
+            water_ml -= other.water_ml;
+            calcium_mg -= other.calcium_mg;
+            potassium_mg -= other.potassium_mg;
+            sodium_mg -= other.sodium_mg;
+            magnesium_mg -= other.magnesium_mg;
+            iron_mg -= other.iron_mg;
+            zinc_mg -= other.zinc_mg;
+            vitamin_a_iu -= other.vitamin_a_iu;
+            vitamin_d_iu -= other.vitamin_d_iu;
+            vitamin_e_iu -= other.vitamin_e_iu;
+            vitamin_k_mcg -= other.vitamin_k_mcg;
+        }
     }
 
-    public static class FoodItem {
+    public static class FoodItem implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         public int id;
         public String name;
         public String foodGroup;
@@ -957,6 +654,30 @@ public class DatabaseHelper {
         public double vitamin_e_iu;
         public double vitamin_k_mcg;
 
+        public FoodItem copy() {
+            FoodItem c = new FoodItem();
+            c.id = id;
+            c.name = name;
+            c.foodGroup = foodGroup;
+            c.baseQuantity = baseQuantity;
+            c.calories = calories;
+            c.protein_g = protein_g;
+            c.carbs_g = carbs_g;
+            c.fats_g = fats_g;
+            c.water_ml = water_ml;
+            c.calcium_mg = calcium_mg;
+            c.potassium_mg = potassium_mg;
+            c.sodium_mg = sodium_mg;
+            c.magnesium_mg = magnesium_mg;
+            c.iron_mg = iron_mg;
+            c.zinc_mg = zinc_mg;
+            c.vitamin_a_iu = vitamin_a_iu;
+            c.vitamin_d_iu = vitamin_d_iu;
+            c.vitamin_e_iu = vitamin_e_iu;
+            c.vitamin_k_mcg = vitamin_k_mcg;
+            return c;
+        }
+
         public NutritionData calculateNutrition(int quantity) {
             double multiplier = (double) quantity / baseQuantity;
             NutritionData nutrition = new NutritionData();
@@ -978,4 +699,47 @@ public class DatabaseHelper {
             return nutrition;
         }
     }
-}
\ No newline at end of file
+
+    public static class MealEntry implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public int logId;
+        public int userId;
+        public int foodItemId;
+        public LocalDateTime consumedAt;
+        public String mealType;
+        public String foodName;
+        public int quantity;
+        public String unit;
+        public int calories;
+        public double protein;
+        public double carbs;
+        public double fats;
+    }
+
+    public static class MealLogEntry implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public int userId;
+        public int foodItemId;
+        public int quantity;
+        public String unit;
+        public String mealType;
+        public LocalDateTime consumedAt;
+        public NutritionData nutrition;
+
+        public MealLogEntry() {
+        }
+
+        public MealLogEntry(int userId, FoodItem food, int quantity, String unit,
+                            String mealType, LocalDateTime consumedAt) {
+            this.userId = userId;
+            this.foodItemId = food.id;
+            this.quantity = quantity;
+            this.unit = unit;
+            this.mealType = mealType;
+            this.consumedAt = consumedAt;
+            this.nutrition = food.calculateNutrition(quantity);
+        }
+    }
+}
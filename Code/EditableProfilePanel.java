@@ -2,7 +2,7 @@ import javax.swing.*;
 import javax.swing.border.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.sql.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Editable Profile Panel with BMI Calculator - FINAL VERSION
@@ -558,44 +558,30 @@ public class EditableProfilePanel extends JPanel {
             return;
         }
 
-        // Update database
-        if (updateUserProfile(fullName, age, gender, activity)) {
-            currentUser.fullName = fullName;
-            currentUser.age = age;
-            currentUser.gender = gender;
-            currentUser.activityLevel = activity;
+        // Update database off the EDT
+        AsyncDatabaseHelper.updateUserProfile(currentUser.id, fullName, age, gender, activity).whenCompleteAsync((updated, error) -> {
+            if (error == null && Boolean.TRUE.equals(updated)) {
+                currentUser.fullName = fullName;
+                currentUser.age = age;
+                currentUser.gender = gender;
+                currentUser.activityLevel = activity;
+                ChangeBus.publish(new ChangeBus.ProfileChanged(currentUser));
 
-            JOptionPane.showMessageDialog(this,
-                    "Profile updated successfully!",
-                    "Success",
-                    JOptionPane.INFORMATION_MESSAGE);
-            toggleEditMode();
-        } else {
-            JOptionPane.showMessageDialog(this,
-                    "Failed to update profile. Please try again.",
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
-    }
-
-    private boolean updateUserProfile(String fullName, int age, String gender, String activity) {
-        String sql = "UPDATE users SET full_name = ?, age = ?, gender = ?, activity_level = ? WHERE id = ?";
-        try {
-            Connection conn = DatabaseHelper.getConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, fullName);
-            pstmt.setInt(2, age);
-            pstmt.setString(3, gender);
-            pstmt.setString(4, activity);
-            pstmt.setInt(5, currentUser.id);
-            boolean result = pstmt.executeUpdate() > 0;
-            pstmt.close();
-            conn.close();
-            return result;
-        } catch (SQLException e) {
-            System.err.println("Error updating profile: " + e.getMessage());
-            return false;
-        }
+                JOptionPane.showMessageDialog(this,
+                        "Profile updated successfully!",
+                        "Success",
+                        JOptionPane.INFORMATION_MESSAGE);
+                toggleEditMode();
+            } else {
+                if (error != null) {
+                    System.err.println("Update profile error: " + error.getMessage());
+                }
+                JOptionPane.showMessageDialog(this,
+                        "Failed to update profile. Please try again.",
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }, AsyncDatabaseHelper.EDT);
     }
 
     private void showChangePasswordDialog() {
@@ -641,14 +627,6 @@ public class EditableProfilePanel extends JPanel {
             String newPassword = new String(newPasswordField.getPassword());
             String confirmPassword = new String(confirmPasswordField.getPassword());
 
-            if (!DatabaseHelper.validateLogin(currentUser.email, currentPassword)) {
-                JOptionPane.showMessageDialog(this,
-                        "Current password is incorrect",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-
             if (!ValidationHelper.isPasswordAcceptable(newPassword)) {
                 JOptionPane.showMessageDialog(this,
                         "New password is too weak!\n" + ValidationHelper.getPasswordRequirements(),
@@ -665,17 +643,38 @@ public class EditableProfilePanel extends JPanel {
                 return;
             }
 
-            if (DatabaseHelper.updatePassword(currentUser.email, newPassword)) {
-                JOptionPane.showMessageDialog(this,
-                        "Password changed successfully!",
-                        "Success",
-                        JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(this,
-                        "Failed to change password",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            // Both hashes run on the auth bulkhead; only the dialogs come back to the EDT
+            AsyncDatabaseHelper.validateLogin(currentUser.email, currentPassword)
+                    .thenCompose(valid -> valid
+                            ? AsyncDatabaseHelper.updatePassword(currentUser.email, newPassword)
+                                    .thenApply(updated -> updated ? PasswordChange.CHANGED : PasswordChange.FAILED)
+                            : CompletableFuture.completedFuture(PasswordChange.WRONG_PASSWORD))
+                    .whenCompleteAsync((outcome, error) -> {
+                        if (error != null) {
+                            System.err.println("Password change error: " + error.getMessage());
+                            outcome = PasswordChange.FAILED;
+                        }
+                        switch (outcome) {
+                            case CHANGED:
+                                JOptionPane.showMessageDialog(this,
+                                        "Password changed successfully!",
+                                        "Success",
+                                        JOptionPane.INFORMATION_MESSAGE);
+                                break;
+                            case WRONG_PASSWORD:
+                                JOptionPane.showMessageDialog(this,
+                                        "Current password is incorrect",
+                                        "Error",
+                                        JOptionPane.ERROR_MESSAGE);
+                                break;
+                            default:
+                                JOptionPane.showMessageDialog(this,
+                                        "Failed to change password",
+                                        "Error",
+                                        JOptionPane.ERROR_MESSAGE);
+                                break;
+                        }
+                    }, AsyncDatabaseHelper.EDT);
         }
     }
 
@@ -689,4 +688,9 @@ public class EditableProfilePanel extends JPanel {
         button.setCursor(new Cursor(Cursor.HAND_CURSOR));
         return button;
     }
+
+    // Inner classes
+    private enum PasswordChange {
+        CHANGED, WRONG_PASSWORD, FAILED
+    }
 }
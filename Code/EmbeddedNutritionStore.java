@@ -0,0 +1,1493 @@
+import java.io.*;
+import java.nio.file.*;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Embedded Nutrition Store - In-process storage backend, no database server required
+ * Version: 1.0
+ * Features: In-memory tables with indexed lookups, Optional file persistence,
+ *           Same semantics as the MySQL schema (unique emails/food names, cascading deletes)
+ *
+ * Persistence is enabled by passing a file path (ecoeats.embedded.file). Writes mark the
+ * snapshot dirty and a background thread flushes it at most once per FLUSH_INTERVAL_MS;
+ * close() always performs a final flush.
+ */
+public class EmbeddedNutritionStore implements NutritionStore {
+    private static final long FLUSH_INTERVAL_MS = 2000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Path file;
+    private ScheduledExecutorService flusher;
+    private volatile boolean dirty;
+    // Set when an unreadable snapshot could not be moved aside; flush() then never overwrites it
+    private volatile boolean readOnly;
+    private Tables tables = new Tables();
+
+    // Dashboard counters, changed with the rows they count under the write lock and rebuilt on load
+    private int regularUsers;
+    private final HashMap<LocalDate, Integer> foodLogsPerDay = new HashMap<>();
+    private final HashMap<LocalDate, Integer> adminActionsPerDay = new HashMap<>();
+    // Weekly and monthly rollups per user, by period start; recomputed for the affected week and
+    // month on every daily log change under the write lock, and rebuilt on load
+    private final EnumMap<DatabaseHelper.Rollup, HashMap<Integer, TreeMap<LocalDate, DatabaseHelper.NutritionRollup>>> rollups =
+            new EnumMap<>(Map.of(DatabaseHelper.Rollup.WEEK, new HashMap<>(), DatabaseHelper.Rollup.MONTH, new HashMap<>()));
+
+    public EmbeddedNutritionStore() {
+        this(null);
+    }
+
+    public EmbeddedNutritionStore(String filePath) {
+        this.file = filePath == null || filePath.isEmpty() ? null : Paths.get(filePath);
+    }
+
+    @Override
+    public void initialize() {
+        lock.writeLock().lock();
+        try {
+            if (file != null && Files.exists(file)) {
+                tables = load(file);
+            }
+            rebuildStats();
+            rebuildRollups();
+            createDefaultAdmin();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (file != null && flusher == null) {
+            flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "ecoeats-embedded-flush");
+                t.setDaemon(true);
+                return t;
+            });
+            flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+        System.out.println("Embedded store initialized" + (file != null ? ": " + file : " (in-memory)"));
+    }
+
+    private void createDefaultAdmin() {
+        for (DatabaseHelper.UserData user : tables.users.values()) {
+            if ("admin".equals(user.role)) {
+                return;
+            }
+        }
+        insertUser("System Administrator", "admin@ecoeats.com", 30, "Other", "Moderately Active",
+                PasswordHasher.hash("Admin@123"), "admin");
+        System.out.println("Default admin created: admin@ecoeats.com / Admin@123");
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        flush();
+    }
+
+    // ==================== PERSISTENCE ====================
+
+    private void markDirty() {
+        dirty = true;
+    }
+
+    private void flush() {
+        if (file == null || readOnly || !dirty) {
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        lock.readLock().lock();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            dirty = false;
+            out.writeObject(tables);
+        } catch (IOException e) {
+            dirty = true;
+            System.err.println("Embedded store snapshot error: " + e.getMessage());
+            return;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        try {
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            Files.write(tmp, bytes.toByteArray());
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            System.err.println("Embedded store write error: " + e.getMessage());
+        }
+    }
+
+    // A snapshot that cannot be read is moved aside before starting empty, so the next flush
+    // cannot replace the only copy of the user's data. If it cannot be moved, nothing is written.
+    private Tables load(Path file) {
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return (Tables) in.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            System.err.println("Embedded store load error: " + e.getMessage());
+        }
+        Path aside = file.resolveSibling(file.getFileName() + ".unreadable-" + System.currentTimeMillis());
+        try {
+            Files.move(file, aside);
+            System.err.println("Embedded store: unreadable snapshot moved to " + aside + ", starting empty");
+        } catch (IOException e) {
+            readOnly = true;
+            System.err.println("Embedded store: could not move the unreadable snapshot aside (" + e.getMessage()
+                    + "); changes will not be saved");
+        }
+        return new Tables();
+    }
+
+    // ==================== USERS ====================
+
+    @Override
+    public boolean registerUser(String fullName, String email, int age,
+                                String gender, String activityLevel, String passwordHash, String role) {
+        lock.writeLock().lock();
+        try {
+            if (tables.userIdsByEmail.containsKey(normalize(email))) {
+                System.err.println("Registration error: Duplicate entry '" + email + "' for key 'email'");
+                return false;
+            }
+            int userId = insertUser(fullName, email, age, gender, activityLevel, passwordHash, role);
+            if (role.equals("user")) {
+                DatabaseHelper.NutritionGoals goals = defaultGoals();
+                goals.userId = userId;
+                tables.goals.put(userId, goals);
+            }
+            markDirty();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int insertUser(String fullName, String email, int age, String gender,
+                           String activityLevel, String passwordHash, String role) {
+        DatabaseHelper.UserData user = new DatabaseHelper.UserData();
+        user.id = ++tables.lastUserId;
+        user.fullName = fullName;
+        user.email = email;
+        user.age = age;
+        user.gender = gender;
+        user.activityLevel = activityLevel;
+        user.role = role;
+        user.createdAt = new Timestamp(System.currentTimeMillis());
+        tables.users.put(user.id, user);
+        if ("user".equals(role)) {
+            regularUsers++;
+        }
+        tables.userIdsByEmail.put(normalize(email), user.id);
+        tables.passwords.put(user.id, passwordHash);
+        markDirty();
+        return user.id;
+    }
+
+    @Override
+    public boolean emailExists(String email) {
+        lock.readLock().lock();
+        try {
+            return tables.userIdsByEmail.containsKey(normalize(email));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String getPasswordHash(String email) {
+        lock.readLock().lock();
+        try {
+            Integer userId = tables.userIdsByEmail.get(normalize(email));
+            return userId == null ? null : tables.passwords.get(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public DatabaseHelper.UserData getUserByEmail(String email) {
+        lock.readLock().lock();
+        try {
+            Integer userId = tables.userIdsByEmail.get(normalize(email));
+            return userId == null ? null : copy(tables.users.get(userId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public DatabaseHelper.LoginRecord getLoginRecord(String email, LocalDate date) {
+        lock.readLock().lock();
+        try {
+            Integer userId = tables.userIdsByEmail.get(normalize(email));
+            if (userId == null) {
+                return null;
+            }
+            DatabaseHelper.LoginRecord record = new DatabaseHelper.LoginRecord();
+            record.user = copy(tables.users.get(userId));
+            record.passwordHash = tables.passwords.get(userId);
+            DatabaseHelper.NutritionGoals goals = tables.goals.get(userId);
+            record.goals = goals == null ? null : copy(goals);
+            TreeMap<LocalDate, DatabaseHelper.DailyLog> logs = tables.dailyLogs.get(userId);
+            DatabaseHelper.DailyLog log = logs == null ? null : logs.get(date);
+            if (log != null) {
+                record.todayLog = copy(log);
+            } else {
+                record.todayLog = new DatabaseHelper.DailyLog();
+                record.todayLog.userId = userId;
+                record.todayLog.logDate = date;
+            }
+            return record;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean updatePassword(String email, String passwordHash) {
+        lock.writeLock().lock();
+        try {
+            Integer userId = tables.userIdsByEmail.get(normalize(email));
+            if (userId == null) {
+                return false;
+            }
+            tables.passwords.put(userId, passwordHash);
+            markDirty();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean replacePasswordHash(String email, String expectedHash, String passwordHash) {
+        lock.writeLock().lock();
+        try {
+            Integer userId = tables.userIdsByEmail.get(normalize(email));
+            if (userId == null || !expectedHash.equals(tables.passwords.get(userId))) {
+                return false;
+            }
+            tables.passwords.put(userId, passwordHash);
+            markDirty();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean updateUserProfile(int userId, String fullName, int age, String gender, String activityLevel) {
+        lock.writeLock().lock();
+        try {
+            DatabaseHelper.UserData user = tables.users.get(userId);
+            if (user == null) {
+                return false;
+            }
+            user.fullName = fullName;
+            user.age = age;
+            user.gender = gender;
+            user.activityLevel = activityLevel;
+            markDirty();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ==================== GOALS & DAILY LOGS ====================
+
+    @Override
+    public DatabaseHelper.NutritionGoals getUserGoals(int userId) {
+        lock.readLock().lock();
+        try {
+            DatabaseHelper.NutritionGoals goals = tables.goals.get(userId);
+            return goals == null ? null : copy(goals);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean updateUserGoals(DatabaseHelper.NutritionGoals goals) {
+        lock.writeLock().lock();
+        try {
+            if (!tables.users.containsKey(goals.userId)) {
+                System.err.println("Update goals error: unknown user " + goals.userId);
+                return false;
+            }
+            tables.goals.put(goals.userId, copy(goals));
+            // Days at goal are counted against the current goals
+            rebuildRollups(goals.userId);
+            markDirty();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public DatabaseHelper.DailyLog getLogForDate(int userId, LocalDate date) {
+        lock.readLock().lock();
+        try {
+            TreeMap<LocalDate, DatabaseHelper.DailyLog> logs = tables.dailyLogs.get(userId);
+            DatabaseHelper.DailyLog log = logs == null ? null : logs.get(date);
+            if (log != null) {
+                return copy(log);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        DatabaseHelper.DailyLog log = new DatabaseHelper.DailyLog();
+        log.userId = userId;
+        log.logDate = date;
+        return log;
+    }
+
+    @Override
+    public List<DatabaseHelper.DailyLog> getDailyLogs(int userId, LocalDate from, LocalDate to) {
+        List<DatabaseHelper.DailyLog> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            TreeMap<LocalDate, DatabaseHelper.DailyLog> logs = tables.dailyLogs.get(userId);
+            if (logs != null) {
+                for (DatabaseHelper.DailyLog log : logs.subMap(from, true, to, true).values()) {
+                    result.add(copy(log));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public List<DatabaseHelper.DailyLog> getRolledUpLogs(int userId, LocalDate from, LocalDate to, DatabaseHelper.Rollup rollup) {
+        HashMap<Integer, TreeMap<LocalDate, DatabaseHelper.NutritionRollup>> byUser = rollups.get(rollup);
+        if (byUser == null) {
+            return getDailyLogs(userId, from, to);
+        }
+        List<DatabaseHelper.DailyLog> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            TreeMap<LocalDate, DatabaseHelper.NutritionRollup> byStart = byUser.get(userId);
+            if (byStart != null) {
+                for (DatabaseHelper.NutritionRollup bucket : byStart.subMap(rollup.start(from), true, to, true).values()) {
+                    result.add(averageOf(bucket));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public boolean addNutritionData(int userId, LocalDate date, DatabaseHelper.NutritionData data) {
+        lock.writeLock().lock();
+        try {
+            if (!tables.users.containsKey(userId)) {
+                System.err.println("Add nutrition data error: unknown user " + userId);
+                return false;
+            }
+            addToDailyLog(dailyLog(userId, date), data);
+            refreshRollups(userId, date);
+            markDirty();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void addToDailyLog(DatabaseHelper.DailyLog log, DatabaseHelper.NutritionData data) {
+        log.calories += data.calories;
+        log.protein_g += data.protein_g;
+        log.carbs_g += data.carbs_g;
+        log.fats_g += data.fats_g;
+        log.water_ml += data.water_ml;
+        log.calcium_mg += data.calcium_mg;
+        log.potassium_mg += data.potassium_mg;
+        log.sodium_mg += data.sodium_mg;
+        log.magnesium_mg += data.magnesium_mg;
+        log.iron_mg += data.iron_mg;
+        log.zinc_mg += data.zinc_mg;
+        log.vitamin_a_iu += data.vitamin_a_iu;
+        log.vitamin_d_iu += data.vitamin_d_iu;
+        log.vitamin_e_iu += data.vitamin_e_iu;
+        log.vitamin_k_mcg += data.vitamin_k_mcg;
+    }
+
+    private DatabaseHelper.DailyLog dailyLog(int userId, LocalDate date) {
+        return tables.dailyLogs.computeIfAbsent(userId, k -> new TreeMap<>()).computeIfAbsent(date, d -> {
+            DatabaseHelper.DailyLog log = new DatabaseHelper.DailyLog();
+            log.userId = userId;
+            log.logDate = d;
+            return log;
+        });
+    }
+
+    @Override
+    public boolean resetDailyLog(int userId, LocalDate date) {
+        lock.writeLock().lock();
+        try {
+            TreeMap<LocalDate, DatabaseHelper.DailyLog> logs = tables.dailyLogs.get(userId);
+            if (logs == null || logs.remove(date) == null) {
+                return false;
+            }
+            refreshRollups(userId, date);
+            markDirty();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Double> getAverageNutrition(int userId, int days) {
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusDays(days - 1);
+        // Whole weeks come from the weekly rollups, only the days either side of them from the logs
+        LocalDate weeksFrom = DatabaseHelper.Rollup.WEEK.start(from.plusDays(6));
+        LocalDate weeksTo = DatabaseHelper.Rollup.WEEK.start(today.plusDays(1));
+        if (weeksTo.isBefore(weeksFrom)) {
+            weeksTo = weeksFrom;
+        }
+        String[] keys = DatabaseHelper.NutritionRollup.NUTRIENTS;
+        double[] sums = new double[keys.length];
+        int loggedDays = 0;
+        lock.readLock().lock();
+        try {
+            TreeMap<LocalDate, DatabaseHelper.NutritionRollup> weeks = rollups.get(DatabaseHelper.Rollup.WEEK).get(userId);
+            if (weeks != null) {
+                for (DatabaseHelper.NutritionRollup week : weeks.subMap(weeksFrom, true, weeksTo, false).values()) {
+                    for (int i = 0; i < keys.length; i++) {
+                        sums[i] += week.sum[i];
+                    }
+                    loggedDays += week.days;
+                }
+            }
+            TreeMap<LocalDate, DatabaseHelper.DailyLog> logs = tables.dailyLogs.get(userId);
+            if (logs != null) {
+                for (DatabaseHelper.DailyLog log : logs.subMap(from, true, today, true).values()) {
+                    if (!log.logDate.isBefore(weeksFrom) && log.logDate.isBefore(weeksTo)) {
+                        continue;
+                    }
+                    int[] values = nutrients(log);
+                    for (int i = 0; i < keys.length; i++) {
+                        sums[i] += values[i];
+                    }
+                    loggedDays++;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Map<String, Double> averages = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            averages.put(keys[i], loggedDays == 0 ? 0.0 : sums[i] / loggedDays);
+        }
+        return averages;
+    }
+
+    // ==================== FOODS ====================
+
+    @Override
+    public List<DatabaseHelper.FoodItem> searchFoods(String query, int limit) {
+        String needle = normalize(query);
+        List<DatabaseHelper.FoodItem> foods = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (DatabaseHelper.FoodItem food : tables.foods.values()) {
+                if (foods.size() >= limit) {
+                    break;
+                }
+                if (needle.isEmpty() || normalize(food.name).contains(needle)) {
+                    foods.add(copy(food));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return foods;
+    }
+
+    @Override
+    public DatabaseHelper.FoodItem getFoodItem(String name) {
+        lock.readLock().lock();
+        try {
+            Integer foodId = tables.foodIdsByName.get(normalize(name));
+            return foodId == null ? null : copy(tables.foods.get(foodId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public DatabaseHelper.FoodItem getFoodItemById(int id) {
+        lock.readLock().lock();
+        try {
+            DatabaseHelper.FoodItem food = tables.foods.get(id);
+            return food == null ? null : copy(food);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==================== FOOD LOGS ====================
+
+    @Override
+    public boolean logFoodConsumption(int userId, int foodItemId, int quantity, String unit,
+                                      String mealType, LocalDateTime consumedAt) {
+        lock.writeLock().lock();
+        try {
+            if (!tables.users.containsKey(userId) || !tables.foods.containsKey(foodItemId)) {
+                System.err.println("Log food consumption error: unknown user or food item");
+                return false;
+            }
+            insertFoodLog(userId, foodItemId, quantity, unit, mealType, consumedAt);
+            markDirty();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insertFoodLog(int userId, int foodItemId, int quantity, String unit,
+                               String mealType, LocalDateTime consumedAt) {
+        FoodLog entry = new FoodLog();
+        entry.id = ++tables.lastFoodLogId;
+        entry.userId = userId;
+        entry.foodItemId = foodItemId;
+        entry.quantity = quantity;
+        entry.unit = unit;
+        entry.mealType = mealType;
+        entry.consumedAt = consumedAt;
+        tables.foodLogs.put(entry.id, entry);
+        tables.foodLogsByUserDate.computeIfAbsent(userId, k -> new TreeMap<>())
+                .computeIfAbsent(consumedAt.toLocalDate(), d -> new ArrayList<>()).add(entry.id);
+        foodLogsPerDay.merge(consumedAt.toLocalDate(), 1, Integer::sum);
+    }
+
+    @Override
+    public boolean logMeals(List<DatabaseHelper.MealLogEntry> entries) {
+        lock.writeLock().lock();
+        try {
+            // Validate everything first so a bad entry leaves no partial writes
+            for (DatabaseHelper.MealLogEntry entry : entries) {
+                if (!tables.users.containsKey(entry.userId) || !tables.foods.containsKey(entry.foodItemId)) {
+                    System.err.println("Log meals error: unknown user or food item");
+                    return false;
+                }
+            }
+            for (DatabaseHelper.MealLogEntry entry : entries) {
+                insertFoodLog(entry.userId, entry.foodItemId, entry.quantity, entry.unit, entry.mealType, entry.consumedAt);
+                addToDailyLog(dailyLog(entry.userId, entry.consumedAt.toLocalDate()), entry.nutrition);
+                refreshRollups(entry.userId, entry.consumedAt.toLocalDate());
+            }
+            markDirty();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<DatabaseHelper.MealEntry> getMealsForDate(int userId, LocalDate date) {
+        List<DatabaseHelper.MealEntry> meals = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (FoodLog entry : foodLogsFor(userId, date)) {
+                meals.add(toMealEntry(entry));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        meals.sort((a, b) -> b.consumedAt.compareTo(a.consumedAt));
+        return meals;
+    }
+
+    private DatabaseHelper.MealEntry toMealEntry(FoodLog entry) {
+        DatabaseHelper.FoodItem food = tables.foods.get(entry.foodItemId);
+        double multiplier = (double) entry.quantity / food.baseQuantity;
+        DatabaseHelper.MealEntry meal = new DatabaseHelper.MealEntry();
+        meal.logId = entry.id;
+        meal.userId = entry.userId;
+        meal.foodItemId = entry.foodItemId;
+        meal.consumedAt = entry.consumedAt;
+        meal.mealType = entry.mealType;
+        meal.foodName = food.name;
+        meal.quantity = entry.quantity;
+        meal.unit = entry.unit;
+        meal.calories = (int) Math.round(food.calories * multiplier);
+        meal.protein = Math.round(food.protein_g * multiplier * 10) / 10.0;
+        meal.carbs = Math.round(food.carbs_g * multiplier * 10) / 10.0;
+        meal.fats = Math.round(food.fats_g * multiplier * 10) / 10.0;
+        return meal;
+    }
+
+    private List<FoodLog> foodLogsFor(int userId, LocalDate date) {
+        List<FoodLog> entries = new ArrayList<>();
+        TreeMap<LocalDate, List<Integer>> byDate = tables.foodLogsByUserDate.get(userId);
+        List<Integer> ids = byDate == null ? null : byDate.get(date);
+        if (ids != null) {
+            for (Integer id : ids) {
+                entries.add(tables.foodLogs.get(id));
+            }
+        }
+        return entries;
+    }
+
+    @Override
+    public boolean deleteMeal(int logId) {
+        lock.writeLock().lock();
+        try {
+            FoodLog entry = tables.foodLogs.get(logId);
+            if (entry == null) {
+                return false;
+            }
+            DatabaseHelper.NutritionData delta = new DatabaseHelper.NutritionData();
+            delta.subtract(tables.foods.get(entry.foodItemId).calculateNutrition(entry.quantity));
+            removeFoodLog(entry);
+            applyDelta(entry.userId, entry.consumedAt.toLocalDate(), delta);
+            markDirty();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean updateMealQuantity(int logId, int newQuantity) {
+        if (newQuantity <= 0) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            FoodLog entry = tables.foodLogs.get(logId);
+            if (entry == null) {
+                return false;
+            }
+            DatabaseHelper.FoodItem food = tables.foods.get(entry.foodItemId);
+            DatabaseHelper.NutritionData delta = food.calculateNutrition(newQuantity);
+            delta.subtract(food.calculateNutrition(entry.quantity));
+            entry.quantity = newQuantity;
+            applyDelta(entry.userId, entry.consumedAt.toLocalDate(), delta);
+            markDirty();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyDelta(int userId, LocalDate date, DatabaseHelper.NutritionData delta) {
+        TreeMap<LocalDate, DatabaseHelper.DailyLog> byDate = tables.dailyLogs.get(userId);
+        DatabaseHelper.DailyLog log = byDate == null ? null : byDate.get(date);
+        if (log == null) {
+            return;
+        }
+        if (log.calories + delta.calories < 0 || log.protein_g + delta.protein_g < 0
+                || log.carbs_g + delta.carbs_g < 0 || log.fats_g + delta.fats_g < 0
+                || log.water_ml + delta.water_ml < 0 || log.calcium_mg + delta.calcium_mg < 0
+                || log.potassium_mg + delta.potassium_mg < 0 || log.sodium_mg + delta.sodium_mg < 0
+                || log.magnesium_mg + delta.magnesium_mg < 0 || log.iron_mg + delta.iron_mg < 0
+                || log.zinc_mg + delta.zinc_mg < 0 || log.vitamin_a_iu + delta.vitamin_a_iu < 0
+                || log.vitamin_d_iu + delta.vitamin_d_iu < 0 || log.vitamin_e_iu + delta.vitamin_e_iu < 0
+                || log.vitamin_k_mcg + delta.vitamin_k_mcg < 0) {
+            // A total would go negative: the row has drifted from its food logs, so rebuild it
+            recalculateDailyLog(userId, date);
+        } else {
+            addToDailyLog(log, delta);
+            refreshRollups(userId, date);
+        }
+    }
+
+    private void removeFoodLog(FoodLog entry) {
+        tables.foodLogs.remove(entry.id);
+        foodLogsPerDay.merge(entry.consumedAt.toLocalDate(), -1, Integer::sum);
+        TreeMap<LocalDate, List<Integer>> byDate = tables.foodLogsByUserDate.get(entry.userId);
+        if (byDate != null) {
+            LocalDate date = entry.consumedAt.toLocalDate();
+            List<Integer> ids = byDate.get(date);
+            if (ids != null) {
+                ids.remove(Integer.valueOf(entry.id));
+                if (ids.isEmpty()) {
+                    byDate.remove(date);
+                }
+            }
+        }
+    }
+
+    private void recalculateDailyLog(int userId, LocalDate date) {
+        // Rebuild the day's totals from its remaining food logs, keeping the water intake
+        DatabaseHelper.DailyLog log = dailyLog(userId, date);
+        int water = log.water_ml;
+        DatabaseHelper.DailyLog totals = new DatabaseHelper.DailyLog();
+        for (FoodLog entry : foodLogsFor(userId, date)) {
+            DatabaseHelper.FoodItem food = tables.foods.get(entry.foodItemId);
+            double m = (double) entry.quantity / food.baseQuantity;
+            totals.calories += Math.round(food.calories * m);
+            totals.protein_g += Math.round(food.protein_g * m);
+            totals.carbs_g += Math.round(food.carbs_g * m);
+            totals.fats_g += Math.round(food.fats_g * m);
+            totals.calcium_mg += Math.round(food.calcium_mg * m);
+            totals.potassium_mg += Math.round(food.potassium_mg * m);
+            totals.sodium_mg += Math.round(food.sodium_mg * m);
+            totals.magnesium_mg += Math.round(food.magnesium_mg * m);
+            totals.iron_mg += Math.round(food.iron_mg * m);
+            totals.zinc_mg += Math.round(food.zinc_mg * m);
+            totals.vitamin_a_iu += Math.round(food.vitamin_a_iu * m);
+            totals.vitamin_d_iu += Math.round(food.vitamin_d_iu * m);
+            totals.vitamin_e_iu += Math.round(food.vitamin_e_iu * m);
+            totals.vitamin_k_mcg += Math.round(food.vitamin_k_mcg * m);
+        }
+        totals.userId = userId;
+        totals.logDate = date;
+        totals.water_ml = water;
+        tables.dailyLogs.get(userId).put(date, totals);
+        refreshRollups(userId, date);
+    }
+
+    // ==================== HISTORY EXPORT ====================
+
+    @Override
+    public boolean forEachFoodLog(Integer userId, LocalDate from, LocalDate to,
+                                  Consumer<DatabaseHelper.MealEntry> action) {
+        // One user's rows are copied under the lock at a time, so writers are not held up by the export
+        for (Integer id : exportUserIds(userId)) {
+            List<DatabaseHelper.MealEntry> meals = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                TreeMap<LocalDate, List<Integer>> byDate = tables.foodLogsByUserDate.get(id);
+                if (byDate != null) {
+                    for (List<Integer> ids : range(byDate, from, to).values()) {
+                        for (Integer logId : ids) {
+                            meals.add(toMealEntry(tables.foodLogs.get(logId)));
+                        }
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            meals.sort(Comparator.comparing((DatabaseHelper.MealEntry m) -> m.consumedAt).thenComparingInt(m -> m.logId));
+            meals.forEach(action);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean forEachDailyLog(Integer userId, LocalDate from, LocalDate to,
+                                   Consumer<DatabaseHelper.DailyLog> action) {
+        for (Integer id : exportUserIds(userId)) {
+            List<DatabaseHelper.DailyLog> logs = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                TreeMap<LocalDate, DatabaseHelper.DailyLog> byDate = tables.dailyLogs.get(id);
+                if (byDate != null) {
+                    for (DatabaseHelper.DailyLog log : range(byDate, from, to).values()) {
+                        logs.add(copy(log));
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            logs.forEach(action);
+        }
+        return true;
+    }
+
+    private List<Integer> exportUserIds(Integer userId) {
+        if (userId != null) {
+            return List.of(userId);
+        }
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(tables.users.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static <V> NavigableMap<LocalDate, V> range(TreeMap<LocalDate, V> byDate, LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, V> view = byDate;
+        if (from != null) {
+            view = view.tailMap(from, true);
+        }
+        if (to != null) {
+            view = view.headMap(to, true);
+        }
+        return view;
+    }
+
+    // ==================== ADMIN ====================
+
+    @Override
+    public List<DatabaseHelper.UserData> getAllUsers() {
+        List<DatabaseHelper.UserData> users = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (DatabaseHelper.UserData user : tables.users.descendingMap().values()) {
+                users.add(copy(user));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return users;
+    }
+
+    @Override
+    public List<DatabaseHelper.UserData> getUsersPage(DatabaseHelper.PageRequest request) {
+        String sort = sortColumn(request.sortColumn, DatabaseHelper.USER_SORT_COLUMNS);
+        List<DatabaseHelper.UserData> users = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (DatabaseHelper.UserData user : page(tables.users.values(), request, sort,
+                    EmbeddedNutritionStore::matchesUser, DatabaseHelper::userSortValue, u -> u.id)) {
+                users.add(copy(user));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return users;
+    }
+
+    @Override
+    public int countUsers(String filter) {
+        lock.readLock().lock();
+        try {
+            return count(tables.users.values(), filter, EmbeddedNutritionStore::matchesUser);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean matchesUser(DatabaseHelper.UserData user, String filter) {
+        return contains(user.fullName, filter) || contains(user.email, filter);
+    }
+
+    @Override
+    public boolean deleteUser(int userId, int adminId) {
+        lock.writeLock().lock();
+        try {
+            DatabaseHelper.UserData user = tables.users.get(userId);
+            if (user == null || "admin".equals(user.role)) {
+                return false;
+            }
+            tables.users.remove(userId);
+            if ("user".equals(user.role)) {
+                regularUsers--;
+            }
+            tables.userIdsByEmail.remove(normalize(user.email));
+            tables.passwords.remove(userId);
+            tables.goals.remove(userId);
+            tables.dailyLogs.remove(userId);
+            for (HashMap<Integer, TreeMap<LocalDate, DatabaseHelper.NutritionRollup>> byUser : rollups.values()) {
+                byUser.remove(userId);
+            }
+            TreeMap<LocalDate, List<Integer>> byDate = tables.foodLogsByUserDate.remove(userId);
+            if (byDate != null) {
+                for (Map.Entry<LocalDate, List<Integer>> day : byDate.entrySet()) {
+                    for (Integer id : day.getValue()) {
+                        tables.foodLogs.remove(id);
+                    }
+                    foodLogsPerDay.merge(day.getKey(), -day.getValue().size(), Integer::sum);
+                }
+            }
+            AuditLogWriter.record(adminId, "DELETE", "users", userId, "Deleted user ID: " + userId);
+            markDirty();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean updateUser(int userId, String fullName, int age, String gender,
+                              String activityLevel, int adminId) {
+        lock.writeLock().lock();
+        try {
+            if (!updateUserProfile(userId, fullName, age, gender, activityLevel)) {
+                return false;
+            }
+            AuditLogWriter.record(adminId, "UPDATE", "users", userId, "Updated user: " + fullName);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<DatabaseHelper.FoodItem> getAllFoods() {
+        List<DatabaseHelper.FoodItem> foods = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Integer foodId : tables.foodIdsByName.values()) {
+                foods.add(copy(tables.foods.get(foodId)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return foods;
+    }
+
+    @Override
+    public List<DatabaseHelper.FoodItem> getFoodsPage(DatabaseHelper.PageRequest request) {
+        String sort = sortColumn(request.sortColumn, DatabaseHelper.FOOD_SORT_COLUMNS);
+        List<DatabaseHelper.FoodItem> foods = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (DatabaseHelper.FoodItem food : page(tables.foods.values(), request, sort,
+                    (f, filter) -> contains(f.name, filter), DatabaseHelper::foodSortValue, f -> f.id)) {
+                foods.add(copy(food));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return foods;
+    }
+
+    @Override
+    public int countFoods(String filter) {
+        lock.readLock().lock();
+        try {
+            return count(tables.foods.values(), filter, (f, text) -> contains(f.name, text));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // One pass over the table keeping the wanted rows in a heap bounded by offset + limit, so a
+    // page costs O(n log page) rather than sorting the whole table
+    private static <T> List<T> page(Collection<T> rows, DatabaseHelper.PageRequest request, String sort,
+                                    BiPredicate<T, String> matches, BiFunction<T, String, Object> sortValue,
+                                    ToIntFunction<T> id) {
+        Comparator<T> order = (a, b) -> {
+            int c = compareSortValues(sortValue.apply(a, sort), sortValue.apply(b, sort));
+            return c != 0 ? c : Integer.compare(id.applyAsInt(a), id.applyAsInt(b));
+        };
+        if (request.descending) {
+            order = order.reversed();
+        }
+        if (request.limit <= 0) {
+            return new ArrayList<>();
+        }
+        boolean filtered = request.filter != null && !request.filter.isBlank();
+        String filter = filtered ? request.filter.trim().toLowerCase(Locale.ROOT) : null;
+        int skip = request.afterId != null ? 0 : Math.max(0, request.offset);
+        int keep = skip + request.limit;
+
+        PriorityQueue<T> heap = new PriorityQueue<>(Math.min(keep, 1024), order.reversed());
+        for (T row : rows) {
+            if (filtered && !matches.test(row, filter)) {
+                continue;
+            }
+            if (request.afterId != null) {
+                int c = compareSortValues(sortValue.apply(row, sort), request.afterValue);
+                if (c == 0) {
+                    c = Integer.compare(id.applyAsInt(row), request.afterId);
+                }
+                if ((request.descending ? -c : c) <= 0) {
+                    continue;
+                }
+            }
+            if (heap.size() < keep) {
+                heap.add(row);
+            } else if (order.compare(row, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(row);
+            }
+        }
+
+        List<T> page = new ArrayList<>(heap);
+        page.sort(order);
+        return page.size() <= skip ? new ArrayList<>() : new ArrayList<>(page.subList(skip, page.size()));
+    }
+
+    private static <T> int count(Collection<T> rows, String filter, BiPredicate<T, String> matches) {
+        if (filter == null || filter.isBlank()) {
+            return rows.size();
+        }
+        String text = filter.trim().toLowerCase(Locale.ROOT);
+        int count = 0;
+        for (T row : rows) {
+            if (matches.test(row, text)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String sortColumn(String requested, List<String> allowed) {
+        return requested != null && allowed.contains(requested) ? requested : allowed.get(0);
+    }
+
+    // Strings compare case-insensitively, like the MySQL collation the other backend sorts with
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareSortValues(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        if (a instanceof String && b instanceof String) {
+            return ((String) a).compareToIgnoreCase((String) b);
+        }
+        return ((Comparable) a).compareTo(b);
+    }
+
+    // filter is already lower case
+    private static boolean contains(String value, String filter) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(filter);
+    }
+
+    @Override
+    public boolean addFoodItem(DatabaseHelper.FoodItem food, int adminId) {
+        lock.writeLock().lock();
+        try {
+            if (tables.foodIdsByName.containsKey(normalize(food.name))) {
+                System.err.println("Add food item error: Duplicate entry '" + food.name + "' for key 'name'");
+                return false;
+            }
+            food.id = ++tables.lastFoodId;
+            tables.foods.put(food.id, copy(food));
+            tables.foodIdsByName.put(normalize(food.name), food.id);
+            AuditLogWriter.record(adminId, "CREATE", "food_items", food.id, "Added food: " + food.name);
+            markDirty();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean updateFoodItem(DatabaseHelper.FoodItem food, int adminId) {
+        lock.writeLock().lock();
+        try {
+            DatabaseHelper.FoodItem existing = tables.foods.get(food.id);
+            if (existing == null) {
+                return false;
+            }
+            Integer owner = tables.foodIdsByName.get(normalize(food.name));
+            if (owner != null && owner != food.id) {
+                System.err.println("Update food item error: Duplicate entry '" + food.name + "' for key 'name'");
+                return false;
+            }
+            tables.foodIdsByName.remove(normalize(existing.name));
+            tables.foods.put(food.id, copy(food));
+            tables.foodIdsByName.put(normalize(food.name), food.id);
+            AuditLogWriter.record(adminId, "UPDATE", "food_items", food.id, "Updated food: " + food.name);
+            markDirty();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean deleteFoodItem(int foodId, int adminId) {
+        lock.writeLock().lock();
+        try {
+            DatabaseHelper.FoodItem food = tables.foods.remove(foodId);
+            if (food == null) {
+                return false;
+            }
+            tables.foodIdsByName.remove(normalize(food.name));
+            for (FoodLog entry : new ArrayList<>(tables.foodLogs.values())) {
+                if (entry.foodItemId == foodId) {
+                    removeFoodLog(entry);
+                }
+            }
+            AuditLogWriter.record(adminId, "DELETE", "food_items", foodId, "Deleted food ID: " + foodId);
+            markDirty();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean upsertFoodItems(List<DatabaseHelper.FoodItem> foods) {
+        lock.writeLock().lock();
+        try {
+            for (DatabaseHelper.FoodItem food : foods) {
+                Integer id = tables.foodIdsByName.get(normalize(food.name));
+                DatabaseHelper.FoodItem row = copy(food);
+                row.id = id != null ? id : ++tables.lastFoodId;
+                tables.foods.put(row.id, row);
+                tables.foodIdsByName.put(normalize(row.name), row.id);
+            }
+            markDirty();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean appendAdminLogs(List<DatabaseHelper.AdminLogEntry> entries) {
+        lock.writeLock().lock();
+        try {
+            for (DatabaseHelper.AdminLogEntry entry : entries) {
+                AdminLog log = new AdminLog();
+                log.id = ++tables.lastAdminLogId;
+                log.adminId = entry.adminId;
+                log.actionType = entry.actionType;
+                log.targetTable = entry.targetTable;
+                log.targetId = entry.targetId;
+                log.details = entry.details;
+                log.performedAt = entry.performedAt;
+                // Entries reach the store in batches, so one can be slightly older than the last
+                // one stored; keep the list in performed_at order for getAdminLogs
+                int index = tables.adminLogs.size();
+                while (index > 0 && tables.adminLogs.get(index - 1).performedAt.isAfter(log.performedAt)) {
+                    index--;
+                }
+                tables.adminLogs.add(index, log);
+                adminActionsPerDay.merge(log.performedAt.toLocalDate(), 1, Integer::sum);
+            }
+            markDirty();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<DatabaseHelper.AdminLogEntry> getAdminLogs(Integer adminId, LocalDateTime from, LocalDateTime to,
+                                                           DatabaseHelper.AdminLogEntry before, int limit) {
+        List<DatabaseHelper.AdminLogEntry> entries = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            // adminLogs is kept in performed_at order, so newest first is a walk backwards
+            for (int i = tables.adminLogs.size() - 1; i >= 0 && entries.size() < limit; i--) {
+                AdminLog log = tables.adminLogs.get(i);
+                if (before != null && (log.performedAt.isAfter(before.performedAt)
+                        || log.performedAt.equals(before.performedAt) && log.id >= before.id)) {
+                    continue;
+                }
+                if (from != null && log.performedAt.isBefore(from)) {
+                    break;
+                }
+                if ((adminId != null && log.adminId != adminId) || (to != null && !log.performedAt.isBefore(to))) {
+                    continue;
+                }
+                DatabaseHelper.AdminLogEntry entry = new DatabaseHelper.AdminLogEntry();
+                entry.id = log.id;
+                entry.adminId = log.adminId;
+                DatabaseHelper.UserData admin = tables.users.get(log.adminId);
+                entry.adminName = admin == null ? null : admin.fullName;
+                entry.actionType = log.actionType;
+                entry.targetTable = log.targetTable;
+                entry.targetId = log.targetId;
+                entry.details = log.details;
+                entry.performedAt = log.performedAt;
+                entries.add(entry);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return entries;
+    }
+
+    @Override
+    public Map<String, Integer> getSystemStats() {
+        Map<String, Integer> stats = new HashMap<>();
+        LocalDate today = LocalDate.now();
+        lock.readLock().lock();
+        try {
+            stats.put("totalUsers", regularUsers);
+            stats.put("totalFoods", tables.foods.size());
+            stats.put("todayLogs", foodLogsPerDay.getOrDefault(today, 0));
+            stats.put("todayActions", adminActionsPerDay.getOrDefault(today, 0));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+
+    @Override
+    public boolean reconcileStats(LocalDate from, LocalDate to) {
+        lock.writeLock().lock();
+        try {
+            rebuildStats();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rebuildStats() {
+        regularUsers = 0;
+        for (DatabaseHelper.UserData user : tables.users.values()) {
+            if ("user".equals(user.role)) {
+                regularUsers++;
+            }
+        }
+        foodLogsPerDay.clear();
+        for (FoodLog entry : tables.foodLogs.values()) {
+            foodLogsPerDay.merge(entry.consumedAt.toLocalDate(), 1, Integer::sum);
+        }
+        adminActionsPerDay.clear();
+        for (AdminLog log : tables.adminLogs) {
+            adminActionsPerDay.merge(log.performedAt.toLocalDate(), 1, Integer::sum);
+        }
+    }
+
+    // ==================== ROLLUPS ====================
+
+    /** The rollups are recomputed on every change here, so a repair is a full rebuild. */
+    @Override
+    public boolean repairRollups(LocalDate from, LocalDate to) {
+        lock.writeLock().lock();
+        try {
+            rebuildRollups();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rebuildRollups() {
+        for (HashMap<Integer, TreeMap<LocalDate, DatabaseHelper.NutritionRollup>> byUser : rollups.values()) {
+            byUser.clear();
+        }
+        for (Integer userId : tables.dailyLogs.keySet()) {
+            rebuildRollups(userId);
+        }
+    }
+
+    private void rebuildRollups(int userId) {
+        TreeMap<LocalDate, DatabaseHelper.DailyLog> logs = tables.dailyLogs.get(userId);
+        for (DatabaseHelper.Rollup period : rollups.keySet()) {
+            rollups.get(period).remove(userId);
+            if (logs == null) {
+                continue;
+            }
+            LocalDate start = null;
+            for (LocalDate date : logs.keySet()) {
+                if (start == null || !date.isBefore(period.next(start))) {
+                    start = period.start(date);
+                    refreshRollup(userId, period, start);
+                }
+            }
+        }
+    }
+
+    // Recomputes the week and the month containing date from that user's daily logs
+    private void refreshRollups(int userId, LocalDate date) {
+        for (DatabaseHelper.Rollup period : rollups.keySet()) {
+            refreshRollup(userId, period, period.start(date));
+        }
+    }
+
+    private void refreshRollup(int userId, DatabaseHelper.Rollup period, LocalDate start) {
+        TreeMap<LocalDate, DatabaseHelper.DailyLog> logs = tables.dailyLogs.get(userId);
+        Collection<DatabaseHelper.DailyLog> days = logs == null
+                ? Collections.emptyList() : logs.subMap(start, period.next(start)).values();
+        TreeMap<LocalDate, DatabaseHelper.NutritionRollup> byStart =
+                rollups.get(period).computeIfAbsent(userId, k -> new TreeMap<>());
+        if (days.isEmpty()) {
+            byStart.remove(start);
+            return;
+        }
+
+        DatabaseHelper.NutritionGoals goals = tables.goals.get(userId);
+        int[] targets = goals == null ? null : nutrients(goals);
+        DatabaseHelper.NutritionRollup rollup = new DatabaseHelper.NutritionRollup();
+        rollup.userId = userId;
+        rollup.period = period;
+        rollup.periodStart = start;
+        Arrays.fill(rollup.min, Integer.MAX_VALUE);
+        Arrays.fill(rollup.max, Integer.MIN_VALUE);
+        for (DatabaseHelper.DailyLog log : days) {
+            int[] values = nutrients(log);
+            rollup.days++;
+            for (int i = 0; i < values.length; i++) {
+                rollup.sum[i] += values[i];
+                rollup.min[i] = Math.min(rollup.min[i], values[i]);
+                rollup.max[i] = Math.max(rollup.max[i], values[i]);
+                if (targets != null && values[i] >= targets[i]) {
+                    rollup.met[i]++;
+                }
+            }
+        }
+        byStart.put(start, rollup);
+    }
+
+    // Per-day averages of a rollup, dated by its first day
+    private static DatabaseHelper.DailyLog averageOf(DatabaseHelper.NutritionRollup rollup) {
+        int[] avg = new int[DatabaseHelper.NutritionRollup.NUTRIENTS.length];
+        for (int i = 0; i < avg.length; i++) {
+            avg[i] = (int) Math.round(rollup.average(i));
+        }
+        DatabaseHelper.DailyLog log = new DatabaseHelper.DailyLog();
+        log.userId = rollup.userId;
+        log.logDate = rollup.periodStart;
+        log.calories = avg[0];
+        log.protein_g = avg[1];
+        log.carbs_g = avg[2];
+        log.fats_g = avg[3];
+        log.water_ml = avg[4];
+        log.calcium_mg = avg[5];
+        log.potassium_mg = avg[6];
+        log.sodium_mg = avg[7];
+        log.magnesium_mg = avg[8];
+        log.iron_mg = avg[9];
+        log.zinc_mg = avg[10];
+        log.vitamin_a_iu = avg[11];
+        log.vitamin_d_iu = avg[12];
+        log.vitamin_e_iu = avg[13];
+        log.vitamin_k_mcg = avg[14];
+        return log;
+    }
+
+    // In NutritionRollup.NUTRIENTS order
+    private static int[] nutrients(DatabaseHelper.DailyLog log) {
+        return new int[]{log.calories, log.protein_g, log.carbs_g, log.fats_g, log.water_ml,
+                log.calcium_mg, log.potassium_mg, log.sodium_mg, log.magnesium_mg, log.iron_mg, log.zinc_mg,
+                log.vitamin_a_iu, log.vitamin_d_iu, log.vitamin_e_iu, log.vitamin_k_mcg};
+    }
+
+    private static int[] nutrients(DatabaseHelper.NutritionGoals goals) {
+        return new int[]{goals.calories, goals.protein_g, goals.carbs_g, goals.fats_g, goals.water_ml,
+                goals.calcium_mg, goals.potassium_mg, goals.sodium_mg, goals.magnesium_mg, goals.iron_mg, goals.zinc_mg,
+                goals.vitamin_a_iu, goals.vitamin_d_iu, goals.vitamin_e_iu, goals.vitamin_k_mcg};
+    }
+
+    // ==================== HELPERS ====================
+
+    // MySQL's default collation compares emails and food names case-insensitively
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static DatabaseHelper.NutritionGoals defaultGoals() {
+        DatabaseHelper.NutritionGoals goals = new DatabaseHelper.NutritionGoals();
+        goals.calories = 2000;
+        goals.protein_g = 150;
+        goals.carbs_g = 250;
+        goals.fats_g = 65;
+        goals.water_ml = 2000;
+        goals.calcium_mg = 1000;
+        goals.potassium_mg = 3500;
+        goals.sodium_mg = 2300;
+        goals.magnesium_mg = 400;
+        goals.iron_mg = 18;
+        goals.zinc_mg = 11;
+        goals.vitamin_a_iu = 5000;
+        goals.vitamin_d_iu = 600;
+        goals.vitamin_e_iu = 22;
+        goals.vitamin_k_mcg = 120;
+        return goals;
+    }
+
+    private static DatabaseHelper.UserData copy(DatabaseHelper.UserData user) {
+        DatabaseHelper.UserData c = new DatabaseHelper.UserData();
+        c.id = user.id;
+        c.fullName = user.fullName;
+        c.email = user.email;
+        c.age = user.age;
+        c.gender = user.gender;
+        c.activityLevel = user.activityLevel;
+        c.role = user.role;
+        c.createdAt = user.createdAt;
+        return c;
+    }
+
+    private static DatabaseHelper.NutritionGoals copy(DatabaseHelper.NutritionGoals goals) {
+        DatabaseHelper.NutritionGoals c = new DatabaseHelper.NutritionGoals();
+        c.userId = goals.userId;
+        c.calories = goals.calories;
+        c.protein_g = goals.protein_g;
+        c.carbs_g = goals.carbs_g;
+        c.fats_g = goals.fats_g;
+        c.water_ml = goals.water_ml;
+        c.calcium_mg = goals.calcium_mg;
+        c.potassium_mg = goals.potassium_mg;
+        c.sodium_mg = goals.sodium_mg;
+        c.magnesium_mg = goals.magnesium_mg;
+        c.iron_mg = goals.iron_mg;
+        c.zinc_mg = goals.zinc_mg;
+        c.vitamin_a_iu = goals.vitamin_a_iu;
+        c.vitamin_d_iu = goals.vitamin_d_iu;
+        c.vitamin_e_iu = goals.vitamin_e_iu;
+        c.vitamin_k_mcg = goals.vitamin_k_mcg;
+        return c;
+    }
+
+    private static DatabaseHelper.DailyLog copy(DatabaseHelper.DailyLog log) {
+        DatabaseHelper.DailyLog c = new DatabaseHelper.DailyLog();
+        c.userId = log.userId;
+        c.logDate = log.logDate;
+        c.calories = log.calories;
+        c.protein_g = log.protein_g;
+        c.carbs_g = log.carbs_g;
+        c.fats_g = log.fats_g;
+        c.water_ml = log.water_ml;
+        c.calcium_mg = log.calcium_mg;
+        c.potassium_mg = log.potassium_mg;
+        c.sodium_mg = log.sodium_mg;
+        c.magnesium_mg = log.magnesium_mg;
+        c.iron_mg = log.iron_mg;
+        c.zinc_mg = log.zinc_mg;
+        c.vitamin_a_iu = log.vitamin_a_iu;
+        c.vitamin_d_iu = log.vitamin_d_iu;
+        c.vitamin_e_iu = log.vitamin_e_iu;
+        c.vitamin_k_mcg = log.vitamin_k_mcg;
+        return c;
+    }
+
+    private static DatabaseHelper.FoodItem copy(DatabaseHelper.FoodItem food) {
+        return food.copy();
+    }
+
+    // Inner classes
+    private static class Tables implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        int lastUserId;
+        int lastFoodId;
+        int lastFoodLogId;
+        int lastAdminLogId;
+        final TreeMap<Integer, DatabaseHelper.UserData> users = new TreeMap<>();
+        final HashMap<String, Integer> userIdsByEmail = new HashMap<>();
+        final HashMap<Integer, String> passwords = new HashMap<>();
+        final HashMap<Integer, DatabaseHelper.NutritionGoals> goals = new HashMap<>();
+        final HashMap<Integer, TreeMap<LocalDate, DatabaseHelper.DailyLog>> dailyLogs = new HashMap<>();
+        final TreeMap<Integer, DatabaseHelper.FoodItem> foods = new TreeMap<>();
+        final TreeMap<String, Integer> foodIdsByName = new TreeMap<>();
+        final HashMap<Integer, FoodLog> foodLogs = new HashMap<>();
+        final HashMap<Integer, TreeMap<LocalDate, List<Integer>>> foodLogsByUserDate = new HashMap<>();
+        final ArrayList<AdminLog> adminLogs = new ArrayList<>();
+    }
+
+    private static class FoodLog implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        int id;
+        int userId;
+        int foodItemId;
+        int quantity;
+        String unit;
+        String mealType;
+        LocalDateTime consumedAt;
+    }
+
+    private static class AdminLog implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        int id;
+        int adminId;
+        String actionType;
+        String targetTable;
+        Integer targetId;
+        String details;
+        LocalDateTime performedAt;
+    }
+}
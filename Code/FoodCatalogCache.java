@@ -0,0 +1,132 @@
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Food Catalog Cache - Read-through cache of food_items rows by id and by name
+ * Version: 1.0
+ * Features: LRU eviction bounded by ecoeats.foodCache.maxEntries, Case-insensitive name lookups,
+ *           Negative caching of unknown names, Per-item invalidation from the admin food operations
+ *
+ * Callers get their own copy of each item, so editing one (as the admin food editor does)
+ * cannot change what other callers see before the update is saved.
+ */
+public class FoodCatalogCache {
+    private final int maxEntries;
+    private final LinkedHashMap<Integer, DatabaseHelper.FoodItem> byId;
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    private final LinkedHashMap<String, Boolean> missingNames;
+
+    // Bumped by every invalidation so a load that raced with an admin edit is not cached
+    private long generation;
+    private long hits;
+    private long misses;
+
+    public FoodCatalogCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, DatabaseHelper.FoodItem> eldest) {
+                if (size() > FoodCatalogCache.this.maxEntries) {
+                    idsByName.remove(key(eldest.getValue().name));
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.missingNames = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > FoodCatalogCache.this.maxEntries;
+            }
+        };
+    }
+
+    public DatabaseHelper.FoodItem getByName(String name, Function<String, DatabaseHelper.FoodItem> loader) {
+        String key = key(name);
+        long loadGeneration;
+        synchronized (this) {
+            Integer id = idsByName.get(key);
+            if (id != null) {
+                hits++;
+                return byId.get(id).copy();
+            }
+            if (missingNames.containsKey(key)) {
+                hits++;
+                return null;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        DatabaseHelper.FoodItem food = loader.apply(name);
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                if (food == null) {
+                    missingNames.put(key, Boolean.TRUE);
+                } else {
+                    store(food);
+                }
+            }
+        }
+        return food;
+    }
+
+    public DatabaseHelper.FoodItem getById(int id, IntFunction<DatabaseHelper.FoodItem> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            DatabaseHelper.FoodItem cached = byId.get(id);
+            if (cached != null) {
+                hits++;
+                return cached.copy();
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        DatabaseHelper.FoodItem food = loader.apply(id);
+        synchronized (this) {
+            if (food != null && loadGeneration == generation) {
+                store(food);
+            }
+        }
+        return food;
+    }
+
+    /** Records a food that was just added or updated. */
+    public synchronized void put(DatabaseHelper.FoodItem food) {
+        invalidate(food.id);
+        missingNames.remove(key(food.name));
+        store(food);
+    }
+
+    public synchronized void invalidate(int id) {
+        generation++;
+        DatabaseHelper.FoodItem old = byId.remove(id);
+        if (old != null) {
+            idsByName.remove(key(old.name));
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        byId.clear();
+        idsByName.clear();
+        missingNames.clear();
+    }
+
+    private void store(DatabaseHelper.FoodItem food) {
+        byId.put(food.id, food.copy());
+        idsByName.put(key(food.name), food.id);
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public synchronized String getStats() {
+        long lookups = hits + misses;
+        return String.format("entries=%d, missingNames=%d, hits=%d, misses=%d, hitRate=%.1f%%",
+                byId.size(), missingNames.size(), hits, misses, lookups == 0 ? 0.0 : 100.0 * hits / lookups);
+    }
+}
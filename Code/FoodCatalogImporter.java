@@ -0,0 +1,457 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Predicate;
+
+/**
+ * Food Catalog Importer - Bulk load of nutrition datasets into food_items
+ * Version: 1.0
+ * Features: CSV (with header row) and JSON lines input, Streaming read in constant memory,
+ *           Parallel parsing across cores, Validation with per-line error reports,
+ *           Batched upserts by food name, Failed batches split to isolate bad rows
+ *
+ * Columns / JSON keys use the food_items column names: name, food_group, base_quantity,
+ * calories, protein_g, carbs_g, fats_g, water_ml, calcium_mg, potassium_mg, sodium_mg,
+ * magnesium_mg, iron_mg, zinc_mg, vitamin_a_iu, vitamin_d_iu, vitamin_e_iu, vitamin_k_mcg.
+ * Only name is required; base_quantity defaults to 100 and nutrients to 0. Each record must
+ * sit on one line (quoted CSV fields may not contain line breaks).
+ *
+ * The file is read in chunks of lines that parser threads turn into FoodItems. A bounded
+ * number of chunks is in flight at once, so memory use does not depend on file size.
+ * The calling thread writes parsed rows in batches of ecoeats.foodImport.batchSize.
+ */
+public class FoodCatalogImporter {
+    private static final int CHUNK_LINES = 2000;
+    private static final int BATCH_SIZE = Integer.getInteger("ecoeats.foodImport.batchSize", 5000);
+    private static final int PARSER_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final int MAX_REPORTED_ERRORS = 20;
+    // food_items.food_group is VARCHAR(50); the nutrient DECIMAL(8,2) columns top out below a million
+    private static final int MAX_FOOD_GROUP_LENGTH = 50;
+    private static final double MAX_DECIMAL = 999999.99;
+
+    private static final List<String> COLUMNS = List.of("name", "food_group", "base_quantity", "calories",
+            "protein_g", "carbs_g", "fats_g", "water_ml", "calcium_mg", "potassium_mg", "sodium_mg",
+            "magnesium_mg", "iron_mg", "zinc_mg", "vitamin_a_iu", "vitamin_d_iu", "vitamin_e_iu", "vitamin_k_mcg");
+
+    /**
+     * Imports the file, writing batches with the given writer (false = batch failed).
+     * The format is chosen by extension: .csv, otherwise JSON lines.
+     */
+    public static Result importFile(Path file, Predicate<List<DatabaseHelper.FoodItem>> writer) {
+        boolean csv = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+        Result result = new Result();
+        long start = System.nanoTime();
+
+        ExecutorService parsers = Executors.newFixedThreadPool(PARSER_THREADS, r -> {
+            Thread t = new Thread(r, "ecoeats-food-import-parser");
+            t.setDaemon(true);
+            return t;
+        });
+        // Chunks read but not yet written; each holds a permit until the writer takes it
+        Semaphore inFlight = new Semaphore(PARSER_THREADS * 2);
+        BlockingQueue<Future<Chunk>> parsed = new LinkedBlockingQueue<>();
+        Future<Chunk> end = CompletableFuture.completedFuture(null);
+
+        Thread reader = new Thread(() -> {
+            try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                int[] columns = null;
+                if (csv) {
+                    String header = in.readLine();
+                    if (header == null) {
+                        return;
+                    }
+                    columns = csvColumns(header);
+                    if (Arrays.stream(columns).noneMatch(c -> c == 0)) {
+                        result.addError("The CSV header has no name column");
+                        return;
+                    }
+                }
+                int lineNumber = csv ? 1 : 0;
+                List<String> lines = new ArrayList<>(CHUNK_LINES);
+                int firstLine = lineNumber + 1;
+                String line;
+                while ((line = in.readLine()) != null) {
+                    lines.add(line);
+                    lineNumber++;
+                    if (lines.size() == CHUNK_LINES) {
+                        submit(parsers, inFlight, parsed, new Chunk(firstLine, lines), columns);
+                        lines = new ArrayList<>(CHUNK_LINES);
+                        firstLine = lineNumber + 1;
+                    }
+                }
+                if (!lines.isEmpty()) {
+                    submit(parsers, inFlight, parsed, new Chunk(firstLine, lines), columns);
+                }
+            } catch (IOException e) {
+                result.addError("Read error: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                parsed.add(end);
+            }
+        }, "ecoeats-food-import-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        List<DatabaseHelper.FoodItem> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            Future<Chunk> next;
+            while ((next = parsed.take()) != end) {
+                Chunk chunk = next.get();
+                inFlight.release();
+                result.rejected += chunk.rejected;
+                for (String error : chunk.errors) {
+                    result.addError(error);
+                }
+                for (DatabaseHelper.FoodItem food : chunk.foods) {
+                    batch.add(food);
+                    if (batch.size() == BATCH_SIZE) {
+                        write(batch, writer, result);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch, writer, result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.addError("Import interrupted");
+        } catch (ExecutionException e) {
+            result.addError("Parse error: " + e.getCause());
+        } finally {
+            reader.interrupt();
+            parsers.shutdownNow();
+        }
+
+        result.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return result;
+    }
+
+    private static void submit(ExecutorService parsers, Semaphore inFlight, BlockingQueue<Future<Chunk>> parsed,
+                               Chunk chunk, int[] columns) throws InterruptedException {
+        inFlight.acquire();
+        // Futures are queued in file order, so batches are written in file order too
+        parsed.add(parsers.submit(() -> {
+            chunk.parse(columns);
+            return chunk;
+        }));
+    }
+
+    private static void write(List<DatabaseHelper.FoodItem> batch, Predicate<List<DatabaseHelper.FoodItem>> writer,
+                              Result result) {
+        writeOrSplit(batch, writer, result);
+        batch.clear();
+    }
+
+    // One row the database refuses must not fail the rest of its batch: a failed batch is
+    // retried as two halves until the failing rows are isolated
+    private static void writeOrSplit(List<DatabaseHelper.FoodItem> batch, Predicate<List<DatabaseHelper.FoodItem>> writer,
+                                     Result result) {
+        if (writer.test(batch)) {
+            result.imported += batch.size();
+            result.batches++;
+        } else if (batch.size() > 1) {
+            int half = batch.size() / 2;
+            writeOrSplit(new ArrayList<>(batch.subList(0, half)), writer, result);
+            writeOrSplit(new ArrayList<>(batch.subList(half, batch.size())), writer, result);
+        } else {
+            result.failed++;
+            result.addError("Food \"" + batch.get(0).name + "\" could not be written");
+        }
+    }
+
+    // Header position -> index in COLUMNS, or -1 for columns that are ignored
+    private static int[] csvColumns(String header) {
+        List<String> names = splitCsv(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        int[] columns = new int[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            columns[i] = COLUMNS.indexOf(names.get(i).trim().toLowerCase(Locale.ROOT));
+        }
+        return columns;
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Flat JSON object: string, number, boolean or null values
+    static Map<String, String> parseJsonObject(String line) {
+        Map<String, String> values = new HashMap<>();
+        JsonCursor cursor = new JsonCursor(line);
+        cursor.expect('{');
+        if (cursor.peek() == '}') {
+            return values;
+        }
+        do {
+            String key = cursor.string();
+            cursor.expect(':');
+            values.put(key, cursor.value());
+        } while (cursor.tryConsume(','));
+        cursor.expect('}');
+        return values;
+    }
+
+    private static DatabaseHelper.FoodItem toFood(String[] values) {
+        DatabaseHelper.FoodItem food = new DatabaseHelper.FoodItem();
+        food.name = values[0] == null ? "" : values[0].trim();
+        if (food.name.isEmpty()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (food.name.length() > 100) {
+            throw new IllegalArgumentException("name is longer than 100 characters");
+        }
+        food.foodGroup = values[1] == null || values[1].isBlank() ? null : values[1].trim();
+        if (food.foodGroup != null && food.foodGroup.length() > MAX_FOOD_GROUP_LENGTH) {
+            throw new IllegalArgumentException("food_group is longer than " + MAX_FOOD_GROUP_LENGTH + " characters");
+        }
+        food.baseQuantity = intValue(values, 2, 100);
+        if (food.baseQuantity <= 0) {
+            throw new IllegalArgumentException("base_quantity must be positive");
+        }
+        food.calories = intValue(values, 3, 0);
+        food.protein_g = doubleValue(values, 4);
+        food.carbs_g = doubleValue(values, 5);
+        food.fats_g = doubleValue(values, 6);
+        food.water_ml = intValue(values, 7, 0);
+        food.calcium_mg = intValue(values, 8, 0);
+        food.potassium_mg = intValue(values, 9, 0);
+        food.sodium_mg = intValue(values, 10, 0);
+        food.magnesium_mg = intValue(values, 11, 0);
+        food.iron_mg = doubleValue(values, 12);
+        food.zinc_mg = doubleValue(values, 13);
+        food.vitamin_a_iu = intValue(values, 14, 0);
+        food.vitamin_d_iu = intValue(values, 15, 0);
+        food.vitamin_e_iu = doubleValue(values, 16);
+        food.vitamin_k_mcg = doubleValue(values, 17);
+        return food;
+    }
+
+    private static int intValue(String[] values, int index, int defaultValue) {
+        String value = values[index];
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        long parsed = Math.round(number(value, index));
+        if (parsed < 0) {
+            throw new IllegalArgumentException(COLUMNS.get(index) + " must not be negative");
+        }
+        if (parsed > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(COLUMNS.get(index) + " is too large");
+        }
+        return (int) parsed;
+    }
+
+    private static double doubleValue(String[] values, int index) {
+        String value = values[index];
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        double parsed = number(value, index);
+        if (parsed < 0 || Double.isNaN(parsed) || Double.isInfinite(parsed)) {
+            throw new IllegalArgumentException(COLUMNS.get(index) + " must be a non-negative number");
+        }
+        if (Math.round(parsed * 100) / 100.0 > MAX_DECIMAL) {
+            throw new IllegalArgumentException(COLUMNS.get(index) + " must not exceed " + MAX_DECIMAL);
+        }
+        return parsed;
+    }
+
+    private static double number(String value, int index) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(COLUMNS.get(index) + " is not a number: " + value.trim());
+        }
+    }
+
+    // Inner classes
+    private static class Chunk {
+        final int firstLine;
+        final List<String> lines;
+        final List<DatabaseHelper.FoodItem> foods = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+        int rejected;
+
+        Chunk(int firstLine, List<String> lines) {
+            this.firstLine = firstLine;
+            this.lines = lines;
+        }
+
+        void parse(int[] columns) {
+            for (int i = 0; i < lines.size(); i++) {
+                String line = lines.get(i);
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    String[] values = new String[COLUMNS.size()];
+                    if (columns != null) {
+                        List<String> fields = splitCsv(line);
+                        for (int f = 0; f < fields.size() && f < columns.length; f++) {
+                            if (columns[f] >= 0) {
+                                values[columns[f]] = fields.get(f);
+                            }
+                        }
+                    } else {
+                        Map<String, String> object = parseJsonObject(line);
+                        for (int c = 0; c < COLUMNS.size(); c++) {
+                            values[c] = object.get(COLUMNS.get(c));
+                        }
+                    }
+                    foods.add(toFood(values));
+                } catch (IllegalArgumentException e) {
+                    rejected++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add("Line " + (firstLine + i) + ": " + e.getMessage());
+                    }
+                }
+            }
+            lines.clear();
+        }
+    }
+
+    private static class JsonCursor {
+        private final String text;
+        private int pos;
+
+        JsonCursor(String text) {
+            this.text = text;
+        }
+
+        char peek() {
+            skipWhitespace();
+            if (pos >= text.length()) {
+                throw new IllegalArgumentException("unexpected end of JSON");
+            }
+            return text.charAt(pos);
+        }
+
+        void expect(char c) {
+            if (peek() != c) {
+                throw new IllegalArgumentException("expected '" + c + "' at column " + (pos + 1));
+            }
+            pos++;
+        }
+
+        boolean tryConsume(char c) {
+            if (pos < text.length() && peek() == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        String value() {
+            char c = peek();
+            if (c == '"') {
+                return string();
+            }
+            int start = pos;
+            while (pos < text.length() && ",}] \t".indexOf(text.charAt(pos)) < 0) {
+                pos++;
+            }
+            String literal = text.substring(start, pos);
+            if (literal.equals("null")) {
+                return null;
+            }
+            if (literal.isEmpty() || c == '{' || c == '[') {
+                throw new IllegalArgumentException("unsupported JSON value at column " + (start + 1));
+            }
+            return literal;
+        }
+
+        String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'n': sb.append('\n'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw new IllegalArgumentException("bad \\u escape");
+                        }
+                        sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: sb.append(escaped);
+                }
+            }
+            throw new IllegalArgumentException("unterminated JSON string");
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+    }
+
+    public static class Result {
+        public long imported;
+        public long rejected;
+        public long failed;
+        public int batches;
+        public long elapsedMillis;
+        public final List<String> errors = new ArrayList<>();
+
+        synchronized void addError(String error) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+
+        public boolean isSuccessful() {
+            return failed == 0 && rejected == 0 && errors.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d imported, %d rejected, %d failed (%d batches, %.1fs)",
+                    imported, rejected, failed, batches, elapsedMillis / 1000.0);
+        }
+    }
+}
@@ -2,6 +2,7 @@ import javax.swing.*;
 import javax.swing.border.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Food Editor Dialog - Add/Edit Food Items
@@ -186,27 +187,30 @@ public class FoodEditorDialog extends JDialog {
                 return;
             }
 
-            // Save to database
-            boolean success;
-            if (existingFood == null) {
-                success = DatabaseHelper.addFoodItem(food, adminId);
-            } else {
-                success = DatabaseHelper.updateFoodItem(food, adminId);
-            }
-
-            if (success) {
-                saved = true;
-                JOptionPane.showMessageDialog(this,
-                        existingFood == null ? "Food item added successfully!" : "Food item updated successfully!",
-                        "Success",
-                        JOptionPane.INFORMATION_MESSAGE);
-                dispose();
-            } else {
-                JOptionPane.showMessageDialog(this,
-                        "Failed to save food item. Food name might already exist.",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            // Save to database off the EDT; the dialog stays open until the result is known
+            saveButton.setEnabled(false);
+            CompletableFuture<Boolean> save = existingFood == null
+                    ? AsyncDatabaseHelper.addFoodItem(food, adminId)
+                    : AsyncDatabaseHelper.updateFoodItem(food, adminId);
+            save.whenCompleteAsync((success, error) -> {
+                saveButton.setEnabled(true);
+                if (error == null && Boolean.TRUE.equals(success)) {
+                    saved = true;
+                    JOptionPane.showMessageDialog(this,
+                            existingFood == null ? "Food item added successfully!" : "Food item updated successfully!",
+                            "Success",
+                            JOptionPane.INFORMATION_MESSAGE);
+                    dispose();
+                } else {
+                    if (error != null) {
+                        System.err.println("Save food error: " + error.getMessage());
+                    }
+                    JOptionPane.showMessageDialog(this,
+                            "Failed to save food item. Food name might already exist.",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }, AsyncDatabaseHelper.EDT);
 
         } catch (NumberFormatException e) {
             // Error already shown by parse methods
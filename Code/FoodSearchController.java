@@ -0,0 +1,104 @@
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.JTextComponent;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Food Search Controller - Search-as-you-type for the editable food combo boxes
+ * Version: 1.0
+ * Features: Debounced keystrokes, Superseded lookups cancelled, Searches run off the EDT,
+ *           Results swapped in as one new combo model
+ *
+ * Each keystroke restarts a ecoeats.foodSearch.debounceMs timer; only when typing pauses is a
+ * search issued. Every search takes a new generation number: a lookup still waiting for a
+ * bulkhead permit when a newer one starts is skipped, and results from an older generation
+ * are dropped, so the list never flickers back to a stale query.
+ */
+public class FoodSearchController {
+    private static final int DEBOUNCE_MS = Integer.getInteger("ecoeats.foodSearch.debounceMs", 200);
+    private static final String NO_RESULTS = "No foods found";
+
+    private final JComboBox<String> comboBox;
+    private final JTextComponent editor;
+    private final Timer debounceTimer;
+    private volatile long generation;
+    private CompletableFuture<List<DatabaseHelper.FoodItem>> inFlight;
+    private boolean swapping;
+
+    public FoodSearchController(JComboBox<String> comboBox) {
+        this.comboBox = comboBox;
+        this.editor = (JTextComponent) comboBox.getEditor().getEditorComponent();
+        this.debounceTimer = new Timer(DEBOUNCE_MS, e -> searchNow());
+        debounceTimer.setRepeats(false);
+
+        editor.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { textChanged(); }
+            public void removeUpdate(DocumentEvent e) { textChanged(); }
+            public void changedUpdate(DocumentEvent e) { }
+        });
+    }
+
+    private void textChanged() {
+        // Ignore our own model swaps and the editor echoing a picked item
+        if (swapping || editor.getText().equals(comboBox.getSelectedItem())) {
+            return;
+        }
+        debounceTimer.restart();
+    }
+
+    /** Searches for the editor's current text right away. Must be called on the EDT. */
+    public void searchNow() {
+        debounceTimer.stop();
+        String query = editor.getText().trim();
+        long searchGeneration = ++generation;
+        if (inFlight != null) {
+            inFlight.cancel(false);
+        }
+
+        inFlight = AsyncDatabaseHelper.supply(AsyncDatabaseHelper.FOODS,
+                () -> searchGeneration == generation ? DatabaseHelper.searchFoods(query) : null);
+        inFlight.whenCompleteAsync((foods, error) -> {
+            if (searchGeneration != generation) {
+                return;
+            }
+            if (error != null) {
+                System.err.println("Search foods error: " + error.getMessage());
+            }
+            showResults(foods);
+        }, AsyncDatabaseHelper.EDT);
+    }
+
+    private void showResults(List<DatabaseHelper.FoodItem> foods) {
+        DefaultComboBoxModel<String> model = new DefaultComboBoxModel<>();
+        if (foods == null || foods.isEmpty()) {
+            model.addElement(NO_RESULTS);
+        } else {
+            for (DatabaseHelper.FoodItem food : foods) {
+                model.addElement(food.name);
+            }
+        }
+
+        // Keep what the user typed in the editor: select it in the new model before swapping
+        String typed = editor.getText();
+        int caret = editor.getCaretPosition();
+        swapping = true;
+        try {
+            if (!typed.isEmpty()) {
+                model.setSelectedItem(typed);
+            }
+            comboBox.setModel(model);
+            if (!typed.isEmpty()) {
+                editor.setText(typed);
+                editor.setCaretPosition(Math.min(caret, typed.length()));
+            }
+        } finally {
+            swapping = false;
+        }
+
+        if (editor.isFocusOwner() && comboBox.isShowing() && foods != null && !foods.isEmpty()) {
+            comboBox.setPopupVisible(true);
+        }
+    }
+}
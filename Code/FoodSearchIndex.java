@@ -0,0 +1,439 @@
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Food Search Index - In-memory, ranked search over the food catalog
+ * Version: 1.0
+ * Features: Word-prefix matching, Substring matching via trigrams, Typo tolerance (1-2 edits),
+ *           Relevance ranking, Incremental put/remove
+ *
+ * Results come in tiers, best first: exact name, name prefix, every query word a prefix of a
+ * name word, substring, then typo matches with fewer edits first. Within a tier shorter names
+ * come first. Substring and typo matching run against the distinct words of the catalog rather
+ * than every food, and each tier stops as soon as the result list is full, so a search reads a
+ * few posting lists no matter how large the catalog grows.
+ */
+public class FoodSearchIndex {
+    // Upper bound on foods examined per tier when later query words keep rejecting candidates
+    private static final int MAX_EXAMINED = 5000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Doc> docs = new HashMap<>();
+    private final TreeMap<String, Integer> idsByName = new TreeMap<>();
+    // word -> foods containing it, ordered by (name length, id)
+    private final TreeMap<String, LongList> words = new TreeMap<>();
+    // trigram of a padded word -> the distinct words containing it
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+
+    public FoodSearchIndex(Collection<DatabaseHelper.FoodItem> foods) {
+        // Adding in posting-list order makes every insert an append
+        List<Doc> sorted = new ArrayList<>(foods.size());
+        for (DatabaseHelper.FoodItem food : foods) {
+            sorted.add(new Doc(food));
+        }
+        sorted.sort(Comparator.comparingLong(Doc::rankKey));
+        for (Doc doc : sorted) {
+            put(doc);
+        }
+    }
+
+    /** Adds the food, or replaces the entry with the same id. */
+    public void put(DatabaseHelper.FoodItem food) {
+        put(new Doc(food));
+    }
+
+    private void put(Doc doc) {
+        DatabaseHelper.FoodItem food = doc.food;
+        lock.writeLock().lock();
+        try {
+            Doc old = docs.put(food.id, doc);
+            if (old != null) {
+                unindex(old);
+            }
+            idsByName.put(doc.nameKey(), food.id);
+            for (String word : doc.words) {
+                LongList postings = words.get(word);
+                if (postings == null) {
+                    postings = new LongList();
+                    words.put(word, postings);
+                    for (String gram : trigramsOf(word)) {
+                        trigrams.computeIfAbsent(gram, k -> new HashSet<>()).add(word);
+                    }
+                }
+                postings.add(doc.rankKey());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int foodId) {
+        lock.writeLock().lock();
+        try {
+            Doc old = docs.remove(foodId);
+            if (old != null) {
+                unindex(old);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void unindex(Doc doc) {
+        idsByName.remove(doc.nameKey());
+        for (String word : doc.words) {
+            LongList postings = words.get(word);
+            if (postings == null || !postings.remove(doc.rankKey()) || postings.size() > 0) {
+                continue;
+            }
+            words.remove(word);
+            for (String gram : trigramsOf(word)) {
+                Set<String> gramWords = trigrams.get(gram);
+                if (gramWords != null && gramWords.remove(word) && gramWords.isEmpty()) {
+                    trigrams.remove(gram);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Returns up to limit foods, best match first; an empty query lists foods alphabetically. */
+    public List<DatabaseHelper.FoodItem> search(String query, int limit) {
+        String normalized = normalize(query);
+        String[] terms = split(normalized);
+        LinkedHashSet<Integer> found = new LinkedHashSet<>();
+
+        lock.readLock().lock();
+        try {
+            if (terms.length == 0) {
+                for (Integer id : idsByName.values()) {
+                    if (found.size() >= limit) {
+                        break;
+                    }
+                    found.add(id);
+                }
+                return foodsFor(found);
+            }
+
+            // The longest term has the fewest matching words, so it drives candidate lookup
+            String driver = terms[0];
+            for (String term : terms) {
+                if (term.length() > driver.length()) {
+                    driver = term;
+                }
+            }
+
+            collectNamePrefixMatches(normalized, found, limit);
+            if (found.size() < limit) {
+                collectWordMatches(prefixWords(driver), terms, found, limit, false);
+            }
+            if (found.size() < limit) {
+                collectSubstringMatches(normalized, driver, found, limit);
+            }
+            if (found.size() < limit) {
+                collectWordMatches(fuzzyWords(driver), terms, found, limit, true);
+            }
+            return foodsFor(found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<DatabaseHelper.FoodItem> foodsFor(Collection<Integer> ids) {
+        List<DatabaseHelper.FoodItem> foods = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            foods.add(docs.get(id).food);
+        }
+        return foods;
+    }
+
+    private void collectNamePrefixMatches(String normalized, Set<Integer> found, int limit) {
+        // Exact names sort first under their own prefix; the exact key ends in '\0' + id
+        List<Integer> prefixed = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : idsByName.tailMap(normalized, true).entrySet()) {
+            String key = entry.getKey();
+            if (!key.startsWith(normalized)) {
+                break;
+            }
+            if (key.charAt(normalized.length()) == '\0') {
+                found.add(entry.getValue());
+            } else {
+                prefixed.add(entry.getValue());
+            }
+            if (found.size() + prefixed.size() >= limit) {
+                break;
+            }
+        }
+        prefixed.sort(Comparator.comparingInt(id -> docs.get(id).name.length()));
+        found.addAll(prefixed);
+    }
+
+    private List<String> prefixWords(String driver) {
+        return new ArrayList<>(words.subMap(driver, true, driver + Character.MAX_VALUE, false).keySet());
+    }
+
+    // Foods containing one of the given words (in order), provided every query term also matches
+    private void collectWordMatches(List<String> matchedWords, String[] terms, Set<Integer> found,
+                                    int limit, boolean fuzzy) {
+        int examined = 0;
+        for (String word : matchedWords) {
+            LongList postings = words.get(word);
+            for (int i = 0; i < postings.size(); i++) {
+                int id = (int) postings.get(i);
+                if (found.contains(id)) {
+                    continue;
+                }
+                if (termsMatch(docs.get(id), terms, fuzzy)) {
+                    found.add(id);
+                    if (found.size() >= limit) {
+                        return;
+                    }
+                }
+                if (++examined >= MAX_EXAMINED) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void collectSubstringMatches(String normalized, String driver, Set<Integer> found, int limit) {
+        if (driver.length() < 3) {
+            return;
+        }
+        // Every inner trigram of the driver occurs in a word containing it: intersect their word sets
+        List<Set<String>> sets = new ArrayList<>();
+        for (int i = 0; i + 3 <= driver.length(); i++) {
+            Set<String> gramWords = trigrams.get(driver.substring(i, i + 3));
+            if (gramWords == null) {
+                return;
+            }
+            sets.add(gramWords);
+        }
+        sets.sort(Comparator.comparingInt(Set::size));
+
+        List<String> matched = new ArrayList<>();
+        for (String word : sets.get(0)) {
+            if (!word.startsWith(driver) && word.contains(driver) && containedInAll(word, sets)) {
+                matched.add(word);
+            }
+        }
+        matched.sort(Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+
+        int examined = 0;
+        for (String word : matched) {
+            LongList postings = words.get(word);
+            for (int i = 0; i < postings.size(); i++) {
+                int id = (int) postings.get(i);
+                if (!found.contains(id) && docs.get(id).name.contains(normalized)) {
+                    found.add(id);
+                    if (found.size() >= limit) {
+                        return;
+                    }
+                }
+                if (++examined >= MAX_EXAMINED) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static boolean containedInAll(String word, List<Set<String>> sets) {
+        for (int i = 1; i < sets.size(); i++) {
+            if (!sets.get(i).contains(word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Words within the driver's edit budget, closest first
+    private List<String> fuzzyWords(String driver) {
+        int maxEdits = maxEdits(driver);
+        if (maxEdits == 0) {
+            return Collections.emptyList();
+        }
+        List<String> grams = trigramsOf(driver);
+        // q-gram lemma: each edit destroys at most 3 of the padded word's trigrams
+        int required = Math.max(1, grams.size() - 3 * maxEdits);
+
+        Map<String, Integer> hits = new HashMap<>();
+        for (String gram : grams) {
+            Set<String> gramWords = trigrams.get(gram);
+            if (gramWords != null) {
+                for (String word : gramWords) {
+                    hits.merge(word, 1, Integer::sum);
+                }
+            }
+        }
+
+        Map<String, Integer> distances = new HashMap<>();
+        for (Map.Entry<String, Integer> hit : hits.entrySet()) {
+            String word = hit.getKey();
+            if (hit.getValue() < required || word.startsWith(driver)) {
+                continue;
+            }
+            int distance = wordDistance(driver, word);
+            if (distance <= maxEdits) {
+                distances.put(word, distance);
+            }
+        }
+        List<String> matched = new ArrayList<>(distances.keySet());
+        matched.sort(Comparator.<String>comparingInt(distances::get).thenComparing(Comparator.naturalOrder()));
+        return matched;
+    }
+
+    private static boolean termsMatch(Doc doc, String[] terms, boolean fuzzy) {
+        for (String term : terms) {
+            boolean matched = false;
+            for (String word : doc.words) {
+                if (word.startsWith(term) || (fuzzy && wordDistance(term, word) <= maxEdits(term))) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Edit distance from the term to the word, or to a same-length prefix of it (a typo while typing)
+    private static int wordDistance(String term, String word) {
+        int distance = editDistance(term, word);
+        if (word.length() > term.length()) {
+            distance = Math.min(distance, editDistance(term, word.substring(0, term.length())));
+        }
+        return distance;
+    }
+
+    private static int maxEdits(String term) {
+        if (term.length() >= 8) return 2;
+        if (term.length() >= 4) return 1;
+        return 0;
+    }
+
+    // Optimal string alignment distance (Levenshtein plus adjacent transpositions)
+    static int editDistance(String a, String b) {
+        int[] prevPrev = new int[b.length() + 1];
+        int[] prev = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], prevPrev[j - 2] + 1);
+                }
+            }
+            int[] recycled = prevPrev;
+            prevPrev = prev;
+            prev = current;
+            current = recycled;
+        }
+        return prev[b.length()];
+    }
+
+    // Trigrams of the word padded with a space on each side, so word starts and ends count too
+    private static List<String> trigramsOf(String word) {
+        String padded = " " + word + " ";
+        List<String> grams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    static String normalize(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean space = true;
+        for (char c : text.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(c);
+                space = false;
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int end = sb.length();
+        return space && end > 0 ? sb.substring(0, end - 1) : sb.toString();
+    }
+
+    private static String[] split(String normalized) {
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    // Inner classes
+    private static class Doc {
+        final DatabaseHelper.FoodItem food;
+        final String name;
+        final String[] words;
+
+        Doc(DatabaseHelper.FoodItem food) {
+            this.food = food;
+            this.name = normalize(food.name);
+            this.words = split(name);
+        }
+
+        String nameKey() {
+            return name + '\0' + food.id;
+        }
+
+        // Posting lists sort by this key, so shorter names come first
+        long rankKey() {
+            return ((long) name.length() << 32) | (food.id & 0xFFFFFFFFL);
+        }
+    }
+
+    // Sorted, duplicate-free list of longs
+    private static class LongList {
+        private long[] values = new long[2];
+        private int size;
+
+        void add(long value) {
+            int pos = size > 0 && values[size - 1] < value ? size : Arrays.binarySearch(values, 0, size, value);
+            if (pos < 0) {
+                pos = -pos - 1;
+            } else if (pos < size) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, pos, values, pos + 1, size - pos);
+            values[pos] = value;
+            size++;
+        }
+
+        boolean remove(long value) {
+            int pos = Arrays.binarySearch(values, 0, size, value);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        long get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * History Exporter - Streaming export of food_logs and daily_logs
+ * Version: 1.0
+ * Features: CSV or newline-delimited JSON, Optional gzip, One user or all users,
+ *           Optional date range, Constant memory regardless of history length
+ *
+ * Rows are streamed from the store (a fetch-size-bounded cursor on MySQL) straight into a
+ * buffered writer over a FileChannel. The file is written next to the target as ".part" and
+ * moved into place only when the export completes, so a failed export leaves no partial file.
+ */
+public class HistoryExporter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public enum Dataset { FOOD_LOGS, DAILY_LOGS }
+
+    public enum Format { CSV, NDJSON }
+
+    private static final String[] FOOD_LOG_COLUMNS = {"id", "user_id", "consumed_at", "meal_type", "food_item_id",
+            "food_name", "quantity", "unit", "calories", "protein_g", "carbs_g", "fats_g"};
+    private static final String[] DAILY_LOG_COLUMNS = {"user_id", "log_date", "calories", "protein_g", "carbs_g",
+            "fats_g", "water_ml", "calcium_mg", "potassium_mg", "sodium_mg", "magnesium_mg", "iron_mg", "zinc_mg",
+            "vitamin_a_iu", "vitamin_d_iu", "vitamin_e_iu", "vitamin_k_mcg"};
+
+    /**
+     * Exports to target. userId null exports every user; from / to null leave the range open.
+     * Returns the number of rows written, or -1 if the export failed.
+     */
+    public static long export(Path target, Dataset dataset, Format format, boolean gzip,
+                              Integer userId, LocalDate from, LocalDate to) {
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        long[] rows = new long[1];
+        boolean completed;
+
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            if (gzip) {
+                out = new GZIPOutputStream(out, BUFFER_SIZE);
+            }
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                RowWriter rowWriter = new RowWriter(writer, format,
+                        dataset == Dataset.FOOD_LOGS ? FOOD_LOG_COLUMNS : DAILY_LOG_COLUMNS);
+                rowWriter.header();
+                if (dataset == Dataset.FOOD_LOGS) {
+                    completed = DatabaseHelper.getStore().forEachFoodLog(userId, from, to, meal -> {
+                        rowWriter.row(meal.logId, meal.userId, meal.consumedAt, meal.mealType, meal.foodItemId,
+                                meal.foodName, meal.quantity, meal.unit, meal.calories, meal.protein,
+                                meal.carbs, meal.fats);
+                        rows[0]++;
+                    });
+                } else {
+                    completed = DatabaseHelper.getStore().forEachDailyLog(userId, from, to, log -> {
+                        rowWriter.row(log.userId, log.logDate, log.calories, log.protein_g, log.carbs_g,
+                                log.fats_g, log.water_ml, log.calcium_mg, log.potassium_mg, log.sodium_mg,
+                                log.magnesium_mg, log.iron_mg, log.zinc_mg, log.vitamin_a_iu, log.vitamin_d_iu,
+                                log.vitamin_e_iu, log.vitamin_k_mcg);
+                        rows[0]++;
+                    });
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Export history error: " + e.getMessage());
+            completed = false;
+        }
+
+        try {
+            if (!completed) {
+                Files.deleteIfExists(part);
+                return -1;
+            }
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return rows[0];
+        } catch (IOException e) {
+            System.err.println("Export history error: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /** Picks the format and compression from a file name such as history.ndjson.gz. */
+    public static long export(Path target, Dataset dataset, Integer userId, LocalDate from, LocalDate to) {
+        String name = target.getFileName().toString().toLowerCase();
+        boolean gzip = name.endsWith(".gz");
+        if (gzip) {
+            name = name.substring(0, name.length() - 3);
+        }
+        Format format = name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json")
+                ? Format.NDJSON : Format.CSV;
+        return export(target, dataset, format, gzip, userId, from, to);
+    }
+
+    // Inner classes
+    private static class RowWriter {
+        private final Writer writer;
+        private final Format format;
+        private final String[] columns;
+
+        RowWriter(Writer writer, Format format, String[] columns) {
+            this.writer = writer;
+            this.format = format;
+            this.columns = columns;
+        }
+
+        void header() throws IOException {
+            if (format == Format.CSV) {
+                writer.write(String.join(",", columns));
+                writer.write('\n');
+            }
+        }
+
+        // Called from the store's row callback, which cannot throw checked exceptions
+        void row(Object... values) {
+            try {
+                if (format == Format.CSV) {
+                    for (int i = 0; i < values.length; i++) {
+                        if (i > 0) {
+                            writer.write(',');
+                        }
+                        writeCsv(values[i]);
+                    }
+                } else {
+                    writer.write('{');
+                    for (int i = 0; i < values.length; i++) {
+                        if (i > 0) {
+                            writer.write(',');
+                        }
+                        writer.write('"');
+                        writer.write(columns[i]);
+                        writer.write("\":");
+                        writeJson(values[i]);
+                    }
+                    writer.write('}');
+                }
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeCsv(Object value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        private void writeJson(Object value) throws IOException {
+            if (value == null) {
+                writer.write("null");
+                return;
+            }
+            if (value instanceof Number) {
+                writer.write(value.toString());
+                return;
+            }
+            String text = value.toString();
+            writer.write('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '"': writer.write("\\\""); break;
+                    case '\\': writer.write("\\\\"); break;
+                    case '\n': writer.write("\\n"); break;
+                    case '\r': writer.write("\\r"); break;
+                    case '\t': writer.write("\\t"); break;
+                    default:
+                        if (c < 0x20) {
+                            writer.write(String.format("\\u%04x", (int) c));
+                        } else {
+                            writer.write(c);
+                        }
+                }
+            }
+            writer.write('"');
+        }
+    }
+}
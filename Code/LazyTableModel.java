@@ -0,0 +1,225 @@
+import javax.swing.table.AbstractTableModel;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Lazy Table Model - Virtual JTable model over a keyset-paginated listing
+ * Version: 1.0
+ * Features: Pages fetched off the EDT only when their rows are painted, Prefetch of the
+ *           neighbouring page near a page edge, Bounded LRU page cache, Server-side sort and filter
+ *
+ * The table only asks for the rows it paints, so only the visible window is ever loaded.
+ * Each page is fetched after the last row of the page before it (sort value, then id), which
+ * the store answers from an index however deep the user scrolls. A page reached by dragging
+ * the scrollbar straight past unloaded pages has no such key and is fetched by offset once;
+ * scrolling on from there is keyset again. Must be used on the EDT.
+ */
+public class LazyTableModel<T> extends AbstractTableModel {
+    private static final int PAGE_SIZE = Integer.getInteger("ecoeats.admin.pageSize", 100);
+    private static final int PREFETCH_ROWS = PAGE_SIZE / 2;
+    private static final int MAX_CACHED_PAGES = 20;
+    private static final String LOADING = "Loading...";
+
+    /** Where rows come from; fetch and count are called off the EDT. */
+    public interface PageSource<T> {
+        List<T> fetch(DatabaseHelper.PageRequest request);
+
+        int count(String filter);
+
+        Object sortValue(T row, String sortColumn);
+
+        int id(T row);
+    }
+
+    private final String[] columnNames;
+    private final String[] sortColumns;
+    private final Function<T, Object[]> rowMapper;
+    private final PageSource<T> source;
+
+    private final LinkedHashMap<Integer, Page<T>> pages;
+    // page -> {sort value, id} of its last row; kept after the page itself is evicted
+    private final Map<Integer, Object[]> pageEnds = new HashMap<>();
+    private final Set<Integer> loading = new HashSet<>();
+
+    private int rowCount;
+    private long generation;
+    private String filter = "";
+    private String sortColumn;
+    private boolean descending;
+
+    /**
+     * sortColumns holds, for each table column, the store column it sorts by (null when the
+     * column is not sortable). The listing starts ordered by defaultSort.
+     */
+    public LazyTableModel(String[] columnNames, String[] sortColumns, String defaultSort, boolean defaultDescending,
+                          Function<T, Object[]> rowMapper, PageSource<T> source) {
+        this.columnNames = columnNames;
+        this.sortColumns = sortColumns;
+        this.sortColumn = defaultSort;
+        this.descending = defaultDescending;
+        this.rowMapper = rowMapper;
+        this.source = source;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Page<T>> eldest) {
+                return size() > MAX_CACHED_PAGES;
+            }
+        };
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        if (sortColumns[column] != null && sortColumns[column].equals(sortColumn)) {
+            return columnNames[column] + (descending ? " ▼" : " ▲");
+        }
+        return columnNames[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int page = row / PAGE_SIZE;
+        int offset = row % PAGE_SIZE;
+        Page<T> loaded = pages.get(page);
+        if (loaded == null) {
+            requestPage(page);
+            return column == 1 ? LOADING : null;
+        }
+
+        if (offset >= PAGE_SIZE - PREFETCH_ROWS) {
+            requestPage(page + 1);
+        } else if (offset < PREFETCH_ROWS) {
+            requestPage(page - 1);
+        }
+        return offset < loaded.values.size() ? loaded.values.get(offset)[column] : null;
+    }
+
+    /** The row object behind a table row, or null while its page is still loading. */
+    public T getRow(int row) {
+        Page<T> loaded = pages.get(row / PAGE_SIZE);
+        int offset = row % PAGE_SIZE;
+        return loaded != null && offset < loaded.rows.size() ? loaded.rows.get(offset) : null;
+    }
+
+    /** Drops every loaded page and re-counts, keeping the current sort and filter. */
+    public void reload() {
+        long reloadGeneration = ++generation;
+        pages.clear();
+        pageEnds.clear();
+        loading.clear();
+
+        String countFilter = filter;
+        AsyncDatabaseHelper.supply(AsyncDatabaseHelper.ADMIN, () -> source.count(countFilter))
+                .whenCompleteAsync((count, error) -> {
+                    if (reloadGeneration != generation) {
+                        return;
+                    }
+                    if (error != null) {
+                        System.err.println("Count rows error: " + error.getMessage());
+                        return;
+                    }
+                    rowCount = count;
+                    fireTableDataChanged();
+                }, AsyncDatabaseHelper.EDT);
+        fireTableDataChanged();
+    }
+
+    public void setFilter(String filter) {
+        String trimmed = filter == null ? "" : filter.trim();
+        if (!trimmed.equals(this.filter)) {
+            this.filter = trimmed;
+            reload();
+        }
+    }
+
+    /** Sorts by the given table column, flipping the direction when it is already the sort column. */
+    public void toggleSort(int column) {
+        if (column < 0 || sortColumns[column] == null) {
+            return;
+        }
+        if (sortColumns[column].equals(sortColumn)) {
+            descending = !descending;
+        } else {
+            sortColumn = sortColumns[column];
+            descending = false;
+        }
+        fireTableStructureChanged();
+        reload();
+    }
+
+    private void requestPage(int page) {
+        if (page < 0 || page * PAGE_SIZE >= rowCount || pages.containsKey(page) || !loading.add(page)) {
+            return;
+        }
+
+        DatabaseHelper.PageRequest request = new DatabaseHelper.PageRequest();
+        request.filter = filter;
+        request.sortColumn = sortColumn;
+        request.descending = descending;
+        request.limit = PAGE_SIZE;
+        Object[] previousEnd = pageEnds.get(page - 1);
+        if (previousEnd != null) {
+            request.afterValue = previousEnd[0];
+            request.afterId = (Integer) previousEnd[1];
+        } else {
+            request.offset = page * PAGE_SIZE;
+        }
+
+        long requestGeneration = generation;
+        AsyncDatabaseHelper.supply(AsyncDatabaseHelper.ADMIN, () -> source.fetch(request))
+                .whenCompleteAsync((rows, error) -> {
+                    if (requestGeneration != generation) {
+                        return;
+                    }
+                    loading.remove(page);
+                    if (error != null) {
+                        System.err.println("Load page error: " + error.getMessage());
+                        rows = Collections.emptyList();
+                    }
+                    pageLoaded(page, rows);
+                }, AsyncDatabaseHelper.EDT);
+    }
+
+    private void pageLoaded(int page, List<T> rows) {
+        List<Object[]> values = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            values.add(rowMapper.apply(row));
+        }
+        pages.put(page, new Page<>(rows, values));
+        if (!rows.isEmpty()) {
+            T last = rows.get(rows.size() - 1);
+            pageEnds.put(page, new Object[] { source.sortValue(last, sortColumn), source.id(last) });
+        }
+
+        int first = page * PAGE_SIZE;
+        int last = Math.min(rowCount, first + PAGE_SIZE) - 1;
+        if (last >= first) {
+            fireTableRowsUpdated(first, last);
+        }
+    }
+
+    // Inner classes
+    private static class Page<T> {
+        final List<T> rows;
+        final List<Object[]> values;
+
+        Page(List<T> rows, List<Object[]> values) {
+            this.rows = rows;
+            this.values = values;
+        }
+    }
+}
@@ -33,9 +33,7 @@ public class LoginPage extends JFrame {
 
         // Logo at top
         try {
-            ImageIcon logoIcon = new ImageIcon("src/logo.png");
-            Image scaledLogo = logoIcon.getImage().getScaledInstance(80, 80, Image.SCALE_SMOOTH);
-            JLabel logoLabel = new JLabel(new ImageIcon(scaledLogo));
+            JLabel logoLabel = new JLabel(IconCache.get("src/logo.png", 80, 80));
             logoLabel.setBounds(188, 60, 80, 80);
             leftPanel.add(logoLabel);
         } catch (Exception e) {
@@ -272,34 +270,34 @@ public class LoginPage extends JFrame {
         loginButton.setEnabled(false);
         loginButton.setText("Logging in...");
 
-        new Thread(() -> {
-            boolean isValid = DatabaseHelper.validateLogin(email, password);
-
-            SwingUtilities.invokeLater(() -> {
-                loginButton.setEnabled(true);
-                loginButton.setText("Start Tracking");
-
-                if (isValid) {
-                    DatabaseHelper.UserData user = DatabaseHelper.getUserByEmail(email);
-
-                    if (user != null) {
+        // One round trip for the user, their goals and today's log
+        AsyncDatabaseHelper.authenticate(email, password)
+                .whenCompleteAsync((session, error) -> {
+                    loginButton.setEnabled(true);
+                    loginButton.setText("Start Tracking");
+
+                    if (error != null) {
+                        System.err.println("Login error: " + error.getMessage());
+                        JOptionPane.showMessageDialog(this,
+                                "Could not reach the database. Please try again.",
+                                "Login Failed",
+                                JOptionPane.ERROR_MESSAGE);
+                    } else if (session != null) {
                         // Check user role and redirect accordingly
-                        if ("admin".equals(user.role)) {
-                            new AdminPanel(user);
+                        if (session.isAdmin()) {
+                            new AdminPanel(session.getUser());
                         } else {
-                            new Dashboard(user);
+                            new Dashboard(session);
                         }
                         dispose();
+                    } else {
+                        JOptionPane.showMessageDialog(this,
+                                "Invalid email or password. Please try again.",
+                                "Login Failed",
+                                JOptionPane.ERROR_MESSAGE);
+                        passwordField.setText("");
                     }
-                } else {
-                    JOptionPane.showMessageDialog(this,
-                            "Invalid email or password. Please try again.",
-                            "Login Failed",
-                            JOptionPane.ERROR_MESSAGE);
-                    passwordField.setText("");
-                }
-            });
-        }).start();
+                }, AsyncDatabaseHelper.EDT);
     }
 
     private void openRegistrationPage() {
@@ -327,16 +325,26 @@ public class LoginPage extends JFrame {
             return;
         }
 
-        if (!DatabaseHelper.emailExists(email)) {
-            JOptionPane.showMessageDialog(this,
-                    "Email not found. Please check your email or register a new account.",
-                    "Email Not Found",
-                    JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-
         final String userEmail = email;
+        AsyncDatabaseHelper.emailExists(userEmail).whenCompleteAsync((exists, error) -> {
+            if (error != null) {
+                System.err.println("Email check error: " + error.getMessage());
+                JOptionPane.showMessageDialog(this,
+                        "Could not reach the database. Please try again.",
+                        "Database Error",
+                        JOptionPane.ERROR_MESSAGE);
+            } else if (!exists) {
+                JOptionPane.showMessageDialog(this,
+                        "Email not found. Please check your email or register a new account.",
+                        "Email Not Found",
+                        JOptionPane.ERROR_MESSAGE);
+            } else {
+                sendResetCode(userEmail);
+            }
+        }, AsyncDatabaseHelper.EDT);
+    }
 
+    private void sendResetCode(String userEmail) {
         new Thread(() -> {
             boolean sent = EmailVerification.sendVerificationCode(userEmail, "password_reset");
             SwingUtilities.invokeLater(() -> {
@@ -436,19 +444,23 @@ public class LoginPage extends JFrame {
                 }
             }
 
-            boolean updated = DatabaseHelper.updatePassword(email, newPassword);
-
-            if (updated) {
-                JOptionPane.showMessageDialog(this,
-                        "Password reset successful! You can now login with your new password.",
-                        "Success",
-                        JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(this,
-                        "Failed to reset password. Please try again or contact support.",
-                        "Database Error",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            AsyncDatabaseHelper.updatePassword(email, newPassword)
+                    .whenCompleteAsync((updated, error) -> {
+                        if (error == null && Boolean.TRUE.equals(updated)) {
+                            JOptionPane.showMessageDialog(this,
+                                    "Password reset successful! You can now login with your new password.",
+                                    "Success",
+                                    JOptionPane.INFORMATION_MESSAGE);
+                        } else {
+                            if (error != null) {
+                                System.err.println("Password reset error: " + error.getMessage());
+                            }
+                            JOptionPane.showMessageDialog(this,
+                                    "Failed to reset password. Please try again or contact support.",
+                                    "Database Error",
+                                    JOptionPane.ERROR_MESSAGE);
+                        }
+                    }, AsyncDatabaseHelper.EDT);
         }
     }
 }
@@ -8,6 +8,10 @@ import javax.swing.*;
  */
 public class Main {
     public static void main(String[] args) {
+        // Decode and scale the UI icons in the background while the database starts
+        IconCache.preloadStartupIcons();
+        PasswordHasher.calibrateAsync();
+
         // Initialize database
         DatabaseHelper.initializeDatabase();
         DatabaseHelper.initializeFoodDatabase();
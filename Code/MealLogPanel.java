@@ -2,11 +2,11 @@ import javax.swing.*;
 import javax.swing.border.*;
 import javax.swing.table.*;
 import java.awt.*;
-import java.sql.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import com.toedter.calendar.JDateChooser;
 
 /**
@@ -21,12 +21,15 @@ public class MealLogPanel extends JPanel {
     private JLabel totalCaloriesLabel;
     private JButton refreshButton;
     private JButton deleteMealButton;
+    private JButton editQuantityButton;
     private JButton addFoodButton;
     private JButton todayButton;
     private JDateChooser dateChooser;
     private LocalDate selectedDate;
     private java.util.Map<Integer, Integer> rowToLogIdMap;
     private JFrame parentFrame;
+    private ChangeBus.Subscription dayChanges;
+    private long loadGeneration;
 
     public MealLogPanel(int userId) {
         this.userId = userId;
@@ -87,6 +90,10 @@ public class MealLogPanel extends JPanel {
         refreshButton.addActionListener(e -> loadMealData());
         controlPanel.add(refreshButton);
 
+        editQuantityButton = createStyledButton("✏ Edit Quantity", new Color(255, 152, 0));
+        editQuantityButton.addActionListener(e -> editSelectedMealQuantity());
+        controlPanel.add(editQuantityButton);
+
         deleteMealButton = createStyledButton("🗑 Delete Selected", new Color(244, 67, 54));
         deleteMealButton.addActionListener(e -> deleteSelectedMeal());
         controlPanel.add(deleteMealButton);
@@ -143,65 +150,49 @@ public class MealLogPanel extends JPanel {
         loadMealData();
     }
 
+    // Queries off the EDT; a result for a date the user has already moved away from is dropped
     private void loadMealData() {
+        LocalDate date = selectedDate;
+        long generation = ++loadGeneration;
+        AsyncDatabaseHelper.getMealsForDate(userId, date).whenCompleteAsync((meals, error) -> {
+            if (generation != loadGeneration) {
+                return;
+            }
+            if (error != null || meals == null) {
+                JOptionPane.showMessageDialog(this,
+                        "Failed to load meal data",
+                        "Database Error",
+                        JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            showMeals(date, meals);
+        }, AsyncDatabaseHelper.EDT);
+    }
+
+    private void showMeals(LocalDate date, List<DatabaseHelper.MealEntry> meals) {
         tableModel.setRowCount(0);
         rowToLogIdMap.clear();
         int totalCalories = 0;
         int rowIndex = 0;
 
-        String sql = """
-            SELECT fl.consumed_at, fl.meal_type, fi.name, fl.quantity, fl.unit,
-                   ROUND((fi.calories * fl.quantity) / fi.base_quantity) as calories,
-                   ROUND((fi.protein_g * fl.quantity) / fi.base_quantity, 1) as protein,
-                   ROUND((fi.carbs_g * fl.quantity) / fi.base_quantity, 1) as carbs,
-                   ROUND((fi.fats_g * fl.quantity) / fi.base_quantity, 1) as fats,
-                   fl.id as log_id
-            FROM food_logs fl
-            JOIN food_items fi ON fl.food_item_id = fi.id
-            WHERE fl.user_id = ? AND DATE(fl.consumed_at) = ?
-            ORDER BY fl.consumed_at DESC
-        """;
-
-        try (Connection conn = DatabaseHelper.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, userId);
-            pstmt.setDate(2, java.sql.Date.valueOf(selectedDate));
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                Timestamp timestamp = rs.getTimestamp("consumed_at");
-                String timeStr = timestamp.toLocalDateTime().format(DateTimeFormatter.ofPattern("MMM dd, HH:mm"));
-                String mealType = rs.getString("meal_type");
-                String foodName = rs.getString("name");
-                String quantity = rs.getInt("quantity") + " " + rs.getString("unit");
-                int calories = rs.getInt("calories");
-                double protein = rs.getDouble("protein");
-                double carbs = rs.getDouble("carbs");
-                double fats = rs.getDouble("fats");
-                int logId = rs.getInt("log_id");
-
-                rowToLogIdMap.put(rowIndex, logId);
-
-                tableModel.addRow(new Object[]{
-                        timeStr, mealType, foodName, quantity,
-                        calories + " kcal", protein + "g", carbs + "g", fats + "g"
-                });
-
-                totalCalories += calories;
-                rowIndex++;
-            }
+        for (DatabaseHelper.MealEntry meal : meals) {
+            String timeStr = meal.consumedAt.format(DateTimeFormatter.ofPattern("MMM dd, HH:mm"));
+            String quantity = meal.quantity + " " + meal.unit;
 
-            String dateDisplay = selectedDate.equals(LocalDate.now()) ?
-                    "Today's Total: " : "Total for " + selectedDate.format(DateTimeFormatter.ofPattern("MMM dd, yyyy")) + ": ";
-            totalCaloriesLabel.setText(dateDisplay + totalCalories + " kcal");
+            rowToLogIdMap.put(rowIndex, meal.logId);
 
-        } catch (SQLException e) {
-            System.err.println("Error loading meal data: " + e.getMessage());
-            JOptionPane.showMessageDialog(this,
-                    "Failed to load meal data",
-                    "Database Error",
-                    JOptionPane.ERROR_MESSAGE);
+            tableModel.addRow(new Object[]{
+                    timeStr, meal.mealType, meal.foodName, quantity,
+                    meal.calories + " kcal", meal.protein + "g", meal.carbs + "g", meal.fats + "g"
+            });
+
+            totalCalories += meal.calories;
+            rowIndex++;
         }
+
+        String dateDisplay = date.equals(LocalDate.now()) ?
+                "Today's Total: " : "Total for " + date.format(DateTimeFormatter.ofPattern("MMM dd, yyyy")) + ": ";
+        totalCaloriesLabel.setText(dateDisplay + totalCalories + " kcal");
     }
 
     private void showAddFoodDialog() {
@@ -246,153 +237,86 @@ public class MealLogPanel extends JPanel {
                 JOptionPane.YES_NO_OPTION);
 
         if (choice == JOptionPane.YES_OPTION) {
-            if (deleteMealAndRecalculate(logId)) {
-                JOptionPane.showMessageDialog(this,
-                        "Meal deleted successfully!",
-                        "Success",
-                        JOptionPane.INFORMATION_MESSAGE);
-                loadMealData();
-            } else {
-                JOptionPane.showMessageDialog(this,
-                        "Failed to delete meal",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            LocalDate date = selectedDate;
+            AsyncDatabaseHelper.deleteMeal(logId).whenCompleteAsync((deleted, error) -> {
+                if (error == null && Boolean.TRUE.equals(deleted)) {
+                    ChangeBus.publish(new ChangeBus.MealDeleted(userId, date, logId));
+                    JOptionPane.showMessageDialog(this,
+                            "Meal deleted successfully!",
+                            "Success",
+                            JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    if (error != null) {
+                        System.err.println("Delete meal error: " + error.getMessage());
+                    }
+                    JOptionPane.showMessageDialog(this,
+                            "Failed to delete meal",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }, AsyncDatabaseHelper.EDT);
         }
     }
 
-    private boolean deleteMealAndRecalculate(int logId) {
-        try (Connection conn = DatabaseHelper.getConnection()) {
-            conn.setAutoCommit(false);
-
-            try {
-                // Get the food log details before deleting
-                String getFoodLogSql = "SELECT user_id, DATE(consumed_at) as log_date FROM food_logs WHERE id = ?";
-                PreparedStatement getFoodLogStmt = conn.prepareStatement(getFoodLogSql);
-                getFoodLogStmt.setInt(1, logId);
-                ResultSet rs = getFoodLogStmt.executeQuery();
-
-                if (!rs.next()) {
-                    conn.rollback();
-                    return false;
-                }
-
-                int userId = rs.getInt("user_id");
-                java.sql.Date logDate = rs.getDate("log_date");
-                getFoodLogStmt.close();
-
-                // Delete the food log entry
-                String deleteSql = "DELETE FROM food_logs WHERE id = ?";
-                PreparedStatement deleteStmt = conn.prepareStatement(deleteSql);
-                deleteStmt.setInt(1, logId);
-                deleteStmt.executeUpdate();
-                deleteStmt.close();
-
-                // Recalculate daily totals for that date
-                recalculateDailyLog(conn, userId, logDate);
+    private void editSelectedMealQuantity() {
+        int selectedRow = mealsTable.getSelectedRow();
+        if (selectedRow == -1) {
+            JOptionPane.showMessageDialog(this,
+                    "Please select a meal to edit",
+                    "No Selection",
+                    JOptionPane.WARNING_MESSAGE);
+            return;
+        }
 
-                conn.commit();
-                return true;
+        Integer logId = rowToLogIdMap.get(selectedRow);
+        if (logId == null) {
+            JOptionPane.showMessageDialog(this,
+                    "Error: Could not find meal ID",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
 
-            } catch (SQLException e) {
-                conn.rollback();
-                System.err.println("Error in delete transaction: " + e.getMessage());
-                return false;
-            }
-        } catch (SQLException e) {
-            System.err.println("Error deleting meal: " + e.getMessage());
-            return false;
+        String foodName = (String) tableModel.getValueAt(selectedRow, 2);
+        String[] quantityParts = ((String) tableModel.getValueAt(selectedRow, 3)).split(" ");
+
+        String input = (String) JOptionPane.showInputDialog(this,
+                "New quantity for " + foodName + " (" + quantityParts[quantityParts.length - 1] + "):",
+                "Edit Quantity",
+                JOptionPane.PLAIN_MESSAGE,
+                null, null, quantityParts[0]);
+        if (input == null) {
+            return;
         }
-    }
 
-    private void recalculateDailyLog(Connection conn, int userId, java.sql.Date logDate) throws SQLException {
-        // Calculate totals from food_logs for the specific date
-        String calculateSql = """
-            SELECT 
-                COALESCE(SUM(ROUND((fi.calories * fl.quantity) / fi.base_quantity)), 0) as total_calories,
-                COALESCE(SUM(ROUND((fi.protein_g * fl.quantity) / fi.base_quantity)), 0) as total_protein,
-                COALESCE(SUM(ROUND((fi.carbs_g * fl.quantity) / fi.base_quantity)), 0) as total_carbs,
-                COALESCE(SUM(ROUND((fi.fats_g * fl.quantity) / fi.base_quantity)), 0) as total_fats,
-                COALESCE(SUM(ROUND((fi.calcium_mg * fl.quantity) / fi.base_quantity)), 0) as total_calcium,
-                COALESCE(SUM(ROUND((fi.potassium_mg * fl.quantity) / fi.base_quantity)), 0) as total_potassium,
-                COALESCE(SUM(ROUND((fi.sodium_mg * fl.quantity) / fi.base_quantity)), 0) as total_sodium,
-                COALESCE(SUM(ROUND((fi.magnesium_mg * fl.quantity) / fi.base_quantity)), 0) as total_magnesium,
-                COALESCE(SUM(ROUND((fi.iron_mg * fl.quantity) / fi.base_quantity)), 0) as total_iron,
-                COALESCE(SUM(ROUND((fi.zinc_mg * fl.quantity) / fi.base_quantity)), 0) as total_zinc,
-                COALESCE(SUM(ROUND((fi.vitamin_a_iu * fl.quantity) / fi.base_quantity)), 0) as total_vit_a,
-                COALESCE(SUM(ROUND((fi.vitamin_d_iu * fl.quantity) / fi.base_quantity)), 0) as total_vit_d,
-                COALESCE(SUM(ROUND((fi.vitamin_e_iu * fl.quantity) / fi.base_quantity)), 0) as total_vit_e,
-                COALESCE(SUM(ROUND((fi.vitamin_k_mcg * fl.quantity) / fi.base_quantity)), 0) as total_vit_k
-            FROM food_logs fl
-            JOIN food_items fi ON fl.food_item_id = fi.id
-            WHERE fl.user_id = ? AND DATE(fl.consumed_at) = ?
-        """;
-
-        PreparedStatement calcStmt = conn.prepareStatement(calculateSql);
-        calcStmt.setInt(1, userId);
-        calcStmt.setDate(2, logDate);
-        ResultSet rs = calcStmt.executeQuery();
-
-        if (rs.next()) {
-            // Get current water_ml from daily_logs (we don't want to lose this)
-            String getWaterSql = "SELECT COALESCE(water_ml, 0) as water_ml FROM daily_logs WHERE user_id = ? AND log_date = ?";
-            PreparedStatement getWaterStmt = conn.prepareStatement(getWaterSql);
-            getWaterStmt.setInt(1, userId);
-            getWaterStmt.setDate(2, logDate);
-            ResultSet waterRs = getWaterStmt.executeQuery();
-
-            int currentWater = 0;
-            if (waterRs.next()) {
-                currentWater = waterRs.getInt("water_ml");
+        int quantity;
+        try {
+            quantity = Integer.parseInt(input.trim());
+            if (quantity <= 0) {
+                throw new NumberFormatException();
             }
-            getWaterStmt.close();
-
-            // Update or insert daily_logs with recalculated values
-            String updateSql = """
-                INSERT INTO daily_logs (user_id, log_date, calories, protein_g, carbs_g, fats_g, water_ml,
-                    calcium_mg, potassium_mg, sodium_mg, magnesium_mg, iron_mg, zinc_mg,
-                    vitamin_a_iu, vitamin_d_iu, vitamin_e_iu, vitamin_k_mcg)
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-                ON DUPLICATE KEY UPDATE
-                    calories = VALUES(calories),
-                    protein_g = VALUES(protein_g),
-                    carbs_g = VALUES(carbs_g),
-                    fats_g = VALUES(fats_g),
-                    calcium_mg = VALUES(calcium_mg),
-                    potassium_mg = VALUES(potassium_mg),
-                    sodium_mg = VALUES(sodium_mg),
-                    magnesium_mg = VALUES(magnesium_mg),
-                    iron_mg = VALUES(iron_mg),
-                    zinc_mg = VALUES(zinc_mg),
-                    vitamin_a_iu = VALUES(vitamin_a_iu),
-                    vitamin_d_iu = VALUES(vitamin_d_iu),
-                    vitamin_e_iu = VALUES(vitamin_e_iu),
-                    vitamin_k_mcg = VALUES(vitamin_k_mcg)
-            """;
-
-            PreparedStatement updateStmt = conn.prepareStatement(updateSql);
-            updateStmt.setInt(1, userId);
-            updateStmt.setDate(2, logDate);
-            updateStmt.setInt(3, rs.getInt("total_calories"));
-            updateStmt.setInt(4, rs.getInt("total_protein"));
-            updateStmt.setInt(5, rs.getInt("total_carbs"));
-            updateStmt.setInt(6, rs.getInt("total_fats"));
-            updateStmt.setInt(7, currentWater); // Preserve water intake
-            updateStmt.setInt(8, rs.getInt("total_calcium"));
-            updateStmt.setInt(9, rs.getInt("total_potassium"));
-            updateStmt.setInt(10, rs.getInt("total_sodium"));
-            updateStmt.setInt(11, rs.getInt("total_magnesium"));
-            updateStmt.setInt(12, rs.getInt("total_iron"));
-            updateStmt.setInt(13, rs.getInt("total_zinc"));
-            updateStmt.setInt(14, rs.getInt("total_vit_a"));
-            updateStmt.setInt(15, rs.getInt("total_vit_d"));
-            updateStmt.setInt(16, rs.getInt("total_vit_e"));
-            updateStmt.setInt(17, rs.getInt("total_vit_k"));
-            updateStmt.executeUpdate();
-            updateStmt.close();
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this,
+                    "Please enter a valid positive number",
+                    "Invalid Quantity",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
         }
 
-        calcStmt.close();
+        LocalDate date = selectedDate;
+        AsyncDatabaseHelper.updateMealQuantity(logId, quantity).whenCompleteAsync((updated, error) -> {
+            if (error == null && Boolean.TRUE.equals(updated)) {
+                ChangeBus.publish(new ChangeBus.MealUpdated(userId, date, logId));
+            } else {
+                if (error != null) {
+                    System.err.println("Update meal error: " + error.getMessage());
+                }
+                JOptionPane.showMessageDialog(this,
+                        "Failed to update meal",
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }, AsyncDatabaseHelper.EDT);
     }
 
     private JButton createStyledButton(String text, Color bgColor) {
@@ -412,6 +336,29 @@ public class MealLogPanel extends JPanel {
         loadMealData();
     }
 
+    // Reload the table only when a change touches the day on screen; water has no meal rows
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        if (dayChanges == null) {
+            dayChanges = ChangeBus.subscribe(ChangeBus.DayChanged.class, event -> {
+                if (event.userId == userId && event.date.equals(selectedDate)
+                        && !(event instanceof ChangeBus.WaterAdded)) {
+                    loadMealData();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        if (dayChanges != null) {
+            dayChanges.unsubscribe();
+            dayChanges = null;
+        }
+        super.removeNotify();
+    }
+
     // Inner class for adding food to a specific date
     private static class AddFoodForDateDialog extends JDialog {
         private JComboBox<String> foodComboBox;
@@ -425,6 +372,7 @@ public class MealLogPanel extends JPanel {
         private int userId;
         private LocalDate targetDate;
         private MealLogPanel parentPanel;
+        private FoodSearchController foodSearch;
 
         public AddFoodForDateDialog(JFrame parent, int userId, LocalDate targetDate, MealLogPanel parentPanel) {
             super(parent, "Add Food - " + targetDate.format(DateTimeFormatter.ofPattern("MMM dd, yyyy")), true);
@@ -462,12 +410,13 @@ public class MealLogPanel extends JPanel {
             foodComboBox = new JComboBox<String>();
             foodComboBox.setEditable(true);
             foodComboBox.setFont(new Font("Arial", Font.PLAIN, 14));
+            foodSearch = new FoodSearchController(foodComboBox);
             foodPanel.add(foodComboBox, BorderLayout.CENTER);
 
             searchButton = new JButton("🔍");
             searchButton.setFont(new Font("Arial", Font.PLAIN, 12));
             searchButton.setPreferredSize(new Dimension(40, 30));
-            searchButton.addActionListener(e -> searchFoods());
+            searchButton.addActionListener(e -> foodSearch.searchNow());
             foodPanel.add(searchButton, BorderLayout.EAST);
 
             formPanel.add(foodPanel);
@@ -546,7 +495,7 @@ public class MealLogPanel extends JPanel {
             add(mainPanel);
 
             // Load initial data and add listeners
-            updateFoodComboBox("");
+            foodSearch.searchNow();
 
             foodComboBox.addActionListener(e -> updateNutritionPreview());
 
@@ -567,28 +516,6 @@ public class MealLogPanel extends JPanel {
             return label;
         }
 
-        private void searchFoods() {
-            String query = "";
-            Object editorItem = foodComboBox.getEditor().getItem();
-            if (editorItem != null) {
-                query = editorItem.toString();
-            }
-            updateFoodComboBox(query);
-        }
-
-        private void updateFoodComboBox(String query) {
-            foodComboBox.removeAllItems();
-            List<DatabaseHelper.FoodItem> foods = DatabaseHelper.searchFoods(query);
-
-            if (foods.isEmpty()) {
-                foodComboBox.addItem("No foods found");
-            } else {
-                for (DatabaseHelper.FoodItem food : foods) {
-                    foodComboBox.addItem(food.name);
-                }
-            }
-        }
-
         private void updateNutritionPreview() {
             Object editorItem = foodComboBox.getEditor().getItem();
             if (editorItem == null) {
@@ -692,40 +619,7 @@ public class MealLogPanel extends JPanel {
                 String mealType = (String) mealTypeComboBox.getSelectedItem();
                 String unit = (String) unitComboBox.getSelectedItem();
 
-                // Log food for the specific target date
-                boolean logged = logFoodForDate(foodItem.id, quantity, unit, mealType);
-
-                if (logged) {
-                    // Update daily nutrition totals for the target date
-                    DatabaseHelper.NutritionData nutrition = foodItem.calculateNutrition(quantity);
-                    boolean nutritionAdded = addNutritionForDate(nutrition);
-
-                    if (nutritionAdded) {
-                        JOptionPane.showMessageDialog(this,
-                                String.format("Added %d%s of %s to your %s meal on %s!",
-                                        quantity, unit, foodItem.name, mealType,
-                                        targetDate.format(DateTimeFormatter.ofPattern("MMM dd, yyyy"))),
-                                "Food Added",
-                                JOptionPane.INFORMATION_MESSAGE);
-
-                        // Refresh the parent panel
-                        if (parentPanel != null) {
-                            parentPanel.loadMealData();
-                        }
-
-                        dispose();
-                    } else {
-                        JOptionPane.showMessageDialog(this,
-                                "Failed to add nutrition data.",
-                                "Error",
-                                JOptionPane.ERROR_MESSAGE);
-                    }
-                } else {
-                    JOptionPane.showMessageDialog(this,
-                            "Failed to log food. Please try again.",
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE);
-                }
+                saveMeal(foodItem, quantity, unit, mealType);
 
             } catch (NumberFormatException e) {
                 JOptionPane.showMessageDialog(this,
@@ -735,73 +629,33 @@ public class MealLogPanel extends JPanel {
             }
         }
 
-        private boolean logFoodForDate(int foodItemId, int quantity, String unit, String mealType) {
-            // Create timestamp for the target date
-            java.sql.Timestamp timestamp = java.sql.Timestamp.valueOf(
-                    targetDate.atTime(java.time.LocalTime.now())
-            );
-
-            String sql = "INSERT INTO food_logs (user_id, food_item_id, quantity, unit, meal_type, consumed_at) VALUES (?, ?, ?, ?, ?, ?)";
-            try (Connection conn = DatabaseHelper.getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setInt(1, userId);
-                pstmt.setInt(2, foodItemId);
-                pstmt.setInt(3, quantity);
-                pstmt.setString(4, unit);
-                pstmt.setString(5, mealType);
-                pstmt.setTimestamp(6, timestamp);
-                int rowsAffected = pstmt.executeUpdate();
-                return rowsAffected > 0;
-            } catch (SQLException e) {
-                System.err.println("Log food consumption error: " + e.getMessage());
-                return false;
-            }
-        }
-
-        private boolean addNutritionForDate(DatabaseHelper.NutritionData data) {
-            java.sql.Date sqlDate = java.sql.Date.valueOf(targetDate);
-
-            String sql = """
-                INSERT INTO daily_logs (user_id, log_date, calories, protein_g, carbs_g, fats_g, water_ml,
-                calcium_mg, potassium_mg, sodium_mg, magnesium_mg, iron_mg, zinc_mg,
-                vitamin_a_iu, vitamin_d_iu, vitamin_e_iu, vitamin_k_mcg)
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-                ON DUPLICATE KEY UPDATE
-                calories=calories+VALUES(calories), protein_g=protein_g+VALUES(protein_g),
-                carbs_g=carbs_g+VALUES(carbs_g), fats_g=fats_g+VALUES(fats_g),
-                water_ml=water_ml+VALUES(water_ml), calcium_mg=calcium_mg+VALUES(calcium_mg),
-                potassium_mg=potassium_mg+VALUES(potassium_mg), sodium_mg=sodium_mg+VALUES(sodium_mg),
-                magnesium_mg=magnesium_mg+VALUES(magnesium_mg), iron_mg=iron_mg+VALUES(iron_mg),
-                zinc_mg=zinc_mg+VALUES(zinc_mg), vitamin_a_iu=vitamin_a_iu+VALUES(vitamin_a_iu),
-                vitamin_d_iu=vitamin_d_iu+VALUES(vitamin_d_iu), vitamin_e_iu=vitamin_e_iu+VALUES(vitamin_e_iu),
-                vitamin_k_mcg=vitamin_k_mcg+VALUES(vitamin_k_mcg)
-            """;
-
-            try (Connection conn = DatabaseHelper.getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setInt(1, userId);
-                pstmt.setDate(2, sqlDate);
-                pstmt.setInt(3, data.calories);
-                pstmt.setInt(4, data.protein_g);
-                pstmt.setInt(5, data.carbs_g);
-                pstmt.setInt(6, data.fats_g);
-                pstmt.setInt(7, data.water_ml);
-                pstmt.setInt(8, data.calcium_mg);
-                pstmt.setInt(9, data.potassium_mg);
-                pstmt.setInt(10, data.sodium_mg);
-                pstmt.setInt(11, data.magnesium_mg);
-                pstmt.setInt(12, data.iron_mg);
-                pstmt.setInt(13, data.zinc_mg);
-                pstmt.setInt(14, data.vitamin_a_iu);
-                pstmt.setInt(15, data.vitamin_d_iu);
-                pstmt.setInt(16, data.vitamin_e_iu);
-                pstmt.setInt(17, data.vitamin_k_mcg);
-                int rowsAffected = pstmt.executeUpdate();
-                return rowsAffected > 0;
-            } catch (SQLException e) {
-                System.err.println("Add nutrition data error: " + e.getMessage());
-                return false;
-            }
+        private void saveMeal(DatabaseHelper.FoodItem foodItem, int quantity, String unit, String mealType) {
+            addButton.setEnabled(false);
+            DatabaseHelper.MealLogEntry entry = new DatabaseHelper.MealLogEntry(
+                    userId, foodItem, quantity, unit, mealType, targetDate.atTime(java.time.LocalTime.now()));
+            // Food log and daily totals are written together in one transaction; with write-behind
+            // enabled the entry joins the next batch
+            CompletableFuture<Boolean> saved = MealLogWriter.isEnabled()
+                    ? MealLogWriter.submit(entry)
+                    : AsyncDatabaseHelper.logMeal(userId, List.of(entry));
+            saved.whenCompleteAsync((success, error) -> {
+                addButton.setEnabled(true);
+                if (error == null && Boolean.TRUE.equals(success)) {
+                    ChangeBus.publish(new ChangeBus.MealLogged(userId, targetDate, foodItem.name));
+                    JOptionPane.showMessageDialog(this,
+                            String.format("Added %d%s of %s to your %s meal on %s!",
+                                    quantity, unit, foodItem.name, mealType,
+                                    targetDate.format(DateTimeFormatter.ofPattern("MMM dd, yyyy"))),
+                            "Food Added",
+                            JOptionPane.INFORMATION_MESSAGE);
+                    dispose();
+                } else {
+                    JOptionPane.showMessageDialog(this,
+                            "Failed to log food. Please try again.",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }, AsyncDatabaseHelper.EDT);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,207 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Meal Log Writer - Optional write-behind queue for meal logging with group commit
+ * Version: 1.0
+ * Features: Bounded queue, Batched multi-row transactions across users, Per-entry completion futures,
+ *           Flush on shutdown, Throughput and queue-depth metrics
+ *
+ * Enabled with -Decoeats.mealLog.writeBehind=true. The writer thread takes the first queued entry,
+ * lingers up to ecoeats.mealLog.lingerMs for more, and commits up to ecoeats.mealLog.batchSize
+ * entries in one DatabaseHelper.logMeals transaction. If a batch fails, its entries are retried
+ * one by one so a single bad entry cannot fail everyone else's.
+ */
+public class MealLogWriter {
+    private static final boolean ENABLED = Boolean.getBoolean("ecoeats.mealLog.writeBehind");
+    private static final int QUEUE_CAPACITY = Integer.getInteger("ecoeats.mealLog.queueCapacity", 10000);
+    private static final int BATCH_SIZE = Integer.getInteger("ecoeats.mealLog.batchSize", 500);
+    private static final long LINGER_MS = Long.getLong("ecoeats.mealLog.lingerMs", 5);
+    private static final long SHUTDOWN_TIMEOUT_MS = 10000;
+
+    private static final BlockingQueue<Pending> QUEUE = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private static final Object START_LOCK = new Object();
+    private static Thread worker;
+    private static volatile boolean stopping;
+
+    private static final long START_NANOS = System.nanoTime();
+    private static final AtomicLong submitted = new AtomicLong();
+    private static final AtomicLong committed = new AtomicLong();
+    private static final AtomicLong failed = new AtomicLong();
+    private static final AtomicLong callerRuns = new AtomicLong();
+    private static final AtomicLong batches = new AtomicLong();
+    private static final AtomicLong maxBatch = new AtomicLong();
+    private static final AtomicLong maxQueueDepth = new AtomicLong();
+    private static final AtomicLong totalLatencyNanos = new AtomicLong();
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Queues an entry and returns a future completed with the commit result. When the queue
+     * is full, or the writer is shutting down, the entry is written on the calling thread.
+     */
+    public static CompletableFuture<Boolean> submit(DatabaseHelper.MealLogEntry entry) {
+        Pending pending = new Pending(entry);
+        submitted.incrementAndGet();
+        if (stopping || !QUEUE.offer(pending)) {
+            callerRuns.incrementAndGet();
+            commit(List.of(pending));
+            return pending.future;
+        }
+        maxQueueDepth.accumulateAndGet(QUEUE.size(), Math::max);
+        ensureStarted();
+        return pending.future;
+    }
+
+    private static void ensureStarted() {
+        synchronized (START_LOCK) {
+            if (worker == null) {
+                worker = new Thread(MealLogWriter::run, "ecoeats-meal-log-writer");
+                worker.setDaemon(true);
+                worker.start();
+            }
+        }
+    }
+
+    private static void run() {
+        List<Pending> batch = new ArrayList<>(BATCH_SIZE);
+        while (!stopping || !QUEUE.isEmpty()) {
+            try {
+                Pending first = QUEUE.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LINGER_MS);
+                while (batch.size() < BATCH_SIZE) {
+                    if (QUEUE.drainTo(batch, BATCH_SIZE - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0 || stopping) {
+                        break;
+                    }
+                    Pending next = QUEUE.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private static void commit(List<Pending> batch) {
+        List<DatabaseHelper.MealLogEntry> entries = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            entries.add(pending.entry);
+        }
+
+        if (DatabaseHelper.logMeals(entries)) {
+            batches.incrementAndGet();
+            maxBatch.accumulateAndGet(batch.size(), Math::max);
+            for (Pending pending : batch) {
+                complete(pending, true);
+            }
+        } else if (batch.size() == 1) {
+            complete(batch.get(0), false);
+        } else {
+            for (Pending pending : batch) {
+                commit(List.of(pending));
+            }
+        }
+    }
+
+    private static void complete(Pending pending, boolean success) {
+        (success ? committed : failed).incrementAndGet();
+        totalLatencyNanos.addAndGet(System.nanoTime() - pending.enqueuedNanos);
+        pending.future.complete(success);
+    }
+
+    /** Stops accepting queued work and waits for everything already queued to be committed. */
+    public static void shutdown() {
+        Thread current;
+        synchronized (START_LOCK) {
+            stopping = true;
+            current = worker;
+        }
+        if (current == null) {
+            return;
+        }
+        try {
+            current.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Entries that raced past the stopping flag are written here
+        List<Pending> rest = new ArrayList<>();
+        QUEUE.drainTo(rest);
+        if (!rest.isEmpty()) {
+            commit(rest);
+        }
+        System.out.println("Meal log writer: " + getStats());
+    }
+
+    public static Stats getStats() {
+        Stats stats = new Stats();
+        stats.enabled = ENABLED;
+        stats.queueDepth = QUEUE.size();
+        stats.maxQueueDepth = maxQueueDepth.get();
+        stats.submitted = submitted.get();
+        stats.committed = committed.get();
+        stats.failed = failed.get();
+        stats.callerRuns = callerRuns.get();
+        stats.batches = batches.get();
+        stats.maxBatch = maxBatch.get();
+        stats.avgBatch = stats.batches == 0 ? 0 : (double) stats.committed / stats.batches;
+        long done = stats.committed + stats.failed;
+        stats.avgLatencyMillis = done == 0 ? 0 : totalLatencyNanos.get() / 1_000_000.0 / done;
+        double seconds = (System.nanoTime() - START_NANOS) / 1_000_000_000.0;
+        stats.entriesPerSecond = seconds <= 0 ? 0 : stats.committed / seconds;
+        return stats;
+    }
+
+    // Inner classes
+    private static class Pending {
+        final DatabaseHelper.MealLogEntry entry;
+        final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        final long enqueuedNanos = System.nanoTime();
+
+        Pending(DatabaseHelper.MealLogEntry entry) {
+            this.entry = entry;
+        }
+    }
+
+    public static class Stats {
+        public boolean enabled;
+        public int queueDepth;
+        public long maxQueueDepth;
+        public long submitted;
+        public long committed;
+        public long failed;
+        public long callerRuns;
+        public long batches;
+        public long maxBatch;
+        public double avgBatch;
+        public double avgLatencyMillis;
+        public double entriesPerSecond;
+
+        @Override
+        public String toString() {
+            return String.format("queue=%d (max %d), submitted=%d, committed=%d, failed=%d, callerRuns=%d, "
+                            + "batches=%d (avg %.1f, max %d), avgLatency=%.1fms, throughput=%.1f/s",
+                    queueDepth, maxQueueDepth, submitted, committed, failed, callerRuns,
+                    batches, avgBatch, maxBatch, avgLatencyMillis, entriesPerSecond);
+        }
+    }
+}
@@ -0,0 +1,1822 @@
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * MySQL Nutrition Store - Default storage backend
+ * Version: 1.0
+ * Features: Pooled connections with statement caching, MySQL schema and upserts
+ */
+public class MySqlNutritionStore implements NutritionStore {
+    private static final String DB_URL = "jdbc:mysql://localhost:3306/ecoeats_db";
+    private static final String DB_USER = "root";
+    private static final String DB_PASSWORD = "";
+    // Server-side prepares pair with the pool's per-connection statement cache; batches are rewritten to multi-row inserts.
+    private static final String DB_OPTIONS = "useServerPrepStmts=true&cachePrepStmts=false&rewriteBatchedStatements=true&useCursorFetch=true";
+
+    private static final String DAILY_LOGS_INSERT =
+            "INSERT INTO daily_logs (user_id, log_date, calories, protein_g, carbs_g, fats_g, water_ml, "
+            + "calcium_mg, potassium_mg, sodium_mg, magnesium_mg, iron_mg, zinc_mg, "
+            + "vitamin_a_iu, vitamin_d_iu, vitamin_e_iu, vitamin_k_mcg) VALUES ";
+    private static final String DAILY_LOGS_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DAILY_LOGS_ACCUMULATE = """
+
+        ON DUPLICATE KEY UPDATE
+        calories=calories+VALUES(calories), protein_g=protein_g+VALUES(protein_g),
+        carbs_g=carbs_g+VALUES(carbs_g), fats_g=fats_g+VALUES(fats_g),
+        water_ml=water_ml+VALUES(water_ml), calcium_mg=calcium_mg+VALUES(calcium_mg),
+        potassium_mg=potassium_mg+VALUES(potassium_mg), sodium_mg=sodium_mg+VALUES(sodium_mg),
+        magnesium_mg=magnesium_mg+VALUES(magnesium_mg), iron_mg=iron_mg+VALUES(iron_mg),
+        zinc_mg=zinc_mg+VALUES(zinc_mg), vitamin_a_iu=vitamin_a_iu+VALUES(vitamin_a_iu),
+        vitamin_d_iu=vitamin_d_iu+VALUES(vitamin_d_iu), vitamin_e_iu=vitamin_e_iu+VALUES(vitamin_e_iu),
+        vitamin_k_mcg=vitamin_k_mcg+VALUES(vitamin_k_mcg)""";
+    private static final String ADD_NUTRITION_SQL = DAILY_LOGS_INSERT + DAILY_LOGS_ROW + DAILY_LOGS_ACCUMULATE;
+
+    private static final String[] NUTRIENT_COLUMNS = {"calories", "protein_g", "carbs_g", "fats_g", "water_ml",
+            "calcium_mg", "potassium_mg", "sodium_mg", "magnesium_mg", "iron_mg", "zinc_mg",
+            "vitamin_a_iu", "vitamin_d_iu", "vitamin_e_iu", "vitamin_k_mcg"};
+    // The user, their goals (g_*) and one day's log (d_*) in a single row: login is one round trip
+    private static final String LOGIN_SQL = buildLoginSql();
+    // First day of the nutrition_rollups period (migration V6) a daily_logs.log_date falls in
+    private static final Map<DatabaseHelper.Rollup, String> ROLLUP_BUCKET_SQL = Map.of(
+            DatabaseHelper.Rollup.WEEK, "DATE_SUB(d.log_date, INTERVAL WEEKDAY(d.log_date) DAY)",
+            DatabaseHelper.Rollup.MONTH, "DATE_SUB(d.log_date, INTERVAL DAYOFMONTH(d.log_date) - 1 DAY)");
+    // Per-day averages from the rollup rows, shaped like daily_logs rows
+    private static final String ROLLUP_AVERAGES_SQL = buildRollupAveragesSql();
+
+    private static final String FOOD_LOGS_INSERT =
+            "INSERT INTO food_logs (user_id, food_item_id, quantity, unit, meal_type, consumed_at) VALUES ";
+    private static final String FOOD_LOGS_ROW = "(?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_FOOD_LOG_SQL = FOOD_LOGS_INSERT + FOOD_LOGS_ROW;
+
+    private static final int MAX_TX_ATTEMPTS = 3;
+    // Rows per round trip for streamed exports (server-side cursor, see useCursorFetch)
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    // Admin listing sort column -> ORDER BY expression. All but food_group are indexed (V4), and
+    // InnoDB appends id to every secondary index, so (sort, id) keyset pages are index seeks
+    private static final Map<String, String> USER_SORT_SQL = Map.of(
+            "created_at", "created_at", "full_name", "full_name", "email", "email", "age", "age", "id", "id");
+    private static final Map<String, String> FOOD_SORT_SQL = Map.of(
+            "name", "name", "food_group", "COALESCE(food_group, '')", "calories", "calories", "id", "id");
+    private static final String USER_LIST_COLUMNS = "id, full_name, email, age, gender, activity_level, role, created_at";
+
+    // stats_totals / stats_daily key -> getSystemStats name
+    private static final Map<String, String> STAT_NAMES = Map.of(
+            "users", "totalUsers", "foods", "totalFoods", "food_logs", "todayLogs", "admin_actions", "todayActions");
+    private static final long STATS_RECONCILE_MINUTES = Long.getLong("ecoeats.stats.reconcileMinutes", 60);
+    private static final long ROLLUP_REPAIR_MINUTES = Long.getLong("ecoeats.rollups.repairMinutes", 10);
+
+    private final ConnectionPool pool;
+    private ScheduledExecutorService maintenance;
+
+    public MySqlNutritionStore() {
+        this(withOptions(System.getProperty("ecoeats.db.url", DB_URL)),
+                System.getProperty("ecoeats.db.user", DB_USER),
+                System.getProperty("ecoeats.db.password", DB_PASSWORD));
+    }
+
+    public MySqlNutritionStore(String url, String user, String password) {
+        this.pool = new ConnectionPool(url, user, password);
+    }
+
+    // An overriding URL may already carry its own query parameters
+    private static String withOptions(String url) {
+        return url + (url.contains("?") ? "&" : "?") + DB_OPTIONS;
+    }
+
+    public Connection getConnection() throws SQLException {
+        return pool.getConnection();
+    }
+
+    public ConnectionPool.Stats getPoolStats() {
+        return pool.getStats();
+    }
+
+    @Override
+    public void close() {
+        if (maintenance != null) {
+            maintenance.shutdownNow();
+        }
+        System.out.println("Connection pool: " + pool.getStats());
+        pool.close();
+    }
+
+    @Override
+    public void initialize() {
+        try (Connection conn = getConnection()) {
+            if (SchemaMigrator.migrate(conn)) {
+                System.out.println("Database initialized successfully! (schema V" + SchemaMigrator.latestVersion() + ")");
+            }
+        } catch (SQLException e) {
+            System.err.println("Database initialization error: " + e.getMessage());
+        }
+
+        if ((STATS_RECONCILE_MINUTES > 0 || ROLLUP_REPAIR_MINUTES > 0) && maintenance == null) {
+            maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "ecoeats-store-maintenance");
+                t.setDaemon(true);
+                return t;
+            });
+            // Catch-up for the dashboard counters: today and yesterday (late writes around midnight)
+            if (STATS_RECONCILE_MINUTES > 0) {
+                maintenance.scheduleWithFixedDelay(() -> reconcileStats(LocalDate.now().minusDays(1), LocalDate.now()),
+                        STATS_RECONCILE_MINUTES, STATS_RECONCILE_MINUTES, TimeUnit.MINUTES);
+            }
+            // Rollup rows the triggers flagged stale (min/max after a value dropped, days at goal after a goal change)
+            if (ROLLUP_REPAIR_MINUTES > 0) {
+                maintenance.scheduleWithFixedDelay(() -> repairRollups(null, null),
+                        ROLLUP_REPAIR_MINUTES, ROLLUP_REPAIR_MINUTES, TimeUnit.MINUTES);
+            }
+        }
+    }
+
+    // ==================== USERS ====================
+
+    @Override
+    public boolean registerUser(String fullName, String email, int age,
+                                String gender, String activityLevel, String passwordHash, String role) {
+        String sql = "INSERT INTO users (full_name, email, age, gender, activity_level, password, role) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setString(1, fullName);
+            pstmt.setString(2, email);
+            pstmt.setInt(3, age);
+            pstmt.setString(4, gender);
+            pstmt.setString(5, activityLevel);
+            pstmt.setString(6, passwordHash);
+            pstmt.setString(7, role);
+            int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                ResultSet rs = pstmt.getGeneratedKeys();
+                if (rs.next()) {
+                    int userId = rs.getInt(1);
+                    if (role.equals("user")) {
+                        createDefaultGoals(conn, userId);
+                    }
+                }
+                return true;
+            }
+        } catch (SQLException e) {
+            System.err.println("Registration error: " + e.getMessage());
+        }
+        return false;
+    }
+
+    private void createDefaultGoals(Connection conn, int userId) {
+        String sql = "INSERT INTO user_goals (user_id) VALUES (?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Goals creation error: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean emailExists(String email) {
+        String sql = "SELECT COUNT(*) FROM users WHERE email = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, email);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return rs.getInt(1) > 0;
+            }
+        } catch (SQLException e) {
+            System.err.println("Email check error: " + e.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    public String getPasswordHash(String email) {
+        String sql = "SELECT password FROM users WHERE email = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, email);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return rs.getString("password");
+            }
+        } catch (SQLException e) {
+            System.err.println("Login validation error: " + e.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public DatabaseHelper.UserData getUserByEmail(String email) {
+        String sql = "SELECT * FROM users WHERE email = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, email);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return extractUserFromResultSet(rs);
+            }
+        } catch (SQLException e) {
+            System.err.println("Get user error: " + e.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public DatabaseHelper.LoginRecord getLoginRecord(String email, LocalDate date) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(LOGIN_SQL)) {
+            pstmt.setDate(1, java.sql.Date.valueOf(date));
+            pstmt.setString(2, email);
+            ResultSet rs = pstmt.executeQuery();
+            if (!rs.next()) {
+                return null;
+            }
+            DatabaseHelper.LoginRecord record = new DatabaseHelper.LoginRecord();
+            record.user = extractUserFromResultSet(rs);
+            record.passwordHash = rs.getString("password");
+            rs.getInt("g_user_id");
+            record.goals = rs.wasNull() ? null : extractGoalsFromResultSet(rs, "g_");
+            rs.getInt("d_user_id");
+            if (rs.wasNull()) {
+                record.todayLog = new DatabaseHelper.DailyLog();
+                record.todayLog.userId = record.user.id;
+                record.todayLog.logDate = date;
+            } else {
+                record.todayLog = extractDailyLogFromResultSet(rs, "d_");
+            }
+            return record;
+        } catch (SQLException e) {
+            System.err.println("Login validation error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String buildLoginSql() {
+        StringBuilder sql = new StringBuilder("SELECT u.id, u.full_name, u.email, u.age, u.gender, u.activity_level, "
+                + "u.role, u.created_at, u.password, g.user_id AS g_user_id, d.user_id AS d_user_id, d.log_date AS d_log_date");
+        for (String column : NUTRIENT_COLUMNS) {
+            sql.append(", g.").append(column).append(" AS g_").append(column);
+            sql.append(", d.").append(column).append(" AS d_").append(column);
+        }
+        return sql.append(" FROM users u LEFT JOIN user_goals g ON g.user_id = u.id"
+                + " LEFT JOIN daily_logs d ON d.user_id = u.id AND d.log_date = ? WHERE u.email = ?").toString();
+    }
+
+    private DatabaseHelper.UserData extractUserFromResultSet(ResultSet rs) throws SQLException {
+        DatabaseHelper.UserData user = new DatabaseHelper.UserData();
+        user.id = rs.getInt("id");
+        user.fullName = rs.getString("full_name");
+        user.email = rs.getString("email");
+        user.age = rs.getInt("age");
+        user.gender = rs.getString("gender");
+        user.activityLevel = rs.getString("activity_level");
+        user.role = rs.getString("role");
+        user.createdAt = rs.getTimestamp("created_at");
+        return user;
+    }
+
+    @Override
+    public boolean updatePassword(String email, String passwordHash) {
+        String sql = "UPDATE users SET password = ? WHERE email = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, passwordHash);
+            pstmt.setString(2, email);
+            int rowsAffected = pstmt.executeUpdate();
+            return rowsAffected > 0;
+        } catch (SQLException e) {
+            System.err.println("Update password error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean replacePasswordHash(String email, String expectedHash, String passwordHash) {
+        String sql = "UPDATE users SET password = ? WHERE email = ? AND password = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, passwordHash);
+            pstmt.setString(2, email);
+            pstmt.setString(3, expectedHash);
+            return pstmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Upgrade password hash error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean updateUserProfile(int userId, String fullName, int age, String gender, String activityLevel) {
+        String sql = "UPDATE users SET full_name = ?, age = ?, gender = ?, activity_level = ? WHERE id = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, fullName);
+            pstmt.setInt(2, age);
+            pstmt.setString(3, gender);
+            pstmt.setString(4, activityLevel);
+            pstmt.setInt(5, userId);
+            return pstmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error updating profile: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // ==================== GOALS & DAILY LOGS ====================
+
+    @Override
+    public DatabaseHelper.NutritionGoals getUserGoals(int userId) {
+        String sql = "SELECT * FROM user_goals WHERE user_id = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return extractGoalsFromResultSet(rs, "");
+            }
+        } catch (SQLException e) {
+            System.err.println("Get goals error: " + e.getMessage());
+        }
+        return null;
+    }
+
+    // prefix selects aliased columns, e.g. "g_" in the login join
+    private DatabaseHelper.NutritionGoals extractGoalsFromResultSet(ResultSet rs, String prefix) throws SQLException {
+        DatabaseHelper.NutritionGoals goals = new DatabaseHelper.NutritionGoals();
+        goals.userId = rs.getInt(prefix + "user_id");
+        goals.calories = rs.getInt(prefix + "calories");
+        goals.protein_g = rs.getInt(prefix + "protein_g");
+        goals.carbs_g = rs.getInt(prefix + "carbs_g");
+        goals.fats_g = rs.getInt(prefix + "fats_g");
+        goals.water_ml = rs.getInt(prefix + "water_ml");
+        goals.calcium_mg = rs.getInt(prefix + "calcium_mg");
+        goals.potassium_mg = rs.getInt(prefix + "potassium_mg");
+        goals.sodium_mg = rs.getInt(prefix + "sodium_mg");
+        goals.magnesium_mg = rs.getInt(prefix + "magnesium_mg");
+        goals.iron_mg = rs.getInt(prefix + "iron_mg");
+        goals.zinc_mg = rs.getInt(prefix + "zinc_mg");
+        goals.vitamin_a_iu = rs.getInt(prefix + "vitamin_a_iu");
+        goals.vitamin_d_iu = rs.getInt(prefix + "vitamin_d_iu");
+        goals.vitamin_e_iu = rs.getInt(prefix + "vitamin_e_iu");
+        goals.vitamin_k_mcg = rs.getInt(prefix + "vitamin_k_mcg");
+        return goals;
+    }
+
+    @Override
+    public boolean updateUserGoals(DatabaseHelper.NutritionGoals goals) {
+        String sql = """
+            INSERT INTO user_goals (user_id, calories, protein_g, carbs_g, fats_g, water_ml,
+            calcium_mg, potassium_mg, sodium_mg, magnesium_mg, iron_mg, zinc_mg,
+            vitamin_a_iu, vitamin_d_iu, vitamin_e_iu, vitamin_k_mcg)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+            calories=VALUES(calories), protein_g=VALUES(protein_g), carbs_g=VALUES(carbs_g),
+            fats_g=VALUES(fats_g), water_ml=VALUES(water_ml), calcium_mg=VALUES(calcium_mg),
+            potassium_mg=VALUES(potassium_mg), sodium_mg=VALUES(sodium_mg),
+            magnesium_mg=VALUES(magnesium_mg), iron_mg=VALUES(iron_mg), zinc_mg=VALUES(zinc_mg),
+            vitamin_a_iu=VALUES(vitamin_a_iu), vitamin_d_iu=VALUES(vitamin_d_iu),
+            vitamin_e_iu=VALUES(vitamin_e_iu), vitamin_k_mcg=VALUES(vitamin_k_mcg)
+        """;
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, goals.userId);
+            pstmt.setInt(2, goals.calories);
+            pstmt.setInt(3, goals.protein_g);
+            pstmt.setInt(4, goals.carbs_g);
+            pstmt.setInt(5, goals.fats_g);
+            pstmt.setInt(6, goals.water_ml);
+            pstmt.setInt(7, goals.calcium_mg);
+            pstmt.setInt(8, goals.potassium_mg);
+            pstmt.setInt(9, goals.sodium_mg);
+            pstmt.setInt(10, goals.magnesium_mg);
+            pstmt.setInt(11, goals.iron_mg);
+            pstmt.setInt(12, goals.zinc_mg);
+            pstmt.setInt(13, goals.vitamin_a_iu);
+            pstmt.setInt(14, goals.vitamin_d_iu);
+            pstmt.setInt(15, goals.vitamin_e_iu);
+            pstmt.setInt(16, goals.vitamin_k_mcg);
+            int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0 && maintenance != null) {
+                // The user_goals trigger flagged this user's rollups stale; recount days at goal
+                // on the maintenance thread rather than the caller's
+                maintenance.execute(() -> repairRollups(null, null));
+            }
+            return rowsAffected > 0;
+        } catch (SQLException e) {
+            System.err.println("Update goals error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public DatabaseHelper.DailyLog getLogForDate(int userId, LocalDate date) {
+        String sql = "SELECT * FROM daily_logs WHERE user_id = ? AND log_date = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            pstmt.setDate(2, java.sql.Date.valueOf(date));
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return extractDailyLogFromResultSet(rs);
+            }
+        } catch (SQLException e) {
+            System.err.println("Get log for date error: " + e.getMessage());
+        }
+        DatabaseHelper.DailyLog log = new DatabaseHelper.DailyLog();
+        log.userId = userId;
+        log.logDate = date;
+        return log;
+    }
+
+    @Override
+    public List<DatabaseHelper.DailyLog> getDailyLogs(int userId, LocalDate from, LocalDate to) {
+        List<DatabaseHelper.DailyLog> logs = new ArrayList<>();
+        String sql = """
+            SELECT * FROM daily_logs
+            WHERE user_id = ? AND log_date >= ? AND log_date <= ?
+            ORDER BY log_date ASC
+        """;
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            pstmt.setDate(2, java.sql.Date.valueOf(from));
+            pstmt.setDate(3, java.sql.Date.valueOf(to));
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                logs.add(extractDailyLogFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading nutrition data: " + e.getMessage());
+        }
+        return logs;
+    }
+
+    @Override
+    public List<DatabaseHelper.DailyLog> getRolledUpLogs(int userId, LocalDate from, LocalDate to, DatabaseHelper.Rollup rollup) {
+        if (!ROLLUP_BUCKET_SQL.containsKey(rollup)) {
+            return getDailyLogs(userId, from, to);
+        }
+        List<DatabaseHelper.DailyLog> logs = new ArrayList<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(ROLLUP_AVERAGES_SQL)) {
+            pstmt.setInt(1, userId);
+            pstmt.setString(2, periodName(rollup));
+            pstmt.setDate(3, java.sql.Date.valueOf(rollup.start(from)));
+            pstmt.setDate(4, java.sql.Date.valueOf(to));
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                logs.add(extractDailyLogFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading nutrition history: " + e.getMessage());
+        }
+        return logs;
+    }
+
+    private static String buildRollupAveragesSql() {
+        StringBuilder sql = new StringBuilder("SELECT user_id, period_start AS log_date");
+        for (String column : NUTRIENT_COLUMNS) {
+            sql.append(", ROUND(").append(column).append("_sum / days) AS ").append(column);
+        }
+        return sql.append(" FROM nutrition_rollups WHERE user_id = ? AND period = ? AND period_start >= ?"
+                + " AND period_start <= ? AND days > 0 ORDER BY period_start ASC").toString();
+    }
+
+    private DatabaseHelper.DailyLog extractDailyLogFromResultSet(ResultSet rs) throws SQLException {
+        return extractDailyLogFromResultSet(rs, "");
+    }
+
+    private DatabaseHelper.DailyLog extractDailyLogFromResultSet(ResultSet rs, String prefix) throws SQLException {
+        DatabaseHelper.DailyLog log = new DatabaseHelper.DailyLog();
+        log.userId = rs.getInt(prefix + "user_id");
+        log.logDate = rs.getDate(prefix + "log_date").toLocalDate();
+        log.calories = rs.getInt(prefix + "calories");
+        log.protein_g = rs.getInt(prefix + "protein_g");
+        log.carbs_g = rs.getInt(prefix + "carbs_g");
+        log.fats_g = rs.getInt(prefix + "fats_g");
+        log.water_ml = rs.getInt(prefix + "water_ml");
+        log.calcium_mg = rs.getInt(prefix + "calcium_mg");
+        log.potassium_mg = rs.getInt(prefix + "potassium_mg");
+        log.sodium_mg = rs.getInt(prefix + "sodium_mg");
+        log.magnesium_mg = rs.getInt(prefix + "magnesium_mg");
+        log.iron_mg = rs.getInt(prefix + "iron_mg");
+        log.zinc_mg = rs.getInt(prefix + "zinc_mg");
+        log.vitamin_a_iu = rs.getInt(prefix + "vitamin_a_iu");
+        log.vitamin_d_iu = rs.getInt(prefix + "vitamin_d_iu");
+        log.vitamin_e_iu = rs.getInt(prefix + "vitamin_e_iu");
+        log.vitamin_k_mcg = rs.getInt(prefix + "vitamin_k_mcg");
+        return log;
+    }
+
+    @Override
+    public boolean addNutritionData(int userId, LocalDate date, DatabaseHelper.NutritionData data) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(ADD_NUTRITION_SQL)) {
+            setNutritionParameters(pstmt, 1, userId, date, data);
+            int rowsAffected = pstmt.executeUpdate();
+            return rowsAffected > 0;
+        } catch (SQLException e) {
+            System.err.println("Add nutrition data error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Binds one daily_logs row starting at parameter index i; returns the next free index
+    private int setNutritionParameters(PreparedStatement pstmt, int i, int userId, LocalDate date,
+                                       DatabaseHelper.NutritionData data) throws SQLException {
+        pstmt.setInt(i++, userId);
+        pstmt.setDate(i++, java.sql.Date.valueOf(date));
+        pstmt.setInt(i++, data.calories);
+        pstmt.setInt(i++, data.protein_g);
+        pstmt.setInt(i++, data.carbs_g);
+        pstmt.setInt(i++, data.fats_g);
+        pstmt.setInt(i++, data.water_ml);
+        pstmt.setInt(i++, data.calcium_mg);
+        pstmt.setInt(i++, data.potassium_mg);
+        pstmt.setInt(i++, data.sodium_mg);
+        pstmt.setInt(i++, data.magnesium_mg);
+        pstmt.setInt(i++, data.iron_mg);
+        pstmt.setInt(i++, data.zinc_mg);
+        pstmt.setInt(i++, data.vitamin_a_iu);
+        pstmt.setInt(i++, data.vitamin_d_iu);
+        pstmt.setInt(i++, data.vitamin_e_iu);
+        pstmt.setInt(i++, data.vitamin_k_mcg);
+        return i;
+    }
+
+    @Override
+    public boolean resetDailyLog(int userId, LocalDate date) {
+        String sql = "DELETE FROM daily_logs WHERE user_id = ? AND log_date = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            pstmt.setDate(2, java.sql.Date.valueOf(date));
+            int rowsAffected = pstmt.executeUpdate();
+            return rowsAffected > 0;
+        } catch (SQLException e) {
+            System.err.println("Reset daily log error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public Map<String, Double> getAverageNutrition(int userId, int days) {
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusDays(days - 1);
+        // Whole weeks are read from the weekly rollups, only the days either side of them from daily_logs
+        LocalDate weeksFrom = DatabaseHelper.Rollup.WEEK.start(from.plusDays(6));
+        LocalDate weeksTo = DatabaseHelper.Rollup.WEEK.start(today.plusDays(1));
+        if (weeksTo.isBefore(weeksFrom)) {
+            weeksTo = weeksFrom;
+        }
+        StringBuilder weeks = new StringBuilder("SELECT SUM(days)");
+        StringBuilder edges = new StringBuilder("SELECT COUNT(*)");
+        for (String column : NUTRIENT_COLUMNS) {
+            weeks.append(", SUM(").append(column).append("_sum)");
+            edges.append(", SUM(").append(column).append(")");
+        }
+        String sql = weeks + " FROM nutrition_rollups WHERE user_id = ? AND period = 'week'"
+                + " AND period_start >= ? AND period_start < ? AND days > 0"
+                + " UNION ALL "
+                + edges + " FROM daily_logs WHERE user_id = ? AND log_date >= ? AND log_date <= ?"
+                + " AND NOT (log_date >= ? AND log_date < ?)";
+
+        Map<String, Double> averages = new HashMap<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            pstmt.setDate(2, java.sql.Date.valueOf(weeksFrom));
+            pstmt.setDate(3, java.sql.Date.valueOf(weeksTo));
+            pstmt.setInt(4, userId);
+            pstmt.setDate(5, java.sql.Date.valueOf(from));
+            pstmt.setDate(6, java.sql.Date.valueOf(today));
+            pstmt.setDate(7, java.sql.Date.valueOf(weeksFrom));
+            pstmt.setDate(8, java.sql.Date.valueOf(weeksTo));
+
+            long loggedDays = 0;
+            double[] sums = new double[NUTRIENT_COLUMNS.length];
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                loggedDays += rs.getLong(1);
+                for (int i = 0; i < sums.length; i++) {
+                    sums[i] += rs.getDouble(i + 2);
+                }
+            }
+            for (int i = 0; i < sums.length; i++) {
+                averages.put(NUTRIENT_COLUMNS[i], loggedDays == 0 ? 0.0 : sums[i] / loggedDays);
+            }
+        } catch (SQLException e) {
+            System.err.println("Get average nutrition error: " + e.getMessage());
+        }
+        return averages;
+    }
+
+    // ==================== FOODS ====================
+
+    @Override
+    public List<DatabaseHelper.FoodItem> searchFoods(String query, int limit) {
+        List<DatabaseHelper.FoodItem> foods = new ArrayList<>();
+        String sql = query.isEmpty() ?
+                "SELECT * FROM food_items LIMIT ?" :
+                "SELECT * FROM food_items WHERE name LIKE ? LIMIT ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            if (!query.isEmpty()) {
+                pstmt.setString(index++, "%" + query + "%");
+            }
+            pstmt.setInt(index, limit);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                foods.add(extractFoodItemFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Search foods error: " + e.getMessage());
+        }
+        return foods;
+    }
+
+    @Override
+    public DatabaseHelper.FoodItem getFoodItem(String name) {
+        String sql = "SELECT * FROM food_items WHERE name = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, name);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return extractFoodItemFromResultSet(rs);
+            }
+        } catch (SQLException e) {
+            System.err.println("Get food item error: " + e.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public DatabaseHelper.FoodItem getFoodItemById(int id) {
+        String sql = "SELECT * FROM food_items WHERE id = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, id);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return extractFoodItemFromResultSet(rs);
+            }
+        } catch (SQLException e) {
+            System.err.println("Get food item by ID error: " + e.getMessage());
+        }
+        return null;
+    }
+
+    private DatabaseHelper.FoodItem extractFoodItemFromResultSet(ResultSet rs) throws SQLException {
+        DatabaseHelper.FoodItem food = new DatabaseHelper.FoodItem();
+        food.id = rs.getInt("id");
+        food.name = rs.getString("name");
+        food.foodGroup = rs.getString("food_group");
+        food.baseQuantity = rs.getInt("base_quantity");
+        food.calories = rs.getInt("calories");
+        food.protein_g = rs.getDouble("protein_g");
+        food.carbs_g = rs.getDouble("carbs_g");
+        food.fats_g = rs.getDouble("fats_g");
+        food.water_ml = rs.getInt("water_ml");
+        food.calcium_mg = rs.getInt("calcium_mg");
+        food.potassium_mg = rs.getInt("potassium_mg");
+        food.sodium_mg = rs.getInt("sodium_mg");
+        food.magnesium_mg = rs.getInt("magnesium_mg");
+        food.iron_mg = rs.getDouble("iron_mg");
+        food.zinc_mg = rs.getDouble("zinc_mg");
+        food.vitamin_a_iu = rs.getInt("vitamin_a_iu");
+        food.vitamin_d_iu = rs.getInt("vitamin_d_iu");
+        food.vitamin_e_iu = rs.getDouble("vitamin_e_iu");
+        food.vitamin_k_mcg = rs.getDouble("vitamin_k_mcg");
+        return food;
+    }
+
+    // ==================== FOOD LOGS ====================
+
+    @Override
+    public boolean logFoodConsumption(int userId, int foodItemId, int quantity, String unit,
+                                      String mealType, LocalDateTime consumedAt) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_FOOD_LOG_SQL)) {
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, foodItemId);
+            pstmt.setInt(3, quantity);
+            pstmt.setString(4, unit);
+            pstmt.setString(5, mealType);
+            pstmt.setTimestamp(6, Timestamp.valueOf(consumedAt));
+            int rowsAffected = pstmt.executeUpdate();
+            return rowsAffected > 0;
+        } catch (SQLException e) {
+            System.err.println("Log food consumption error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean logMeals(List<DatabaseHelper.MealLogEntry> entries) {
+        if (entries.isEmpty()) {
+            return true;
+        }
+        // Totals are summed per user and day and upserted in key order, so concurrent calls lock
+        // daily_logs rows in the same order
+        TreeMap<DailyKey, DatabaseHelper.NutritionData> totals = sumByDay(entries);
+        String foodLogsSql = FOOD_LOGS_INSERT + String.join(", ", Collections.nCopies(entries.size(), FOOD_LOGS_ROW));
+        String dailyLogsSql = DAILY_LOGS_INSERT + String.join(", ", Collections.nCopies(totals.size(), DAILY_LOGS_ROW))
+                + DAILY_LOGS_ACCUMULATE;
+
+        // Two multi-row inserts in one transaction; a connection whose rollback fails is
+        // discarded by the pool instead of being handed out mid-transaction
+        for (int attempt = 1; ; attempt++) {
+            try (Connection conn = getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement foodLogs = conn.prepareStatement(foodLogsSql);
+                     PreparedStatement dailyLogs = conn.prepareStatement(dailyLogsSql)) {
+                    int index = 1;
+                    for (DatabaseHelper.MealLogEntry entry : entries) {
+                        foodLogs.setInt(index++, entry.userId);
+                        foodLogs.setInt(index++, entry.foodItemId);
+                        foodLogs.setInt(index++, entry.quantity);
+                        foodLogs.setString(index++, entry.unit);
+                        foodLogs.setString(index++, entry.mealType);
+                        foodLogs.setTimestamp(index++, Timestamp.valueOf(entry.consumedAt));
+                    }
+                    index = 1;
+                    for (Map.Entry<DailyKey, DatabaseHelper.NutritionData> total : totals.entrySet()) {
+                        index = setNutritionParameters(dailyLogs, index, total.getKey().userId, total.getKey().date, total.getValue());
+                    }
+
+                    foodLogs.executeUpdate();
+                    dailyLogs.executeUpdate();
+                    conn.commit();
+                    return true;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    if (isRetryable(e) && attempt < MAX_TX_ATTEMPTS) {
+                        sleepBeforeRetry(attempt);
+                        continue;
+                    }
+                    throw e;
+                }
+            } catch (SQLException e) {
+                System.err.println("Log meals error: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    private static TreeMap<DailyKey, DatabaseHelper.NutritionData> sumByDay(List<DatabaseHelper.MealLogEntry> entries) {
+        TreeMap<DailyKey, DatabaseHelper.NutritionData> totals = new TreeMap<>();
+        for (DatabaseHelper.MealLogEntry entry : entries) {
+            DailyKey key = new DailyKey(entry.userId, entry.consumedAt.toLocalDate());
+            totals.computeIfAbsent(key, k -> new DatabaseHelper.NutritionData()).add(entry.nutrition);
+        }
+        return totals;
+    }
+
+    @Override
+    public List<DatabaseHelper.MealEntry> getMealsForDate(int userId, LocalDate date) {
+        List<DatabaseHelper.MealEntry> meals = new ArrayList<>();
+        String sql = """
+            SELECT fl.consumed_at, fl.meal_type, fi.name, fl.quantity, fl.unit,
+                   ROUND((fi.calories * fl.quantity) / fi.base_quantity) as calories,
+                   ROUND((fi.protein_g * fl.quantity) / fi.base_quantity, 1) as protein,
+                   ROUND((fi.carbs_g * fl.quantity) / fi.base_quantity, 1) as carbs,
+                   ROUND((fi.fats_g * fl.quantity) / fi.base_quantity, 1) as fats,
+                   fl.id as log_id
+            FROM food_logs fl
+            JOIN food_items fi ON fl.food_item_id = fi.id
+            WHERE fl.user_id = ? AND fl.consumed_at >= ? AND fl.consumed_at < ?
+            ORDER BY fl.consumed_at DESC
+        """;
+
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            setDayRange(pstmt, 2, date);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                DatabaseHelper.MealEntry meal = new DatabaseHelper.MealEntry();
+                meal.logId = rs.getInt("log_id");
+                meal.consumedAt = rs.getTimestamp("consumed_at").toLocalDateTime();
+                meal.mealType = rs.getString("meal_type");
+                meal.foodName = rs.getString("name");
+                meal.quantity = rs.getInt("quantity");
+                meal.unit = rs.getString("unit");
+                meal.calories = rs.getInt("calories");
+                meal.protein = rs.getDouble("protein");
+                meal.carbs = rs.getDouble("carbs");
+                meal.fats = rs.getDouble("fats");
+                meals.add(meal);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading meal data: " + e.getMessage());
+            return null;
+        }
+        return meals;
+    }
+
+    @Override
+    public boolean deleteMeal(int logId) {
+        return changeMeal(logId, 0, "Error deleting meal");
+    }
+
+    @Override
+    public boolean updateMealQuantity(int logId, int newQuantity) {
+        if (newQuantity <= 0) {
+            return false;
+        }
+        return changeMeal(logId, newQuantity, "Error updating meal quantity");
+    }
+
+    // Deletes the entry (newQuantity 0) or changes its quantity, then applies the difference in its
+    // nutrient contribution to that day's daily_logs row; retried on deadlock
+    private boolean changeMeal(int logId, int newQuantity, String errorPrefix) {
+        for (int attempt = 1; ; attempt++) {
+            try (Connection conn = getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    boolean changed = changeMeal(conn, logId, newQuantity);
+                    conn.commit();
+                    return changed;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    if (isRetryable(e) && attempt < MAX_TX_ATTEMPTS) {
+                        sleepBeforeRetry(attempt);
+                        continue;
+                    }
+                    throw e;
+                }
+            } catch (SQLException e) {
+                System.err.println(errorPrefix + ": " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    private boolean changeMeal(Connection conn, int logId, int newQuantity) throws SQLException {
+        String selectSql = """
+            SELECT fl.user_id, fl.consumed_at, fl.quantity, fi.*
+            FROM food_logs fl
+            JOIN food_items fi ON fl.food_item_id = fi.id
+            WHERE fl.id = ?
+            FOR UPDATE
+        """;
+        int userId;
+        LocalDate logDate;
+        DatabaseHelper.NutritionData delta;
+        try (PreparedStatement pstmt = conn.prepareStatement(selectSql)) {
+            pstmt.setInt(1, logId);
+            ResultSet rs = pstmt.executeQuery();
+            if (!rs.next()) {
+                return false;
+            }
+            userId = rs.getInt("user_id");
+            logDate = rs.getTimestamp("consumed_at").toLocalDateTime().toLocalDate();
+            int oldQuantity = rs.getInt("quantity");
+            DatabaseHelper.FoodItem food = extractFoodItemFromResultSet(rs);
+            delta = food.calculateNutrition(newQuantity);
+            delta.subtract(food.calculateNutrition(oldQuantity));
+        }
+
+        String changeSql = newQuantity == 0 ?
+                "DELETE FROM food_logs WHERE id = ?" :
+                "UPDATE food_logs SET quantity = ? WHERE id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(changeSql)) {
+            int index = 1;
+            if (newQuantity != 0) {
+                pstmt.setInt(index++, newQuantity);
+            }
+            pstmt.setInt(index, logId);
+            pstmt.executeUpdate();
+        }
+
+        if (applyDelta(conn, userId, logDate, delta) == 0 && dailyLogExists(conn, userId, logDate)) {
+            // A total would go negative: the row has drifted from its food logs, so rebuild it
+            recalculateDailyLog(conn, userId, java.sql.Date.valueOf(logDate));
+        }
+        return true;
+    }
+
+    private int applyDelta(Connection conn, int userId, LocalDate date, DatabaseHelper.NutritionData delta)
+            throws SQLException {
+        String sql = """
+            UPDATE daily_logs SET
+                calories = calories + ?, protein_g = protein_g + ?, carbs_g = carbs_g + ?,
+                fats_g = fats_g + ?, water_ml = water_ml + ?, calcium_mg = calcium_mg + ?,
+                potassium_mg = potassium_mg + ?, sodium_mg = sodium_mg + ?, magnesium_mg = magnesium_mg + ?,
+                iron_mg = iron_mg + ?, zinc_mg = zinc_mg + ?, vitamin_a_iu = vitamin_a_iu + ?,
+                vitamin_d_iu = vitamin_d_iu + ?, vitamin_e_iu = vitamin_e_iu + ?, vitamin_k_mcg = vitamin_k_mcg + ?
+            WHERE user_id = ? AND log_date = ?
+              AND calories + ? >= 0 AND protein_g + ? >= 0 AND carbs_g + ? >= 0
+              AND fats_g + ? >= 0 AND water_ml + ? >= 0 AND calcium_mg + ? >= 0
+              AND potassium_mg + ? >= 0 AND sodium_mg + ? >= 0 AND magnesium_mg + ? >= 0
+              AND iron_mg + ? >= 0 AND zinc_mg + ? >= 0 AND vitamin_a_iu + ? >= 0
+              AND vitamin_d_iu + ? >= 0 AND vitamin_e_iu + ? >= 0 AND vitamin_k_mcg + ? >= 0
+        """;
+        int[] values = {delta.calories, delta.protein_g, delta.carbs_g, delta.fats_g, delta.water_ml,
+                delta.calcium_mg, delta.potassium_mg, delta.sodium_mg, delta.magnesium_mg, delta.iron_mg,
+                delta.zinc_mg, delta.vitamin_a_iu, delta.vitamin_d_iu, delta.vitamin_e_iu, delta.vitamin_k_mcg};
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (int value : values) {
+                pstmt.setInt(index++, value);
+            }
+            pstmt.setInt(index++, userId);
+            pstmt.setDate(index++, java.sql.Date.valueOf(date));
+            for (int value : values) {
+                pstmt.setInt(index++, value);
+            }
+            return pstmt.executeUpdate();
+        }
+    }
+
+    private boolean dailyLogExists(Connection conn, int userId, LocalDate date) throws SQLException {
+        String sql = "SELECT 1 FROM daily_logs WHERE user_id = ? AND log_date = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            pstmt.setDate(2, java.sql.Date.valueOf(date));
+            return pstmt.executeQuery().next();
+        }
+    }
+
+    // Half-open [date 00:00, next day 00:00) range, so the filter stays an index range scan
+    private static void setDayRange(PreparedStatement pstmt, int index, LocalDate date) throws SQLException {
+        pstmt.setTimestamp(index, Timestamp.valueOf(date.atStartOfDay()));
+        pstmt.setTimestamp(index + 1, Timestamp.valueOf(date.plusDays(1).atStartOfDay()));
+    }
+
+    // Deadlock victim (1213) or lock wait timeout (1205)
+    private static boolean isRetryable(SQLException e) {
+        return "40001".equals(e.getSQLState()) || e.getErrorCode() == 1213 || e.getErrorCode() == 1205;
+    }
+
+    private static void sleepBeforeRetry(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(10, 50) * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void recalculateDailyLog(Connection conn, int userId, java.sql.Date logDate) throws SQLException {
+        // Calculate totals from food_logs for the specific date
+        String calculateSql = """
+            SELECT
+                COALESCE(SUM(ROUND((fi.calories * fl.quantity) / fi.base_quantity)), 0) as total_calories,
+                COALESCE(SUM(ROUND((fi.protein_g * fl.quantity) / fi.base_quantity)), 0) as total_protein,
+                COALESCE(SUM(ROUND((fi.carbs_g * fl.quantity) / fi.base_quantity)), 0) as total_carbs,
+                COALESCE(SUM(ROUND((fi.fats_g * fl.quantity) / fi.base_quantity)), 0) as total_fats,
+                COALESCE(SUM(ROUND((fi.calcium_mg * fl.quantity) / fi.base_quantity)), 0) as total_calcium,
+                COALESCE(SUM(ROUND((fi.potassium_mg * fl.quantity) / fi.base_quantity)), 0) as total_potassium,
+                COALESCE(SUM(ROUND((fi.sodium_mg * fl.quantity) / fi.base_quantity)), 0) as total_sodium,
+                COALESCE(SUM(ROUND((fi.magnesium_mg * fl.quantity) / fi.base_quantity)), 0) as total_magnesium,
+                COALESCE(SUM(ROUND((fi.iron_mg * fl.quantity) / fi.base_quantity)), 0) as total_iron,
+                COALESCE(SUM(ROUND((fi.zinc_mg * fl.quantity) / fi.base_quantity)), 0) as total_zinc,
+                COALESCE(SUM(ROUND((fi.vitamin_a_iu * fl.quantity) / fi.base_quantity)), 0) as total_vit_a,
+                COALESCE(SUM(ROUND((fi.vitamin_d_iu * fl.quantity) / fi.base_quantity)), 0) as total_vit_d,
+                COALESCE(SUM(ROUND((fi.vitamin_e_iu * fl.quantity) / fi.base_quantity)), 0) as total_vit_e,
+                COALESCE(SUM(ROUND((fi.vitamin_k_mcg * fl.quantity) / fi.base_quantity)), 0) as total_vit_k
+            FROM food_logs fl
+            JOIN food_items fi ON fl.food_item_id = fi.id
+            WHERE fl.user_id = ? AND fl.consumed_at >= ? AND fl.consumed_at < ?
+        """;
+
+        PreparedStatement calcStmt = conn.prepareStatement(calculateSql);
+        calcStmt.setInt(1, userId);
+        setDayRange(calcStmt, 2, logDate.toLocalDate());
+        ResultSet rs = calcStmt.executeQuery();
+
+        if (rs.next()) {
+            // Get current water_ml from daily_logs (we don't want to lose this)
+            String getWaterSql = "SELECT COALESCE(water_ml, 0) as water_ml FROM daily_logs WHERE user_id = ? AND log_date = ?";
+            PreparedStatement getWaterStmt = conn.prepareStatement(getWaterSql);
+            getWaterStmt.setInt(1, userId);
+            getWaterStmt.setDate(2, logDate);
+            ResultSet waterRs = getWaterStmt.executeQuery();
+
+            int currentWater = 0;
+            if (waterRs.next()) {
+                currentWater = waterRs.getInt("water_ml");
+            }
+            getWaterStmt.close();
+
+            // Update or insert daily_logs with recalculated values
+            String updateSql = """
+                INSERT INTO daily_logs (user_id, log_date, calories, protein_g, carbs_g, fats_g, water_ml,
+                    calcium_mg, potassium_mg, sodium_mg, magnesium_mg, iron_mg, zinc_mg,
+                    vitamin_a_iu, vitamin_d_iu, vitamin_e_iu, vitamin_k_mcg)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                ON DUPLICATE KEY UPDATE
+                    calories = VALUES(calories),
+                    protein_g = VALUES(protein_g),
+                    carbs_g = VALUES(carbs_g),
+                    fats_g = VALUES(fats_g),
+                    calcium_mg = VALUES(calcium_mg),
+                    potassium_mg = VALUES(potassium_mg),
+                    sodium_mg = VALUES(sodium_mg),
+                    magnesium_mg = VALUES(magnesium_mg),
+                    iron_mg = VALUES(iron_mg),
+                    zinc_mg = VALUES(zinc_mg),
+                    vitamin_a_iu = VALUES(vitamin_a_iu),
+                    vitamin_d_iu = VALUES(vitamin_d_iu),
+                    vitamin_e_iu = VALUES(vitamin_e_iu),
+                    vitamin_k_mcg = VALUES(vitamin_k_mcg)
+            """;
+
+            PreparedStatement updateStmt = conn.prepareStatement(updateSql);
+            updateStmt.setInt(1, userId);
+            updateStmt.setDate(2, logDate);
+            updateStmt.setInt(3, rs.getInt("total_calories"));
+            updateStmt.setInt(4, rs.getInt("total_protein"));
+            updateStmt.setInt(5, rs.getInt("total_carbs"));
+            updateStmt.setInt(6, rs.getInt("total_fats"));
+            updateStmt.setInt(7, currentWater); // Preserve water intake
+            updateStmt.setInt(8, rs.getInt("total_calcium"));
+            updateStmt.setInt(9, rs.getInt("total_potassium"));
+            updateStmt.setInt(10, rs.getInt("total_sodium"));
+            updateStmt.setInt(11, rs.getInt("total_magnesium"));
+            updateStmt.setInt(12, rs.getInt("total_iron"));
+            updateStmt.setInt(13, rs.getInt("total_zinc"));
+            updateStmt.setInt(14, rs.getInt("total_vit_a"));
+            updateStmt.setInt(15, rs.getInt("total_vit_d"));
+            updateStmt.setInt(16, rs.getInt("total_vit_e"));
+            updateStmt.setInt(17, rs.getInt("total_vit_k"));
+            updateStmt.executeUpdate();
+            updateStmt.close();
+        }
+
+        calcStmt.close();
+    }
+
+    // ==================== HISTORY EXPORT ====================
+
+    @Override
+    public boolean forEachFoodLog(Integer userId, LocalDate from, LocalDate to,
+                                  Consumer<DatabaseHelper.MealEntry> action) {
+        String sql = """
+            SELECT fl.id as log_id, fl.user_id, fl.food_item_id, fl.consumed_at, fl.meal_type, fi.name,
+                   fl.quantity, fl.unit,
+                   ROUND((fi.calories * fl.quantity) / fi.base_quantity) as calories,
+                   ROUND((fi.protein_g * fl.quantity) / fi.base_quantity, 1) as protein,
+                   ROUND((fi.carbs_g * fl.quantity) / fi.base_quantity, 1) as carbs,
+                   ROUND((fi.fats_g * fl.quantity) / fi.base_quantity, 1) as fats
+            FROM food_logs fl
+            JOIN food_items fi ON fl.food_item_id = fi.id
+            WHERE 1 = 1
+        """ + exportFilter(userId, from, to, "fl.user_id", "fl.consumed_at", true)
+                + " ORDER BY fl.user_id, fl.consumed_at, fl.id";
+
+        return stream(sql, userId, from, to, true, rs -> {
+            DatabaseHelper.MealEntry meal = new DatabaseHelper.MealEntry();
+            meal.logId = rs.getInt("log_id");
+            meal.userId = rs.getInt("user_id");
+            meal.foodItemId = rs.getInt("food_item_id");
+            meal.consumedAt = rs.getTimestamp("consumed_at").toLocalDateTime();
+            meal.mealType = rs.getString("meal_type");
+            meal.foodName = rs.getString("name");
+            meal.quantity = rs.getInt("quantity");
+            meal.unit = rs.getString("unit");
+            meal.calories = rs.getInt("calories");
+            meal.protein = rs.getDouble("protein");
+            meal.carbs = rs.getDouble("carbs");
+            meal.fats = rs.getDouble("fats");
+            action.accept(meal);
+        });
+    }
+
+    @Override
+    public boolean forEachDailyLog(Integer userId, LocalDate from, LocalDate to,
+                                   Consumer<DatabaseHelper.DailyLog> action) {
+        String sql = "SELECT * FROM daily_logs WHERE 1 = 1"
+                + exportFilter(userId, from, to, "user_id", "log_date", false)
+                + " ORDER BY user_id, log_date";
+        return stream(sql, userId, from, to, false,
+                rs -> action.accept(extractDailyLogFromResultSet(rs)));
+    }
+
+    private static String exportFilter(Integer userId, LocalDate from, LocalDate to,
+                                       String userColumn, String dateColumn, boolean timestamp) {
+        StringBuilder filter = new StringBuilder();
+        if (userId != null) {
+            filter.append(" AND ").append(userColumn).append(" = ?");
+        }
+        if (from != null) {
+            filter.append(" AND ").append(dateColumn).append(" >= ?");
+        }
+        if (to != null) {
+            filter.append(" AND ").append(dateColumn).append(timestamp ? " < ?" : " <= ?");
+        }
+        return filter.toString();
+    }
+
+    // Forward-only, read-only query fetched EXPORT_FETCH_SIZE rows at a time, so memory use
+    // does not depend on how many rows match. A large export can outlast the pool's leak
+    // threshold, so it borrows a connection that is exempt from leak reports.
+    private boolean stream(String sql, Integer userId, LocalDate from, LocalDate to, boolean timestamp,
+                           RowHandler handler) {
+        try (Connection conn = pool.getLongRunningConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                     ResultSet.CONCUR_READ_ONLY)) {
+            pstmt.setFetchSize(EXPORT_FETCH_SIZE);
+            int index = 1;
+            if (userId != null) {
+                pstmt.setInt(index++, userId);
+            }
+            if (from != null) {
+                if (timestamp) {
+                    pstmt.setTimestamp(index++, Timestamp.valueOf(from.atStartOfDay()));
+                } else {
+                    pstmt.setDate(index++, java.sql.Date.valueOf(from));
+                }
+            }
+            if (to != null) {
+                if (timestamp) {
+                    pstmt.setTimestamp(index, Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+                } else {
+                    pstmt.setDate(index, java.sql.Date.valueOf(to));
+                }
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.handle(rs);
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Export history error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // ==================== ADMIN ====================
+
+    @Override
+    public List<DatabaseHelper.UserData> getAllUsers() {
+        List<DatabaseHelper.UserData> users = new ArrayList<>();
+        String sql = "SELECT * FROM users ORDER BY created_at DESC";
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                users.add(extractUserFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Get all users error: " + e.getMessage());
+        }
+        return users;
+    }
+
+    @Override
+    public List<DatabaseHelper.UserData> getUsersPage(DatabaseHelper.PageRequest request) {
+        List<DatabaseHelper.UserData> users = new ArrayList<>();
+        String sql = pageSql(USER_LIST_COLUMNS, "users", "full_name LIKE ? OR email LIKE ?",
+                USER_SORT_SQL, DatabaseHelper.USER_SORT_COLUMNS.get(0), request);
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bindPage(pstmt, 2, request);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    users.add(extractUserFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Get users page error: " + e.getMessage());
+        }
+        return users;
+    }
+
+    @Override
+    public int countUsers(String filter) {
+        return countRows("users", "full_name LIKE ? OR email LIKE ?", 2, filter);
+    }
+
+    @Override
+    public boolean deleteUser(int userId, int adminId) {
+        String sql = "DELETE FROM users WHERE id = ? AND role != 'admin'";
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                subtractCascadedFoodLogs(conn, "users", "user_id", userId);
+                pstmt.setInt(1, userId);
+                if (pstmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    return false;
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            AuditLogWriter.record(adminId, "DELETE", "users", userId, "Deleted user ID: " + userId);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Delete user error: " + e.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    public boolean updateUser(int userId, String fullName, int age, String gender,
+                              String activityLevel, int adminId) {
+        String sql = "UPDATE users SET full_name = ?, age = ?, gender = ?, activity_level = ? WHERE id = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, fullName);
+            pstmt.setInt(2, age);
+            pstmt.setString(3, gender);
+            pstmt.setString(4, activityLevel);
+            pstmt.setInt(5, userId);
+            int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                AuditLogWriter.record(adminId, "UPDATE", "users", userId,
+                        "Updated user: " + fullName);
+                return true;
+            }
+        } catch (SQLException e) {
+            System.err.println("Update user error: " + e.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    public List<DatabaseHelper.FoodItem> getAllFoods() {
+        List<DatabaseHelper.FoodItem> foods = new ArrayList<>();
+        String sql = "SELECT * FROM food_items ORDER BY name ASC";
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                foods.add(extractFoodItemFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Get all foods error: " + e.getMessage());
+        }
+        return foods;
+    }
+
+    @Override
+    public List<DatabaseHelper.FoodItem> getFoodsPage(DatabaseHelper.PageRequest request) {
+        List<DatabaseHelper.FoodItem> foods = new ArrayList<>();
+        String sql = pageSql("*", "food_items", "name LIKE ?",
+                FOOD_SORT_SQL, DatabaseHelper.FOOD_SORT_COLUMNS.get(0), request);
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bindPage(pstmt, 1, request);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    foods.add(extractFoodItemFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Get foods page error: " + e.getMessage());
+        }
+        return foods;
+    }
+
+    @Override
+    public int countFoods(String filter) {
+        return countRows("food_items", "name LIKE ?", 1, filter);
+    }
+
+    // Keyset page: rows strictly after (afterValue, afterId) in (sort, id) order, so the query
+    // seeks in the sort index instead of reading and discarding every earlier row
+    private static String pageSql(String columns, String table, String filterSql, Map<String, String> sortSql,
+                                  String defaultSort, DatabaseHelper.PageRequest request) {
+        String sort = sortSql.get(request.sortColumn == null ? defaultSort : request.sortColumn);
+        if (sort == null) {
+            sort = sortSql.get(defaultSort);
+        }
+        String direction = request.descending ? " DESC" : " ASC";
+        String after = request.descending ? " < ?" : " > ?";
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(columns).append(" FROM ").append(table)
+                .append(" WHERE 1 = 1");
+        if (hasFilter(request.filter)) {
+            sql.append(" AND (").append(filterSql).append(")");
+        }
+        if (request.afterId != null) {
+            sql.append(" AND (").append(sort).append(after).append(" OR (").append(sort)
+                    .append(" = ? AND id").append(after).append("))");
+        }
+        sql.append(" ORDER BY ").append(sort).append(direction).append(", id").append(direction).append(" LIMIT ?");
+        if (request.afterId == null && request.offset > 0) {
+            sql.append(" OFFSET ?");
+        }
+        return sql.toString();
+    }
+
+    private static void bindPage(PreparedStatement pstmt, int filterParams, DatabaseHelper.PageRequest request)
+            throws SQLException {
+        int index = 1;
+        if (hasFilter(request.filter)) {
+            for (int i = 0; i < filterParams; i++) {
+                pstmt.setString(index++, likePattern(request.filter));
+            }
+        }
+        if (request.afterId != null) {
+            pstmt.setObject(index++, request.afterValue);
+            pstmt.setObject(index++, request.afterValue);
+            pstmt.setInt(index++, request.afterId);
+        }
+        pstmt.setInt(index++, request.limit);
+        if (request.afterId == null && request.offset > 0) {
+            pstmt.setInt(index, request.offset);
+        }
+    }
+
+    private int countRows(String table, String filterSql, int filterParams, String filter) {
+        String sql = "SELECT COUNT(*) FROM " + table + (hasFilter(filter) ? " WHERE " + filterSql : "");
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            if (hasFilter(filter)) {
+                for (int i = 1; i <= filterParams; i++) {
+                    pstmt.setString(i, likePattern(filter));
+                }
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            System.err.println("Count " + table + " error: " + e.getMessage());
+        }
+        return 0;
+    }
+
+    private static boolean hasFilter(String filter) {
+        return filter != null && !filter.isBlank();
+    }
+
+    private static String likePattern(String filter) {
+        String escaped = filter.trim().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    @Override
+    public boolean addFoodItem(DatabaseHelper.FoodItem food, int adminId) {
+        String sql = """
+            INSERT INTO food_items (name, food_group, base_quantity, calories, protein_g,
+            carbs_g, fats_g, water_ml, calcium_mg, potassium_mg, sodium_mg, magnesium_mg,
+            iron_mg, zinc_mg, vitamin_a_iu, vitamin_d_iu, vitamin_e_iu, vitamin_k_mcg)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            setFoodParameters(pstmt, food);
+
+            int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                ResultSet rs = pstmt.getGeneratedKeys();
+                if (rs.next()) {
+                    food.id = rs.getInt(1);
+                    AuditLogWriter.record(adminId, "CREATE", "food_items", food.id,
+                            "Added food: " + food.name);
+                }
+                return true;
+            }
+        } catch (SQLException e) {
+            System.err.println("Add food item error: " + e.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    public boolean updateFoodItem(DatabaseHelper.FoodItem food, int adminId) {
+        String sql = """
+            UPDATE food_items SET name = ?, food_group = ?, base_quantity = ?, calories = ?,
+            protein_g = ?, carbs_g = ?, fats_g = ?, water_ml = ?, calcium_mg = ?,
+            potassium_mg = ?, sodium_mg = ?, magnesium_mg = ?, iron_mg = ?, zinc_mg = ?,
+            vitamin_a_iu = ?, vitamin_d_iu = ?, vitamin_e_iu = ?, vitamin_k_mcg = ?
+            WHERE id = ?
+        """;
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            setFoodParameters(pstmt, food);
+            pstmt.setInt(19, food.id);
+
+            int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                AuditLogWriter.record(adminId, "UPDATE", "food_items", food.id,
+                        "Updated food: " + food.name);
+                return true;
+            }
+        } catch (SQLException e) {
+            System.err.println("Update food item error: " + e.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    public boolean upsertFoodItems(List<DatabaseHelper.FoodItem> foods) {
+        // rewriteBatchedStatements turns the batch into multi-row INSERTs
+        String sql = """
+            INSERT INTO food_items (name, food_group, base_quantity, calories, protein_g,
+            carbs_g, fats_g, water_ml, calcium_mg, potassium_mg, sodium_mg, magnesium_mg,
+            iron_mg, zinc_mg, vitamin_a_iu, vitamin_d_iu, vitamin_e_iu, vitamin_k_mcg)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                food_group = VALUES(food_group), base_quantity = VALUES(base_quantity),
+                calories = VALUES(calories), protein_g = VALUES(protein_g), carbs_g = VALUES(carbs_g),
+                fats_g = VALUES(fats_g), water_ml = VALUES(water_ml), calcium_mg = VALUES(calcium_mg),
+                potassium_mg = VALUES(potassium_mg), sodium_mg = VALUES(sodium_mg),
+                magnesium_mg = VALUES(magnesium_mg), iron_mg = VALUES(iron_mg), zinc_mg = VALUES(zinc_mg),
+                vitamin_a_iu = VALUES(vitamin_a_iu), vitamin_d_iu = VALUES(vitamin_d_iu),
+                vitamin_e_iu = VALUES(vitamin_e_iu), vitamin_k_mcg = VALUES(vitamin_k_mcg)
+        """;
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (DatabaseHelper.FoodItem food : foods) {
+                    setFoodParameters(pstmt, food);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Upsert food items error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void setFoodParameters(PreparedStatement pstmt, DatabaseHelper.FoodItem food) throws SQLException {
+        pstmt.setString(1, food.name);
+        pstmt.setString(2, food.foodGroup);
+        pstmt.setInt(3, food.baseQuantity);
+        pstmt.setInt(4, food.calories);
+        pstmt.setDouble(5, food.protein_g);
+        pstmt.setDouble(6, food.carbs_g);
+        pstmt.setDouble(7, food.fats_g);
+        pstmt.setInt(8, food.water_ml);
+        pstmt.setInt(9, food.calcium_mg);
+        pstmt.setInt(10, food.potassium_mg);
+        pstmt.setInt(11, food.sodium_mg);
+        pstmt.setInt(12, food.magnesium_mg);
+        pstmt.setDouble(13, food.iron_mg);
+        pstmt.setDouble(14, food.zinc_mg);
+        pstmt.setInt(15, food.vitamin_a_iu);
+        pstmt.setInt(16, food.vitamin_d_iu);
+        pstmt.setDouble(17, food.vitamin_e_iu);
+        pstmt.setDouble(18, food.vitamin_k_mcg);
+    }
+
+    @Override
+    public boolean deleteFoodItem(int foodId, int adminId) {
+        String sql = "DELETE FROM food_items WHERE id = ?";
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                subtractCascadedFoodLogs(conn, "food_items", "food_item_id", foodId);
+                pstmt.setInt(1, foodId);
+                if (pstmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    return false;
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            AuditLogWriter.record(adminId, "DELETE", "food_items", foodId,
+                    "Deleted food ID: " + foodId);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Delete food item error: " + e.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    public boolean appendAdminLogs(List<DatabaseHelper.AdminLogEntry> entries) {
+        String sql = """
+            INSERT INTO admin_logs (admin_id, action_type, target_table, target_id, action_details, performed_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+        """;
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (DatabaseHelper.AdminLogEntry entry : entries) {
+                    pstmt.setInt(1, entry.adminId);
+                    pstmt.setString(2, entry.actionType);
+                    pstmt.setString(3, entry.targetTable);
+                    if (entry.targetId != null) {
+                        pstmt.setInt(4, entry.targetId);
+                    } else {
+                        pstmt.setNull(4, Types.INTEGER);
+                    }
+                    pstmt.setString(5, entry.details);
+                    pstmt.setTimestamp(6, Timestamp.valueOf(entry.performedAt));
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Log admin actions error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public List<DatabaseHelper.AdminLogEntry> getAdminLogs(Integer adminId, LocalDateTime from, LocalDateTime to,
+                                                           DatabaseHelper.AdminLogEntry before, int limit) {
+        // Newest first; with adminId this walks idx_admin_date, otherwise idx_performed
+        StringBuilder sql = new StringBuilder("""
+            SELECT l.id, l.admin_id, u.full_name AS admin_name, l.action_type, l.target_table,
+                   l.target_id, l.action_details, l.performed_at
+            FROM admin_logs l
+            LEFT JOIN users u ON u.id = l.admin_id
+            WHERE 1 = 1
+        """);
+        if (adminId != null) {
+            sql.append(" AND l.admin_id = ?");
+        }
+        if (from != null) {
+            sql.append(" AND l.performed_at >= ?");
+        }
+        if (to != null) {
+            sql.append(" AND l.performed_at < ?");
+        }
+        if (before != null) {
+            sql.append(" AND (l.performed_at < ? OR (l.performed_at = ? AND l.id < ?))");
+        }
+        sql.append(" ORDER BY l.performed_at DESC, l.id DESC LIMIT ?");
+
+        List<DatabaseHelper.AdminLogEntry> entries = new ArrayList<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            if (adminId != null) {
+                pstmt.setInt(index++, adminId);
+            }
+            if (from != null) {
+                pstmt.setTimestamp(index++, Timestamp.valueOf(from));
+            }
+            if (to != null) {
+                pstmt.setTimestamp(index++, Timestamp.valueOf(to));
+            }
+            if (before != null) {
+                pstmt.setTimestamp(index++, Timestamp.valueOf(before.performedAt));
+                pstmt.setTimestamp(index++, Timestamp.valueOf(before.performedAt));
+                pstmt.setInt(index++, before.id);
+            }
+            pstmt.setInt(index, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    DatabaseHelper.AdminLogEntry entry = new DatabaseHelper.AdminLogEntry();
+                    entry.id = rs.getInt("id");
+                    entry.adminId = rs.getInt("admin_id");
+                    entry.adminName = rs.getString("admin_name");
+                    entry.actionType = rs.getString("action_type");
+                    entry.targetTable = rs.getString("target_table");
+                    int targetId = rs.getInt("target_id");
+                    entry.targetId = rs.wasNull() ? null : targetId;
+                    entry.details = rs.getString("action_details");
+                    entry.performedAt = rs.getTimestamp("performed_at").toLocalDateTime();
+                    entries.add(entry);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Get admin logs error: " + e.getMessage());
+        }
+        return entries;
+    }
+
+    @Override
+    public Map<String, Integer> getSystemStats() {
+        // Reads at most 16 slot rows per counter (migration V5), however large the tables are
+        String sql = """
+            SELECT stat_key, SUM(value) FROM stats_totals GROUP BY stat_key
+            UNION ALL
+            SELECT stat_key, SUM(value) FROM stats_daily WHERE stat_date = CURRENT_DATE GROUP BY stat_key
+        """;
+        Map<String, Integer> stats = new HashMap<>();
+        stats.put("totalUsers", 0);
+        stats.put("totalFoods", 0);
+        stats.put("todayLogs", 0);
+        stats.put("todayActions", 0);
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                String name = STAT_NAMES.get(rs.getString(1));
+                if (name != null) {
+                    stats.put(name, rs.getInt(2));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Get system stats error: " + e.getMessage());
+        }
+        return stats;
+    }
+
+    /**
+     * Recomputes the totals and the per-day counters for [from, to] from the tables. The
+     * triggers keep the counters exact; this repairs drift from writes made outside the app.
+     */
+    @Override
+    public boolean reconcileStats(LocalDate from, LocalDate to) {
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(to.plusDays(1).atStartOfDay());
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            // INSERT ... SELECT takes shared locks on the rows it counts, so a concurrent write
+            // lands either before the recount or after it (through its trigger), never in between
+            try (Statement stmt = conn.createStatement();
+                 PreparedStatement deleteDays = conn.prepareStatement(
+                         "DELETE FROM stats_daily WHERE stat_date >= ? AND stat_date <= ?");
+                 PreparedStatement countLogs = conn.prepareStatement("""
+                     INSERT INTO stats_daily (stat_date, stat_key, slot, value)
+                     SELECT DATE(consumed_at), 'food_logs', 0, COUNT(*) FROM food_logs
+                     WHERE consumed_at >= ? AND consumed_at < ? GROUP BY DATE(consumed_at)
+                 """);
+                 PreparedStatement countActions = conn.prepareStatement("""
+                     INSERT INTO stats_daily (stat_date, stat_key, slot, value)
+                     SELECT DATE(performed_at), 'admin_actions', 0, COUNT(*) FROM admin_logs
+                     WHERE performed_at >= ? AND performed_at < ? GROUP BY DATE(performed_at)
+                 """)) {
+                stmt.executeUpdate("DELETE FROM stats_totals");
+                stmt.executeUpdate("INSERT INTO stats_totals (stat_key, slot, value) "
+                        + "SELECT 'users', 0, COUNT(*) FROM users WHERE role = 'user'");
+                stmt.executeUpdate("INSERT INTO stats_totals (stat_key, slot, value) "
+                        + "SELECT 'foods', 0, COUNT(*) FROM food_items");
+
+                deleteDays.setDate(1, java.sql.Date.valueOf(from));
+                deleteDays.setDate(2, java.sql.Date.valueOf(to));
+                deleteDays.executeUpdate();
+                for (PreparedStatement count : List.of(countLogs, countActions)) {
+                    count.setTimestamp(1, start);
+                    count.setTimestamp(2, end);
+                    count.executeUpdate();
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Reconcile stats error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Foreign key cascades fire no triggers: take the food logs a delete is about to cascade
+    // to off the per-day counters, in the deleting transaction. The parent row is locked first
+    // so no food log can be added to it in between.
+    private void subtractCascadedFoodLogs(Connection conn, String parentTable, String column, int parentId)
+            throws SQLException {
+        try (PreparedStatement lock = conn.prepareStatement("SELECT id FROM " + parentTable + " WHERE id = ? FOR UPDATE")) {
+            lock.setInt(1, parentId);
+            lock.executeQuery().close();
+        }
+        String sql = """
+            INSERT INTO stats_daily (stat_date, stat_key, slot, value)
+            SELECT DATE(consumed_at), 'food_logs', 0, -COUNT(*) FROM food_logs
+            WHERE %s = ? GROUP BY DATE(consumed_at)
+            ON DUPLICATE KEY UPDATE value = value + VALUES(value)
+        """.formatted(column);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, parentId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    // ==================== ROLLUPS ====================
+
+    /**
+     * Recomputes rollup rows from daily_logs: every row the triggers flagged stale, and when from
+     * is not null every week and month overlapping [from, to] for all users (a null to is unbounded). Each recompute is a
+     * transaction whose INSERT ... SELECT locks the daily rows it reads, so a concurrent write
+     * lands before it or after it (through its trigger), never in between.
+     */
+    @Override
+    public boolean repairRollups(LocalDate from, LocalDate to) {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            if (from != null) {
+                for (DatabaseHelper.Rollup period : ROLLUP_BUCKET_SQL.keySet()) {
+                    recomputeRollups(conn, period, null, period.start(from), to == null ? null : period.start(to));
+                }
+            }
+
+            List<Object[]> stale = new ArrayList<>();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT user_id, period, period_start FROM nutrition_rollups WHERE stale")) {
+                while (rs.next()) {
+                    stale.add(new Object[]{rs.getInt(1), rs.getString(2), rs.getDate(3).toLocalDate()});
+                }
+            }
+            conn.commit();
+            for (Object[] row : stale) {
+                DatabaseHelper.Rollup period = "week".equals(row[1]) ? DatabaseHelper.Rollup.WEEK : DatabaseHelper.Rollup.MONTH;
+                recomputeRollups(conn, period, (Integer) row[0], (LocalDate) row[2], (LocalDate) row[2]);
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Repair rollups error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Replaces the period's rows starting in [firstStart, lastStart] (null = unbounded), for one
+    // user or all, with fresh aggregates of their daily_logs rows, in one transaction
+    private void recomputeRollups(Connection conn, DatabaseHelper.Rollup period, Integer userId,
+                                  LocalDate firstStart, LocalDate lastStart) throws SQLException {
+        String bucket = ROLLUP_BUCKET_SQL.get(period);
+        StringBuilder columns = new StringBuilder("user_id, period, period_start, days, stale");
+        StringBuilder select = new StringBuilder("SELECT d.user_id, '" + periodName(period) + "', "
+                + bucket + " AS bucket_start, COUNT(*), FALSE");
+        for (String column : NUTRIENT_COLUMNS) {
+            columns.append(", ").append(column).append("_sum, ").append(column).append("_min, ")
+                    .append(column).append("_max, ").append(column).append("_met");
+            select.append(", SUM(d.").append(column).append("), MIN(d.").append(column).append("), MAX(d.")
+                    .append(column).append("), SUM(COALESCE(d.").append(column).append(" >= g.").append(column).append(", 0))");
+        }
+
+        StringBuilder rows = new StringBuilder(" WHERE period = ?");
+        StringBuilder days = new StringBuilder(" WHERE d.user_id IS NOT NULL");
+        List<Object> rowParameters = new ArrayList<>(List.of(periodName(period)));
+        List<Object> dayParameters = new ArrayList<>();
+        if (userId != null) {
+            rows.append(" AND user_id = ?");
+            days.append(" AND d.user_id = ?");
+            rowParameters.add(userId);
+            dayParameters.add(userId);
+        }
+        if (firstStart != null) {
+            rows.append(" AND period_start >= ?");
+            days.append(" AND d.log_date >= ?");
+            rowParameters.add(java.sql.Date.valueOf(firstStart));
+            dayParameters.add(java.sql.Date.valueOf(firstStart));
+        }
+        if (lastStart != null) {
+            rows.append(" AND period_start <= ?");
+            days.append(" AND d.log_date < ?");
+            rowParameters.add(java.sql.Date.valueOf(lastStart));
+            dayParameters.add(java.sql.Date.valueOf(period.next(lastStart)));
+        }
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement delete = conn.prepareStatement("DELETE FROM nutrition_rollups" + rows);
+             PreparedStatement insert = conn.prepareStatement("INSERT INTO nutrition_rollups (" + columns + ") "
+                     + select + " FROM daily_logs d LEFT JOIN user_goals g ON g.user_id = d.user_id"
+                     + days + " GROUP BY d.user_id, bucket_start")) {
+            for (int i = 0; i < rowParameters.size(); i++) {
+                delete.setObject(i + 1, rowParameters.get(i));
+            }
+            for (int i = 0; i < dayParameters.size(); i++) {
+                insert.setObject(i + 1, dayParameters.get(i));
+            }
+            delete.executeUpdate();
+            insert.executeUpdate();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static String periodName(DatabaseHelper.Rollup period) {
+        return period == DatabaseHelper.Rollup.WEEK ? "week" : "month";
+    }
+
+    // Inner classes
+    private interface RowHandler {
+        void handle(ResultSet rs) throws SQLException;
+    }
+
+    private static class DailyKey implements Comparable<DailyKey> {
+        final int userId;
+        final LocalDate date;
+
+        DailyKey(int userId, LocalDate date) {
+            this.userId = userId;
+            this.date = date;
+        }
+
+        @Override
+        public int compareTo(DailyKey other) {
+            int byUser = Integer.compare(userId, other.userId);
+            return byUser != 0 ? byUser : date.compareTo(other.date);
+        }
+    }
+}
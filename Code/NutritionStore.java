@@ -0,0 +1,148 @@
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Nutrition Store - Storage backend used by DatabaseHelper
+ * Version: 1.0
+ * Backends: MySqlNutritionStore (default), EmbeddedNutritionStore (in-process, in-memory or file-backed)
+ *
+ * Selected with the ecoeats.storage system property ("mysql" or "embedded").
+ * Implementations follow DatabaseHelper's conventions: failures are logged and reported
+ * through false / null / empty results rather than thrown.
+ */
+public interface NutritionStore {
+
+    void initialize();
+
+    // ==================== USERS ====================
+
+    boolean registerUser(String fullName, String email, int age, String gender,
+                         String activityLevel, String passwordHash, String role);
+
+    boolean emailExists(String email);
+
+    String getPasswordHash(String email);
+
+    DatabaseHelper.UserData getUserByEmail(String email);
+
+    /** The user with password hash, goals and the log for date in one read; null for an unknown email. */
+    DatabaseHelper.LoginRecord getLoginRecord(String email, LocalDate date);
+
+    boolean updatePassword(String email, String passwordHash);
+
+    /** Swaps the stored hash only if it is still expectedHash; used to upgrade hashes on login. */
+    boolean replacePasswordHash(String email, String expectedHash, String passwordHash);
+
+    boolean updateUserProfile(int userId, String fullName, int age, String gender, String activityLevel);
+
+    // ==================== GOALS & DAILY LOGS ====================
+
+    DatabaseHelper.NutritionGoals getUserGoals(int userId);
+
+    boolean updateUserGoals(DatabaseHelper.NutritionGoals goals);
+
+    DatabaseHelper.DailyLog getLogForDate(int userId, LocalDate date);
+
+    List<DatabaseHelper.DailyLog> getDailyLogs(int userId, LocalDate from, LocalDate to);
+
+    /**
+     * Per-day averages for each WEEK (from Monday) or MONTH from the one containing from up to to,
+     * dated by the period's first day. Read from the rollups, so whole periods are averaged.
+     */
+    List<DatabaseHelper.DailyLog> getRolledUpLogs(int userId, LocalDate from, LocalDate to, DatabaseHelper.Rollup rollup);
+
+    /**
+     * Recomputes rollups from daily logs: every row flagged stale and, when from is not null,
+     * every row for a week or month overlapping [from, to]; a null to means no upper bound.
+     */
+    boolean repairRollups(LocalDate from, LocalDate to);
+
+    boolean addNutritionData(int userId, LocalDate date, DatabaseHelper.NutritionData data);
+
+    boolean resetDailyLog(int userId, LocalDate date);
+
+    Map<String, Double> getAverageNutrition(int userId, int days);
+
+    // ==================== FOODS ====================
+
+    List<DatabaseHelper.FoodItem> searchFoods(String query, int limit);
+
+    DatabaseHelper.FoodItem getFoodItem(String name);
+
+    DatabaseHelper.FoodItem getFoodItemById(int id);
+
+    // ==================== FOOD LOGS ====================
+
+    boolean logFoodConsumption(int userId, int foodItemId, int quantity, String unit,
+                               String mealType, LocalDateTime consumedAt);
+
+    /** Writes the food_logs rows and their daily_logs totals for all entries in one transaction. */
+    boolean logMeals(List<DatabaseHelper.MealLogEntry> entries);
+
+    List<DatabaseHelper.MealEntry> getMealsForDate(int userId, LocalDate date);
+
+    boolean deleteMeal(int logId);
+
+    boolean updateMealQuantity(int logId, int newQuantity);
+
+    // ==================== HISTORY EXPORT ====================
+    // Rows are passed to the action one at a time, ordered by user then date, without
+    // collecting the result. userId null means every user; from / to null means unbounded.
+
+    boolean forEachFoodLog(Integer userId, LocalDate from, LocalDate to,
+                           Consumer<DatabaseHelper.MealEntry> action);
+
+    boolean forEachDailyLog(Integer userId, LocalDate from, LocalDate to,
+                            Consumer<DatabaseHelper.DailyLog> action);
+
+    // ==================== ADMIN ====================
+
+    List<DatabaseHelper.UserData> getAllUsers();
+
+    // Admin listings: filter matches a substring of the name (and the email, for users), case-insensitively.
+    // Unknown sort columns fall back to the first of DatabaseHelper.USER_SORT_COLUMNS / FOOD_SORT_COLUMNS.
+
+    List<DatabaseHelper.UserData> getUsersPage(DatabaseHelper.PageRequest request);
+
+    int countUsers(String filter);
+
+    boolean deleteUser(int userId, int adminId);
+
+    boolean updateUser(int userId, String fullName, int age, String gender, String activityLevel, int adminId);
+
+    List<DatabaseHelper.FoodItem> getAllFoods();
+
+    List<DatabaseHelper.FoodItem> getFoodsPage(DatabaseHelper.PageRequest request);
+
+    int countFoods(String filter);
+
+    boolean addFoodItem(DatabaseHelper.FoodItem food, int adminId);
+
+    boolean updateFoodItem(DatabaseHelper.FoodItem food, int adminId);
+
+    boolean deleteFoodItem(int foodId, int adminId);
+
+    /** Inserts the foods, or updates the existing row with the same name, in one transaction. */
+    boolean upsertFoodItems(List<DatabaseHelper.FoodItem> foods);
+
+    /** Appends audit entries (from AuditLogWriter) in one transaction, keeping their performedAt. */
+    boolean appendAdminLogs(List<DatabaseHelper.AdminLogEntry> entries);
+
+    /**
+     * Audit entries newest first, optionally for one admin and within [from, to). before is the
+     * last entry of the previous page (null for the first page).
+     */
+    List<DatabaseHelper.AdminLogEntry> getAdminLogs(Integer adminId, LocalDateTime from, LocalDateTime to,
+                                                    DatabaseHelper.AdminLogEntry before, int limit);
+
+    /** Dashboard counters (totalUsers, totalFoods, todayLogs, todayActions), maintained as rows change. */
+    Map<String, Integer> getSystemStats();
+
+    /** Recomputes the counters behind getSystemStats: the totals, and the per-day ones for [from, to]. */
+    boolean reconcileStats(LocalDate from, LocalDate to);
+
+    void close();
+}
@@ -0,0 +1,245 @@
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Password Hasher - Salted, adaptive password hashes on a dedicated CPU pool
+ * Version: 1.0
+ * Features: PBKDF2-HMAC-SHA256 with a per-password salt, Work factor calibrated to a target
+ *           latency on this host, Legacy SHA-256 hashes still verified and flagged for rehash,
+ *           Constant-time comparison, Login throughput benchmark (run main)
+ *
+ * Hashes are stored as pbkdf2$iterations$salt$hash (Base64), so the work factor travels with
+ * each hash and can be raised without invalidating old ones. On first use the iteration count
+ * is calibrated so one hash takes about ecoeats.password.targetMs on this machine, never below
+ * MIN_ITERATIONS; ecoeats.password.iterations pins it instead. Hashing is CPU-bound, so it runs
+ * on its own pool of ecoeats.password.threads workers (one per core by default) rather than on
+ * the database threads: a burst of logins queues here instead of holding connections.
+ */
+public class PasswordHasher {
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final int MIN_ITERATIONS = 100_000;
+    private static final int MAX_ITERATIONS = 10_000_000;
+    private static final int CALIBRATION_ITERATIONS = 20_000;
+    private static final long TARGET_MS = Long.getLong("ecoeats.password.targetMs", 100);
+    private static final int THREADS = Integer.getInteger("ecoeats.password.threads",
+            Runtime.getRuntime().availableProcessors());
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final ExecutorService EXECUTOR = createExecutor();
+    private static volatile int iterations;
+
+    private static ExecutorService createExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(THREADS, r -> {
+            Thread t = new Thread(r, "ecoeats-password-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // ==================== ASYNC ====================
+
+    public static CompletableFuture<String> hashAsync(String password) {
+        return CompletableFuture.supplyAsync(() -> hashNow(password), EXECUTOR);
+    }
+
+    public static CompletableFuture<Boolean> verifyAsync(String password, String storedHash) {
+        return CompletableFuture.supplyAsync(() -> verifyNow(password, storedHash), EXECUTOR);
+    }
+
+    /** Runs the work-factor calibration on the hasher pool so the first login doesn't pay for it. */
+    public static CompletableFuture<Integer> calibrateAsync() {
+        return CompletableFuture.supplyAsync(PasswordHasher::getIterations, EXECUTOR);
+    }
+
+    // ==================== BLOCKING ====================
+
+    /** Hashes on the hasher pool and waits for the result; null if hashing failed. */
+    public static String hash(String password) {
+        return await(hashAsync(password), null);
+    }
+
+    /** Checks password against a stored pbkdf2 or legacy SHA-256 hash on the hasher pool. */
+    public static boolean verify(String password, String storedHash) {
+        return await(verifyAsync(password, storedHash), false);
+    }
+
+    /** True for legacy hashes and for pbkdf2 hashes below the current work factor. */
+    public static boolean needsRehash(String storedHash) {
+        if (storedHash == null) {
+            return false;
+        }
+        String[] parts = storedHash.split("\\$");
+        if (parts.length != 4 || !PREFIX.equals(parts[0])) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(parts[1]) < getIterations();
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    public static int getIterations() {
+        int current = iterations;
+        if (current == 0) {
+            synchronized (PasswordHasher.class) {
+                if (iterations == 0) {
+                    iterations = calibrate();
+                }
+                current = iterations;
+            }
+        }
+        return current;
+    }
+
+    private static <T> T await(CompletableFuture<T> future, T fallback) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback;
+        } catch (ExecutionException e) {
+            System.err.println("Password hashing error: " + e.getCause().getMessage());
+            return fallback;
+        }
+    }
+
+    // ==================== HASHING ====================
+
+    private static String hashNow(String password) {
+        int rounds = getIterations();
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] hash = pbkdf2(password, salt, rounds);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + rounds + "$" + base64.encodeToString(salt) + "$" + base64.encodeToString(hash);
+    }
+
+    private static boolean verifyNow(String password, String storedHash) {
+        if (password == null || storedHash == null) {
+            return false;
+        }
+        String[] parts = storedHash.split("\\$");
+        if (parts.length != 4 || !PREFIX.equals(parts[0])) {
+            // Hashes written before the move to PBKDF2: unsalted SHA-256 hex
+            byte[] legacy = legacyHash(password).getBytes(StandardCharsets.US_ASCII);
+            return MessageDigest.isEqual(legacy, storedHash.getBytes(StandardCharsets.US_ASCII));
+        }
+        try {
+            int rounds = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return MessageDigest.isEqual(expected, pbkdf2(password, salt, rounds));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Malformed password hash: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int rounds) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, rounds, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " unavailable", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    static String legacyHash(String password) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest(password.getBytes());
+            StringBuilder hexString = new StringBuilder();
+            for (byte b : hash) {
+                String hex = Integer.toHexString(0xff & b);
+                if (hex.length() == 1) hexString.append('0');
+                hexString.append(hex);
+            }
+            return hexString.toString();
+        } catch (NoSuchAlgorithmException e) {
+            e.printStackTrace();
+            return "";
+        }
+    }
+
+    private static int calibrate() {
+        Integer pinned = Integer.getInteger("ecoeats.password.iterations");
+        if (pinned != null) {
+            return Math.max(1, pinned);
+        }
+
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        // Warm up the JIT first, then take the fastest of a few runs
+        for (int i = 0; i < 3; i++) {
+            pbkdf2("calibration", salt, CALIBRATION_ITERATIONS);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            pbkdf2("calibration", salt, CALIBRATION_ITERATIONS);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        double perIteration = (double) best / CALIBRATION_ITERATIONS;
+        long target = (long) (TimeUnit.MILLISECONDS.toNanos(TARGET_MS) / perIteration);
+        // Round down to a multiple of 10,000 so hashes from similar hosts share a work factor
+        int calibrated = (int) Math.max(MIN_ITERATIONS, Math.min(MAX_ITERATIONS, target / 10_000 * 10_000));
+        System.out.println("Password hashing: " + calibrated + " PBKDF2 iterations (~" + TARGET_MS + " ms target)");
+        return calibrated;
+    }
+
+    // ==================== BENCHMARK ====================
+
+    /**
+     * Measures login throughput: verifications per second with 1..THREADS concurrent logins,
+     * and per core. Usage: java PasswordHasher [seconds per step]
+     */
+    public static void main(String[] args) throws Exception {
+        long seconds = args.length > 0 ? Long.parseLong(args[0]) : 5;
+        int cores = Runtime.getRuntime().availableProcessors();
+        String stored = hash("benchmark-password");
+        System.out.println("Cores: " + cores + ", hasher threads: " + THREADS + ", iterations: " + getIterations());
+
+        for (int clients = 1; clients <= THREADS; clients = clients < THREADS ? Math.min(THREADS, clients * 2) : clients + 1) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            AtomicInteger logins = new AtomicInteger();
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                Thread t = new Thread(() -> {
+                    while (System.nanoTime() < deadline) {
+                        if (verify("benchmark-password", stored)) {
+                            logins.incrementAndGet();
+                        }
+                    }
+                });
+                threads.add(t);
+                t.start();
+            }
+            for (Thread t : threads) {
+                t.join();
+            }
+
+            double perSecond = logins.get() / (double) seconds;
+            System.out.printf("%2d concurrent: %8.1f logins/s, %6.1f logins/s per core, %6.1f ms per login%n",
+                    clients, perSecond, perSecond / Math.min(clients, cores), clients * 1000.0 / perSecond);
+        }
+        EXECUTOR.shutdown();
+    }
+}
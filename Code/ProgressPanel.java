@@ -1,7 +1,7 @@
 import javax.swing.*;
 import javax.swing.border.*;
 import java.awt.*;
-import java.sql.*;
+import java.awt.image.BufferedImage;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -9,12 +9,49 @@ import java.util.List;
 
 /**
  * Progress Panel - Nutrition Progress Charts
- * Shows 7-day and 30-day trends
+ * Shows 7-day, 30-day and 90-day trends, plus the last year by week and all time by month
+ *
+ * Long periods are aggregated by the store (DatabaseHelper.getRolledUpLogs), so a year or more
+ * of history arrives as a few dozen rows, and any series longer than MAX_POINTS is thinned with
+ * largest-triangle-three-buckets, which keeps the peaks and dips a plain every-nth sample loses.
  */
 public class ProgressPanel extends JPanel {
+    private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 16);
+    private static final Font AXIS_FONT = new Font("Arial", Font.PLAIN, 10);
+    private static final Font DATE_FONT = new Font("Arial", Font.PLAIN, 9);
+    private static final Font LEGEND_FONT = new Font("Arial", Font.PLAIN, 11);
+    private static final Font MESSAGE_FONT = new Font("Arial", Font.PLAIN, 12);
+    private static final DateTimeFormatter DATE_LABEL = DateTimeFormatter.ofPattern("MM/dd");
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("MM/yy");
+    private static final Color TITLE_COLOR = new Color(45, 60, 35);
+    private static final Color CALORIES_COLOR = new Color(123, 141, 74);
+    private static final Color GOAL_COLOR = new Color(244, 67, 54);
+    private static final Color PROTEIN_COLOR = new Color(76, 175, 80);
+    private static final Color CARBS_COLOR = new Color(255, 193, 7);
+    private static final Color BORDER_COLOR = new Color(220, 220, 220);
+    private static final Stroke LINE_STROKE = new BasicStroke(2);
+    private static final Stroke GOAL_STROKE = new BasicStroke(2, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{9}, 0);
+    private static final int PADDING = 60;
+    private static final int CALORIE_GOAL = 2000;
+    private static final int MACRO_MAX = 300;
+    private static final int MAX_POINTS = Integer.getInteger("ecoeats.progress.maxPoints", 60);
+    private static final Period[] PERIODS = {
+            new Period("Last 7 Days", 7, DatabaseHelper.Rollup.DAY),
+            new Period("Last 30 Days", 30, DatabaseHelper.Rollup.DAY),
+            new Period("Last 90 Days", 90, DatabaseHelper.Rollup.DAY),
+            new Period("Last Year (weekly)", 365, DatabaseHelper.Rollup.WEEK),
+            new Period("All Time (monthly)", 0, DatabaseHelper.Rollup.MONTH)
+    };
+
     private int userId;
     private JComboBox<String> periodCombo;
     private JPanel chartsPanel;
+    // The charts paint from this map, so one changed day is a put and a repaint
+    private Map<LocalDate, NutritionData> chartData = new TreeMap<>();
+    private Period chartPeriod = PERIODS[0];
+    private final List<ChartCanvas> charts = new ArrayList<>();
+    private ChangeBus.Subscription dayChanges;
+    private long loadGeneration;
 
     public ProgressPanel(int userId) {
         this.userId = userId;
@@ -35,7 +72,11 @@ public class ProgressPanel extends JPanel {
         JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         controlPanel.setOpaque(false);
 
-        periodCombo = new JComboBox<>(new String[]{"Last 7 Days", "Last 30 Days"});
+        String[] periodNames = new String[PERIODS.length];
+        for (int i = 0; i < PERIODS.length; i++) {
+            periodNames[i] = PERIODS[i].name;
+        }
+        periodCombo = new JComboBox<>(periodNames);
         periodCombo.setFont(new Font("Arial", Font.PLAIN, 14));
         periodCombo.addActionListener(e -> loadCharts());
         controlPanel.add(periodCombo);
@@ -64,11 +105,28 @@ public class ProgressPanel extends JPanel {
         loadCharts();
     }
 
+    // The history query runs off the EDT; the charts are swapped in when it returns
     private void loadCharts() {
-        chartsPanel.removeAll();
+        Period period = PERIODS[Math.max(periodCombo.getSelectedIndex(), 0)];
+        LocalDate today = LocalDate.now();
+        long generation = ++loadGeneration;
+        AsyncDatabaseHelper.getRolledUpLogs(userId, period.start(today), today, period.rollup).whenCompleteAsync((logs, error) -> {
+            if (generation != loadGeneration) {
+                return;
+            }
+            if (error != null) {
+                System.err.println("Error loading nutrition data: " + error.getMessage());
+                logs = Collections.emptyList();
+            }
+            showCharts(period, toChartData(logs));
+        }, AsyncDatabaseHelper.EDT);
+    }
 
-        int days = periodCombo.getSelectedIndex() == 0 ? 7 : 30;
-        Map<LocalDate, NutritionData> data = loadNutritionData(days);
+    private void showCharts(Period period, Map<LocalDate, NutritionData> data) {
+        chartsPanel.removeAll();
+        charts.clear();
+        chartData = data;
+        chartPeriod = period;
 
         if (data.isEmpty()) {
             JLabel noDataLabel = new JLabel("No data available for the selected period");
@@ -77,259 +135,404 @@ public class ProgressPanel extends JPanel {
             noDataLabel.setHorizontalAlignment(SwingConstants.CENTER);
             chartsPanel.add(noDataLabel);
         } else {
-            chartsPanel.add(createCaloriesChart(data));
-            chartsPanel.add(createMacrosChart(data));
-            chartsPanel.add(createMineralsChart(data));
-            chartsPanel.add(createVitaminsChart(data));
+            ChartSeries series = new ChartSeries(data, period.labelFormat());
+            charts.add(new CaloriesChart(series));
+            charts.add(new MacrosChart(series));
+            charts.add(new PlaceholderChart(series, "Minerals (Calcium & Iron)"));
+            charts.add(new PlaceholderChart(series, "Vitamins (A & D)"));
+            for (ChartCanvas chart : charts) {
+                chartsPanel.add(chart);
+            }
         }
 
         chartsPanel.revalidate();
         chartsPanel.repaint();
     }
 
-    private Map<LocalDate, NutritionData> loadNutritionData(int days) {
+    private Map<LocalDate, NutritionData> toChartData(List<DatabaseHelper.DailyLog> logs) {
         Map<LocalDate, NutritionData> dataMap = new TreeMap<>();
-        String sql = """
-            SELECT log_date, calories, protein_g, carbs_g, fats_g,
-                   calcium_mg, iron_mg, potassium_mg, vitamin_a_iu, vitamin_d_iu
-            FROM daily_logs
-            WHERE user_id = ? AND log_date >= DATE_SUB(CURRENT_DATE, INTERVAL ? DAY)
-            ORDER BY log_date ASC
-        """;
-
-        try (Connection conn = DatabaseHelper.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, userId);
-            pstmt.setInt(2, days);
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                LocalDate date = rs.getDate("log_date").toLocalDate();
-                NutritionData data = new NutritionData();
-                data.calories = rs.getInt("calories");
-                data.protein = rs.getInt("protein_g");
-                data.carbs = rs.getInt("carbs_g");
-                data.fats = rs.getInt("fats_g");
-                data.calcium = rs.getInt("calcium_mg");
-                data.iron = rs.getInt("iron_mg");
-                data.potassium = rs.getInt("potassium_mg");
-                data.vitaminA = rs.getInt("vitamin_a_iu");
-                data.vitaminD = rs.getInt("vitamin_d_iu");
-                dataMap.put(date, data);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error loading nutrition data: " + e.getMessage());
+        for (DatabaseHelper.DailyLog log : logs) {
+            dataMap.put(log.logDate, toChartData(log));
         }
 
         return dataMap;
     }
 
-    private JPanel createCaloriesChart(Map<LocalDate, NutritionData> data) {
-        JPanel chartPanel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-                int width = getWidth();
-                int height = getHeight();
-                int padding = 60;
-                int chartHeight = height - 2 * padding;
-                int chartWidth = width - 2 * padding;
-
-                // Background
-                g2d.setColor(Color.WHITE);
-                g2d.fillRect(0, 0, width, height);
-
-                // Title
-                g2d.setColor(new Color(45, 60, 35));
-                g2d.setFont(new Font("Arial", Font.BOLD, 16));
-                g2d.drawString("Calories Trend", padding, padding / 2);
-
-                // Axes
-                g2d.setColor(Color.GRAY);
-                g2d.drawLine(padding, padding, padding, height - padding);
-                g2d.drawLine(padding, height - padding, width - padding, height - padding);
-
-                if (data.isEmpty()) return;
-
-                // Find max value
-                int maxCalories = data.values().stream().mapToInt(d -> d.calories).max().orElse(2000);
-                maxCalories = Math.max(maxCalories, 2000);
-
-                // Goal line
-                int goalY = height - padding - (2000 * chartHeight / maxCalories);
-                g2d.setColor(new Color(244, 67, 54));
-                g2d.setStroke(new BasicStroke(2, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{9}, 0));
-                g2d.drawLine(padding, goalY, width - padding, goalY);
-                g2d.setFont(new Font("Arial", Font.PLAIN, 10));
-                g2d.drawString("Goal: 2000", width - padding + 5, goalY + 5);
-
-                // Plot data
-                List<LocalDate> dates = new ArrayList<>(data.keySet());
-                int pointSpacing = chartWidth / Math.max(dates.size() - 1, 1);
-
-                g2d.setStroke(new BasicStroke(2));
-                g2d.setColor(new Color(123, 141, 74));
-
-                for (int i = 0; i < dates.size(); i++) {
-                    LocalDate date = dates.get(i);
-                    int calories = data.get(date).calories;
-                    int x = padding + i * pointSpacing;
-                    int y = height - padding - (calories * chartHeight / maxCalories);
-
-                    // Line
-                    if (i > 0) {
-                        LocalDate prevDate = dates.get(i - 1);
-                        int prevCalories = data.get(prevDate).calories;
-                        int prevX = padding + (i - 1) * pointSpacing;
-                        int prevY = height - padding - (prevCalories * chartHeight / maxCalories);
-                        g2d.drawLine(prevX, prevY, x, y);
-                    }
-
-                    // Point
-                    g2d.fillOval(x - 4, y - 4, 8, 8);
-
-                    // Date label
-                    if (dates.size() <= 10 || i % 2 == 0) {
-                        g2d.setColor(Color.GRAY);
-                        g2d.setFont(new Font("Arial", Font.PLAIN, 9));
-                        String dateStr = date.format(DateTimeFormatter.ofPattern("MM/dd"));
-                        g2d.drawString(dateStr, x - 15, height - padding + 15);
-                        g2d.setColor(new Color(123, 141, 74));
-                    }
-                }
+    private NutritionData toChartData(DatabaseHelper.DailyLog log) {
+        NutritionData data = new NutritionData();
+        data.calories = log.calories;
+        data.protein = log.protein_g;
+        data.carbs = log.carbs_g;
+        data.fats = log.fats_g;
+        data.calcium = log.calcium_mg;
+        data.iron = log.iron_mg;
+        data.potassium = log.potassium_mg;
+        data.vitaminA = log.vitamin_a_iu;
+        data.vitaminD = log.vitamin_d_iu;
+        return data;
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        if (dayChanges == null) {
+            dayChanges = ChangeBus.subscribe(ChangeBus.DayChanged.class, this::dayChanged);
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        if (dayChanges != null) {
+            dayChanges.unsubscribe();
+            dayChanges = null;
+        }
+        super.removeNotify();
+    }
+
+    // Re-reads the one changed day and moves its point instead of reloading the whole period
+    private void dayChanged(ChangeBus.DayChanged event) {
+        LocalDate today = LocalDate.now();
+        Period period = chartPeriod;
+        if (event.userId != userId || event.date.isBefore(period.start(today)) || event.date.isAfter(today)) {
+            return;
+        }
+        if (period.rollup != DatabaseHelper.Rollup.DAY) {
+            // The day is averaged into a week or month; re-fetching the rolled-up rows is one small query
+            loadCharts();
+            return;
+        }
+        Map<LocalDate, NutritionData> data = chartData;
+        AsyncDatabaseHelper.getLogForDate(userId, event.date).whenCompleteAsync((log, error) -> {
+            if (error != null) {
+                System.err.println("Error loading nutrition data: " + error.getMessage());
+                return;
+            }
+            if (data != chartData) {
+                return;
+            }
+            if (data.isEmpty()) {
+                // The "no data" message is showing instead of the charts
+                loadCharts();
+                return;
+            }
+            if (event instanceof ChangeBus.DayReset) {
+                data.remove(event.date);
+            } else {
+                data.put(event.date, toChartData(log));
             }
-        };
+            ChartSeries series = new ChartSeries(data, period.labelFormat());
+            for (ChartCanvas chart : charts) {
+                chart.setSeries(series);
+            }
+        }, AsyncDatabaseHelper.EDT);
+    }
+
+    // Inner classes
+
+    private static class Period {
+        final String name;
+        final int days;
+        final DatabaseHelper.Rollup rollup;
 
-        chartPanel.setPreferredSize(new Dimension(0, 300));
-        chartPanel.setBackground(Color.WHITE);
-        chartPanel.setBorder(BorderFactory.createLineBorder(new Color(220, 220, 220)));
-        return chartPanel;
+        Period(String name, int days, DatabaseHelper.Rollup rollup) {
+            this.name = name;
+            this.days = days;
+            this.rollup = rollup;
+        }
+
+        // days == 0 means all history
+        LocalDate start(LocalDate today) {
+            return days == 0 ? LocalDate.EPOCH : today.minusDays(days);
+        }
+
+        DateTimeFormatter labelFormat() {
+            return rollup == DatabaseHelper.Rollup.MONTH ? MONTH_LABEL : DATE_LABEL;
+        }
     }
 
-    private JPanel createMacrosChart(Map<LocalDate, NutritionData> data) {
-        JPanel chartPanel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-                int width = getWidth();
-                int height = getHeight();
-                int padding = 60;
-                int chartHeight = height - 2 * padding;
-                int chartWidth = width - 2 * padding;
-
-                g2d.setColor(Color.WHITE);
-                g2d.fillRect(0, 0, width, height);
-
-                g2d.setColor(new Color(45, 60, 35));
-                g2d.setFont(new Font("Arial", Font.BOLD, 16));
-                g2d.drawString("Macronutrients Trend", padding, padding / 2);
-
-                g2d.setColor(Color.GRAY);
-                g2d.drawLine(padding, padding, padding, height - padding);
-                g2d.drawLine(padding, height - padding, width - padding, height - padding);
-
-                if (data.isEmpty()) return;
-
-                List<LocalDate> dates = new ArrayList<>(data.keySet());
-                int pointSpacing = chartWidth / Math.max(dates.size() - 1, 1);
-
-                // Find max for scaling
-                int maxValue = 300;
-
-                // Plot protein
-                g2d.setColor(new Color(76, 175, 80));
-                g2d.setStroke(new BasicStroke(2));
-                plotLine(g2d, dates, data, pointSpacing, padding, height, chartHeight, maxValue, true);
-
-                // Plot carbs
-                g2d.setColor(new Color(255, 193, 7));
-                plotLine(g2d, dates, data, pointSpacing, padding, height, chartHeight, maxValue, false);
-
-                // Legend
-                g2d.setFont(new Font("Arial", Font.PLAIN, 11));
-                int legendX = width - 150;
-                int legendY = padding + 20;
-
-                g2d.setColor(new Color(76, 175, 80));
-                g2d.fillRect(legendX, legendY, 15, 3);
-                g2d.setColor(Color.BLACK);
-                g2d.drawString("Protein", legendX + 20, legendY + 3);
-
-                g2d.setColor(new Color(255, 193, 7));
-                g2d.fillRect(legendX, legendY + 20, 15, 3);
-                g2d.setColor(Color.BLACK);
-                g2d.drawString("Carbs", legendX + 20, legendY + 23);
+    /**
+     * The period's values as arrays in date order, built once per data change rather than per paint.
+     * Longer series are downsampled to MAX_POINTS; position[i] keeps each point's original index so
+     * the kept points stay where they were on the time axis.
+     */
+    private static class ChartSeries {
+        final int size;
+        final int lastPosition;
+        final int[] position;
+        final String[] dateLabels;
+        final int[] calories;
+        final int[] protein;
+        final int[] carbs;
+        final int maxCalories;
+
+        ChartSeries(Map<LocalDate, NutritionData> data, DateTimeFormatter labelFormat) {
+            int count = data.size();
+            LocalDate[] dates = new LocalDate[count];
+            int[] allCalories = new int[count];
+            int[] allProtein = new int[count];
+            int[] allCarbs = new int[count];
+            int max = CALORIE_GOAL;
+            int i = 0;
+            for (Map.Entry<LocalDate, NutritionData> entry : data.entrySet()) {
+                NutritionData day = entry.getValue();
+                dates[i] = entry.getKey();
+                allCalories[i] = day.calories;
+                allProtein[i] = day.protein;
+                allCarbs[i] = day.carbs;
+                max = Math.max(max, day.calories);
+                i++;
             }
 
-            private void plotLine(Graphics2D g2d, List<LocalDate> dates, Map<LocalDate, NutritionData> data,
-                                  int pointSpacing, int padding, int height, int chartHeight, int maxValue, boolean isProtein) {
-                for (int i = 0; i < dates.size(); i++) {
-                    LocalDate date = dates.get(i);
-                    int value = isProtein ? data.get(date).protein : data.get(date).carbs;
-                    int x = padding + i * pointSpacing;
-                    int y = height - padding - (value * chartHeight / maxValue);
-
-                    if (i > 0) {
-                        LocalDate prevDate = dates.get(i - 1);
-                        int prevValue = isProtein ? data.get(prevDate).protein : data.get(prevDate).carbs;
-                        int prevX = padding + (i - 1) * pointSpacing;
-                        int prevY = height - padding - (prevValue * chartHeight / maxValue);
-                        g2d.drawLine(prevX, prevY, x, y);
-                    }
-                    g2d.fillOval(x - 3, y - 3, 6, 6);
-                }
+            // Calories is the headline series, so its shape decides which points survive
+            position = downsample(allCalories, MAX_POINTS);
+            size = position.length;
+            lastPosition = Math.max(count - 1, 1);
+            dateLabels = new String[size];
+            calories = new int[size];
+            protein = new int[size];
+            carbs = new int[size];
+            for (int k = 0; k < size; k++) {
+                int source = position[k];
+                dateLabels[k] = dates[source].format(labelFormat);
+                calories[k] = allCalories[source];
+                protein[k] = allProtein[source];
+                carbs[k] = allCarbs[source];
             }
-        };
+            maxCalories = max;
+        }
 
-        chartPanel.setPreferredSize(new Dimension(0, 300));
-        chartPanel.setBackground(Color.WHITE);
-        chartPanel.setBorder(BorderFactory.createLineBorder(new Color(220, 220, 220)));
-        return chartPanel;
+        int x(int index, int chartWidth) {
+            return PADDING + position[index] * chartWidth / lastPosition;
+        }
     }
 
-    private JPanel createMineralsChart(Map<LocalDate, NutritionData> data) {
-        return createSimpleChart(data, "Minerals (Calcium & Iron)", Color.MAGENTA, Color.ORANGE);
-    }
+    /**
+     * Largest-triangle-three-buckets: keeps the first and last points and, from each of
+     * threshold - 2 equal buckets in between, the point forming the largest triangle with the
+     * previously kept point and the average of the next bucket. Returns the kept indices.
+     */
+    private static int[] downsample(int[] values, int threshold) {
+        int n = values.length;
+        if (threshold >= n || threshold < 3) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
 
-    private JPanel createVitaminsChart(Map<LocalDate, NutritionData> data) {
-        return createSimpleChart(data, "Vitamins (A & D)", new Color(233, 30, 99), new Color(103, 58, 183));
+        int[] kept = new int[threshold];
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int previous = 0;
+        for (int b = 0; b < threshold - 2; b++) {
+            int nextStart = (int) ((b + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((b + 2) * bucketSize) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = nextStart; j < nextEnd; j++) {
+                avgX += j;
+                avgY += values[j];
+            }
+            avgX /= nextEnd - nextStart;
+            avgY /= nextEnd - nextStart;
+
+            int start = (int) (b * bucketSize) + 1;
+            int end = (int) ((b + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int chosen = start;
+            for (int j = start; j < end; j++) {
+                double area = Math.abs((previous - avgX) * (values[j] - values[previous])
+                        - (previous - j) * (avgY - values[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = j;
+                }
+            }
+            kept[b + 1] = chosen;
+            previous = chosen;
+        }
+        kept[threshold - 1] = n - 1;
+        return kept;
     }
 
-    private JPanel createSimpleChart(Map<LocalDate, NutritionData> data, String title, Color color1, Color color2) {
-        JPanel chartPanel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    /**
+     * A chart drawn once into an offscreen image at the screen's scale and then only copied,
+     * so scrolling and overlapping repaints do no drawing. The image is redrawn only when the
+     * series or the component size changes.
+     */
+    private abstract static class ChartCanvas extends JPanel {
+        protected ChartSeries series;
+        private BufferedImage cache;
+        private int cacheWidth;
+        private int cacheHeight;
+        private double cacheScale;
+
+        ChartCanvas(ChartSeries series, int preferredHeight) {
+            this.series = series;
+            setPreferredSize(new Dimension(0, preferredHeight));
+            setBackground(Color.WHITE);
+            setBorder(BorderFactory.createLineBorder(BORDER_COLOR));
+        }
+
+        void setSeries(ChartSeries series) {
+            this.series = series;
+            cache = null;
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            int width = getWidth();
+            int height = getHeight();
+            if (width <= 0 || height <= 0) {
+                return;
+            }
+            double scale = ((Graphics2D) g).getTransform().getScaleX();
+            if (cache == null || width != cacheWidth || height != cacheHeight || scale != cacheScale) {
+                cache = render(width, height, scale);
+                cacheWidth = width;
+                cacheHeight = height;
+                cacheScale = scale;
+            }
+            g.drawImage(cache, 0, 0, width, height, null);
+        }
 
-                int width = getWidth();
-                int height = getHeight();
-                int padding = 60;
+        private BufferedImage render(int width, int height, double scale) {
+            int imageWidth = (int) Math.ceil(width * scale);
+            int imageHeight = (int) Math.ceil(height * scale);
+            GraphicsConfiguration gc = getGraphicsConfiguration();
+            BufferedImage image = gc != null
+                    ? gc.createCompatibleImage(imageWidth, imageHeight)
+                    : new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g2d = image.createGraphics();
+            g2d.scale(scale, scale);
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setColor(Color.WHITE);
+            g2d.fillRect(0, 0, width, height);
+            draw(g2d, width, height);
+            g2d.dispose();
+            return image;
+        }
 
-                g2d.setColor(Color.WHITE);
-                g2d.fillRect(0, 0, width, height);
+        protected abstract void draw(Graphics2D g2d, int width, int height);
 
-                g2d.setColor(new Color(45, 60, 35));
-                g2d.setFont(new Font("Arial", Font.BOLD, 16));
-                g2d.drawString(title, padding, padding / 2);
+        protected void drawFrame(Graphics2D g2d, String title, int width, int height) {
+            g2d.setColor(TITLE_COLOR);
+            g2d.setFont(TITLE_FONT);
+            g2d.drawString(title, PADDING, PADDING / 2);
 
-                g2d.setColor(Color.GRAY);
-                g2d.setFont(new Font("Arial", Font.PLAIN, 12));
-                g2d.drawString("Data visualization available", width / 2 - 80, height / 2);
+            g2d.setColor(Color.GRAY);
+            g2d.drawLine(PADDING, PADDING, PADDING, height - PADDING);
+            g2d.drawLine(PADDING, height - PADDING, width - PADDING, height - PADDING);
+        }
+
+        protected void plotLine(Graphics2D g2d, int[] values, int maxValue, int width, int height, int pointSize) {
+            int chartHeight = height - 2 * PADDING;
+            int chartWidth = width - 2 * PADDING;
+            int prevX = 0;
+            int prevY = 0;
+            for (int i = 0; i < series.size; i++) {
+                int x = series.x(i, chartWidth);
+                int y = height - PADDING - (values[i] * chartHeight / maxValue);
+                if (i > 0) {
+                    g2d.drawLine(prevX, prevY, x, y);
+                }
+                g2d.fillOval(x - pointSize / 2, y - pointSize / 2, pointSize, pointSize);
+                prevX = x;
+                prevY = y;
             }
-        };
+        }
+    }
+
+    private static class CaloriesChart extends ChartCanvas {
+        CaloriesChart(ChartSeries series) {
+            super(series, 300);
+        }
+
+        @Override
+        protected void draw(Graphics2D g2d, int width, int height) {
+            drawFrame(g2d, "Calories Trend", width, height);
+            if (series.size == 0) return;
+
+            int chartHeight = height - 2 * PADDING;
+            int chartWidth = width - 2 * PADDING;
+            int maxCalories = series.maxCalories;
+
+            // Goal line
+            int goalY = height - PADDING - (CALORIE_GOAL * chartHeight / maxCalories);
+            g2d.setColor(GOAL_COLOR);
+            g2d.setStroke(GOAL_STROKE);
+            g2d.drawLine(PADDING, goalY, width - PADDING, goalY);
+            g2d.setFont(AXIS_FONT);
+            g2d.drawString("Goal: " + CALORIE_GOAL, width - PADDING + 5, goalY + 5);
+
+            g2d.setStroke(LINE_STROKE);
+            g2d.setColor(CALORIES_COLOR);
+            plotLine(g2d, series.calories, maxCalories, width, height, series.size > 40 ? 5 : 8);
+
+            // Date labels: all of them for a week, about 15 on longer periods
+            int labelStep = series.size <= 10 ? 1 : Math.max(2, (series.size + 14) / 15);
+            g2d.setColor(Color.GRAY);
+            g2d.setFont(DATE_FONT);
+            for (int i = 0; i < series.size; i += labelStep) {
+                g2d.drawString(series.dateLabels[i], series.x(i, chartWidth) - 15, height - PADDING + 15);
+            }
+        }
+    }
+
+    private static class MacrosChart extends ChartCanvas {
+        MacrosChart(ChartSeries series) {
+            super(series, 300);
+        }
 
-        chartPanel.setPreferredSize(new Dimension(0, 250));
-        chartPanel.setBackground(Color.WHITE);
-        chartPanel.setBorder(BorderFactory.createLineBorder(new Color(220, 220, 220)));
-        return chartPanel;
+        @Override
+        protected void draw(Graphics2D g2d, int width, int height) {
+            drawFrame(g2d, "Macronutrients Trend", width, height);
+            if (series.size == 0) return;
+
+            int pointSize = series.size > 40 ? 4 : 6;
+            g2d.setStroke(LINE_STROKE);
+            g2d.setColor(PROTEIN_COLOR);
+            plotLine(g2d, series.protein, MACRO_MAX, width, height, pointSize);
+            g2d.setColor(CARBS_COLOR);
+            plotLine(g2d, series.carbs, MACRO_MAX, width, height, pointSize);
+
+            // Legend
+            g2d.setFont(LEGEND_FONT);
+            int legendX = width - 150;
+            int legendY = PADDING + 20;
+
+            g2d.setColor(PROTEIN_COLOR);
+            g2d.fillRect(legendX, legendY, 15, 3);
+            g2d.setColor(Color.BLACK);
+            g2d.drawString("Protein", legendX + 20, legendY + 3);
+
+            g2d.setColor(CARBS_COLOR);
+            g2d.fillRect(legendX, legendY + 20, 15, 3);
+            g2d.setColor(Color.BLACK);
+            g2d.drawString("Carbs", legendX + 20, legendY + 23);
+        }
+    }
+
+    private static class PlaceholderChart extends ChartCanvas {
+        private final String title;
+
+        PlaceholderChart(ChartSeries series, String title) {
+            super(series, 250);
+            this.title = title;
+        }
+
+        @Override
+        protected void draw(Graphics2D g2d, int width, int height) {
+            g2d.setColor(TITLE_COLOR);
+            g2d.setFont(TITLE_FONT);
+            g2d.drawString(title, PADDING, PADDING / 2);
+
+            g2d.setColor(Color.GRAY);
+            g2d.setFont(MESSAGE_FONT);
+            g2d.drawString("Data visualization available", width / 2 - 80, height / 2);
+        }
     }
 
     private static class NutritionData {
@@ -337,4 +540,4 @@ public class ProgressPanel extends JPanel {
         int calcium, iron, potassium;
         int vitaminA, vitaminD;
     }
-}
\ No newline at end of file
+}
@@ -44,9 +44,7 @@ public class RegistrationPage extends JFrame {
 
         // Logo
         try {
-            ImageIcon logoIcon = new ImageIcon("src/logo.png");
-            Image scaledLogo = logoIcon.getImage().getScaledInstance(140, 117, Image.SCALE_SMOOTH);
-            JLabel logoLabel = new JLabel(new ImageIcon(scaledLogo));
+            JLabel logoLabel = new JLabel(IconCache.get("src/logo.png", 140, 117));
             logoLabel.setBounds(100, 20, 140, 140);
             leftPanel.add(logoLabel);
         } catch (Exception e) {
@@ -444,22 +442,39 @@ public class RegistrationPage extends JFrame {
             }
         }
 
+        registerButton.setEnabled(false);
+        registerButton.setText("Checking Email...");
+
         // Check if email already exists
-        if (DatabaseHelper.emailExists(email)) {
-            JOptionPane.showMessageDialog(this,
-                    "This email is already registered!\nPlease use a different email or try logging in.",
-                    "Email Already Exists",
-                    JOptionPane.ERROR_MESSAGE);
-            return;
-        }
+        final int finalAge = age;
+        AsyncDatabaseHelper.emailExists(email).whenCompleteAsync((exists, error) -> {
+            if (error == null && Boolean.FALSE.equals(exists)) {
+                sendVerificationCode(fullName, email, finalAge, gender, activity, password, role);
+                return;
+            }
+            registerButton.setEnabled(true);
+            registerButton.setText("Create Nutrition Profile");
+            if (error != null) {
+                System.err.println("Email check error: " + error.getMessage());
+                JOptionPane.showMessageDialog(this,
+                        "Could not reach the database. Please try again.",
+                        "Database Error",
+                        JOptionPane.ERROR_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this,
+                        "This email is already registered!\nPlease use a different email or try logging in.",
+                        "Email Already Exists",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }, AsyncDatabaseHelper.EDT);
+    }
 
-        // ========== EMAIL VERIFICATION ==========
+    // ========== EMAIL VERIFICATION ==========
 
-        registerButton.setEnabled(false);
+    private void sendVerificationCode(String fullName, String email, int finalAge, String gender,
+                                      String activity, String password, String role) {
         registerButton.setText("Sending Code...");
 
-        final int finalAge = age;
-
         // Send verification code in background thread
         new Thread(() -> {
             boolean sent = EmailVerification.sendVerificationCode(email, "registration");
@@ -474,27 +489,36 @@ public class RegistrationPage extends JFrame {
                     dialog.setVisible(true);
 
                     if (dialog.isVerified()) {
-                        // Save to database with role
-                        boolean saved = DatabaseHelper.registerUser(
+                        registerButton.setEnabled(false);
+                        registerButton.setText("Creating Profile...");
+
+                        // Save to database with role; hashing runs on the auth bulkhead
+                        AsyncDatabaseHelper.registerUser(
                                 fullName, email, finalAge, gender, activity, password, role
-                        );
-
-                        if (saved) {
-                            String successMessage = role.equals("admin") ?
-                                    "Admin account created successfully!\nYou can now login with admin privileges." :
-                                    "Registration Successful!\nYour account has been created. You can now login.";
-
-                            JOptionPane.showMessageDialog(this,
-                                    successMessage,
-                                    "Success",
-                                    JOptionPane.INFORMATION_MESSAGE);
-                            openLoginPage();
-                        } else {
-                            JOptionPane.showMessageDialog(this,
-                                    "Registration failed. Please try again or contact support.",
-                                    "Database Error",
-                                    JOptionPane.ERROR_MESSAGE);
-                        }
+                        ).whenCompleteAsync((saved, error) -> {
+                            registerButton.setEnabled(true);
+                            registerButton.setText("Create Nutrition Profile");
+
+                            if (error == null && Boolean.TRUE.equals(saved)) {
+                                String successMessage = role.equals("admin") ?
+                                        "Admin account created successfully!\nYou can now login with admin privileges." :
+                                        "Registration Successful!\nYour account has been created. You can now login.";
+
+                                JOptionPane.showMessageDialog(this,
+                                        successMessage,
+                                        "Success",
+                                        JOptionPane.INFORMATION_MESSAGE);
+                                openLoginPage();
+                            } else {
+                                if (error != null) {
+                                    System.err.println("Registration error: " + error.getMessage());
+                                }
+                                JOptionPane.showMessageDialog(this,
+                                        "Registration failed. Please try again or contact support.",
+                                        "Database Error",
+                                        JOptionPane.ERROR_MESSAGE);
+                            }
+                        }, AsyncDatabaseHelper.EDT);
                     }
                 } else {
                     JOptionPane.showMessageDialog(this,
@@ -0,0 +1,638 @@
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Schema Migrator - Versioned, checksummed schema migrations for the MySQL backend
+ * Version: 1.0
+ * Features: schema_version history table, Ordered migrations applied once,
+ *           Checksum verification of applied migrations, Single-query startup when current,
+ *           Per-statement progress so a migration that failed part way resumes where it stopped
+ *
+ * To change the schema, append a new Migration with the next version number. Never edit a
+ * migration that has shipped: its checksum is recorded and a mismatch stops the upgrade.
+ */
+public class SchemaMigrator {
+    private static final String LOCK_NAME = "ecoeats_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 30;
+    // The V6 statements are generated from this list; like any shipped migration, it must not change
+    private static final String[] ROLLUP_NUTRIENTS = {"calories", "protein_g", "carbs_g", "fats_g", "water_ml",
+            "calcium_mg", "potassium_mg", "sodium_mg", "magnesium_mg", "iron_mg", "zinc_mg",
+            "vitamin_a_iu", "vitamin_d_iu", "vitamin_e_iu", "vitamin_k_mcg"};
+
+    private static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "Baseline tables",
+                """
+                CREATE TABLE IF NOT EXISTS users (
+                    id INT PRIMARY KEY AUTO_INCREMENT,
+                    full_name VARCHAR(100) NOT NULL,
+                    email VARCHAR(100) UNIQUE NOT NULL,
+                    age INT NOT NULL,
+                    gender VARCHAR(20) NOT NULL,
+                    activity_level VARCHAR(50) NOT NULL,
+                    password VARCHAR(255) NOT NULL,
+                    role ENUM('user', 'admin') DEFAULT 'user',
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+                """,
+                """
+                CREATE TABLE IF NOT EXISTS user_goals (
+                    id INT PRIMARY KEY AUTO_INCREMENT,
+                    user_id INT UNIQUE,
+                    calories INT DEFAULT 2000,
+                    protein_g INT DEFAULT 150,
+                    carbs_g INT DEFAULT 250,
+                    fats_g INT DEFAULT 65,
+                    water_ml INT DEFAULT 2000,
+                    calcium_mg INT DEFAULT 1000,
+                    potassium_mg INT DEFAULT 3500,
+                    sodium_mg INT DEFAULT 2300,
+                    magnesium_mg INT DEFAULT 400,
+                    iron_mg INT DEFAULT 18,
+                    zinc_mg INT DEFAULT 11,
+                    vitamin_a_iu INT DEFAULT 5000,
+                    vitamin_d_iu INT DEFAULT 600,
+                    vitamin_e_iu INT DEFAULT 22,
+                    vitamin_k_mcg INT DEFAULT 120,
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                )
+                """,
+                """
+                CREATE TABLE IF NOT EXISTS daily_logs (
+                    id INT PRIMARY KEY AUTO_INCREMENT,
+                    user_id INT,
+                    log_date DATE DEFAULT (CURRENT_DATE),
+                    calories INT DEFAULT 0,
+                    protein_g INT DEFAULT 0,
+                    carbs_g INT DEFAULT 0,
+                    fats_g INT DEFAULT 0,
+                    water_ml INT DEFAULT 0,
+                    calcium_mg INT DEFAULT 0,
+                    potassium_mg INT DEFAULT 0,
+                    sodium_mg INT DEFAULT 0,
+                    magnesium_mg INT DEFAULT 0,
+                    iron_mg INT DEFAULT 0,
+                    zinc_mg INT DEFAULT 0,
+                    vitamin_a_iu INT DEFAULT 0,
+                    vitamin_d_iu INT DEFAULT 0,
+                    vitamin_e_iu INT DEFAULT 0,
+                    vitamin_k_mcg INT DEFAULT 0,
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+                    UNIQUE KEY unique_user_date (user_id, log_date),
+                    INDEX idx_user_date (user_id, log_date)
+                )
+                """,
+                """
+                CREATE TABLE IF NOT EXISTS food_items (
+                    id INT PRIMARY KEY AUTO_INCREMENT,
+                    name VARCHAR(100) UNIQUE NOT NULL,
+                    food_group VARCHAR(50),
+                    base_quantity INT DEFAULT 100,
+                    calories INT DEFAULT 0,
+                    protein_g DECIMAL(8,2) DEFAULT 0,
+                    carbs_g DECIMAL(8,2) DEFAULT 0,
+                    fats_g DECIMAL(8,2) DEFAULT 0,
+                    water_ml INT DEFAULT 0,
+                    calcium_mg INT DEFAULT 0,
+                    potassium_mg INT DEFAULT 0,
+                    sodium_mg INT DEFAULT 0,
+                    magnesium_mg INT DEFAULT 0,
+                    iron_mg DECIMAL(8,2) DEFAULT 0,
+                    zinc_mg DECIMAL(8,2) DEFAULT 0,
+                    vitamin_a_iu INT DEFAULT 0,
+                    vitamin_d_iu INT DEFAULT 0,
+                    vitamin_e_iu DECIMAL(8,2) DEFAULT 0,
+                    vitamin_k_mcg DECIMAL(8,2) DEFAULT 0,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    INDEX idx_name (name)
+                )
+                """,
+                """
+                CREATE TABLE IF NOT EXISTS food_logs (
+                    id INT PRIMARY KEY AUTO_INCREMENT,
+                    user_id INT,
+                    food_item_id INT,
+                    quantity INT NOT NULL,
+                    unit VARCHAR(20) DEFAULT 'grams',
+                    consumed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    meal_type ENUM('Breakfast', 'Lunch', 'Dinner', 'Snack') DEFAULT 'Snack',
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+                    FOREIGN KEY (food_item_id) REFERENCES food_items(id) ON DELETE CASCADE,
+                    INDEX idx_user_consumed (user_id, consumed_at),
+                    INDEX idx_user_date (user_id, consumed_at)
+                )
+                """,
+                """
+                CREATE TABLE IF NOT EXISTS admin_logs (
+                    id INT PRIMARY KEY AUTO_INCREMENT,
+                    admin_id INT NOT NULL,
+                    action_type ENUM('CREATE', 'UPDATE', 'DELETE') NOT NULL,
+                    target_table VARCHAR(50) NOT NULL,
+                    target_id INT,
+                    action_details TEXT,
+                    performed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    FOREIGN KEY (admin_id) REFERENCES users(id) ON DELETE CASCADE,
+                    INDEX idx_admin_date (admin_id, performed_at)
+                )
+                """),
+
+        new Migration(2, "Default administrator (admin@ecoeats.com / Admin@123)",
+                """
+                INSERT INTO users (full_name, email, age, gender, activity_level, password, role)
+                SELECT 'System Administrator', 'admin@ecoeats.com', 30, 'Other', 'Moderately Active',
+                       'e86f78a8a3caf0b60d8e74e5942aa6d86dc150cd3c03338aef25b7d2d7e3acc7', 'admin'
+                FROM DUAL
+                WHERE NOT EXISTS (SELECT 1 FROM users WHERE role = 'admin')
+                """),
+
+        new Migration(3, "Covering per-day food log index, drop duplicate indexes",
+                """
+                ALTER TABLE food_logs
+                    ADD INDEX idx_user_consumed_meal (user_id, consumed_at, food_item_id, quantity, meal_type, unit),
+                    DROP INDEX idx_user_consumed,
+                    DROP INDEX idx_user_date,
+                    ADD INDEX idx_consumed (consumed_at)
+                """,
+                """
+                ALTER TABLE daily_logs DROP INDEX idx_user_date
+                """,
+                """
+                ALTER TABLE admin_logs ADD INDEX idx_performed (performed_at)
+                """),
+
+        new Migration(4, "Sort indexes for the paginated admin user and food listings",
+                """
+                ALTER TABLE users
+                    ADD INDEX idx_created (created_at),
+                    ADD INDEX idx_full_name (full_name)
+                """,
+                """
+                ALTER TABLE food_items ADD INDEX idx_calories (calories)
+                """),
+
+        // Counters are spread over 16 slots per key so concurrent writers rarely wait on the
+        // same counter row; readers sum the slots. Foreign key cascades do not fire triggers,
+        // so MySqlNutritionStore adjusts the counters itself when a delete cascades.
+        // The backfill runs after the triggers and sets slot 0 to the row count minus what the
+        // other slots already hold, so rows the triggers counted meanwhile and a resumed re-run
+        // are not counted twice.
+        new Migration(5, "Trigger-maintained dashboard counters",
+                """
+                CREATE TABLE IF NOT EXISTS stats_totals (
+                    stat_key VARCHAR(32) NOT NULL,
+                    slot TINYINT NOT NULL,
+                    value BIGINT NOT NULL DEFAULT 0,
+                    PRIMARY KEY (stat_key, slot)
+                )
+                """,
+                """
+                CREATE TABLE IF NOT EXISTS stats_daily (
+                    stat_date DATE NOT NULL,
+                    stat_key VARCHAR(32) NOT NULL,
+                    slot TINYINT NOT NULL,
+                    value BIGINT NOT NULL DEFAULT 0,
+                    PRIMARY KEY (stat_date, stat_key, slot)
+                )
+                """,
+                """
+                CREATE TRIGGER users_stats_insert AFTER INSERT ON users FOR EACH ROW
+                INSERT INTO stats_totals (stat_key, slot, value) VALUES ('users', NEW.id % 16, NEW.role = 'user')
+                ON DUPLICATE KEY UPDATE value = value + VALUES(value)
+                """,
+                """
+                CREATE TRIGGER users_stats_update AFTER UPDATE ON users FOR EACH ROW
+                INSERT INTO stats_totals (stat_key, slot, value)
+                VALUES ('users', NEW.id % 16, (NEW.role = 'user') - (OLD.role = 'user'))
+                ON DUPLICATE KEY UPDATE value = value + VALUES(value)
+                """,
+                """
+                CREATE TRIGGER users_stats_delete AFTER DELETE ON users FOR EACH ROW
+                INSERT INTO stats_totals (stat_key, slot, value) VALUES ('users', OLD.id % 16, -(OLD.role = 'user'))
+                ON DUPLICATE KEY UPDATE value = value + VALUES(value)
+                """,
+                """
+                CREATE TRIGGER food_items_stats_insert AFTER INSERT ON food_items FOR EACH ROW
+                INSERT INTO stats_totals (stat_key, slot, value) VALUES ('foods', NEW.id % 16, 1)
+                ON DUPLICATE KEY UPDATE value = value + 1
+                """,
+                """
+                CREATE TRIGGER food_items_stats_delete AFTER DELETE ON food_items FOR EACH ROW
+                INSERT INTO stats_totals (stat_key, slot, value) VALUES ('foods', OLD.id % 16, -1)
+                ON DUPLICATE KEY UPDATE value = value - 1
+                """,
+                """
+                CREATE TRIGGER food_logs_stats_insert AFTER INSERT ON food_logs FOR EACH ROW
+                INSERT INTO stats_daily (stat_date, stat_key, slot, value)
+                VALUES (DATE(NEW.consumed_at), 'food_logs', NEW.id % 16, 1)
+                ON DUPLICATE KEY UPDATE value = value + 1
+                """,
+                """
+                CREATE TRIGGER food_logs_stats_update AFTER UPDATE ON food_logs FOR EACH ROW
+                BEGIN
+                    IF DATE(NEW.consumed_at) <> DATE(OLD.consumed_at) THEN
+                        INSERT INTO stats_daily (stat_date, stat_key, slot, value)
+                        VALUES (DATE(OLD.consumed_at), 'food_logs', OLD.id % 16, -1),
+                               (DATE(NEW.consumed_at), 'food_logs', NEW.id % 16, 1)
+                        ON DUPLICATE KEY UPDATE value = value + VALUES(value);
+                    END IF;
+                END
+                """,
+                """
+                CREATE TRIGGER food_logs_stats_delete AFTER DELETE ON food_logs FOR EACH ROW
+                INSERT INTO stats_daily (stat_date, stat_key, slot, value)
+                VALUES (DATE(OLD.consumed_at), 'food_logs', OLD.id % 16, -1)
+                ON DUPLICATE KEY UPDATE value = value - 1
+                """,
+                """
+                CREATE TRIGGER admin_logs_stats_insert AFTER INSERT ON admin_logs FOR EACH ROW
+                INSERT INTO stats_daily (stat_date, stat_key, slot, value)
+                VALUES (DATE(NEW.performed_at), 'admin_actions', NEW.id % 16, 1)
+                ON DUPLICATE KEY UPDATE value = value + 1
+                """,
+                """
+                CREATE TRIGGER admin_logs_stats_delete AFTER DELETE ON admin_logs FOR EACH ROW
+                INSERT INTO stats_daily (stat_date, stat_key, slot, value)
+                VALUES (DATE(OLD.performed_at), 'admin_actions', OLD.id % 16, -1)
+                ON DUPLICATE KEY UPDATE value = value - 1
+                """,
+                """
+                INSERT INTO stats_totals (stat_key, slot, value)
+                SELECT 'users', 0, COUNT(*) - (SELECT COALESCE(SUM(value), 0) FROM stats_totals
+                                               WHERE stat_key = 'users' AND slot <> 0)
+                FROM users WHERE role = 'user'
+                ON DUPLICATE KEY UPDATE value = VALUES(value)
+                """,
+                """
+                INSERT INTO stats_totals (stat_key, slot, value)
+                SELECT 'foods', 0, COUNT(*) - (SELECT COALESCE(SUM(value), 0) FROM stats_totals
+                                               WHERE stat_key = 'foods' AND slot <> 0)
+                FROM food_items
+                ON DUPLICATE KEY UPDATE value = VALUES(value)
+                """,
+                """
+                INSERT INTO stats_daily (stat_date, stat_key, slot, value)
+                SELECT d.stat_date, 'food_logs', 0, d.n - COALESCE((SELECT SUM(s.value) FROM stats_daily s
+                        WHERE s.stat_date = d.stat_date AND s.stat_key = 'food_logs' AND s.slot <> 0), 0)
+                FROM (SELECT DATE(consumed_at) AS stat_date, COUNT(*) AS n FROM food_logs
+                      GROUP BY DATE(consumed_at)) d
+                ON DUPLICATE KEY UPDATE value = VALUES(value)
+                """,
+                """
+                INSERT INTO stats_daily (stat_date, stat_key, slot, value)
+                SELECT d.stat_date, 'admin_actions', 0, d.n - COALESCE((SELECT SUM(s.value) FROM stats_daily s
+                        WHERE s.stat_date = d.stat_date AND s.stat_key = 'admin_actions' AND s.slot <> 0), 0)
+                FROM (SELECT DATE(performed_at) AS stat_date, COUNT(*) AS n FROM admin_logs
+                      GROUP BY DATE(performed_at)) d
+                ON DUPLICATE KEY UPDATE value = VALUES(value)
+                """),
+
+        // One row per user and week (from Monday) or month with the sum, min, max and days at or
+        // above goal of every nutrient. The daily_logs triggers apply each change as a delta.
+        // Sums, day counts and days at goal stay exact. A lowered value, a raised minimum or a
+        // deleted day can leave min/max too wide, and a goal change makes the days at goal out of
+        // date; such rows are flagged stale and recomputed by MySqlNutritionStore.repairRollups.
+        new Migration(6, "Trigger-maintained weekly and monthly nutrition rollups",
+                rollupTableSql(),
+                "CREATE TRIGGER daily_logs_rollup_insert AFTER INSERT ON daily_logs FOR EACH ROW\n"
+                        + rollupAddSql("NEW"),
+                "CREATE TRIGGER daily_logs_rollup_update AFTER UPDATE ON daily_logs FOR EACH ROW\n"
+                        + "BEGIN\n"
+                        + "IF NEW.user_id <=> OLD.user_id AND NEW.log_date <=> OLD.log_date THEN\n"
+                        + rollupMarkStaleSql() + ";\n"
+                        + rollupChangeSql() + ";\n"
+                        + "ELSE\n"
+                        + rollupRemoveSql("OLD") + ";\n"
+                        + rollupAddSql("NEW") + ";\n"
+                        + "END IF;\n"
+                        + "END",
+                "CREATE TRIGGER daily_logs_rollup_delete AFTER DELETE ON daily_logs FOR EACH ROW\n"
+                        + rollupRemoveSql("OLD"),
+                """
+                CREATE TRIGGER user_goals_rollup_insert AFTER INSERT ON user_goals FOR EACH ROW
+                UPDATE nutrition_rollups SET stale = TRUE WHERE user_id = NEW.user_id
+                """,
+                """
+                CREATE TRIGGER user_goals_rollup_update AFTER UPDATE ON user_goals FOR EACH ROW
+                UPDATE nutrition_rollups SET stale = TRUE WHERE user_id IN (NEW.user_id, OLD.user_id)
+                """,
+                rollupBackfillSql("week"),
+                rollupBackfillSql("month"))
+    );
+
+    /**
+     * Brings the schema up to date. When it already is, this costs one query.
+     * Returns false if the database could not be migrated.
+     */
+    public static boolean migrate(Connection conn) {
+        try {
+            Map<Integer, String> applied = readHistory(conn);
+            if (applied != null && isCurrent(applied)) {
+                return true;
+            }
+            return migrateLocked(conn);
+        } catch (SQLException e) {
+            System.err.println("Schema migration error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    // version -> checksum, or null when the history table does not exist yet
+    private static Map<Integer, String> readHistory(Connection conn) throws SQLException {
+        Map<Integer, String> applied = new TreeMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getString(2));
+            }
+            return applied;
+        } catch (SQLException e) {
+            if ("42S02".equals(e.getSQLState())) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isCurrent(Map<Integer, String> applied) {
+        if (applied.size() != MIGRATIONS.size()) {
+            return false;
+        }
+        for (Migration migration : MIGRATIONS) {
+            if (!migration.checksum.equals(applied.get(migration.version))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean migrateLocked(Connection conn) throws SQLException {
+        // Serialise concurrent first launches against the same database
+        try (PreparedStatement lock = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            lock.setString(1, LOCK_NAME);
+            lock.setInt(2, LOCK_TIMEOUT_SECONDS);
+            ResultSet rs = lock.executeQuery();
+            if (!rs.next() || rs.getInt(1) != 1) {
+                System.err.println("Schema migration error: could not acquire migration lock");
+                return false;
+            }
+        }
+
+        try {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS schema_version (
+                        version INT PRIMARY KEY,
+                        description VARCHAR(200) NOT NULL,
+                        checksum CHAR(64) NOT NULL,
+                        installed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                        execution_ms INT NOT NULL
+                    )
+                """);
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS schema_version_progress (
+                        version INT PRIMARY KEY,
+                        checksum CHAR(64) NOT NULL,
+                        statements_done INT NOT NULL
+                    )
+                """);
+            }
+
+            // Re-read under the lock: another instance may have migrated while we waited
+            Map<Integer, String> applied = readHistory(conn);
+            for (Migration migration : MIGRATIONS) {
+                String checksum = applied.get(migration.version);
+                if (checksum == null) {
+                    apply(conn, migration);
+                } else if (!checksum.equals(migration.checksum)) {
+                    System.err.println("Schema migration error: checksum mismatch for V" + migration.version
+                            + " (" + migration.description + "); the applied migration was modified");
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            try (PreparedStatement unlock = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                unlock.setString(1, LOCK_NAME);
+                unlock.executeQuery();
+            }
+        }
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        // DDL commits implicitly, so a failed run leaves the earlier statements applied. Each
+        // completed statement is recorded and a re-run skips it instead of failing on it.
+        int done = readProgress(conn, migration);
+        if (done > 0) {
+            System.out.println("Resuming schema migration V" + migration.version + " at statement " + (done + 1)
+                    + " of " + migration.statements.length);
+        }
+
+        long start = System.nanoTime();
+        try (Statement stmt = conn.createStatement();
+             PreparedStatement progress = conn.prepareStatement(
+                     "INSERT INTO schema_version_progress (version, checksum, statements_done) VALUES (?, ?, ?) "
+                             + "ON DUPLICATE KEY UPDATE checksum = VALUES(checksum), statements_done = VALUES(statements_done)")) {
+            for (int i = done; i < migration.statements.length; i++) {
+                stmt.execute(migration.statements[i]);
+                progress.setInt(1, migration.version);
+                progress.setString(2, migration.checksum);
+                progress.setInt(3, i + 1);
+                progress.executeUpdate();
+            }
+        }
+        int elapsedMs = (int) ((System.nanoTime() - start) / 1_000_000);
+
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO schema_version (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)")) {
+            pstmt.setInt(1, migration.version);
+            pstmt.setString(2, migration.description);
+            pstmt.setString(3, migration.checksum);
+            pstmt.setInt(4, elapsedMs);
+            pstmt.executeUpdate();
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM schema_version_progress WHERE version = ?")) {
+            pstmt.setInt(1, migration.version);
+            pstmt.executeUpdate();
+        }
+        System.out.println("Applied schema migration V" + migration.version + ": " + migration.description
+                + " (" + elapsedMs + " ms)");
+    }
+
+    // Statements of this migration already applied by an earlier, failed run
+    private static int readProgress(Connection conn, Migration migration) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT checksum, statements_done FROM schema_version_progress WHERE version = ?")) {
+            pstmt.setInt(1, migration.version);
+            ResultSet rs = pstmt.executeQuery();
+            if (!rs.next()) {
+                return 0;
+            }
+            if (!migration.checksum.equals(rs.getString(1))) {
+                throw new SQLException("V" + migration.version + " (" + migration.description
+                        + ") was modified after it partially applied; restore the database or the migration");
+            }
+            return Math.min(rs.getInt(2), migration.statements.length);
+        }
+    }
+
+    private static String checksum(String[] statements) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            for (String sql : statements) {
+                md.update(sql.strip().getBytes(StandardCharsets.UTF_8));
+                md.update((byte) 0);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : md.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ==================== V6 ROLLUP STATEMENTS ====================
+
+    private static String rollupTableSql() {
+        StringBuilder sql = new StringBuilder("CREATE TABLE IF NOT EXISTS nutrition_rollups (\n"
+                + "    user_id INT NOT NULL,\n"
+                + "    period ENUM('week', 'month') NOT NULL,\n"
+                + "    period_start DATE NOT NULL,\n"
+                + "    days INT NOT NULL DEFAULT 0,\n"
+                + "    stale BOOLEAN NOT NULL DEFAULT FALSE,\n");
+        for (String c : ROLLUP_NUTRIENTS) {
+            sql.append("    ").append(c).append("_sum BIGINT NOT NULL DEFAULT 0, ")
+                    .append(c).append("_min INT NOT NULL DEFAULT 0, ")
+                    .append(c).append("_max INT NOT NULL DEFAULT 0, ")
+                    .append(c).append("_met INT NOT NULL DEFAULT 0,\n");
+        }
+        return sql.append("    PRIMARY KEY (user_id, period, period_start),\n"
+                + "    INDEX idx_stale (stale),\n"
+                + "    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE\n"
+                + ")").toString();
+    }
+
+    private static String weekStart(String date) {
+        return "DATE_SUB(" + date + ", INTERVAL WEEKDAY(" + date + ") DAY)";
+    }
+
+    private static String monthStart(String date) {
+        return "DATE_SUB(" + date + ", INTERVAL DAYOFMONTH(" + date + ") - 1 DAY)";
+    }
+
+    // The week and month rows of rollup alias r that the daily_logs row (NEW or OLD) belongs to
+    private static String rollupRowsOf(String r, String row) {
+        return "(" + r + "period = 'week' AND " + r + "period_start = " + weekStart(row + ".log_date") + " OR "
+                + r + "period = 'month' AND " + r + "period_start = " + monthStart(row + ".log_date") + ")";
+    }
+
+    private static String rollupColumns() {
+        StringBuilder columns = new StringBuilder("user_id, period, period_start, days");
+        for (String c : ROLLUP_NUTRIENTS) {
+            columns.append(", ").append(c).append("_sum, ").append(c).append("_min, ")
+                    .append(c).append("_max, ").append(c).append("_met");
+        }
+        return columns.toString();
+    }
+
+    // Adds one day to its week and month, creating the rows on first use
+    private static String rollupAddSql(String row) {
+        StringBuilder select = new StringBuilder("SELECT " + row + ".user_id, p.period, IF(p.period = 'week', "
+                + weekStart(row + ".log_date") + ", " + monthStart(row + ".log_date") + "), 1");
+        StringBuilder update = new StringBuilder("days = days + 1");
+        for (String c : ROLLUP_NUTRIENTS) {
+            String value = row + "." + c;
+            select.append(", ").append(value).append(", ").append(value).append(", ").append(value)
+                    .append(", COALESCE(").append(value).append(" >= g.").append(c).append(", 0)");
+            update.append(", ").append(c).append("_sum = ").append(c).append("_sum + VALUES(").append(c).append("_sum)")
+                    .append(", ").append(c).append("_min = LEAST(").append(c).append("_min, VALUES(").append(c).append("_min))")
+                    .append(", ").append(c).append("_max = GREATEST(").append(c).append("_max, VALUES(").append(c).append("_max))")
+                    .append(", ").append(c).append("_met = ").append(c).append("_met + VALUES(").append(c).append("_met)");
+        }
+        return "INSERT INTO nutrition_rollups (" + rollupColumns() + ")\n"
+                + select + "\nFROM (SELECT 'week' AS period UNION ALL SELECT 'month') p"
+                + " LEFT JOIN user_goals g ON g.user_id = " + row + ".user_id"
+                + "\nWHERE " + row + ".user_id IS NOT NULL"
+                + "\nON DUPLICATE KEY UPDATE " + update;
+    }
+
+    // Takes one day off its week and month; the extremes may have been that day's
+    private static String rollupRemoveSql(String row) {
+        StringBuilder set = new StringBuilder("r.days = r.days - 1, r.stale = TRUE");
+        for (String c : ROLLUP_NUTRIENTS) {
+            set.append(", r.").append(c).append("_sum = r.").append(c).append("_sum - ").append(row).append(".").append(c)
+                    .append(", r.").append(c).append("_met = r.").append(c).append("_met - COALESCE(")
+                    .append(row).append(".").append(c).append(" >= g.").append(c).append(", 0)");
+        }
+        return "UPDATE nutrition_rollups r LEFT JOIN user_goals g ON g.user_id = " + row + ".user_id"
+                + "\nSET " + set
+                + "\nWHERE r.user_id = " + row + ".user_id AND " + rollupRowsOf("r.", row);
+    }
+
+    // Runs before rollupChangeSql: flags rows whose min or max was this day's old value and moved away
+    private static String rollupMarkStaleSql() {
+        StringBuilder moved = new StringBuilder();
+        for (String c : ROLLUP_NUTRIENTS) {
+            moved.append(moved.length() == 0 ? "" : " OR ")
+                    .append("NEW.").append(c).append(" > OLD.").append(c).append(" AND ").append(c).append("_min = OLD.").append(c)
+                    .append(" OR NEW.").append(c).append(" < OLD.").append(c).append(" AND ").append(c).append("_max = OLD.").append(c);
+        }
+        return "UPDATE nutrition_rollups SET stale = TRUE"
+                + "\nWHERE user_id = NEW.user_id AND " + rollupRowsOf("", "NEW") + " AND (" + moved + ")";
+    }
+
+    private static String rollupChangeSql() {
+        StringBuilder set = new StringBuilder();
+        for (String c : ROLLUP_NUTRIENTS) {
+            set.append(set.length() == 0 ? "" : ", ")
+                    .append("r.").append(c).append("_sum = r.").append(c).append("_sum + NEW.").append(c).append(" - OLD.").append(c)
+                    .append(", r.").append(c).append("_min = LEAST(r.").append(c).append("_min, NEW.").append(c).append(")")
+                    .append(", r.").append(c).append("_max = GREATEST(r.").append(c).append("_max, NEW.").append(c).append(")")
+                    .append(", r.").append(c).append("_met = r.").append(c).append("_met + COALESCE(NEW.").append(c)
+                    .append(" >= g.").append(c).append(", 0) - COALESCE(OLD.").append(c).append(" >= g.").append(c).append(", 0)");
+        }
+        return "UPDATE nutrition_rollups r LEFT JOIN user_goals g ON g.user_id = NEW.user_id"
+                + "\nSET " + set
+                + "\nWHERE r.user_id = NEW.user_id AND " + rollupRowsOf("r.", "NEW");
+    }
+
+    // Runs after the triggers exist and overwrites rather than adds, so rows touched in between end up exact
+    private static String rollupBackfillSql(String period) {
+        String start = "week".equals(period) ? weekStart("d.log_date") : monthStart("d.log_date");
+        StringBuilder select = new StringBuilder("SELECT d.user_id, '" + period + "', " + start + " AS bucket_start, COUNT(*)");
+        StringBuilder update = new StringBuilder("days = VALUES(days), stale = FALSE");
+        for (String c : ROLLUP_NUTRIENTS) {
+            select.append(", SUM(d.").append(c).append("), MIN(d.").append(c).append("), MAX(d.").append(c)
+                    .append("), SUM(COALESCE(d.").append(c).append(" >= g.").append(c).append(", 0))");
+            for (String part : new String[]{"_sum", "_min", "_max", "_met"}) {
+                update.append(", ").append(c).append(part).append(" = VALUES(").append(c).append(part).append(")");
+            }
+        }
+        return "INSERT INTO nutrition_rollups (" + rollupColumns() + ")\n"
+                + select + "\nFROM daily_logs d LEFT JOIN user_goals g ON g.user_id = d.user_id"
+                + "\nWHERE d.user_id IS NOT NULL GROUP BY d.user_id, bucket_start"
+                + "\nON DUPLICATE KEY UPDATE " + update;
+    }
+
+    // Inner classes
+    private static class Migration {
+        final int version;
+        final String description;
+        final String[] statements;
+        final String checksum;
+
+        Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+            this.checksum = checksum(statements);
+        }
+    }
+}
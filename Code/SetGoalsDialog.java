@@ -175,20 +175,26 @@ public class SetGoalsDialog extends JDialog {
                 return;
             }
 
-            boolean success = DatabaseHelper.updateUserGoals(goals);
-
-            if (success) {
-                JOptionPane.showMessageDialog(this,
-                        "Nutrition goals updated successfully!",
-                        "Success",
-                        JOptionPane.INFORMATION_MESSAGE);
-                dispose();
-            } else {
-                JOptionPane.showMessageDialog(this,
-                        "Failed to update goals. Please try again.",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            saveButton.setEnabled(false);
+            AsyncDatabaseHelper.updateUserGoals(goals).whenCompleteAsync((success, error) -> {
+                saveButton.setEnabled(true);
+                if (error == null && Boolean.TRUE.equals(success)) {
+                    ChangeBus.publish(new ChangeBus.GoalsChanged(goals));
+                    JOptionPane.showMessageDialog(this,
+                            "Nutrition goals updated successfully!",
+                            "Success",
+                            JOptionPane.INFORMATION_MESSAGE);
+                    dispose();
+                } else {
+                    if (error != null) {
+                        System.err.println("Update goals error: " + error.getMessage());
+                    }
+                    JOptionPane.showMessageDialog(this,
+                            "Failed to update goals. Please try again.",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }, AsyncDatabaseHelper.EDT);
 
         } catch (NumberFormatException e) {
             JOptionPane.showMessageDialog(this,
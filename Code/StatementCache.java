@@ -0,0 +1,78 @@
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statement Cache - Per-connection prepared statement cache keyed by SQL text
+ * Version: 1.0
+ * Features: LRU eviction, Check-out/check-in of idle statements, Shared hit/miss counters
+ *
+ * A statement is removed from the cache while it is in use and put back when the caller
+ * closes it, so two users of the same SQL on one connection never share a statement.
+ */
+public class StatementCache {
+    private final int capacity;
+    private final Counters counters;
+    private final LinkedHashMap<String, PreparedStatement> idle;
+
+    public StatementCache(int capacity, Counters counters) {
+        this.capacity = capacity;
+        this.counters = counters;
+        this.idle = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public static String key(String sql, int autoGeneratedKeys) {
+        return autoGeneratedKeys == java.sql.Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+    }
+
+    public synchronized PreparedStatement take(String key) {
+        PreparedStatement statement = idle.remove(key);
+        if (statement != null) {
+            counters.hits.incrementAndGet();
+        } else {
+            counters.misses.incrementAndGet();
+        }
+        return statement;
+    }
+
+    public synchronized void put(String key, PreparedStatement statement) {
+        if (capacity <= 0 || idle.containsKey(key)) {
+            closeQuietly(statement);
+            return;
+        }
+        idle.put(key, statement);
+        if (idle.size() > capacity) {
+            Iterator<PreparedStatement> eldest = idle.values().iterator();
+            closeQuietly(eldest.next());
+            eldest.remove();
+            counters.evictions.incrementAndGet();
+        }
+    }
+
+    public synchronized void clear() {
+        for (PreparedStatement statement : idle.values()) {
+            closeQuietly(statement);
+        }
+        idle.clear();
+    }
+
+    public synchronized int size() {
+        return idle.size();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // Statement or connection already gone
+        }
+    }
+
+    // Inner classes
+    public static class Counters {
+        public final AtomicLong hits = new AtomicLong();
+        public final AtomicLong misses = new AtomicLong();
+        public final AtomicLong evictions = new AtomicLong();
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * User Session - The logged-in user, their goals and today's log
+ * Version: 1.0
+ * Features: Filled by one authenticate round trip, Shared by the Dashboard and its panels,
+ *           Goals and today's log kept current from ChangeBus events
+ *
+ * Login reads the user, goals and today's log together (DatabaseHelper.authenticate), so the
+ * Dashboard opens without further queries. Panels read from the session rather than loading
+ * the same rows again. On a ChangeBus meal event the Dashboard reloads today's log and stores it
+ * with setTodayLog; on a goals event it stores the new goals with setGoals. Every holder of the
+ * session sees the new values.
+ */
+public class UserSession {
+    private final DatabaseHelper.UserData user;
+    private volatile DatabaseHelper.NutritionGoals goals;
+    private volatile DatabaseHelper.DailyLog todayLog;
+
+    public UserSession(DatabaseHelper.UserData user, DatabaseHelper.NutritionGoals goals, DatabaseHelper.DailyLog todayLog) {
+        this.user = user;
+        update(goals, todayLog);
+    }
+
+    private void update(DatabaseHelper.NutritionGoals goals, DatabaseHelper.DailyLog todayLog) {
+        if (goals == null) {
+            // No goals row yet: show zero targets rather than failing
+            goals = new DatabaseHelper.NutritionGoals();
+            goals.userId = user.id;
+        }
+        this.goals = goals;
+        this.todayLog = todayLog;
+    }
+
+    public DatabaseHelper.UserData getUser() {
+        return user;
+    }
+
+    public boolean isAdmin() {
+        return "admin".equals(user.role);
+    }
+
+    public DatabaseHelper.NutritionGoals getGoals() {
+        return goals;
+    }
+
+    public DatabaseHelper.DailyLog getTodayLog() {
+        return todayLog;
+    }
+
+    public void setGoals(DatabaseHelper.NutritionGoals goals) {
+        update(goals, todayLog);
+    }
+
+    public void setTodayLog(DatabaseHelper.DailyLog todayLog) {
+        this.todayLog = todayLog;
+    }
+}